@@ -0,0 +1,82 @@
+package com.denizcan.paymentorchestration.benchmark;
+
+import com.denizcan.paymentorchestration.dto.PaymentRequest;
+import com.denizcan.paymentorchestration.dto.WebhookRequest;
+import com.denizcan.paymentorchestration.model.Currency;
+import com.denizcan.paymentorchestration.model.Money;
+import com.denizcan.paymentorchestration.model.Payment;
+import com.denizcan.paymentorchestration.model.PaymentProvider;
+import com.denizcan.paymentorchestration.model.PaymentStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+// İstek/yanıt gövdelerinin Jackson ile (de)serileştirilmesi. ObjectMapper, Spring Boot'un
+// kullandığı builder ile aynı modüllerle kurulur.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonBenchmark {
+
+    private ObjectMapper objectMapper;
+    private Payment payment;
+    private byte[] paymentJson;
+    private byte[] paymentRequestJson;
+    private byte[] webhookRequestJson;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        payment = Payment.builder()
+            .id("0b6f4a3e-1d7c-4a8e-9d6b-2f4c8e1a7b90")
+            .amount(Money.of("149.90", Currency.TRY))
+            .status(PaymentStatus.COMPLETED)
+            .provider(PaymentProvider.PARAM)
+            .description("Benchmark ödemesi")
+            .version(3L)
+            .createdAt(Instant.parse("2026-01-01T10:15:30.123456Z"))
+            .build();
+        paymentJson = objectMapper.writeValueAsBytes(payment);
+
+        paymentRequestJson = objectMapper.writeValueAsBytes(PaymentRequest.builder()
+            .amount(Money.of("149.90", Currency.TRY))
+            .provider(PaymentProvider.PARAM)
+            .description("Benchmark ödemesi")
+            .build());
+
+        WebhookRequest webhook = new WebhookRequest();
+        webhook.setPaymentId(payment.getId());
+        webhook.setStatus("SUCCESS");
+        webhook.setProviderTransactionId("PRM-20260101-000042");
+        webhook.setAmount(Money.of("149.90", Currency.TRY));
+        webhookRequestJson = objectMapper.writeValueAsBytes(webhook);
+    }
+
+    @Benchmark
+    public byte[] serializePayment() throws IOException {
+        return objectMapper.writeValueAsBytes(payment);
+    }
+
+    @Benchmark
+    public Payment deserializePayment() throws IOException {
+        return objectMapper.readValue(paymentJson, Payment.class);
+    }
+
+    @Benchmark
+    public PaymentRequest deserializePaymentRequest() throws IOException {
+        return objectMapper.readValue(paymentRequestJson, PaymentRequest.class);
+    }
+
+    @Benchmark
+    public WebhookRequest deserializeWebhookRequest() throws IOException {
+        return objectMapper.readValue(webhookRequestJson, WebhookRequest.class);
+    }
+}
@@ -0,0 +1,76 @@
+package com.denizcan.paymentorchestration.benchmark;
+
+import com.denizcan.paymentorchestration.model.Currency;
+import com.denizcan.paymentorchestration.model.Money;
+import com.denizcan.paymentorchestration.model.Payment;
+import com.denizcan.paymentorchestration.model.PaymentProvider;
+import com.denizcan.paymentorchestration.model.PaymentStatus;
+import com.denizcan.paymentorchestration.service.PaymentMetrics;
+import com.denizcan.paymentorchestration.service.PaymentMetrics.ProviderOperation;
+import com.denizcan.paymentorchestration.service.PaymentMetrics.ProviderOutcome;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Her sağlayıcı çağrısına ve durum geçişine eklenen ölçüm maliyeti, üretimdeki Prometheus
+// registry'si ve histogramlarla. baseline yalnızca süre ölçümünü (iki nanoTime) içerir.
+// Bütçe: kayıt başına baseline'ın en fazla 250 ns üstü ve -Djmh.args="-prof gc" ile
+// gc.alloc.rate.norm 0 B/op. En hızlı simüle sağlayıcı çağrısı bile milisaniye mertebesinde
+// olduğundan bu, çağrı süresinin binde birinin altında kalır.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MetricsOverheadBenchmark {
+
+    private static final PaymentProvider[] PROVIDERS = PaymentProvider.values();
+    private static final Currency[] CURRENCIES = Currency.values();
+
+    private PaymentMetrics metrics;
+    private Payment[] payments;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        metrics = new PaymentMetrics(new PrometheusMeterRegistry(PrometheusConfig.DEFAULT));
+        payments = new Payment[PROVIDERS.length * CURRENCIES.length];
+        for (int i = 0; i < payments.length; i++) {
+            payments[i] = Payment.builder()
+                .provider(PROVIDERS[i % PROVIDERS.length])
+                .amount(Money.of("100.00", CURRENCIES[i / PROVIDERS.length]))
+                .build();
+        }
+    }
+
+    private Payment nextPayment() {
+        Payment payment = payments[cursor];
+        cursor = cursor + 1 == payments.length ? 0 : cursor + 1;
+        return payment;
+    }
+
+    @Benchmark
+    public long baseline() {
+        long start = System.nanoTime();
+        Payment payment = nextPayment();
+        return System.nanoTime() - start + payment.getAmount().minorUnits();
+    }
+
+    @Benchmark
+    public void recordProviderCall() {
+        long start = System.nanoTime();
+        Payment payment = nextPayment();
+        metrics.recordProviderCall(ProviderOperation.PROCESS, payment.getProvider(), payment.getAmount().currency(),
+            ProviderOutcome.APPROVED, System.nanoTime() - start);
+    }
+
+    @Benchmark
+    public void recordTransition() {
+        long start = System.nanoTime();
+        Payment payment = nextPayment();
+        metrics.recordTransition(PaymentStatus.COMPLETED, payment, true, System.nanoTime() - start);
+    }
+}
@@ -0,0 +1,79 @@
+package com.denizcan.paymentorchestration.benchmark;
+
+import com.denizcan.paymentorchestration.model.Currency;
+import com.denizcan.paymentorchestration.model.Money;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Sıcak yoldaki tutar işlemleri: eski BigDecimal + String para birimi yolu ile Money karşılaştırılır.
+// validate: tutar > 0 ve desteklenen para birimi kontrolü; refundable: iade edilebilir kalan tutar
+// hesabı ve sınır kontrolü. Money yolunda -Djmh.args="-prof gc" ile gc.alloc.rate.norm 0 B/op olmalı.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MoneyBenchmark {
+
+    private static final String[] CODES = {"TRY", "USD", "EUR"};
+    private static final int SIZE = 1024;
+
+    private final BigDecimal[] decimalAmounts = new BigDecimal[SIZE];
+    private final BigDecimal[] decimalRefunded = new BigDecimal[SIZE];
+    private final String[] currencyCodes = new String[SIZE];
+    private final Money[] amounts = new Money[SIZE];
+    private final Money[] refunded = new Money[SIZE];
+    private final Money requested = Money.of("10.00", Currency.TRY);
+    private final BigDecimal decimalRequested = new BigDecimal("10.00");
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < SIZE; i++) {
+            long minor = 1_000 + i * 37L;
+            decimalAmounts[i] = BigDecimal.valueOf(minor, 2);
+            decimalRefunded[i] = BigDecimal.valueOf(minor / 3, 2);
+            currencyCodes[i] = new String(CODES[i % CODES.length]);
+            // İade testinde para birimi aynı olsun diye hepsi TRY
+            amounts[i] = Money.ofMinor(minor, Currency.TRY);
+            refunded[i] = Money.ofMinor(minor / 3, Currency.TRY);
+        }
+    }
+
+    private int next() {
+        int index = cursor;
+        cursor = (index + 1) & (SIZE - 1);
+        return index;
+    }
+
+    @Benchmark
+    public boolean validateLegacy() {
+        int i = next();
+        return decimalAmounts[i].compareTo(BigDecimal.ZERO) > 0
+            && currencyCodes[i] != null && !currencyCodes[i].trim().isEmpty()
+            && List.of("TRY", "USD", "EUR").contains(currencyCodes[i]);
+    }
+
+    @Benchmark
+    public boolean validateMoney() {
+        int i = next();
+        return amounts[i].isPositive() && Currency.fromCode(currencyCodes[i]) != null;
+    }
+
+    @Benchmark
+    public boolean refundableLegacy() {
+        int i = next();
+        BigDecimal remaining = decimalAmounts[i].subtract(decimalRefunded[i]);
+        return decimalRequested.compareTo(remaining) <= 0;
+    }
+
+    @Benchmark
+    public boolean refundableMoney() {
+        int i = next();
+        return !requested.isGreaterThan(amounts[i].minus(refunded[i]));
+    }
+}
@@ -0,0 +1,80 @@
+package com.denizcan.paymentorchestration.benchmark;
+
+import com.denizcan.paymentorchestration.dto.PaymentRequest;
+import com.denizcan.paymentorchestration.exception.PaymentValidationException;
+import com.denizcan.paymentorchestration.model.Currency;
+import com.denizcan.paymentorchestration.model.Money;
+import com.denizcan.paymentorchestration.model.Payment;
+import com.denizcan.paymentorchestration.model.PaymentProvider;
+import com.denizcan.paymentorchestration.repository.PaymentRepository;
+import com.denizcan.paymentorchestration.service.PaymentService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+// PaymentService.createPayment'ın veritabanı dışındaki maliyeti: istekten entity üretimi,
+// doğrulama, uzlaşma tutarının kurla hesaplanması ve önbelleğe yazma. Repository, kaydı olduğu gibi dönen bir sahte ile değiştirilir.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PaymentCreationBenchmark {
+
+    private PaymentServiceFixture fixture;
+    private PaymentService paymentService;
+    private PaymentRequest validRequest;
+    private PaymentRequest zeroAmountRequest;
+
+    @Setup
+    public void setUp() throws IOException {
+        long[] sequence = new long[1];
+        PaymentRepository repository = (PaymentRepository) Proxy.newProxyInstance(
+            PaymentRepository.class.getClassLoader(),
+            new Class<?>[]{PaymentRepository.class},
+            (proxy, method, args) -> {
+                if (method.getName().equals("save")) {
+                    Payment payment = (Payment) args[0];
+                    payment.setId(Long.toString(sequence[0]++));
+                    return payment;
+                }
+                throw new UnsupportedOperationException(method.getName());
+            });
+
+        fixture = new PaymentServiceFixture(repository);
+        paymentService = fixture.paymentService();
+
+        validRequest = PaymentRequest.builder()
+            .amount(Money.of("149.90", Currency.USD))
+            .provider(PaymentProvider.PARAM)
+            .description("Benchmark ödemesi")
+            .build();
+        zeroAmountRequest = PaymentRequest.builder()
+            .amount(Money.zero(Currency.TRY))
+            .provider(PaymentProvider.PARAM)
+            .build();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        fixture.close();
+    }
+
+    @Benchmark
+    public Payment createPayment() {
+        return paymentService.createPayment(validRequest);
+    }
+
+    @Benchmark
+    public void createPayment_Rejected(Blackhole blackhole) {
+        try {
+            blackhole.consume(paymentService.createPayment(zeroAmountRequest));
+        } catch (PaymentValidationException e) {
+            blackhole.consume(e);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.denizcan.paymentorchestration.benchmark;
+
+import com.denizcan.paymentorchestration.PaymentOrchestrationApplication;
+import com.denizcan.paymentorchestration.model.Currency;
+import com.denizcan.paymentorchestration.model.Money;
+import com.denizcan.paymentorchestration.model.Payment;
+import com.denizcan.paymentorchestration.model.PaymentProvider;
+import com.denizcan.paymentorchestration.model.PaymentStatus;
+import com.denizcan.paymentorchestration.repository.PaymentRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// H2 üzerinde repository kayıt ve okuma maliyeti. Uygulama web sunucusu olmadan,
+// ölçüm sırasında SQL loglanmayacak şekilde ayağa kaldırılır.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PaymentRepositoryBenchmark {
+
+    private static final int SEEDED_PAYMENTS = 10_000;
+
+    private ConfigurableApplicationContext context;
+    private PaymentRepository repository;
+    private List<String> ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(PaymentOrchestrationApplication.class)
+            .web(WebApplicationType.NONE)
+            .run(
+                "--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN");
+        repository = context.getBean(PaymentRepository.class);
+
+        List<Payment> payments = new ArrayList<>(SEEDED_PAYMENTS);
+        for (int i = 0; i < SEEDED_PAYMENTS; i++) {
+            payments.add(newPayment());
+        }
+        ids = repository.saveAll(payments).stream().map(Payment::getId).toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private static Payment newPayment() {
+        return Payment.builder()
+            .amount(Money.of("149.90", Currency.TRY))
+            .provider(PaymentProvider.PARAM)
+            .status(PaymentStatus.PENDING)
+            .build();
+    }
+
+    @Benchmark
+    public Payment save() {
+        return repository.save(newPayment());
+    }
+
+    @Benchmark
+    public Payment findById() {
+        String id = ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+        return repository.findById(id).orElseThrow();
+    }
+}
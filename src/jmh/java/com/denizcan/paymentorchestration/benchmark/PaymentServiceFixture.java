@@ -0,0 +1,94 @@
+package com.denizcan.paymentorchestration.benchmark;
+
+import com.denizcan.paymentorchestration.config.ArchiveProperties;
+import com.denizcan.paymentorchestration.config.FxProperties;
+import com.denizcan.paymentorchestration.config.ProviderProperties;
+import com.denizcan.paymentorchestration.config.RoutingProperties;
+import com.denizcan.paymentorchestration.factory.PaymentProviderFactory;
+import com.denizcan.paymentorchestration.factory.ProviderRouter;
+import com.denizcan.paymentorchestration.repository.PaymentRepository;
+import com.denizcan.paymentorchestration.service.AsyncPaymentService;
+import com.denizcan.paymentorchestration.service.JpaPaymentTransitions;
+import com.denizcan.paymentorchestration.service.PaymentCache;
+import com.denizcan.paymentorchestration.service.PaymentMetrics;
+import com.denizcan.paymentorchestration.service.PaymentService;
+import com.denizcan.paymentorchestration.service.PaymentStateMachine;
+import com.denizcan.paymentorchestration.service.archive.PaymentArchive;
+import com.denizcan.paymentorchestration.service.fx.FxService;
+import com.denizcan.paymentorchestration.service.fx.StubFxRateSource;
+import com.denizcan.paymentorchestration.service.inflight.InFlightIndex;
+import com.denizcan.paymentorchestration.service.provider.ProviderCallTimeout;
+import com.denizcan.paymentorchestration.service.provider.ProviderCircuitBreaker;
+import com.denizcan.paymentorchestration.service.provider.ProviderConcurrencyLimiter;
+import com.denizcan.paymentorchestration.service.provider.ProviderRetryBudget;
+import com.denizcan.paymentorchestration.service.provider.ProviderRetryExecutor;
+import com.denizcan.paymentorchestration.service.provider.ProviderStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+// PaymentService'i Spring olmadan, uygulamadaki gerçek bileşenlerle kurar. Sağlayıcı
+// kaydedilmez; dosya kullanan bileşenler geçici bir dizinde açılır ve close() ile silinir.
+class PaymentServiceFixture implements AutoCloseable {
+
+    private final Path dir;
+    private final InFlightIndex inFlightIndex;
+    private final PaymentService paymentService;
+
+    PaymentServiceFixture(PaymentRepository repository) throws IOException {
+        dir = Files.createTempDirectory("payment-benchmark");
+        Clock clock = Clock.systemUTC();
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        ProviderProperties providerProperties = new ProviderProperties();
+        ProviderStats providerStats = new ProviderStats(new RoutingProperties(), clock);
+        ProviderCircuitBreaker circuitBreaker = new ProviderCircuitBreaker(providerProperties, clock, meterRegistry);
+        ProviderConcurrencyLimiter concurrencyLimiter = new ProviderConcurrencyLimiter(providerProperties,
+            providerStats, circuitBreaker,
+            new ProviderRetryExecutor(providerProperties, providerStats,
+                new ProviderRetryBudget(providerProperties, clock, meterRegistry), meterRegistry),
+            new ProviderCallTimeout(providerProperties), meterRegistry);
+        PaymentMetrics metrics = new PaymentMetrics(meterRegistry);
+        PaymentProviderFactory providerFactory = new PaymentProviderFactory(List.of(), metrics);
+
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(PaymentCache.CACHE_NAME);
+        cacheManager.setCacheSpecification("maximumSize=10000");
+        inFlightIndex = new InFlightIndex(dir.resolve("inflight.idx"), 1 << 10, Duration.ofSeconds(60), clock);
+
+        FxProperties fxProperties = new FxProperties();
+        FxService fxService = new FxService(new StubFxRateSource(fxProperties.getStub(), clock),
+            fxProperties, clock, meterRegistry);
+        fxService.refresh();
+
+        ArchiveProperties archiveProperties = new ArchiveProperties();
+        archiveProperties.setDir(dir.resolve("archive"));
+
+        paymentService = new PaymentService(repository, providerFactory,
+            new AsyncPaymentService(providerFactory, concurrencyLimiter, Runnable::run), concurrencyLimiter,
+            new PaymentCache(cacheManager, inFlightIndex), new PaymentStateMachine(),
+            new ProviderRouter(providerFactory, providerStats, circuitBreaker, new RoutingProperties(), meterRegistry),
+            fxService, metrics, new PaymentArchive(archiveProperties, meterRegistry),
+            new JpaPaymentTransitions(repository));
+    }
+
+    PaymentService paymentService() {
+        return paymentService;
+    }
+
+    @Override
+    public void close() throws IOException {
+        inFlightIndex.close();
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.denizcan.paymentorchestration.benchmark;
+
+import com.denizcan.paymentorchestration.exception.PaymentValidationException;
+import com.denizcan.paymentorchestration.model.PaymentStatus;
+import com.denizcan.paymentorchestration.service.PaymentStateMachine;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+// Durum geçiş kontrolünün maliyeti: tablo tabanlı PaymentStateMachine ile
+// önceki if zinciri + String.format'lı istisna karşılaştırılır.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PaymentStateMachineBenchmark {
+
+    private static final PaymentStatus[] STATUSES = PaymentStatus.values();
+
+    private PaymentStateMachine stateMachine;
+    private PaymentStatus[] froms;
+    private PaymentStatus[] tos;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        stateMachine = new PaymentStateMachine();
+        // Tüm (kaynak, hedef) çiftleri; dal tahmini tek bir çifte alışmasın
+        froms = new PaymentStatus[STATUSES.length * STATUSES.length];
+        tos = new PaymentStatus[froms.length];
+        int i = 0;
+        for (PaymentStatus from : STATUSES) {
+            for (PaymentStatus to : STATUSES) {
+                froms[i] = from;
+                tos[i] = to;
+                i++;
+            }
+        }
+    }
+
+    private int next() {
+        int index = cursor;
+        cursor = index + 1 == froms.length ? 0 : index + 1;
+        return index;
+    }
+
+    @Benchmark
+    public boolean canTransition() {
+        int i = next();
+        return stateMachine.canTransition(froms[i], tos[i]);
+    }
+
+    @Benchmark
+    public void checkTransition(Blackhole blackhole) {
+        int i = next();
+        try {
+            stateMachine.checkTransition(froms[i], tos[i]);
+            blackhole.consume(true);
+        } catch (PaymentValidationException e) {
+            blackhole.consume(e);
+        }
+    }
+
+    @Benchmark
+    public void legacyValidation(Blackhole blackhole) {
+        int i = next();
+        try {
+            legacyValidateStatusTransition(froms[i], tos[i]);
+            blackhole.consume(true);
+        } catch (PaymentValidationException e) {
+            blackhole.consume(e);
+        }
+    }
+
+    // Karşılaştırma için PaymentService'deki eski kontrolün birebir kopyası
+    private static void legacyValidateStatusTransition(PaymentStatus currentStatus, PaymentStatus newStatus) {
+        if (currentStatus == PaymentStatus.COMPLETED || currentStatus == PaymentStatus.FAILED) {
+            throw new PaymentValidationException(
+                String.format("'%s' durumundaki ödemenin durumu değiştirilemez", currentStatus));
+        }
+        if (currentStatus == PaymentStatus.PROCESSING &&
+            newStatus != PaymentStatus.COMPLETED &&
+            newStatus != PaymentStatus.FAILED) {
+            throw new PaymentValidationException(
+                "İşlemdeki ödeme sadece tamamlanabilir veya iptal edilebilir");
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.denizcan.paymentorchestration.benchmark;
+
+import com.denizcan.paymentorchestration.config.ProviderProperties;
+import com.denizcan.paymentorchestration.config.RoutingProperties;
+import com.denizcan.paymentorchestration.factory.PaymentProviderFactory;
+import com.denizcan.paymentorchestration.factory.ProviderRouter;
+import com.denizcan.paymentorchestration.model.Currency;
+import com.denizcan.paymentorchestration.model.Money;
+import com.denizcan.paymentorchestration.model.PaymentProvider;
+import com.denizcan.paymentorchestration.service.PaymentMetrics;
+import com.denizcan.paymentorchestration.service.provider.AsyncPaymentProviderService;
+import com.denizcan.paymentorchestration.service.provider.PaparaPaymentService;
+import com.denizcan.paymentorchestration.service.provider.ParamPaymentService;
+import com.denizcan.paymentorchestration.service.provider.PaymentProviderService;
+import com.denizcan.paymentorchestration.service.provider.ProviderCircuitBreaker;
+import com.denizcan.paymentorchestration.service.provider.ProviderStats;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Clock;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Her ödeme işleminde yapılan sağlayıcı çözümleme ve yönlendirme maliyeti.
+// route() için ayrılan bellek: -Djmh.args="-prof gc" ile gc.alloc.rate.norm 0 B/op olmalı
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ProviderLookupBenchmark {
+
+    private static final PaymentProvider[] PROVIDERS = PaymentProvider.values();
+
+    private static final Money AMOUNT = Money.of("100.00", Currency.TRY);
+
+    private PaymentProviderFactory factory;
+    private ProviderRouter router;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        RoutingProperties routing = new RoutingProperties();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        factory = new PaymentProviderFactory(List.of(
+            new ParamPaymentService(new ProviderProperties()), new PaparaPaymentService(new ProviderProperties())),
+            new PaymentMetrics(meterRegistry));
+        router = new ProviderRouter(factory, new ProviderStats(routing, Clock.systemUTC()),
+            new ProviderCircuitBreaker(new ProviderProperties(), Clock.systemUTC(), meterRegistry), routing, meterRegistry);
+    }
+
+    private PaymentProvider nextProvider() {
+        PaymentProvider provider = PROVIDERS[cursor];
+        cursor = cursor + 1 == PROVIDERS.length ? 0 : cursor + 1;
+        return provider;
+    }
+
+    @Benchmark
+    public PaymentProviderService getProvider() {
+        return factory.getProvider(nextProvider());
+    }
+
+    @Benchmark
+    public AsyncPaymentProviderService getAsyncProvider() {
+        return factory.getAsyncProvider(nextProvider());
+    }
+
+    @Benchmark
+    public PaymentProvider route() {
+        return router.route(AMOUNT);
+    }
+}
@@ -0,0 +1,30 @@
+package com.denizcan.paymentorchestration.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "payment.archive")
+public class ArchiveProperties {
+    // Kapalıyken arşivleyici çalışmaz; daha önce arşivlenmiş ödemeler okunmaya devam eder
+    private boolean enabled = true;
+
+    // Arşiv dosyaları bu dizinde, ödemenin oluşturulduğu güne göre alt dizinlerde tutulur
+    private Path dir = Path.of("data/archive");
+
+    // Sonuçlanmış ödeme bu süreden eskiyse arşive taşınır. Arşivdeki ödemeye iade yapılamadığı
+    // için iade süresinden (payment.refunds.window) kısaysa uygulama açılmaz.
+    private Duration olderThan = Duration.ofDays(30);
+
+    // Arşivleyicinin çalışma aralığı
+    private Duration interval = Duration.ofMinutes(10);
+
+    // Tek transaction'da arşive taşınan en fazla ödeme
+    private int batchSize = 1_000;
+
+    // Bellekte çözülmüş halde tutulan arşiv dosyası sayısı
+    private int cachedSegments = 16;
+}
@@ -1,23 +1,69 @@
 package com.denizcan.paymentorchestration.config;
 
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
 
+// Çalışma modu spring.threads.virtual.enabled ile seçilir. true olduğunda hem
+// asyncExecutor hem de Tomcat istek işleme Java 21 sanal thread'leri ile çalışır;
+// eşzamanlılık sınırı havuz boyutu yerine sağlayıcı başına limitlerden gelir.
 @Configuration
 @EnableAsync
+@EnableConfigurationProperties({ProviderProperties.class, BatchProperties.class})
 public class AsyncConfig {
     
     @Bean(name = "asyncExecutor")
-    public Executor asyncExecutor() {
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public Executor asyncExecutor(MeterRegistry meterRegistry) {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(3);
         executor.setMaxPoolSize(5);
-        executor.setQueueCapacity(100);
+        // Sağlayıcı çağrıları artık thread tutmuyor; kuyruğa sadece kısa süreli
+        // sonuç işleme adımları düşüyor, bu yüzden binlerce bekleyen ödemeyi taşıyabilmeli
+        executor.setQueueCapacity(10_000);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
         executor.setThreadNamePrefix("AsyncThread-");
         executor.initialize();
+        Gauge.builder("payment.executor.queue.depth", executor, e -> e.getThreadPoolExecutor().getQueue().size())
+            .description("asyncExecutor kuyruğunda bekleyen iş sayısı")
+            .tag("executor", "asyncExecutor")
+            .register(meterRegistry);
+        Gauge.builder("payment.executor.active", executor, ThreadPoolTaskExecutor::getActiveCount)
+            .description("asyncExecutor'da o an iş çalıştıran thread sayısı")
+            .tag("executor", "asyncExecutor")
+            .register(meterRegistry);
         return executor;
     }
-} 
\ No newline at end of file
+
+    @Bean(name = "asyncExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public Executor virtualThreadAsyncExecutor(MeterRegistry meterRegistry) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("AsyncVirtual-");
+        executor.setVirtualThreads(true);
+        // Her iş kendi sanal thread'inde hemen başlar, kuyruk yoktur; sadece çalışan iş sayılır
+        AtomicInteger active = new AtomicInteger();
+        executor.setTaskDecorator(task -> () -> {
+            active.incrementAndGet();
+            try {
+                task.run();
+            } finally {
+                active.decrementAndGet();
+            }
+        });
+        Gauge.builder("payment.executor.active", active, AtomicInteger::get)
+            .description("asyncExecutor'da o an iş çalıştıran thread sayısı")
+            .tag("executor", "asyncExecutor")
+            .register(meterRegistry);
+        return executor;
+    }
+}
@@ -0,0 +1,18 @@
+package com.denizcan.paymentorchestration.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "payment.batch")
+public class BatchProperties {
+    // Tek bir veritabanı gidiş-dönüşünde yazılan/okunan kayıt sayısı;
+    // hibernate.jdbc.batch_size ile aynı tutulmalı
+    private int chunkSize = 500;
+
+    // Toplu işlemede aynı anda açık sağlayıcı çağrısı sayısı
+    private int maxParallelism = 256;
+
+    // Tek istekte kabul edilen en fazla kalem
+    private int maxItems = 10_000;
+}
@@ -0,0 +1,11 @@
+package com.denizcan.paymentorchestration.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+// Önbellek boyutu ve süresi spring.cache.caffeine.spec ile ayarlanır;
+// spring.cache.type=none verildiğinde okumalar doğrudan veritabanına gider
+@Configuration
+@EnableCaching
+public class CacheConfig {
+}
@@ -0,0 +1,9 @@
+package com.denizcan.paymentorchestration.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(EventProperties.class)
+public class EventConfig {
+}
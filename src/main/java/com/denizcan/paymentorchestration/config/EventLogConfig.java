@@ -0,0 +1,43 @@
+package com.denizcan.paymentorchestration.config;
+
+import com.denizcan.paymentorchestration.repository.PaymentRepository;
+import com.denizcan.paymentorchestration.service.JpaPaymentTransitions;
+import com.denizcan.paymentorchestration.service.PaymentCache;
+import com.denizcan.paymentorchestration.service.PaymentTransitions;
+import com.denizcan.paymentorchestration.service.eventlog.EventSourcedTransitions;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.time.Clock;
+
+@Configuration
+@EnableConfigurationProperties(EventLogProperties.class)
+public class EventLogConfig {
+
+    // Olay günlüğü kapalıyken geçişler doğrudan veritabanına yazılır
+    @Bean
+    public PaymentTransitions paymentTransitions(
+            EventLogProperties properties,
+            PaymentRepository paymentRepository,
+            PaymentCache paymentCache,
+            Clock clock,
+            MeterRegistry meterRegistry) throws IOException {
+        if (!properties.isEnabled()) {
+            return new JpaPaymentTransitions(paymentRepository);
+        }
+
+        EventSourcedTransitions transitions = new EventSourcedTransitions(properties, paymentRepository, paymentCache, clock);
+        Gauge.builder("payment.eventlog.projection.size", transitions, EventSourcedTransitions::projectionSize)
+            .description("Veritabanına henüz yazılmamış ya da sonuçlanmamış ödeme sayısı")
+            .register(meterRegistry);
+        Gauge.builder("payment.eventlog.projector.lag", transitions, EventSourcedTransitions::lagBytes)
+            .description("Günlüğe yazılmış ama veritabanına uygulanmamış olaylar")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+        return transitions;
+    }
+}
@@ -0,0 +1,34 @@
+package com.denizcan.paymentorchestration.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "payment.eventlog")
+public class EventLogProperties {
+    // true ise durum geçişlerinin kayıt sistemi olay günlüğüdür; veritabanı arkadan güncellenir
+    private boolean enabled = false;
+
+    // Segmentlerin, anlık görüntünün ve kontrol noktasının tutulduğu dizin
+    private Path dir = Path.of("data", "eventlog");
+
+    // Segment dosyası boyutu; dolunca yeni segmente geçilir
+    private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+    // false ise geçiş diske zorlanmadan onaylanır; süreç çökmesine dayanır, makine çökmesine dayanmaz
+    private boolean fsync = true;
+
+    // Projeksiyon thread'inin bir turda günlükten okuyup veritabanına uyguladığı en fazla olay;
+    // hedef durum başına tek UPDATE ile yazılır
+    private int batchSize = 500;
+
+    // Bu kadar olay uygulandıkça projeksiyonun anlık görüntüsü alınır ve eski segmentler silinir
+    private long snapshotEvery = 100_000;
+
+    // İade gibi veritabanından okuyan işlemlerin, geçişin veritabanına yazılmasını bekleme süresi
+    private Duration projectionTimeout = Duration.ofSeconds(5);
+}
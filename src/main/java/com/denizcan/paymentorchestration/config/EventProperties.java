@@ -0,0 +1,25 @@
+package com.denizcan.paymentorchestration.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "payment.events")
+public class EventProperties {
+    // Relay'in tek transaction'da yayınladığı ve abonelere tek okumada gönderilen en fazla olay
+    private int batchSize = 500;
+
+    // Son yayınlanan olaylar bellekte tutulur; bundan geride kalan aboneler veritabanından okur
+    private int bufferSize = 10_000;
+
+    // Yeni olay yokken bağlantının açık kaldığını bildiren yorum satırı aralığı
+    private Duration heartbeat = Duration.ofSeconds(15);
+
+    // Bu süreden sonra akış kapanır; istemci Last-Event-ID ile yeniden bağlanır
+    private Duration streamTimeout = Duration.ofMinutes(30);
+
+    // Yayınlanmış olaylar bu süre sonunda silinir; Last-Event-ID ile geri dönebilecek en eski nokta
+    private Duration retention = Duration.ofDays(7);
+}
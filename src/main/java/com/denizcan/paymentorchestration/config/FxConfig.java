@@ -0,0 +1,24 @@
+package com.denizcan.paymentorchestration.config;
+
+import com.denizcan.paymentorchestration.service.fx.FileFxRateSource;
+import com.denizcan.paymentorchestration.service.fx.FxRateSource;
+import com.denizcan.paymentorchestration.service.fx.StubFxRateSource;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+
+@Configuration
+@EnableConfigurationProperties(FxProperties.class)
+public class FxConfig {
+
+    @Bean
+    public FxRateSource fxRateSource(FxProperties properties, ObjectMapper objectMapper, Clock clock) {
+        if (properties.getRatesFile() != null) {
+            return new FileFxRateSource(properties.getRatesFile(), objectMapper);
+        }
+        return new StubFxRateSource(properties.getStub(), clock);
+    }
+}
@@ -0,0 +1,38 @@
+package com.denizcan.paymentorchestration.config;
+
+import com.denizcan.paymentorchestration.model.Currency;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "payment.fx")
+public class FxProperties {
+    // Ödemelerin yanında karşılığı saklanan uzlaşma para birimi
+    private Currency settlementCurrency = Currency.TRY;
+
+    // Kur dosyası; verilmezse sabit kurlarla çalışan stub kaynak kullanılır
+    private Path ratesFile;
+
+    private Duration refreshInterval = Duration.ofMinutes(1);
+
+    // Bu süreden eski kurlarla çevrim yapılmaz
+    private Duration maxAge = Duration.ofHours(24);
+
+    private Stub stub = new Stub();
+
+    @Data
+    public static class Stub {
+        private Currency base = Currency.USD;
+
+        // Bir birim base karşılığı, örn: payment.fx.stub.rates.TRY=32.50
+        private Map<Currency, BigDecimal> rates = new EnumMap<>(Map.of(
+            Currency.TRY, new BigDecimal("32.50"),
+            Currency.EUR, new BigDecimal("0.92")));
+    }
+}
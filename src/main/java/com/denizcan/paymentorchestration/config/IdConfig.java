@@ -0,0 +1,19 @@
+package com.denizcan.paymentorchestration.config;
+
+import com.denizcan.paymentorchestration.model.TimeOrderedIdGenerator;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+// Id üreteci Hibernate tarafından oluşturulduğundan düğüm numarası statik olarak verilir
+@Configuration
+@EnableConfigurationProperties(IdProperties.class)
+public class IdConfig {
+
+    public IdConfig(IdProperties properties) {
+        if (properties.getNodeId() == null) {
+            throw new IllegalStateException(
+                "payment.ids.node-id verilmeli (üretimde PAYMENT_NODE_ID); her instance farklı bir numara almalı");
+        }
+        TimeOrderedIdGenerator.configure(properties.getNodeId());
+    }
+}
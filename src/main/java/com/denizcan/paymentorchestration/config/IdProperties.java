@@ -0,0 +1,12 @@
+package com.denizcan.paymentorchestration.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "payment.ids")
+public class IdProperties {
+    // Id'lere gömülen düğüm numarası (0-1023); aynı veritabanını paylaşan her instance'ta farklı olmalı.
+    // Varsayılanı yoktur: aynı numarayla açılan iki instance çakışan id üretir.
+    private Integer nodeId;
+}
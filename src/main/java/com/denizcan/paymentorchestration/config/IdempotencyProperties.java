@@ -0,0 +1,21 @@
+package com.denizcan.paymentorchestration.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "payment.idempotency")
+public class IdempotencyProperties {
+    // Bir anahtarın saklanma süresi; bu süreden sonra aynı anahtar yeni bir istek sayılır
+    private Duration ttl = Duration.ofHours(24);
+
+    // İşlem sürerken anahtarın ayrılı kaldığı en uzun süre; istek yarıda kalan (çöken)
+    // bir instance'ın rezervasyonu bu süreden sonra başka bir istek tarafından alınabilir
+    private Duration pendingTimeout = Duration.ofMinutes(2);
+
+    // Bellekte tutulan en fazla kayıt; fazlası seyrek kullanılanlardan başlayarak atılır
+    // ve gerektiğinde veritabanından okunur
+    private int cacheSize = 10_000;
+}
@@ -0,0 +1,35 @@
+package com.denizcan.paymentorchestration.config;
+
+import com.denizcan.paymentorchestration.service.inflight.InFlightIndex;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.time.Clock;
+
+@Configuration
+@EnableConfigurationProperties(InFlightProperties.class)
+public class InFlightConfig {
+
+    @Bean(destroyMethod = "close")
+    public InFlightIndex inFlightIndex(InFlightProperties properties, Clock clock, MeterRegistry meterRegistry)
+            throws IOException {
+        InFlightIndex index = new InFlightIndex(properties.getFile(), properties.getCapacity(), properties.getMaxAge(), clock);
+        Gauge.builder("payment.inflight.entries", index, InFlightIndex::size)
+            .description("İşlemdeki ödeme indeksindeki kayıt sayısı")
+            .register(meterRegistry);
+        FunctionCounter.builder("payment.inflight.lookups", index, InFlightIndex::hits)
+            .description("İşlemdeki ödeme indeksinden yapılan okumalar")
+            .tag("outcome", "hit")
+            .register(meterRegistry);
+        FunctionCounter.builder("payment.inflight.lookups", index, InFlightIndex::misses)
+            .description("İşlemdeki ödeme indeksinden yapılan okumalar")
+            .tag("outcome", "miss")
+            .register(meterRegistry);
+        return index;
+    }
+}
@@ -0,0 +1,20 @@
+package com.denizcan.paymentorchestration.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "payment.inflight")
+public class InFlightProperties {
+    // Bekleyen ve işlemdeki ödemelerin tutulduğu bellek eşlemli dosya
+    private Path file = Path.of("data", "inflight", "payments.idx");
+
+    // Kayıt yeri sayısı (ikinin kuvveti); en fazla dörtte üçü dolar. Kayıt başına 40 bayt.
+    private int capacity = 1 << 20;
+
+    // Bu süreden eski kayıtlar okunmaz; başka bir instance'ın yaptığı değişiklikler için üst sınır
+    private Duration maxAge = Duration.ofSeconds(60);
+}
@@ -1,14 +1,38 @@
 package com.denizcan.paymentorchestration.config;
 
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import io.micrometer.core.instrument.MeterRegistry;
-import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.http.server.observation.ServerRequestObservationConvention;
 
+// Registry Spring Boot tarafından kurulur (Prometheus, /actuator/prometheus). HTTP isteklerinin
+// http.server.requests ölçümüne, controller katmanının isteğe bıraktığı sağlayıcı ve para birimi
+// etiketleri eklenir.
 @Configuration
 public class MetricsConfig {
+
+    public static final String PROVIDER_ATTRIBUTE = MetricsConfig.class.getName() + ".provider";
+    public static final String CURRENCY_ATTRIBUTE = MetricsConfig.class.getName() + ".currency";
+
     @Bean
-    public MeterRegistry meterRegistry() {
-        return new SimpleMeterRegistry();
+    public ServerRequestObservationConvention serverRequestObservationConvention() {
+        return new DefaultServerRequestObservationConvention() {
+            @Override
+            public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+                HttpServletRequest request = context.getCarrier();
+                return super.getLowCardinalityKeyValues(context).and(
+                    KeyValue.of("provider", tag(request, PROVIDER_ATTRIBUTE)),
+                    KeyValue.of("currency", tag(request, CURRENCY_ATTRIBUTE)));
+            }
+        };
+    }
+
+    private static String tag(HttpServletRequest request, String attribute) {
+        Object value = request.getAttribute(attribute);
+        return value == null ? "none" : value.toString();
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,116 @@
+package com.denizcan.paymentorchestration.config;
+
+import com.denizcan.paymentorchestration.model.PaymentProvider;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "payment.providers")
+public class ProviderProperties {
+    // Sağlayıcı başına aynı anda açık olabilecek çağrı sayısı
+    private int maxConcurrency = 200;
+
+    // Limit dolduğunda bloklayan çağrının izin için bekleyeceği süre
+    private Duration acquireTimeout = Duration.ofSeconds(5);
+
+    // Sağlayıcıya özel limitler, örn: payment.providers.concurrency.PAPARA=50
+    private Map<PaymentProvider, Integer> concurrency = new EnumMap<>(PaymentProvider.class);
+
+    // Tek bir sağlayıcı çağrısının üst süresi; aşılırsa çağrı kesilir
+    private Duration callTimeout = Duration.ofSeconds(5);
+
+    // Sağlayıcıya özel süreler, örn: payment.providers.timeout.PAPARA=2s
+    private Map<PaymentProvider, Duration> timeout = new EnumMap<>(PaymentProvider.class);
+
+    private Retry retry = new Retry();
+
+    private Hedging hedging = new Hedging();
+
+    // Tüm sağlayıcılara ayrı ayrı uygulanan devre kesici ayarları
+    private CircuitBreaker circuitBreaker = new CircuitBreaker();
+
+    // Sağlayıcı simülasyonu, örn: payment.providers.simulation.PARAM.distribution=LOG_NORMAL
+    private Map<PaymentProvider, Simulation> simulation = new EnumMap<>(PaymentProvider.class);
+
+    public int maxConcurrencyFor(PaymentProvider provider) {
+        return concurrency.getOrDefault(provider, maxConcurrency);
+    }
+
+    public Duration callTimeoutFor(PaymentProvider provider) {
+        return timeout.getOrDefault(provider, callTimeout);
+    }
+
+    public Simulation simulationFor(PaymentProvider provider) {
+        return simulation.getOrDefault(provider, new Simulation());
+    }
+
+    // Sağlayıcıya ulaşılamayan çağrılar artan ve rastgele dağıtılan beklemelerle tekrar denenir.
+    // Tekrarlar tüm sağlayıcılar için ortak bir bütçeden düşer: her ilk çağrı bütçeye
+    // budgetRatio kadar ekler, ayrıca saniyede budgetMinPerSecond kadar kendiliğinden dolar.
+    @Data
+    public static class Retry {
+        // İlk çağrı dahil toplam deneme sayısı
+        private int maxAttempts = 3;
+        private Duration initialBackoff = Duration.ofMillis(50);
+        private Duration maxBackoff = Duration.ofSeconds(1);
+        private double budgetRatio = 0.1;
+        private double budgetMinPerSecond = 5;
+        private int budgetBurst = 100;
+    }
+
+    // İdempotent çağrılarda (durum sorgusu) ilk deneme sağlayıcının p95 gecikmesini aşarsa
+    // ikinci bir deneme gönderilir, önce gelen cevap kullanılır
+    @Data
+    public static class Hedging {
+        private boolean enabled = false;
+        // p95 için yeterli örnek yoksa kullanılan bekleme
+        private Duration fallbackDelay = Duration.ofMillis(200);
+        private Duration minDelay = Duration.ofMillis(5);
+        private int minSamples = 20;
+    }
+
+    @Data
+    public static class CircuitBreaker {
+        // Devre bu oranda hata (istisna) ya da yavaş çağrı görüldüğünde açılır
+        private double errorRateThreshold = 0.5;
+        private double slowCallRateThreshold = 0.5;
+        private Duration slowCallDuration = Duration.ofSeconds(2);
+
+        // Oranlar bu süre içindeki çağrılardan, en az minimumCalls çağrı varsa hesaplanır
+        private Duration window = Duration.ofSeconds(10);
+        private int minimumCalls = 20;
+
+        // Açık devre bu süre sonunda yarı açığa geçer ve halfOpenCalls deneme çağrısına izin verir
+        private Duration openDuration = Duration.ofSeconds(10);
+        private int halfOpenCalls = 5;
+    }
+
+    public enum LatencyDistribution {
+        // Her çağrı tam olarak latency kadar sürer
+        FIXED,
+        // latency ± jitter aralığında eşit dağılım
+        UNIFORM,
+        // Ortalaması latency olan üstel dağılım
+        EXPONENTIAL,
+        // Medyanı latency olan log-normal dağılım; kuyruğun kalınlığını sigma belirler
+        LOG_NORMAL
+    }
+
+    // Gerçek entegrasyon yerine kullanılan sağlayıcı davranışı. Varsayılanlar eski sabit
+    // 1 sn gecikmeli, her zaman başarılı davranışla aynıdır.
+    @Data
+    public static class Simulation {
+        private LatencyDistribution distribution = LatencyDistribution.FIXED;
+        private Duration latency = Duration.ofSeconds(1);
+        private Duration jitter = Duration.ZERO;
+        private double sigma = 0.5;
+        // Sağlayıcının işlemi reddetme oranı (çağrı false döner)
+        private double failureRate = 0.0;
+        // Sağlayıcıya ulaşılamama oranı (çağrı istisna fırlatır)
+        private double errorRate = 0.0;
+    }
+}
@@ -0,0 +1,41 @@
+package com.denizcan.paymentorchestration.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "payment.reconciliation")
+public class ReconciliationProperties {
+    // Kapalıyken gelen kutusu taranmaz
+    private boolean enabled = true;
+
+    // Sağlayıcıların uzlaşma dosyaları buraya <SAĞLAYICI>-*.csv adıyla bırakılır
+    private Path inbox = Path.of("data", "settlements", "inbox");
+
+    // Uzlaştırılan dosyalar buraya taşınır
+    private Path processedDir = Path.of("data", "settlements", "processed");
+
+    // Uyuşmazlık raporları
+    private Path reportDir = Path.of("data", "settlements", "reports");
+
+    // Bölümlerin çalışma sırasında diske yazıldığı geçici dizin
+    private Path workDir = Path.of("data", "settlements", "work");
+
+    private Duration interval = Duration.ofMinutes(15);
+
+    // Aynı anda okunan dosya ve eşleştirilen bölüm sayısı
+    private int parallelism = 4;
+
+    // Eşleştirmenin toplam bellek payı; paralel eşleştirilen her bölüm bunun parallelism'de birini
+    // kullanır. Bölüm sayısı kayıt başına bellek tahmininden hesaplanır, sınırı aşan bölüm
+    // eşleştirilmeden önce tekrar bölünür.
+    private DataSize memoryBudget = DataSize.ofMegabytes(256);
+
+    // Bölüm dosyalarına aynı anda yazan akış sınırı; paralel yazan her girdi bunun parallelism'de
+    // birini kullanır
+    private int maxOpenFiles = 256;
+}
@@ -0,0 +1,9 @@
+package com.denizcan.paymentorchestration.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(RefundProperties.class)
+public class RefundConfig {
+}
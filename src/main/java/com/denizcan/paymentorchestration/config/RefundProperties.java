@@ -0,0 +1,36 @@
+package com.denizcan.paymentorchestration.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "payment.refunds")
+public class RefundProperties {
+    // Ödeme oluşturulduktan sonra iade istenebilecek süre; sonrasında istekler 400 ile reddedilir.
+    // Arşiv eşiği (payment.archive.older-than) bu süreden kısa olamaz.
+    private Duration window = Duration.ofDays(30);
+
+    // Sağlayıcıya tek istekte gönderilen en fazla iade
+    private int batchSize = 100;
+
+    // İlk iade geldikten sonra grubun dolması için beklenen en uzun süre
+    private Duration linger = Duration.ofMillis(20);
+
+    // Gönderilmeyi bekleyen iade sınırı; aşılırsa yeni iade istekleri 503 ile geri çevrilir
+    private int maxPending = 100_000;
+
+    // Sağlayıcıya ulaşılamayan grup bu süre sonra tekrar gönderilir; bekleme her denemede
+    // iki katına çıkar ve maxRetryDelay'i geçmez
+    private Duration retryDelay = Duration.ofSeconds(1);
+
+    private Duration maxRetryDelay = Duration.ofMinutes(5);
+
+    // Bu kadar başarısız gönderimden sonra iade FAILED_PERMANENT olur ve hattan çıkar
+    private int maxAttempts = 10;
+
+    // İadenin gönderen instance'a ait kaldığı süre; payment.refunds.lease-check-interval
+    // aralıklarla uzatılır, bu yüzden o aralıktan birkaç kat uzun olmalı
+    private Duration lease = Duration.ofSeconds(30);
+}
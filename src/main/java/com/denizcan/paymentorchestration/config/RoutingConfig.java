@@ -0,0 +1,12 @@
+package com.denizcan.paymentorchestration.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Yönlendirme skorları zamanlanmış görevle yenilenir
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties(RoutingProperties.class)
+public class RoutingConfig {
+}
@@ -0,0 +1,50 @@
+package com.denizcan.paymentorchestration.config;
+
+import com.denizcan.paymentorchestration.model.Currency;
+import com.denizcan.paymentorchestration.model.PaymentProvider;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+@Data
+@ConfigurationProperties(prefix = "payment.routing")
+public class RoutingProperties {
+    // Gecikme ve başarı oranı bu kadar geriye dönük ölçülür; pencere slots parçaya bölünüp kayar
+    private Duration window = Duration.ofSeconds(30);
+    private int slots = 6;
+
+    // Bu kadar örneği olmayan sağlayıcı sağlıklı kabul edilir
+    private int minSamples = 20;
+
+    // Skor = ağırlık * başarıOranı^successWeight * (latencyScale / (latencyScale + p99))^latencyWeight
+    private Duration latencyScale = Duration.ofMillis(200);
+    private double successWeight = 2.0;
+    private double latencyWeight = 2.0;
+
+    // En iyi sağlayıcının skoruna oranla alt sınır; bozulan sağlayıcı ölçülmeye devam etsin
+    private double minShare = 0.02;
+
+    // Sağlayıcıya özel kurallar, örn: payment.routing.providers.PAPARA.currencies=TRY
+    private Map<PaymentProvider, Route> providers = new EnumMap<>(PaymentProvider.class);
+
+    public Route routeFor(PaymentProvider provider) {
+        return providers.getOrDefault(provider, new Route());
+    }
+
+    @Data
+    public static class Route {
+        // 0 verilirse sağlayıcıya otomatik yönlendirme yapılmaz
+        private double weight = 1.0;
+        // Boşsa tüm para birimleri kabul edilir
+        private Set<Currency> currencies = new HashSet<>();
+        // Ana birim cinsinden (örn. 10.50); ödemenin kendi para birimiyle karşılaştırılır
+        private BigDecimal minAmount;
+        private BigDecimal maxAmount;
+    }
+}
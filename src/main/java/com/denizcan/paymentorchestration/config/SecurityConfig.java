@@ -18,6 +18,7 @@ public class SecurityConfig {
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers("/h2-console/**").permitAll()  // H2 console'a erişime izin ver
                 .requestMatchers("/api/**").permitAll()         // API endpoint'lerine erişime izin ver
+                .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll()  // Sağlık ve metrik toplama
                 .anyRequest().authenticated()
             )
             .headers(headers -> headers
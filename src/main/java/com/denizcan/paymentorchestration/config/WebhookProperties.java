@@ -0,0 +1,34 @@
+package com.denizcan.paymentorchestration.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "payment.webhooks")
+public class WebhookProperties {
+    // Webhook'ların veritabanına uygulanmadan önce yazıldığı günlüğün dizini
+    private Path dir = Path.of("data", "webhooks");
+
+    // false ise eklenen kayıt diske zorlanmaz; süreç çökmesine dayanır, makine çökmesine dayanmaz
+    private boolean fsync = true;
+
+    // Tek turda birleştirilip toplu UPDATE ile uygulanan en fazla webhook
+    private int batchSize = 500;
+
+    // Uygulanmayı bekleyen webhook sınırı; aşılırsa yeni webhook'lar 503 ile geri çevrilir
+    private int maxPending = 100_000;
+
+    // Tamamı uygulanmış günlük bu boyutu geçince sıfırlanır
+    private DataSize compactThreshold = DataSize.ofMegabytes(64);
+
+    // Tekrar gönderimleri günlükten önce ayıklamak için hatırlanan sağlayıcı işlem numarası sayısı
+    // ve süresi. Sınır aşılırsa ya da başka bir instance'a gelirse tekrar gönderim yine günlüğe
+    // yazılır; koşullu geçiş onu da etkisiz kılar.
+    private int dedupSize = 100_000;
+
+    private Duration dedupTtl = Duration.ofHours(24);
+}
@@ -0,0 +1,45 @@
+package com.denizcan.paymentorchestration.controller;
+
+import com.denizcan.paymentorchestration.dto.BatchItemResult;
+import com.denizcan.paymentorchestration.service.BatchResultSink;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+// Her değeri ayrı bir JSON satırı olarak yanıt gövdesine yazar
+class NdjsonWriter implements BatchResultSink {
+    private static final byte NEW_LINE = '\n';
+
+    private final OutputStream out;
+    private final ObjectMapper objectMapper;
+
+    NdjsonWriter(OutputStream out, ObjectMapper objectMapper) {
+        this.out = out;
+        this.objectMapper = objectMapper;
+    }
+
+    void write(Object value) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(value));
+            out.write(NEW_LINE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void accept(BatchItemResult result) {
+        write(result);
+    }
+
+    @Override
+    public void flush() {
+        try {
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
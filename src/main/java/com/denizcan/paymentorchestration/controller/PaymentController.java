@@ -1,32 +1,88 @@
 package com.denizcan.paymentorchestration.controller;
 
+import com.denizcan.paymentorchestration.dto.BatchPaymentRequest;
+import com.denizcan.paymentorchestration.dto.BatchProcessRequest;
+import com.denizcan.paymentorchestration.dto.IdempotentResponse;
+import com.denizcan.paymentorchestration.dto.PaymentFilter;
+import com.denizcan.paymentorchestration.dto.PaymentPage;
+import com.denizcan.paymentorchestration.dto.PaymentStatusView;
+import com.denizcan.paymentorchestration.exception.ProviderTimeoutException;
+import com.denizcan.paymentorchestration.exception.ProviderUnavailableException;
+import com.denizcan.paymentorchestration.model.IdempotencyScope;
 import com.denizcan.paymentorchestration.model.Payment;
+import com.denizcan.paymentorchestration.service.BatchPaymentService;
+import com.denizcan.paymentorchestration.service.BatchResultSink;
+import com.denizcan.paymentorchestration.service.IdempotencyService;
 import com.denizcan.paymentorchestration.service.PaymentService;
 import com.denizcan.paymentorchestration.dto.PaymentRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 @RestController
 @RequestMapping("/api/payments")
 public class PaymentController {
 
+    private static final int EXPORT_FLUSH_INTERVAL = 500;
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+
     private final PaymentService paymentService;
+    private final BatchPaymentService batchPaymentService;
+    private final IdempotencyService idempotencyService;
+    private final ObjectMapper objectMapper;
 
     @Autowired
-    public PaymentController(PaymentService paymentService) {
+    public PaymentController(
+            PaymentService paymentService,
+            BatchPaymentService batchPaymentService,
+            IdempotencyService idempotencyService,
+            ObjectMapper objectMapper) {
         this.paymentService = paymentService;
+        this.batchPaymentService = batchPaymentService;
+        this.idempotencyService = idempotencyService;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping
-    public ResponseEntity<Payment> createPayment(@Valid @RequestBody PaymentRequest paymentRequest) {
-        Payment newPayment = paymentService.createPayment(paymentRequest);
-        return new ResponseEntity<>(newPayment, HttpStatus.CREATED);
+    public ResponseEntity<?> createPayment(
+            @Valid @RequestBody PaymentRequest paymentRequest,
+            @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        if (idempotencyKey == null) {
+            Payment newPayment = paymentService.createPayment(paymentRequest);
+            return new ResponseEntity<>(newPayment, HttpStatus.CREATED);
+        }
+
+        IdempotentResponse response = idempotencyService.execute(
+            IdempotencyScope.PAYMENT_CREATE,
+            idempotencyKey,
+            paymentRequest,
+            HttpStatus.CREATED,
+            () -> paymentService.createPayment(paymentRequest));
+        return ResponseEntity.status(response.status())
+            .header(IDEMPOTENT_REPLAYED_HEADER, String.valueOf(response.replayed()))
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(response.body());
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<StreamingResponseBody> createPayments(@Valid @RequestBody BatchPaymentRequest request) {
+        batchPaymentService.validateBatchSize(request.getPayments().size());
+        return streamResults(sink -> batchPaymentService.createPayments(request.getPayments(), sink));
+    }
+
+    @PostMapping("/batch/process")
+    public ResponseEntity<StreamingResponseBody> processPayments(@Valid @RequestBody BatchProcessRequest request) {
+        batchPaymentService.validateBatchSize(request.getPaymentIds().size());
+        return streamResults(sink -> batchPaymentService.processPayments(request.getPaymentIds(), sink));
     }
 
     @GetMapping("/{id}")
@@ -34,11 +90,38 @@ public class PaymentController {
         Payment payment = paymentService.getPaymentById(id);
         return ResponseEntity.ok(payment);
     }
+
+    // Sağlayıcı sonucunu bekleyen istemcilerin yokladığı hafif uç
+    @GetMapping("/{id}/status")
+    public ResponseEntity<PaymentStatusView> getPaymentStatus(@PathVariable String id) {
+        return ResponseEntity.ok(paymentService.getPaymentStatus(id));
+    }
     
     @GetMapping
-    public ResponseEntity<List<Payment>> getAllPayments() {
-        List<Payment> payments = paymentService.getAllPayments();
-        return ResponseEntity.ok(payments);
+    public ResponseEntity<PaymentPage> getPayments(
+            PaymentFilter filter,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        PaymentPage page = paymentService.getPayments(filter, cursor, limit);
+        return ResponseEntity.ok(page);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportPayments(PaymentFilter filter) {
+        StreamingResponseBody body = out -> {
+            NdjsonWriter writer = new NdjsonWriter(out, objectMapper);
+            long[] written = {0};
+            paymentService.exportPayments(filter, payment -> {
+                writer.write(payment);
+                if (++written[0] % EXPORT_FLUSH_INTERVAL == 0) {
+                    writer.flush();
+                }
+            });
+            writer.flush();
+        };
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .body(body);
     }
 
     @PutMapping("/{id}")
@@ -47,7 +130,6 @@ public class PaymentController {
             @Valid @RequestBody PaymentRequest paymentRequest) {
         Payment payment = Payment.builder()
             .amount(paymentRequest.getAmount())
-            .currency(paymentRequest.getCurrency())
             .provider(paymentRequest.getProvider())
             .description(paymentRequest.getDescription())
             .build();
@@ -83,6 +165,30 @@ public class PaymentController {
     public CompletableFuture<ResponseEntity<Payment>> processPaymentAsync(@PathVariable String id) {
         return paymentService.processPaymentAsynchronously(id)
             .thenApply(ResponseEntity::ok)
-            .exceptionally(ex -> ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build());
+            .exceptionally(ex -> ResponseEntity.status(statusOf(ex.getCause())).build());
+    }
+
+    @PostMapping("/{id}/status-check")
+    public CompletableFuture<ResponseEntity<Payment>> checkProviderStatus(@PathVariable String id) {
+        return paymentService.checkProviderStatus(id)
+            .thenApply(ResponseEntity::ok)
+            .exceptionally(ex -> ResponseEntity.status(statusOf(ex.getCause())).build());
+    }
+
+    private static HttpStatus statusOf(Throwable cause) {
+        if (cause instanceof ProviderTimeoutException) {
+            return HttpStatus.GATEWAY_TIMEOUT;
+        }
+        return cause instanceof ProviderUnavailableException
+            ? HttpStatus.SERVICE_UNAVAILABLE
+            : HttpStatus.INTERNAL_SERVER_ERROR;
+    }
+
+    // Kalem sonuçları hazır oldukça NDJSON olarak akıtılır
+    private ResponseEntity<StreamingResponseBody> streamResults(Consumer<BatchResultSink> batch) {
+        StreamingResponseBody body = out -> batch.accept(new NdjsonWriter(out, objectMapper));
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .body(body);
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,85 @@
+package com.denizcan.paymentorchestration.controller;
+
+import com.denizcan.paymentorchestration.config.EventProperties;
+import com.denizcan.paymentorchestration.model.PaymentEvent;
+import com.denizcan.paymentorchestration.service.event.PaymentEventStream;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/payments/events")
+public class PaymentEventController {
+
+    private final PaymentEventStream eventStream;
+    private final EventProperties properties;
+    private final AtomicInteger subscribers = new AtomicInteger();
+
+    public PaymentEventController(PaymentEventStream eventStream, EventProperties properties, MeterRegistry meterRegistry) {
+        this.eventStream = eventStream;
+        this.properties = properties;
+        Gauge.builder("payment.events.subscribers", subscribers, AtomicInteger::get)
+            .description("Açık olay akışı bağlantısı sayısı")
+            .register(meterRegistry);
+    }
+
+    // Ödeme olaylarını SSE ile sıra numarası sırasında akıtır. Olayın id'si sıra numarasıdır;
+    // kopan istemci Last-Event-ID (ya da after) ile kaldığı yerden devam eder. Başlangıç
+    // verilmezse sadece bağlandıktan sonraki olaylar gönderilir, after=0 tüm geçmişi verir.
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribe(
+            @RequestHeader(name = "Last-Event-ID", required = false) Long lastEventId,
+            @RequestParam(required = false) Long after) {
+        long from = lastEventId != null ? lastEventId : after != null ? after : eventStream.head();
+        SseEmitter emitter = new SseEmitter(properties.getStreamTimeout().toMillis());
+        // Her abone bekleme süresince sadece bir sanal thread tutar
+        Thread sender = Thread.ofVirtual().name("payment-events-" + from).unstarted(() -> send(emitter, from));
+        emitter.onCompletion(sender::interrupt);
+        emitter.onTimeout(sender::interrupt);
+        emitter.onError(e -> sender.interrupt());
+        sender.start();
+        return emitter;
+    }
+
+    private void send(SseEmitter emitter, long from) {
+        subscribers.incrementAndGet();
+        long cursor = from;
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                List<PaymentEvent> events = eventStream.readAfter(cursor, properties.getBatchSize());
+                if (events.isEmpty()) {
+                    if (eventStream.awaitAfter(cursor, properties.getHeartbeat())) {
+                        continue;
+                    }
+                    // Sessiz geçen sürede başka bir örneğin yayınladıkları da kontrol edilir
+                    events = eventStream.readStored(cursor, properties.getBatchSize());
+                    if (events.isEmpty()) {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                        continue;
+                    }
+                }
+                for (PaymentEvent event : events) {
+                    emitter.send(SseEmitter.event()
+                        .id(String.valueOf(event.getSequenceNumber()))
+                        .name(event.getType().name())
+                        .data(event, MediaType.APPLICATION_JSON));
+                    cursor = event.getSequenceNumber();
+                }
+            }
+        } catch (InterruptedException e) {
+            // Bağlantı kapandı
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Olay akışı {} konumunda kapandı: {}", cursor, e.getMessage());
+        } finally {
+            subscribers.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.denizcan.paymentorchestration.controller;
+
+import com.denizcan.paymentorchestration.config.MetricsConfig;
+import com.denizcan.paymentorchestration.dto.PaymentRequest;
+import com.denizcan.paymentorchestration.dto.PaymentStatusView;
+import com.denizcan.paymentorchestration.model.Payment;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdviceAdapter;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.lang.reflect.Type;
+
+// http.server.requests ölçümüne sağlayıcı ve para birimi etiketlerini taşır. İstek gövdesindeki
+// değerler önce yazılır; yanıt bir ödeme ise yönlendirmenin seçtiği sağlayıcı onların üzerine yazılır.
+@ControllerAdvice(assignableTypes = PaymentController.class)
+public class PaymentMetricsAdvice extends RequestBodyAdviceAdapter implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter methodParameter, Type targetType,
+                            Class<? extends HttpMessageConverter<?>> converterType) {
+        return PaymentRequest.class.equals(targetType);
+    }
+
+    @Override
+    public Object afterBodyRead(Object body, HttpInputMessage inputMessage, MethodParameter parameter,
+                                Type targetType, Class<? extends HttpMessageConverter<?>> converterType) {
+        PaymentRequest request = (PaymentRequest) body;
+        tag(request.getProvider(), request.getAmount() == null ? null : request.getAmount().currency());
+        return body;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (body instanceof Payment payment) {
+            tag(payment.getProvider(), payment.getAmount() == null ? null : payment.getAmount().currency());
+        } else if (body instanceof PaymentStatusView status) {
+            tag(status.provider(), status.amount() == null ? null : status.amount().currency());
+        }
+        return body;
+    }
+
+    private static void tag(Object provider, Object currency) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return;
+        }
+        if (provider != null) {
+            attributes.setAttribute(MetricsConfig.PROVIDER_ATTRIBUTE, provider, RequestAttributes.SCOPE_REQUEST);
+        }
+        if (currency != null) {
+            attributes.setAttribute(MetricsConfig.CURRENCY_ATTRIBUTE, currency, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.denizcan.paymentorchestration.controller;
+
+import com.denizcan.paymentorchestration.dto.RefundRequest;
+import com.denizcan.paymentorchestration.model.Refund;
+import com.denizcan.paymentorchestration.service.refund.RefundService;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/payments/{paymentId}/refunds")
+public class RefundController {
+
+    private final RefundService refundService;
+
+    public RefundController(RefundService refundService) {
+        this.refundService = refundService;
+    }
+
+    // İade sağlayıcıya arka planda toplu gönderilir; sonuç GET ile ya da olay akışından izlenir
+    @PostMapping
+    public ResponseEntity<Refund> requestRefund(
+            @PathVariable String paymentId,
+            @Valid @RequestBody(required = false) RefundRequest request) {
+        Refund refund = refundService.requestRefund(paymentId, request == null ? null : request.getAmount());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(refund);
+    }
+
+    @GetMapping
+    public List<Refund> getRefunds(@PathVariable String paymentId) {
+        return refundService.getRefunds(paymentId);
+    }
+}
@@ -1,7 +1,8 @@
 package com.denizcan.paymentorchestration.controller;
 
 import com.denizcan.paymentorchestration.dto.WebhookRequest;
-import com.denizcan.paymentorchestration.service.PaymentService;
+import com.denizcan.paymentorchestration.service.webhook.WebhookQueue;
+import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import lombok.extern.slf4j.Slf4j;
@@ -11,22 +12,20 @@ import lombok.extern.slf4j.Slf4j;
 @RequestMapping("/api/webhooks")
 public class WebhookController {
     
-    private final PaymentService paymentService;
+    private final WebhookQueue webhookQueue;
     
-    public WebhookController(PaymentService paymentService) {
-        this.paymentService = paymentService;
+    public WebhookController(WebhookQueue webhookQueue) {
+        this.webhookQueue = webhookQueue;
     }
 
+    // Sağlayıcı veritabanını beklemez: bildirim günlüğe yazılınca onaylanır, ödeme durumu
+    // arka planda toplu olarak güncellenir. Tekrar gönderilen bildirimler durumu değiştirmez.
     @PostMapping("/payment-result")
-    public ResponseEntity<Void> handlePaymentResult(@RequestBody WebhookRequest request) {
+    public ResponseEntity<Void> handlePaymentResult(@Valid @RequestBody WebhookRequest request) {
         log.info("Ödeme sonucu webhook alındı: {}", request);
-        
-        if ("SUCCESS".equals(request.getStatus())) {
-            paymentService.completePayment(request.getPaymentId());
-        } else {
-            paymentService.failPayment(request.getPaymentId());
+        if (!webhookQueue.append(request)) {
+            log.info("Tekrar gönderilen webhook yok sayıldı: {}", request.getProviderTransactionId());
         }
-        
         return ResponseEntity.ok().build();
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,27 @@
+package com.denizcan.paymentorchestration.dto;
+
+import com.denizcan.paymentorchestration.model.PaymentStatus;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Toplu isteklerde her kalem için NDJSON olarak akıtılan sonuç satırı
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchItemResult {
+    private int index;
+    private String paymentId;
+    private PaymentStatus status;
+    private String error;
+
+    public static BatchItemResult success(int index, String paymentId, PaymentStatus status) {
+        return new BatchItemResult(index, paymentId, status, null);
+    }
+
+    public static BatchItemResult failure(int index, String paymentId, String error) {
+        return new BatchItemResult(index, paymentId, null, error);
+    }
+}
@@ -0,0 +1,17 @@
+package com.denizcan.paymentorchestration.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchPaymentRequest {
+    @NotEmpty(message = "Toplu istek en az bir ödeme içermelidir")
+    private List<@Valid PaymentRequest> payments;
+}
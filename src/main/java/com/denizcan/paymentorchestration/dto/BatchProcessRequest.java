@@ -0,0 +1,17 @@
+package com.denizcan.paymentorchestration.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchProcessRequest {
+    @NotEmpty(message = "İşlenecek ödeme listesi boş olamaz")
+    private List<@NotBlank String> paymentIds;
+}
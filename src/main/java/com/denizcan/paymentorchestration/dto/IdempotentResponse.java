@@ -0,0 +1,5 @@
+package com.denizcan.paymentorchestration.dto;
+
+// body JSON olarak saklanır ki tekrar eden istek aynı baytları alsın
+public record IdempotentResponse(int status, String body, boolean replayed) {
+}
@@ -0,0 +1,31 @@
+package com.denizcan.paymentorchestration.dto;
+
+import com.denizcan.paymentorchestration.model.Currency;
+import com.denizcan.paymentorchestration.model.PaymentProvider;
+import com.denizcan.paymentorchestration.model.PaymentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.Instant;
+
+// Listeleme ve dışa aktarma filtreleri; boş alanlar filtre uygulanmadığı anlamına gelir
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentFilter {
+    private PaymentStatus status;
+    private PaymentProvider provider;
+    private Currency currency;
+
+    // Dahil
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private Instant createdFrom;
+
+    // Hariç
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private Instant createdTo;
+}
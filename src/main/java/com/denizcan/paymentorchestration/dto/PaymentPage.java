@@ -0,0 +1,17 @@
+package com.denizcan.paymentorchestration.dto;
+
+import com.denizcan.paymentorchestration.model.Payment;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// nextCursor null ise son sayfaya gelinmiştir
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentPage {
+    private List<Payment> items;
+    private String nextCursor;
+}
@@ -1,26 +1,26 @@
 package com.denizcan.paymentorchestration.dto;
 
+import com.denizcan.paymentorchestration.model.Money;
 import com.denizcan.paymentorchestration.model.PaymentProvider;
-import jakarta.validation.constraints.NotBlank;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
 import jakarta.validation.constraints.NotNull;
-import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
-
-import java.math.BigDecimal;
+import lombok.NoArgsConstructor;
 
 @Data
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class PaymentRequest {
+    // Gövdede düz amount ve currency alanları olarak gelir; pozitiflik servis katmanında denetlenir
     @NotNull(message = "Tutar boş olamaz")
-    @Positive(message = "Tutar pozitif olmalıdır")
-    private BigDecimal amount;
-    
-    @NotBlank(message = "Para birimi boş olamaz")
-    private String currency;
+    @JsonUnwrapped
+    private Money amount;
     
-    @NotBlank(message = "Ödeme sağlayıcı seçilmelidir")
+    // Boş bırakılırsa sağlayıcıyı yönlendirme motoru seçer
     private PaymentProvider provider;
     
     private String description;
-} 
\ No newline at end of file
+} 
@@ -0,0 +1,22 @@
+package com.denizcan.paymentorchestration.dto;
+
+import com.denizcan.paymentorchestration.model.Money;
+import com.denizcan.paymentorchestration.model.Payment;
+import com.denizcan.paymentorchestration.model.PaymentProvider;
+import com.denizcan.paymentorchestration.model.PaymentStatus;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+
+// Durum sorgusu yanıtı: sadece işlemdeki ödeme indeksinde tutulan alanlar
+public record PaymentStatusView(
+        String id,
+        PaymentStatus status,
+        PaymentProvider provider,
+        @JsonUnwrapped Money amount,
+        long version) {
+
+    public static PaymentStatusView of(Payment payment) {
+        Long version = payment.getVersion();
+        return new PaymentStatusView(payment.getId(), payment.getStatus(), payment.getProvider(),
+            payment.getAmount(), version == null ? 0 : version);
+    }
+}
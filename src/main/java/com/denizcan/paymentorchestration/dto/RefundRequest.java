@@ -0,0 +1,19 @@
+package com.denizcan.paymentorchestration.dto;
+
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RefundRequest {
+    // Boş bırakılırsa kalan tutarın tamamı iade edilir
+    @Positive(message = "İade tutarı pozitif olmalıdır")
+    private BigDecimal amount;
+}
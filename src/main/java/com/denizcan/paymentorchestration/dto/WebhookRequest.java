@@ -1,15 +1,22 @@
 package com.denizcan.paymentorchestration.dto;
 
+import com.denizcan.paymentorchestration.model.Money;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import jakarta.validation.constraints.NotBlank;
 import lombok.Data;
-import java.math.BigDecimal;
 
 @Data
 public class WebhookRequest {
+    @NotBlank(message = "Ödeme ID'si boş olamaz")
     private String paymentId;
+
+    @NotBlank(message = "Durum boş olamaz")
     private String status;
+
+    // Sağlayıcı aynı bildirimi tekrar gönderdiğinde bu alan üzerinden tekilleştirilir
     private String providerTransactionId;
-    private BigDecimal amount;
-    private String currency;
+    @JsonUnwrapped
+    private Money amount;
     private String errorCode;
     private String errorMessage;
-} 
\ No newline at end of file
+}
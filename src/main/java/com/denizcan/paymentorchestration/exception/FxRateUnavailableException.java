@@ -0,0 +1,8 @@
+package com.denizcan.paymentorchestration.exception;
+
+// İstenen para birimi çifti için güncel kur yok
+public class FxRateUnavailableException extends RuntimeException {
+    public FxRateUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,24 @@
+package com.denizcan.paymentorchestration.exception;
+
+import com.denizcan.paymentorchestration.model.PaymentStatus;
+
+// Her (kaynak, hedef) çifti için bir kez oluşturulur ve tekrar tekrar fırlatılır;
+// bu yüzden yığın izi taşımaz ve değiştirilemez
+public class InvalidStatusTransitionException extends PaymentValidationException {
+    private final PaymentStatus from;
+    private final PaymentStatus to;
+
+    public InvalidStatusTransitionException(PaymentStatus from, PaymentStatus to) {
+        super(String.format("'%s' durumundaki ödeme '%s' durumuna geçirilemez", from, to), false);
+        this.from = from;
+        this.to = to;
+    }
+
+    public PaymentStatus getFrom() {
+        return from;
+    }
+
+    public PaymentStatus getTo() {
+        return to;
+    }
+}
@@ -4,4 +4,9 @@ public class PaymentValidationException extends RuntimeException {
     public PaymentValidationException(String message) {
         super(message);
     }
-} 
\ No newline at end of file
+
+    // Sık fırlatılan ve önceden oluşturulabilen alt sınıflar için; yığın izi toplanmaz
+    protected PaymentValidationException(String message, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+    }
+}
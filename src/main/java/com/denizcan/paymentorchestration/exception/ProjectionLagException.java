@@ -0,0 +1,8 @@
+package com.denizcan.paymentorchestration.exception;
+
+// Olay günlüğündeki geçiş veritabanına zamanında yansıtılamadı; istek daha sonra tekrar gönderilmeli
+public class ProjectionLagException extends RuntimeException {
+    public ProjectionLagException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,9 @@
+package com.denizcan.paymentorchestration.exception;
+
+// Çağrı sağlayıcıya hiç gönderilmeden reddedildi (devre açık ya da eşzamanlılık limiti dolu);
+// ödeme güvenle tekrar denenebilir
+public class ProviderRejectedException extends ProviderUnavailableException {
+    public ProviderRejectedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,9 @@
+package com.denizcan.paymentorchestration.exception;
+
+// Sağlayıcı çağrısı süre sınırı içinde cevap vermedi. Çağrı sağlayıcıya ulaşmış olabilir,
+// bu yüzden sonuç bilinmez ve idempotent olmayan işlemler tekrar denenmez.
+public class ProviderTimeoutException extends ProviderUnavailableException {
+    public ProviderTimeoutException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.denizcan.paymentorchestration.exception;
+
+public class ProviderUnavailableException extends RuntimeException {
+    public ProviderUnavailableException(String message) {
+        super(message);
+    }
+}
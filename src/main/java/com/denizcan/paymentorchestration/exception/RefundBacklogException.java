@@ -0,0 +1,8 @@
+package com.denizcan.paymentorchestration.exception;
+
+// Sağlayıcıya gönderilmeyi bekleyen iade sayısı sınırı aştı; istek daha sonra tekrar gönderilmeli
+public class RefundBacklogException extends RuntimeException {
+    public RefundBacklogException(String message) {
+        super(message);
+    }
+}
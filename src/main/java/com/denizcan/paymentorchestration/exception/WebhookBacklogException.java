@@ -0,0 +1,8 @@
+package com.denizcan.paymentorchestration.exception;
+
+// Uygulanmayı bekleyen webhook sayısı sınırı aştı; sağlayıcı bildirimi daha sonra tekrar göndermeli
+public class WebhookBacklogException extends RuntimeException {
+    public WebhookBacklogException(String message) {
+        super(message);
+    }
+}
@@ -1,23 +1,35 @@
 package com.denizcan.paymentorchestration.factory;
 
 import com.denizcan.paymentorchestration.model.PaymentProvider;
+import com.denizcan.paymentorchestration.service.PaymentMetrics;
+import com.denizcan.paymentorchestration.service.provider.AsyncPaymentProviderService;
+import com.denizcan.paymentorchestration.service.provider.InstrumentedProviderService;
 import com.denizcan.paymentorchestration.service.provider.PaymentProviderService;
 import org.springframework.stereotype.Component;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 @Component
 public class PaymentProviderFactory {
     private final Map<PaymentProvider, PaymentProviderService> providers;
+    private final Map<PaymentProvider, AsyncPaymentProviderService> asyncProviders;
 
-    public PaymentProviderFactory(List<PaymentProviderService> providerServices) {
-        providers = new HashMap<>();
+    // Servisler ölçüm katmanıyla sarılarak verilir; çağıranlar sarmalı görmez
+    public PaymentProviderFactory(List<PaymentProviderService> providerServices, PaymentMetrics metrics) {
+        providers = new EnumMap<>(PaymentProvider.class);
+        asyncProviders = new EnumMap<>(PaymentProvider.class);
         for (PaymentProviderService service : providerServices) {
             PaymentProvider providerType = getProviderType(service);
-            providers.put(providerType, service);
+            InstrumentedProviderService instrumented = new InstrumentedProviderService(providerType, service, metrics);
+            providers.put(providerType, instrumented);
+            if (instrumented.isAsync()) {
+                asyncProviders.put(providerType, instrumented);
+            }
             log.info("Ödeme sağlayıcı kaydedildi: {}", providerType);
         }
     }
@@ -33,6 +45,10 @@ public class PaymentProviderFactory {
         throw new IllegalArgumentException("Desteklenmeyen ödeme sağlayıcı: " + className);
     }
 
+    public Set<PaymentProvider> getRegisteredProviders() {
+        return Collections.unmodifiableSet(providers.keySet());
+    }
+
     public PaymentProviderService getProvider(PaymentProvider provider) {
         PaymentProviderService service = providers.get(provider);
         if (service == null) {
@@ -40,4 +56,12 @@ public class PaymentProviderFactory {
         }
         return service;
     }
-} 
\ No newline at end of file
+
+    public AsyncPaymentProviderService getAsyncProvider(PaymentProvider provider) {
+        AsyncPaymentProviderService service = asyncProviders.get(provider);
+        if (service == null) {
+            throw new IllegalArgumentException("Asenkron ödeme sağlayıcı bulunamadı: " + provider);
+        }
+        return service;
+    }
+}
@@ -0,0 +1,195 @@
+package com.denizcan.paymentorchestration.factory;
+
+import com.denizcan.paymentorchestration.config.RoutingProperties;
+import com.denizcan.paymentorchestration.exception.PaymentValidationException;
+import com.denizcan.paymentorchestration.model.Currency;
+import com.denizcan.paymentorchestration.model.Money;
+import com.denizcan.paymentorchestration.model.PaymentProvider;
+import com.denizcan.paymentorchestration.service.provider.ProviderCircuitBreaker;
+import com.denizcan.paymentorchestration.service.provider.ProviderStats;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+import java.util.random.RandomGenerator;
+
+// Sağlayıcı belirtilmeden gelen ödemeler için sağlayıcı seçer. Skorlar canlı gecikme
+// (p99) ve başarı oranından periyodik olarak hesaplanır; ödeme başına seçim sadece
+// hazır skor dizisini okur, kilit almaz ve nesne üretmez. Seçim skorla orantılı
+// rastgele yapılır, böylece trafik tek bir sağlayıcıya yığılmaz. Devresi açık sağlayıcılar
+// atlanır; trafik diğer uygun sağlayıcılara kayar.
+@Component
+public class ProviderRouter {
+
+    private final ProviderStats stats;
+    private final ProviderCircuitBreaker circuitBreaker;
+    private final RoutingProperties properties;
+    // Seçim için kullanılan kaynak; her çağrıda çağıran thread için alınır
+    private final Supplier<RandomGenerator> random;
+
+    // Entegrasyonu olan sağlayıcılar ve onlara ait kurallar, aynı indekslerle
+    private final PaymentProvider[] candidates;
+    private final double[] weights;
+    // [sağlayıcı][para birimi]; kabul edilmeyen para biriminde min > max olur
+    private final long[][] minMinorUnits;
+    private final long[][] maxMinorUnits;
+    private final Counter[] decisions;
+
+    // Her yenilemede yeni dizi yayınlanır; okuyan taraf tutarlı bir kopya görür
+    private volatile double[] scores;
+    private volatile ProviderStats.Snapshot[] snapshots;
+
+    @Autowired
+    public ProviderRouter(
+            PaymentProviderFactory providerFactory,
+            ProviderStats stats,
+            ProviderCircuitBreaker circuitBreaker,
+            RoutingProperties properties,
+            MeterRegistry meterRegistry) {
+        this(providerFactory, stats, circuitBreaker, properties, meterRegistry, ThreadLocalRandom::current);
+    }
+
+    // Testler sabit tohumlu bir kaynakla seçimi tekrarlanabilir kılar
+    ProviderRouter(
+            PaymentProviderFactory providerFactory,
+            ProviderStats stats,
+            ProviderCircuitBreaker circuitBreaker,
+            RoutingProperties properties,
+            MeterRegistry meterRegistry,
+            Supplier<RandomGenerator> random) {
+        this.stats = stats;
+        this.circuitBreaker = circuitBreaker;
+        this.properties = properties;
+        this.random = random;
+        this.candidates = providerFactory.getRegisteredProviders().toArray(PaymentProvider[]::new);
+        int count = candidates.length;
+        this.weights = new double[count];
+        this.minMinorUnits = new long[count][Currency.values().length];
+        this.maxMinorUnits = new long[count][Currency.values().length];
+        this.decisions = new Counter[count];
+        this.snapshots = new ProviderStats.Snapshot[count];
+
+        for (int i = 0; i < count; i++) {
+            PaymentProvider provider = candidates[i];
+            RoutingProperties.Route route = properties.routeFor(provider);
+            weights[i] = route.getWeight();
+            for (Currency currency : Currency.values()) {
+                boolean accepted = route.getCurrencies().isEmpty() || route.getCurrencies().contains(currency);
+                minMinorUnits[i][currency.ordinal()] = accepted
+                    ? toMinorUnits(route.getMinAmount(), currency, RoundingMode.CEILING, Long.MIN_VALUE) : 1;
+                maxMinorUnits[i][currency.ordinal()] = accepted
+                    ? toMinorUnits(route.getMaxAmount(), currency, RoundingMode.FLOOR, Long.MAX_VALUE) : 0;
+            }
+            decisions[i] = Counter.builder("payment.routing.decisions")
+                .description("Yönlendirme motorunun sağlayıcıya gönderdiği ödeme sayısı")
+                .tag("provider", provider.name())
+                .register(meterRegistry);
+
+            int index = i;
+            Gauge.builder("payment.routing.score", this, router -> router.scores[index])
+                .description("Sağlayıcının güncel yönlendirme skoru")
+                .tag("provider", provider.name())
+                .register(meterRegistry);
+            Gauge.builder("payment.routing.success.ratio", this, router -> router.snapshots[index].successRatio())
+                .description("Kayan penceredeki başarılı sağlayıcı çağrısı oranı")
+                .tag("provider", provider.name())
+                .register(meterRegistry);
+            Gauge.builder("payment.routing.latency.p99", this, router -> router.snapshots[index].p99Micros() / 1_000_000.0)
+                .description("Kayan penceredeki sağlayıcı çağrısı gecikmesinin 99. yüzdeliği")
+                .tag("provider", provider.name())
+                .baseUnit("seconds")
+                .register(meterRegistry);
+            Gauge.builder("payment.routing.samples", this, router -> router.snapshots[index].samples())
+                .description("Kayan penceredeki sağlayıcı çağrısı sayısı")
+                .tag("provider", provider.name())
+                .register(meterRegistry);
+        }
+        refresh();
+    }
+
+    public PaymentProvider route(Money amount) {
+        double[] current = scores;
+        // Uygunluk bir kez değerlendirilir: devre iki tur arasında açılırsa ikinci tur toplamla
+        // tutarsız kalıp sağlayıcı seçemezdi. Sağlayıcı sayısı enum boyutuyla sınırlı, 64'ü geçmez
+        long eligible = 0;
+        double total = 0;
+        for (int i = 0; i < candidates.length; i++) {
+            if (accepts(i, amount)) {
+                eligible |= 1L << i;
+                total += current[i];
+            }
+        }
+        if (total <= 0) {
+            throw new PaymentValidationException(
+                String.format("%s tutarındaki ödeme için uygun sağlayıcı bulunamadı", amount));
+        }
+
+        double pick = random.get().nextDouble(total);
+        int chosen = -1;
+        for (int i = 0; i < candidates.length; i++) {
+            if ((eligible & (1L << i)) != 0) {
+                chosen = i;
+                pick -= current[i];
+                if (pick < 0) {
+                    break;
+                }
+            }
+        }
+        decisions[chosen].increment();
+        return candidates[chosen];
+    }
+
+    @Scheduled(fixedDelayString = "${payment.routing.refresh-interval:PT1S}")
+    public void refresh() {
+        double scaleMillis = properties.getLatencyScale().toNanos() / 1_000_000.0;
+        double[] next = new double[candidates.length];
+        ProviderStats.Snapshot[] nextSnapshots = new ProviderStats.Snapshot[candidates.length];
+        double best = 0;
+
+        for (int i = 0; i < candidates.length; i++) {
+            ProviderStats.Snapshot snapshot = stats.snapshot(candidates[i]);
+            nextSnapshots[i] = snapshot;
+            // Yeterli ölçümü olmayan sağlayıcı sağlıklı kabul edilir ki trafik alıp ölçülebilsin
+            boolean measured = snapshot.samples() >= properties.getMinSamples();
+            double successRatio = measured ? snapshot.successRatio() : 1.0;
+            double p99Millis = measured ? snapshot.p99Micros() / 1_000.0 : 0.0;
+            next[i] = weights[i]
+                * Math.pow(successRatio, properties.getSuccessWeight())
+                * Math.pow(scaleMillis / (scaleMillis + p99Millis), properties.getLatencyWeight());
+            best = Math.max(best, next[i]);
+        }
+
+        double floor = best * properties.getMinShare();
+        for (int i = 0; i < candidates.length; i++) {
+            if (weights[i] > 0) {
+                next[i] = Math.max(next[i], floor);
+            }
+        }
+        snapshots = nextSnapshots;
+        scores = next;
+    }
+
+    private boolean accepts(int index, Money amount) {
+        if (weights[index] <= 0 || !circuitBreaker.isCallPermitted(candidates[index])) {
+            return false;
+        }
+        int currency = amount.currency().ordinal();
+        return amount.minorUnits() >= minMinorUnits[index][currency]
+            && amount.minorUnits() <= maxMinorUnits[index][currency];
+    }
+
+    // Sınır ana birimde yapılandırılır; kuruşa çevrilirken alt sınır yukarı, üst sınır aşağı yuvarlanır
+    private static long toMinorUnits(BigDecimal limit, Currency currency, RoundingMode rounding, long unbounded) {
+        if (limit == null) {
+            return unbounded;
+        }
+        return limit.movePointRight(currency.getDecimalPlaces()).setScale(0, rounding).longValueExact();
+    }
+}
@@ -0,0 +1,46 @@
+package com.denizcan.paymentorchestration.model;
+
+import com.denizcan.paymentorchestration.exception.PaymentValidationException;
+import com.fasterxml.jackson.annotation.JsonCreator;
+
+// Desteklenen para birimleri ve ondalık hane sayıları. Tutarlar bu tabloya göre en küçük
+// birim (kuruş, cent) cinsinden long olarak tutulur.
+public enum Currency {
+    TRY(2),
+    USD(2),
+    EUR(2);
+
+    private static final Currency[] VALUES = values();
+
+    private final int decimalPlaces;
+
+    Currency(int decimalPlaces) {
+        this.decimalPlaces = decimalPlaces;
+    }
+
+    public int getDecimalPlaces() {
+        return decimalPlaces;
+    }
+
+    // Nesne üretmeden çözümler; bilinmeyen kod için null döner
+    public static Currency fromCode(String code) {
+        if (code == null) {
+            return null;
+        }
+        for (Currency currency : VALUES) {
+            if (currency.name().equals(code)) {
+                return currency;
+            }
+        }
+        return null;
+    }
+
+    @JsonCreator
+    public static Currency parse(String code) {
+        Currency currency = fromCode(code);
+        if (currency == null) {
+            throw new PaymentValidationException("Desteklenmeyen para birimi: " + code);
+        }
+        return currency;
+    }
+}
@@ -0,0 +1,26 @@
+package com.denizcan.paymentorchestration.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+// Para birimi kolonda ISO kodu olarak durur; okurken enum adından değil tablodan çözülür
+@Converter(autoApply = true)
+public class CurrencyConverter implements AttributeConverter<Currency, String> {
+
+    @Override
+    public String convertToDatabaseColumn(Currency currency) {
+        return currency == null ? null : currency.name();
+    }
+
+    @Override
+    public Currency convertToEntityAttribute(String code) {
+        if (code == null) {
+            return null;
+        }
+        Currency currency = Currency.fromCode(code);
+        if (currency == null) {
+            throw new IllegalStateException("Veritabanında tanınmayan para birimi: " + code);
+        }
+        return currency;
+    }
+}
@@ -0,0 +1,71 @@
+package com.denizcan.paymentorchestration.model;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+@Entity
+@Table(name = "idempotency_keys", indexes = {
+    @Index(name = "idx_idempotency_expires_at", columnList = "expires_at")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyRecord implements Persistable<String> {
+    // scope ve istemci anahtarının birleşimi, ör. PAYMENT_CREATE:abc-123
+    @Id
+    @Column(length = 300)
+    private String id;
+
+    // Aynı anahtarın farklı bir istek gövdesiyle tekrar kullanılmasını yakalamak için
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    // İşlem sürerken null; anahtar bu süre boyunca ayrılmış ama yanıtsız durur
+    @Column(name = "response_status")
+    private Integer responseStatus;
+
+    // @Lob, PostgreSQL'de ayrı bir large object (oid) olarak saklanırdı
+    @Column(name = "response_body", length = 65535)
+    private String responseBody;
+
+    // Her rezervasyona özgü; süresi dolan rezervasyon silinip anahtar başka bir isteğe geçtiğinde
+    // eski isteğin tamamlama ve serbest bırakma sorguları yeni sahibin kaydına dokunmaz
+    @Column(name = "reservation_token", length = 36)
+    private String reservationToken;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    // Anahtar elle atandığı için save() önce SELECT atmasın; kayıtlar yalnızca bir kez yazılır
+    @Transient
+    @Builder.Default
+    private boolean newRecord = true;
+
+    @Override
+    public boolean isNew() {
+        return newRecord;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        newRecord = false;
+    }
+
+    public boolean isExpired(Instant now) {
+        return !expiresAt.isAfter(now);
+    }
+
+    public boolean isPending() {
+        return responseStatus == null;
+    }
+}
@@ -0,0 +1,5 @@
+package com.denizcan.paymentorchestration.model;
+
+public enum IdempotencyScope {
+    PAYMENT_CREATE
+}
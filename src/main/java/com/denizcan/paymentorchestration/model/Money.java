@@ -0,0 +1,100 @@
+package com.denizcan.paymentorchestration.model;
+
+import com.denizcan.paymentorchestration.exception.PaymentValidationException;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import org.hibernate.annotations.EmbeddableInstantiator;
+
+import java.math.BigDecimal;
+
+// Tutar ve para birimi. Tutar, para biriminin en küçük biriminde long olarak tutulur;
+// toplama, karşılaştırma ve doğrulama nesne üretmez. BigDecimal'a sadece dış sınırda
+// (JSON, yapılandırma) çevrilir. Farklı para birimleri arasında işlem yapılmaz.
+// Tablolarda iki kolona (amount, currency) yazılır.
+@Embeddable
+@EmbeddableInstantiator(MoneyInstantiator.class)
+@JsonSerialize(using = MoneyJson.Serializer.class)
+@JsonDeserialize(using = MoneyJson.Deserializer.class)
+public record Money(
+        @Column(name = "amount", nullable = false) long minorUnits,
+        @Column(name = "currency", nullable = false, length = 3) Currency currency) implements Comparable<Money> {
+
+    public Money {
+        if (currency == null) {
+            throw new PaymentValidationException("Para birimi boş olamaz");
+        }
+    }
+
+    public static Money ofMinor(long minorUnits, Currency currency) {
+        return new Money(minorUnits, currency);
+    }
+
+    public static Money zero(Currency currency) {
+        return new Money(0, currency);
+    }
+
+    // Para biriminin hane sayısından fazla ondalık içeren tutar yuvarlanmaz, reddedilir
+    public static Money of(BigDecimal amount, Currency currency) {
+        if (amount == null) {
+            throw new PaymentValidationException("Tutar boş olamaz");
+        }
+        if (currency == null) {
+            throw new PaymentValidationException("Para birimi boş olamaz");
+        }
+        try {
+            return new Money(amount.movePointRight(currency.getDecimalPlaces()).longValueExact(), currency);
+        } catch (ArithmeticException e) {
+            throw new PaymentValidationException(String.format(
+                "%s için tutar en fazla %d ondalık hane içerebilir: %s",
+                currency, currency.getDecimalPlaces(), amount.toPlainString()));
+        }
+    }
+
+    public static Money of(String amount, Currency currency) {
+        return of(new BigDecimal(amount), currency);
+    }
+
+    public BigDecimal toDecimal() {
+        return BigDecimal.valueOf(minorUnits, currency.getDecimalPlaces());
+    }
+
+    public boolean isPositive() {
+        return minorUnits > 0;
+    }
+
+    public Money plus(Money other) {
+        return new Money(Math.addExact(minorUnits, sameCurrency(other).minorUnits), currency);
+    }
+
+    public Money minus(Money other) {
+        return new Money(Math.subtractExact(minorUnits, sameCurrency(other).minorUnits), currency);
+    }
+
+    public boolean isGreaterThan(Money other) {
+        return minorUnits > sameCurrency(other).minorUnits;
+    }
+
+    public boolean isLessThan(Money other) {
+        return minorUnits < sameCurrency(other).minorUnits;
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(minorUnits, sameCurrency(other).minorUnits);
+    }
+
+    @Override
+    public String toString() {
+        return toDecimal().toPlainString() + " " + currency;
+    }
+
+    private Money sameCurrency(Money other) {
+        if (other.currency != currency) {
+            throw new PaymentValidationException(
+                String.format("Farklı para birimleri arasında işlem yapılamaz: %s, %s", currency, other.currency));
+        }
+        return other;
+    }
+}
@@ -0,0 +1,34 @@
+package com.denizcan.paymentorchestration.model;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.metamodel.spi.EmbeddableInstantiator;
+import org.hibernate.metamodel.spi.ValueAccess;
+
+// Hibernate gömülü nesnenin alanlarını ada göre sıralı verir (currency, minorUnits); bu sıra
+// record kurucusununkiyle uyuşmadığından Money elle kurulur.
+public class MoneyInstantiator implements EmbeddableInstantiator {
+
+    @Override
+    public Object instantiate(ValueAccess valueAccess, SessionFactoryImplementor sessionFactory) {
+        Currency currency = null;
+        Long minorUnits = null;
+        for (Object value : valueAccess.getValues()) {
+            if (value instanceof Currency c) {
+                currency = c;
+            } else if (value instanceof Number n) {
+                minorUnits = n.longValue();
+            }
+        }
+        return currency == null || minorUnits == null ? null : new Money(minorUnits, currency);
+    }
+
+    @Override
+    public boolean isInstance(Object object, SessionFactoryImplementor sessionFactory) {
+        return object instanceof Money;
+    }
+
+    @Override
+    public boolean isSameClass(Object object, SessionFactoryImplementor sessionFactory) {
+        return object.getClass() == Money.class;
+    }
+}
@@ -0,0 +1,113 @@
+package com.denizcan.paymentorchestration.model;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fasterxml.jackson.databind.util.NameTransformer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+// Money JSON'da {"amount": 149.90, "currency": "TRY"} olarak yazılır. @JsonUnwrapped ile
+// kullanıldığında bu iki alan üst nesneye açılır; böylece ödeme ve webhook gövdeleri
+// eskisi gibi düz amount/currency alanları taşır.
+public final class MoneyJson {
+
+    private MoneyJson() {
+    }
+
+    public static class Serializer extends StdSerializer<Money> {
+
+        private final NameTransformer unwrapping;
+
+        public Serializer() {
+            this(null);
+        }
+
+        private Serializer(NameTransformer unwrapping) {
+            super(Money.class);
+            this.unwrapping = unwrapping;
+        }
+
+        @Override
+        public void serialize(Money money, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            if (unwrapping == null) {
+                gen.writeStartObject(money);
+            }
+            gen.writeFieldName(name("amount"));
+            gen.writeNumber(money.toDecimal());
+            gen.writeFieldName(name("currency"));
+            gen.writeString(money.currency().name());
+            if (unwrapping == null) {
+                gen.writeEndObject();
+            }
+        }
+
+        @Override
+        public boolean isUnwrappingSerializer() {
+            return unwrapping != null;
+        }
+
+        @Override
+        public JsonSerializer<Money> unwrappingSerializer(NameTransformer transformer) {
+            return new Serializer(transformer);
+        }
+
+        private String name(String field) {
+            return unwrapping == null ? field : unwrapping.transform(field);
+        }
+    }
+
+    // Açılmış kullanımda Jackson üst nesnenin tanımadığı alanları tek nesne olarak verir;
+    // amount ve currency dışındaki alanlar atlanır. İkisi de yoksa değer null'dır.
+    public static class Deserializer extends StdDeserializer<Money> {
+
+        private final boolean unwrapping;
+
+        public Deserializer() {
+            this(false);
+        }
+
+        private Deserializer(boolean unwrapping) {
+            super(Money.class);
+            this.unwrapping = unwrapping;
+        }
+
+        // Jackson alanı ancak farklı bir örnek dönerse açılmış olarak ele alır
+        @Override
+        public JsonDeserializer<Money> unwrappingDeserializer(NameTransformer transformer) {
+            return unwrapping ? this : new Deserializer(true);
+        }
+
+        @Override
+        public Money deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            JsonToken token = p.currentToken();
+            if (token == JsonToken.START_OBJECT) {
+                token = p.nextToken();
+            }
+            BigDecimal amount = null;
+            String currency = null;
+            for (; token == JsonToken.FIELD_NAME; token = p.nextToken()) {
+                String field = p.currentName();
+                JsonToken value = p.nextToken();
+                if ("amount".equals(field) && value != JsonToken.VALUE_NULL) {
+                    amount = value == JsonToken.VALUE_STRING ? new BigDecimal(p.getText()) : p.getDecimalValue();
+                } else if ("currency".equals(field) && value != JsonToken.VALUE_NULL) {
+                    currency = p.getText();
+                } else {
+                    p.skipChildren();
+                }
+            }
+            if (amount == null && currency == null) {
+                return null;
+            }
+            return Money.of(amount, currency == null ? null : Currency.parse(currency));
+        }
+    }
+}
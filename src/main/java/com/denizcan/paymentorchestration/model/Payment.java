@@ -1,30 +1,38 @@
 package com.denizcan.paymentorchestration.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
-import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
+@Table(indexes = {
+    // Sayfalama (created_at, id) sırasıyla yapılır; filtreli sorgular kendi indeksinden okur
+    @Index(name = "idx_payment_created_at_id", columnList = "created_at, id"),
+    @Index(name = "idx_payment_status_created_at", columnList = "status, created_at, id"),
+    @Index(name = "idx_payment_provider_created_at", columnList = "provider, created_at, id"),
+    @Index(name = "idx_payment_currency_created_at", columnList = "currency, created_at, id")
+})
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class Payment {
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedId
     private String id;
     
+    // JSON'da eskisi gibi düz amount ve currency alanları olarak görünür
     @NotNull(message = "Tutar boş olamaz")
-    @Positive(message = "Tutar pozitif olmalıdır")
-    private BigDecimal amount;
-    
-    @NotBlank(message = "Para birimi boş olamaz")
-    @Size(min = 3, max = 3, message = "Para birimi 3 karakter olmalıdır (Örn: TRY, USD)")
-    private String currency;
+    @Embedded
+    @JsonUnwrapped
+    private Money amount;
     
     @Enumerated(EnumType.STRING)
     private PaymentStatus status = PaymentStatus.PENDING;
@@ -32,6 +40,42 @@ public class Payment {
     @Enumerated(EnumType.STRING)
     private PaymentProvider provider;
     
+    // Başarılı ve sonucu bekleyen iadelerin toplamı; hiçbir zaman amount'u geçmez.
+    // Para birimi ödemeninkiyle aynıdır, currency kolonunu paylaşır.
+    @Embedded
+    @AttributeOverride(name = "minorUnits", column = @Column(name = "refunded_amount", nullable = false))
+    @AttributeOverride(name = "currency", column = @Column(name = "currency", insertable = false, updatable = false))
+    private Money refundedAmount;
+
+    // Tutarın oluşturma anındaki kurla uzlaşma para birimindeki karşılığı; kur yoksa boş kalır
+    @Embedded
+    @AttributeOverride(name = "minorUnits", column = @Column(name = "settlement_amount"))
+    @AttributeOverride(name = "currency", column = @Column(name = "settlement_currency", length = 3))
+    private Money settlementAmount;
+
     @Size(max = 255, message = "Açıklama 255 karakterden uzun olamaz")
     private String description;
-} 
\ No newline at end of file
+
+    // Alan güncellemelerinde kayıp yazmayı önler; durum geçişleri de bu sayacı artırır
+    @Version
+    private Long version;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    // Ödeme arşivden okunduysa true; arşivdeki ödemeler salt okunurdur
+    @Transient
+    @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+    private boolean archived;
+
+    @PrePersist
+    void onCreate() {
+        if (createdAt == null) {
+            // Veritabanı mikro saniye tutar; imleçlerin birebir eşleşmesi için aynı hassasiyete indir
+            createdAt = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        }
+        if (refundedAmount == null && amount != null) {
+            refundedAmount = Money.zero(amount.currency());
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.denizcan.paymentorchestration.model;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import jakarta.persistence.*;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Outbox kaydı: ödemedeki her değişiklik aynı transaction içinde buraya da yazılır.
+// sequenceNumber yazma anında değil, relay yayınlarken verilir; abonelerin kaldığı yer bu
+// numaradır. Aynı ödemenin olayları paymentVersion sırasıyla numaralanır.
+@Entity
+@Table(name = "payment_event", indexes = {
+    @Index(name = "idx_payment_event_sequence_number", columnList = "sequence_number", unique = true),
+    @Index(name = "idx_payment_event_payment_id", columnList = "payment_id, payment_version")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "payment_event_seq")
+    @SequenceGenerator(name = "payment_event_seq", sequenceName = "payment_event_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "sequence_number")
+    private Long sequenceNumber;
+
+    @Column(name = "payment_id", nullable = false)
+    private String paymentId;
+
+    // Olayı üreten değişiklikten sonraki ödeme sürümü. Olay yazan her transaction ödeme satırını
+    // kilitleyip sürümü artırır, yani sürüm ödeme içinde commit sırasıdır. id bu sırayı vermez:
+    // sequence her düğüme 50'lik blok ayırır, sonra commit eden düğüm daha küçük id almış olabilir.
+    @Column(name = "payment_version")
+    private Long paymentVersion;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private PaymentEventType type;
+
+    @Enumerated(EnumType.STRING)
+    private PaymentStatus status;
+
+    @Embedded
+    @JsonUnwrapped
+    private Money amount;
+
+    @Embedded
+    @AttributeOverride(name = "minorUnits", column = @Column(name = "refunded_amount"))
+    @AttributeOverride(name = "currency", column = @Column(name = "currency", insertable = false, updatable = false))
+    private Money refundedAmount;
+
+    @Enumerated(EnumType.STRING)
+    private PaymentProvider provider;
+
+    // Sadece iade olaylarında dolu
+    @Column(name = "refund_id")
+    private String refundId;
+
+    @Embedded
+    @AttributeOverride(name = "minorUnits", column = @Column(name = "refund_amount"))
+    @AttributeOverride(name = "currency", column = @Column(name = "refund_currency", length = 3))
+    private Money refundAmount;
+
+    @Column(name = "occurred_at", nullable = false)
+    private Instant occurredAt;
+
+    @PrePersist
+    void onCreate() {
+        if (occurredAt == null) {
+            occurredAt = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        }
+    }
+}
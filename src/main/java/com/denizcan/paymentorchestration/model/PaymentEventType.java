@@ -0,0 +1,11 @@
+package com.denizcan.paymentorchestration.model;
+
+public enum PaymentEventType {
+    CREATED,
+    UPDATED,
+    STATUS_CHANGED,
+    DELETED,
+    REFUND_REQUESTED,
+    REFUND_SUCCEEDED,
+    REFUND_FAILED
+}
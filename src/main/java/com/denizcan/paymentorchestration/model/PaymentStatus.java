@@ -5,5 +5,6 @@ public enum PaymentStatus {
     PROCESSING,
     COMPLETED,
     FAILED,
+    PARTIALLY_REFUNDED,
     REFUNDED
-} 
\ No newline at end of file
+}
@@ -0,0 +1,66 @@
+package com.denizcan.paymentorchestration.model;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import jakarta.persistence.*;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Bir ödemeye ait (kısmi) iade. Tutar oluşturulurken ödemeden ayrılır (refundedAmount);
+// sağlayıcı reddederse ayrılan tutar ödemeye geri verilir. Sonucu beklenen iade, onu gönderen
+// instance'a kiralanır; kiralama yenilenmezse başka bir instance iadeyi devralır.
+@Entity
+@Table(indexes = {
+    @Index(name = "idx_refund_payment_id", columnList = "payment_id, created_at"),
+    @Index(name = "idx_refund_status", columnList = "status, lease_until")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Refund {
+    @Id
+    @TimeOrderedId
+    private String id;
+
+    @Column(name = "payment_id", nullable = false)
+    private String paymentId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private PaymentProvider provider;
+
+    @Embedded
+    @JsonUnwrapped
+    private Money amount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private RefundStatus status;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    @Column(name = "completed_at")
+    private Instant completedAt;
+
+    // Sağlayıcıya ulaşılamadığı ya da sonucu yazılamadığı için tekrarlanan gönderim sayısı
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "lease_owner", length = 64)
+    private String leaseOwner;
+
+    @Column(name = "lease_until")
+    private Instant leaseUntil;
+
+    @PrePersist
+    void onCreate() {
+        if (createdAt == null) {
+            createdAt = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        }
+    }
+}
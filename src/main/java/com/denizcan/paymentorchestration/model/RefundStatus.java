@@ -0,0 +1,9 @@
+package com.denizcan.paymentorchestration.model;
+
+public enum RefundStatus {
+    PENDING,
+    SUCCEEDED,
+    FAILED,
+    // Deneme hakkı bitti; sağlayıcıda gerçekleşmiş olabileceği için tutar ödemede ayrılı kalır
+    FAILED_PERMANENT
+}
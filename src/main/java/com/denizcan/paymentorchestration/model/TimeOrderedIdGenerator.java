@@ -0,0 +1,104 @@
+package com.denizcan.paymentorchestration.model;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Snowflake düzeninde 64 bitlik id: 41 bit milisaniye (2024'ten itibaren ~69 yıl),
+// 10 bit düğüm numarası, 12 bit sıra. Değer 13 karakterlik Crockford base32 olarak yazılır;
+// sabit genişlik sayesinde metin sıralaması sayı sıralamasıyla aynıdır. Rastgele UUID'lerin
+// aksine yeni kayıtlar indeksin sonuna eklenir ve anahtar 36 yerine 13 karakterdir.
+// Kolon tipi değişmediğinden önceden üretilmiş UUID id'ler aynen okunmaya devam eder.
+public class TimeOrderedIdGenerator implements BeforeExecutionGenerator {
+
+    static final long EPOCH_MILLIS = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+    public static final int LENGTH = 13;
+
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final byte[] DIGITS = new byte[128];
+
+    static {
+        Arrays.fill(DIGITS, (byte) -1);
+        for (int i = 0; i < ALPHABET.length; i++) {
+            DIGITS[ALPHABET[i]] = (byte) i;
+        }
+    }
+
+    // (milisaniye << SEQUENCE_BITS | sıra) olarak son verilen değer. Saat geri giderse ya da
+    // aynı milisaniyede sıra taşarsa bir sonraki milisaniye ödünç alınır; id'ler hiç azalmaz.
+    private static final AtomicLong LAST = new AtomicLong();
+    private static volatile long nodeBits;
+
+    // Birden fazla instance aynı veritabanına yazıyorsa her birinin düğüm numarası farklı olmalı
+    public static void configure(int nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Düğüm numarası 0 ile " + MAX_NODE_ID + " arasında olmalıdır: " + nodeId);
+        }
+        nodeBits = (long) nodeId << SEQUENCE_BITS;
+    }
+
+    public static String next() {
+        return encode(nextValue());
+    }
+
+    static long nextValue() {
+        long now = (System.currentTimeMillis() - EPOCH_MILLIS) << SEQUENCE_BITS;
+        while (true) {
+            long last = LAST.get();
+            long candidate = Math.max(now, last + 1);
+            if (LAST.compareAndSet(last, candidate)) {
+                long millis = candidate >>> SEQUENCE_BITS;
+                return millis << (NODE_BITS + SEQUENCE_BITS) | nodeBits | (candidate & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    public static String encode(long value) {
+        char[] chars = new char[LENGTH];
+        for (int i = LENGTH - 1; i >= 0; i--) {
+            chars[i] = ALPHABET[(int) (value & 31)];
+            value >>>= 5;
+        }
+        return new String(chars);
+    }
+
+    // Id'nin sayısal değeri; zaman sıralı id değilse (ör. eski UUID'ler) 0 döner
+    public static long decode(CharSequence id) {
+        if (id == null || id.length() != LENGTH || digit(id.charAt(0)) > 15) {
+            return 0;
+        }
+        long value = 0;
+        for (int i = 0; i < LENGTH; i++) {
+            int digit = digit(id.charAt(i));
+            if (digit < 0) {
+                return 0;
+            }
+            value = value << 5 | digit;
+        }
+        return value;
+    }
+
+    private static int digit(char c) {
+        return c < DIGITS.length ? DIGITS[c] : -1;
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue, EventType eventType) {
+        return next();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+}
@@ -0,0 +1,46 @@
+package com.denizcan.paymentorchestration.repository;
+
+import com.denizcan.paymentorchestration.model.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.expiresAt <= :now")
+    int deleteExpired(@Param("now") Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("""
+        update IdempotencyRecord r
+           set r.responseStatus = :status, r.responseBody = :body, r.expiresAt = :expiresAt
+         where r.id = :id and r.reservationToken = :token and r.responseStatus is null
+        """)
+    int complete(@Param("id") String id,
+                 @Param("token") String token,
+                 @Param("status") int status,
+                 @Param("body") String body,
+                 @Param("expiresAt") Instant expiresAt);
+
+    @Transactional
+    @Modifying
+    @Query("""
+        delete from IdempotencyRecord r
+         where r.id = :id and r.reservationToken = :token and r.responseStatus is null
+        """)
+    int deletePending(@Param("id") String id, @Param("token") String token);
+
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.id = :id and r.expiresAt <= :now")
+    int deleteIfExpired(@Param("id") String id, @Param("now") Instant now);
+}
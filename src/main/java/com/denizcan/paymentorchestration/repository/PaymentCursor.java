@@ -0,0 +1,33 @@
+package com.denizcan.paymentorchestration.repository;
+
+import com.denizcan.paymentorchestration.exception.PaymentValidationException;
+import com.denizcan.paymentorchestration.model.Payment;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+// Anahtar kümesi (keyset) sayfalama imleci: son okunan satırın (createdAt, id) değeri.
+// İstemciye opak bir base64 metin olarak verilir.
+public record PaymentCursor(Instant createdAt, String id) {
+
+    public static PaymentCursor after(Payment payment) {
+        return new PaymentCursor(payment.getCreatedAt(), payment.getId());
+    }
+
+    public String encode() {
+        String raw = createdAt.getEpochSecond() + ":" + createdAt.getNano() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PaymentCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":", 3);
+            Instant createdAt = Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+            return new PaymentCursor(createdAt, parts[2]);
+        } catch (RuntimeException e) {
+            throw new PaymentValidationException("Geçersiz sayfa imleci: " + token);
+        }
+    }
+}
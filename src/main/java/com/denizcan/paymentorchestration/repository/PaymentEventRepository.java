@@ -0,0 +1,50 @@
+package com.denizcan.paymentorchestration.repository;
+
+import com.denizcan.paymentorchestration.model.PaymentEvent;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PaymentEventRepository extends JpaRepository<PaymentEvent, Long> {
+
+    // Henüz yayınlanmamış olaylar; aynı anda çalışan iki relay aynı satırları alamaz. id sırası
+    // düğümler arasında commit sırası değildir, ödeme içindeki sıra relay'de sürüme göre kurulur.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select e from PaymentEvent e where e.sequenceNumber is null order by e.id")
+    List<PaymentEvent> findUnpublished(Pageable page);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select e from PaymentEvent e where e.sequenceNumber is null and e.paymentId in :paymentIds order by e.id")
+    List<PaymentEvent> findUnpublishedOf(@Param("paymentIds") Collection<String> paymentIds);
+
+    @Query("select coalesce(max(e.sequenceNumber), 0) from PaymentEvent e")
+    long findLastSequenceNumber();
+
+    List<PaymentEvent> findBySequenceNumberGreaterThanOrderBySequenceNumberAsc(long after, Pageable page);
+
+    // Sıra numarası indeksi üzerinden en eskiden başlar; eski olaylar başta olduğundan tarama kısa sürer.
+    // En büyük numaralı olay süresi dolsa da silinmez: sıradaki numara ondan devam eder, tablo
+    // boşalınca numaralar 1'den başlayıp kaldığı yerden okuyan aboneleri şaşırtmaz
+    @Query("""
+        select e.id from PaymentEvent e
+        where e.sequenceNumber is not null and e.occurredAt < :before
+          and e.sequenceNumber < (select max(last.sequenceNumber) from PaymentEvent last)
+        order by e.sequenceNumber""")
+    List<Long> findPublishedBefore(@Param("before") Instant before, Pageable page);
+
+    @Transactional
+    @Modifying
+    @Query("delete from PaymentEvent e where e.id in :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+}
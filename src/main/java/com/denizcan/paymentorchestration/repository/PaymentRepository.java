@@ -1,11 +1,33 @@
 package com.denizcan.paymentorchestration.repository;
 
 import com.denizcan.paymentorchestration.model.Payment;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
-public interface PaymentRepository extends JpaRepository<Payment, String> {
+public interface PaymentRepository extends JpaRepository<Payment, String>, PaymentRepositoryCustom {
     // JpaRepository bize temel CRUD operasyonlarını sağlar
     // Özel sorgular gerekirse buraya ekleyebiliriz
-} 
\ No newline at end of file
+
+    // Yazmalar outbox kaydıyla birlikte PaymentRepositoryCustomImpl'den geçer
+    @Override
+    <S extends Payment> S save(S payment);
+
+    @Override
+    <S extends Payment> List<S> saveAll(Iterable<S> payments);
+
+    @Override
+    void delete(Payment payment);
+
+    // Toplu işlemede bir parçayı tek sorguda okuyup satırları kilitler
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select p from Payment p where p.id in :ids")
+    List<Payment> findAllByIdForUpdate(@Param("ids") Collection<String> ids);
+}
@@ -0,0 +1,70 @@
+package com.denizcan.paymentorchestration.repository;
+
+import com.denizcan.paymentorchestration.dto.PaymentFilter;
+import com.denizcan.paymentorchestration.model.Money;
+import com.denizcan.paymentorchestration.model.Payment;
+import com.denizcan.paymentorchestration.model.PaymentProvider;
+import com.denizcan.paymentorchestration.model.PaymentStatus;
+import com.denizcan.paymentorchestration.model.Refund;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+// Ödemeyi değiştiren her metot, değişikliği aynı transaction içinde payment_event outbox'ına da yazar
+public interface PaymentRepositoryCustom {
+    // En yeni ödemeden başlayarak imleçten sonraki en fazla limit kadar kaydı döner
+    List<Payment> findPage(PaymentFilter filter, PaymentCursor after, int limit);
+
+    // JDBC imleci üzerinden satır satır okur; dönen kayıtlar persistence context'ten ayrılmıştır.
+    // Açık bir transaction içinde tüketilmeli ve kapatılmalıdır.
+    Stream<Payment> streamAll(PaymentFilter filter);
+
+    // Sağlayıcının [fromId, toId] aralığındaki zaman sıralı id'li ödemelerini id sırasıyla, yani
+    // birincil anahtar üzerinde sırayla okur. Eski UUID id'ler aralığa girmez. streamAll gibi
+    // açık bir transaction içinde tüketilmelidir.
+    Stream<Payment> streamByIdRange(PaymentProvider provider, String fromId, String toId);
+
+    <S extends Payment> S save(S payment);
+
+    <S extends Payment> List<S> saveAll(Iterable<S> payments);
+
+    void delete(Payment payment);
+
+    // Tek ödemenin durum geçişi: okuma yapmadan tek UPDATE ile, sadece izin verilen durumlardan.
+    // Aynı ödemeye yarışan isteklerden yalnızca biri 1 döner, diğerleri 0.
+    int transitionStatus(String id, Collection<PaymentStatus> from, PaymentStatus to);
+
+    // Okunmuş ödemenin sürümü değişmediyse tek UPDATE ile geçirir; olay okunan halden yazılır,
+    // satır tekrar okunmaz. Sürüm ya da durum değiştiyse 0 döner.
+    int transitionStatus(Payment current, Collection<PaymentStatus> from, PaymentStatus to);
+
+    // Webhook'ların toplu uygulanması: aynı hedef duruma geçen ödemeler tek UPDATE ile,
+    // sadece izin verilen durumlardan geçirilir. Uygun durumda olmayan satırlar atlanır.
+    int transitionStatuses(Collection<String> ids, Collection<PaymentStatus> from, PaymentStatus to);
+
+    // transitionStatuses ile aynı, geçiş yapan ödemelerin id'lerini döner
+    List<String> moveStatuses(Collection<String> ids, Collection<PaymentStatus> from, PaymentStatus to);
+
+    // İade tutarını tek koşullu UPDATE ile ödemeden ayırır ve PENDING iade kaydını oluşturur.
+    // İade, oluşturulduğu anda gönderecek instance'a kiralanır. Ödeme iade edilebilir durumda
+    // değilse ya da toplam iade tutarı ödemeyi aşacaksa null döner.
+    Refund reserveRefund(String paymentId, Money amount, Collection<PaymentStatus> refundable,
+                         String leaseOwner, Instant leaseUntil);
+
+    // Arşive taşınacak ödemeleri en eskiden başlayarak okur ve kilitler. Sonucu beklenen ya da
+    // elle incelenmesi gereken (FAILED_PERMANENT) iadesi olan ödemeler atlanır.
+    List<Payment> lockArchivable(Collection<PaymentStatus> statuses, Instant createdBefore, int limit);
+
+    // Arşive yazılmış ödemeleri siler. Ödeme iş açısından silinmediği için outbox'a olay yazılmaz.
+    int deleteArchived(Collection<String> ids);
+
+    // Sağlayıcı sonuçlarını yazar; reddedilen iadelerin tutarı ödemeye geri verilir.
+    // Sonuçlanan (daha önce sonuçlanmamış) iade sayısını döner.
+    int completeRefunds(Collection<String> succeeded, Collection<String> failed);
+
+    // Deneme sınırını aşan, hâlâ bekleyen iadeleri FAILED_PERMANENT yapar ve REFUND_FAILED olayı yazar.
+    // Sağlayıcıda gerçekleşmiş olabilecekleri için tutar ödemeye geri verilmez. İşaretlenen sayıyı döner.
+    int failRefundsPermanently(Collection<String> ids);
+}
@@ -0,0 +1,411 @@
+package com.denizcan.paymentorchestration.repository;
+
+import com.denizcan.paymentorchestration.dto.PaymentFilter;
+import com.denizcan.paymentorchestration.model.Money;
+import com.denizcan.paymentorchestration.model.Payment;
+import com.denizcan.paymentorchestration.model.PaymentEvent;
+import com.denizcan.paymentorchestration.model.PaymentEventType;
+import com.denizcan.paymentorchestration.model.PaymentProvider;
+import com.denizcan.paymentorchestration.model.PaymentStatus;
+import com.denizcan.paymentorchestration.model.Refund;
+import com.denizcan.paymentorchestration.model.RefundStatus;
+import com.denizcan.paymentorchestration.model.TimeOrderedIdGenerator;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.stream.Stream;
+
+class PaymentRepositoryCustomImpl implements PaymentRepositoryCustom {
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Payment> findPage(PaymentFilter filter, PaymentCursor after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Payment> query = cb.createQuery(Payment.class);
+        Root<Payment> payment = query.from(Payment.class);
+
+        List<Predicate> predicates = filterPredicates(cb, payment, filter);
+        if (after != null) {
+            // (created_at, id) < (imleç) — OFFSET yerine indeks üzerinde doğrudan konumlanır
+            predicates.add(cb.or(
+                cb.lessThan(payment.get("createdAt"), after.createdAt()),
+                cb.and(
+                    cb.equal(payment.get("createdAt"), after.createdAt()),
+                    cb.lessThan(payment.get("id"), after.id()))));
+        }
+
+        query.select(payment)
+            .where(predicates.toArray(Predicate[]::new))
+            .orderBy(cb.desc(payment.get("createdAt")), cb.desc(payment.get("id")));
+
+        return entityManager.createQuery(query)
+            .setMaxResults(limit)
+            .getResultList();
+    }
+
+    @Override
+    public Stream<Payment> streamAll(PaymentFilter filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Payment> query = cb.createQuery(Payment.class);
+        Root<Payment> payment = query.from(Payment.class);
+
+        query.select(payment)
+            .where(filterPredicates(cb, payment, filter).toArray(Predicate[]::new))
+            .orderBy(cb.desc(payment.get("createdAt")), cb.desc(payment.get("id")));
+
+        return entityManager.createQuery(query)
+            .setHint(HibernateHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+            .setHint(HibernateHints.HINT_READ_ONLY, true)
+            .getResultStream()
+            .map(row -> {
+                // Okunan satır context'te birikmesin, bellek sonuç boyutundan bağımsız kalsın
+                entityManager.detach(row);
+                return row;
+            });
+    }
+
+    @Override
+    public Stream<Payment> streamByIdRange(PaymentProvider provider, String fromId, String toId) {
+        return entityManager.createQuery("""
+                select p from Payment p
+                where p.provider = :provider and p.id between :from and :to and length(p.id) = :length
+                order by p.id""", Payment.class)
+            .setParameter("provider", provider)
+            .setParameter("from", fromId)
+            .setParameter("to", toId)
+            .setParameter("length", TimeOrderedIdGenerator.LENGTH)
+            .setHint(HibernateHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+            .setHint(HibernateHints.HINT_READ_ONLY, true)
+            .getResultStream()
+            .map(row -> {
+                entityManager.detach(row);
+                return row;
+            });
+    }
+
+    @Override
+    @Transactional
+    public <S extends Payment> S save(S payment) {
+        // Sürümü olmayan kayıt yenidir; JpaRepository'nin varsayılan kararıyla aynı
+        Long before = payment.getVersion();
+        if (before == null) {
+            S saved = persist(payment);
+            entityManager.persist(eventOf(saved, PaymentEventType.CREATED, saved.getVersion()));
+            return saved;
+        }
+        // Sürüm ancak flush'ta ve kayıt gerçekten değiştiyse artar; olay satırın aldığı sürümü taşır,
+        // değişiklik yoksa olay yazılmaz
+        S saved = entityManager.merge(payment);
+        entityManager.flush();
+        if (!before.equals(saved.getVersion())) {
+            entityManager.persist(eventOf(saved, PaymentEventType.UPDATED, saved.getVersion()));
+        }
+        return saved;
+    }
+
+    @Override
+    @Transactional
+    public <S extends Payment> List<S> saveAll(Iterable<S> payments) {
+        List<S> saved = new ArrayList<>();
+        for (S payment : payments) {
+            saved.add(save(payment));
+        }
+        return saved;
+    }
+
+    @Override
+    @Transactional
+    public void delete(Payment payment) {
+        Payment existing = entityManager.find(Payment.class, payment.getId());
+        if (existing == null) {
+            return;
+        }
+        entityManager.persist(eventOf(existing, PaymentEventType.DELETED, existing.getVersion() + 1));
+        entityManager.remove(existing);
+    }
+
+    @Override
+    @Transactional
+    public int transitionStatus(String id, Collection<PaymentStatus> from, PaymentStatus to) {
+        int updated = entityManager.createQuery(
+                "update Payment p set p.status = :to, p.version = p.version + 1 where p.id = :id and p.status in :from")
+            .setParameter("id", id)
+            .setParameter("from", from)
+            .setParameter("to", to)
+            .executeUpdate();
+        if (updated == 1) {
+            // UPDATE satırı kilitledi; olay yazdığımız hali birebir yansıtır
+            entityManager.persist(currentEvent(id, PaymentEventType.STATUS_CHANGED));
+        }
+        return updated;
+    }
+
+    @Override
+    @Transactional
+    public int transitionStatus(Payment current, Collection<PaymentStatus> from, PaymentStatus to) {
+        int updated = entityManager.createQuery("""
+                update Payment p set p.status = :to, p.version = p.version + 1
+                where p.id = :id and p.version = :version and p.status in :from""")
+            .setParameter("id", current.getId())
+            .setParameter("version", current.getVersion())
+            .setParameter("from", from)
+            .setParameter("to", to)
+            .executeUpdate();
+        if (updated == 1) {
+            // Sürüm eşleştiğine göre okunan hal satırın UPDATE'ten önceki halidir
+            PaymentEvent event = eventOf(current, PaymentEventType.STATUS_CHANGED, current.getVersion() + 1);
+            event.setStatus(to);
+            entityManager.persist(event);
+        }
+        return updated;
+    }
+
+    @Override
+    @Transactional
+    public int transitionStatuses(Collection<String> ids, Collection<PaymentStatus> from, PaymentStatus to) {
+        return moveStatuses(ids, from, to).size();
+    }
+
+    @Override
+    @Transactional
+    public List<String> moveStatuses(Collection<String> ids, Collection<PaymentStatus> from, PaymentStatus to) {
+        // Hangi satırların geçeceğini bilmek için önce uygun olanlar kilitlenir; olay
+        // sadece gerçekten geçiş yapan ödemeler için yazılır
+        List<Payment> matched = entityManager.createQuery(
+                "select p from Payment p where p.id in :ids and p.status in :from", Payment.class)
+            .setParameter("ids", ids)
+            .setParameter("from", from)
+            .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+            .getResultList();
+        if (matched.isEmpty()) {
+            return List.of();
+        }
+
+        List<String> moved = matched.stream().map(Payment::getId).toList();
+        entityManager.createQuery(
+                "update Payment p set p.status = :to, p.version = p.version + 1 where p.id in :ids")
+            .setParameter("ids", moved)
+            .setParameter("to", to)
+            .executeUpdate();
+        for (Payment payment : matched) {
+            PaymentEvent event = eventOf(payment, PaymentEventType.STATUS_CHANGED, payment.getVersion() + 1);
+            event.setStatus(to);
+            entityManager.persist(event);
+        }
+        return moved;
+    }
+
+    @Override
+    @Transactional
+    public Refund reserveRefund(String paymentId, Money amount, Collection<PaymentStatus> refundable,
+                                String leaseOwner, Instant leaseUntil) {
+        // Durum, eski refundedAmount üzerinden hesaplansın diye önce atanır; SET ifadelerini
+        // soldan sağa değerlendiren veritabanlarında da sonuç aynı olur
+        int updated = entityManager.createQuery("""
+                update Payment p
+                set p.status = case when p.refundedAmount.minorUnits + :amount >= p.amount.minorUnits
+                        then :full else :partial end,
+                    p.refundedAmount.minorUnits = p.refundedAmount.minorUnits + :amount,
+                    p.version = p.version + 1
+                where p.id = :id and p.status in :from and p.amount.currency = :currency
+                    and p.refundedAmount.minorUnits + :amount <= p.amount.minorUnits""")
+            .setParameter("full", PaymentStatus.REFUNDED)
+            .setParameter("partial", PaymentStatus.PARTIALLY_REFUNDED)
+            .setParameter("amount", amount.minorUnits())
+            .setParameter("currency", amount.currency())
+            .setParameter("id", paymentId)
+            .setParameter("from", refundable)
+            .executeUpdate();
+        if (updated == 0) {
+            return null;
+        }
+
+        PaymentEvent event = currentEvent(paymentId, PaymentEventType.REFUND_REQUESTED);
+        Refund refund = Refund.builder()
+            .paymentId(paymentId)
+            .provider(event.getProvider())
+            .amount(amount)
+            .status(RefundStatus.PENDING)
+            .leaseOwner(leaseOwner)
+            .leaseUntil(leaseUntil)
+            .build();
+        entityManager.persist(refund);
+        event.setRefundId(refund.getId());
+        event.setRefundAmount(amount);
+        entityManager.persist(event);
+        return refund;
+    }
+
+    @Override
+    @Transactional
+    public List<Payment> lockArchivable(Collection<PaymentStatus> statuses, Instant createdBefore, int limit) {
+        return entityManager.createQuery("""
+                select p from Payment p
+                where p.status in :statuses and p.createdAt < :before
+                    and not exists (select r.id from Refund r where r.paymentId = p.id and r.status in :unsettled)
+                order by p.createdAt, p.id""", Payment.class)
+            .setParameter("statuses", statuses)
+            .setParameter("before", createdBefore)
+            .setParameter("unsettled", EnumSet.of(RefundStatus.PENDING, RefundStatus.FAILED_PERMANENT))
+            .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+            .setMaxResults(limit)
+            .getResultList();
+    }
+
+    @Override
+    @Transactional
+    public int deleteArchived(Collection<String> ids) {
+        return entityManager.createQuery("delete from Payment p where p.id in :ids")
+            .setParameter("ids", ids)
+            .executeUpdate();
+    }
+
+    @Override
+    @Transactional
+    public int completeRefunds(Collection<String> succeeded, Collection<String> failed) {
+        List<Refund> settled = new ArrayList<>();
+        settled.addAll(settleRefunds(succeeded, RefundStatus.SUCCEEDED));
+        List<Refund> rejected = settleRefunds(failed, RefundStatus.FAILED);
+        settled.addAll(rejected);
+
+        // Reddedilen iadenin tutarı ödemeye geri verilir; iadeler farklı tutarlarda olduğundan
+        // satır başına bir UPDATE. Ret nadir olduğundan toplu yolun maliyetine eklenmez.
+        for (Refund refund : rejected) {
+            entityManager.createQuery("""
+                    update Payment p
+                    set p.status = case when p.refundedAmount.minorUnits - :amount <= 0 then :completed else :partial end,
+                        p.refundedAmount.minorUnits = p.refundedAmount.minorUnits - :amount
+                    where p.id = :id and p.refundedAmount.minorUnits >= :amount""")
+                .setParameter("completed", PaymentStatus.COMPLETED)
+                .setParameter("partial", PaymentStatus.PARTIALLY_REFUNDED)
+                .setParameter("amount", refund.getAmount().minorUnits())
+                .setParameter("id", refund.getPaymentId())
+                .executeUpdate();
+        }
+
+        recordRefundOutcomes(settled);
+        return settled.size();
+    }
+
+    @Override
+    @Transactional
+    public int failRefundsPermanently(Collection<String> ids) {
+        // Tutar ödemede ayrılmış kalır; olaydaki iade tutarı ödemeye geri verilmemiştir
+        List<Refund> exhausted = settleRefunds(ids, RefundStatus.FAILED_PERMANENT);
+        recordRefundOutcomes(exhausted);
+        return exhausted.size();
+    }
+
+    // Olay yazan her transaction ödemenin sürümünü artırır; relay aynı ödemenin olaylarını
+    // bu sürüme göre sıralar. Kalıcı hata da diğer başarısız sonuçlar gibi REFUND_FAILED yazar.
+    private void recordRefundOutcomes(List<Refund> settled) {
+        if (settled.isEmpty()) {
+            return;
+        }
+        entityManager.createQuery("update Payment p set p.version = p.version + 1 where p.id in :ids")
+            .setParameter("ids", settled.stream().map(Refund::getPaymentId).distinct().toList())
+            .executeUpdate();
+
+        for (Refund refund : settled) {
+            PaymentEvent event = currentEvent(refund.getPaymentId(), refund.getStatus() == RefundStatus.SUCCEEDED
+                ? PaymentEventType.REFUND_SUCCEEDED
+                : PaymentEventType.REFUND_FAILED);
+            event.setRefundId(refund.getId());
+            event.setRefundAmount(refund.getAmount());
+            entityManager.persist(event);
+        }
+    }
+
+    // Sadece hâlâ PENDING olan iadeler sonuçlandırılır; aynı sonuç tekrar gelirse etkisizdir
+    private List<Refund> settleRefunds(Collection<String> ids, RefundStatus outcome) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        List<Refund> pending = entityManager.createQuery(
+                "select r from Refund r where r.id in :ids and r.status = :pending", Refund.class)
+            .setParameter("ids", ids)
+            .setParameter("pending", RefundStatus.PENDING)
+            .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+            .getResultList();
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        for (Refund refund : pending) {
+            refund.setStatus(outcome);
+            refund.setCompletedAt(now);
+        }
+        return pending;
+    }
+
+    // Değerler persistence context'teki olası eski kopyadan değil doğrudan satırdan okunur
+    private PaymentEvent currentEvent(String paymentId, PaymentEventType type) {
+        Object[] row = entityManager.createQuery(
+                "select p.status, p.amount, p.refundedAmount, p.provider, p.version from Payment p where p.id = :id",
+                Object[].class)
+            .setParameter("id", paymentId)
+            .getSingleResult();
+        return PaymentEvent.builder()
+            .paymentId(paymentId)
+            .type(type)
+            .status((PaymentStatus) row[0])
+            .amount((Money) row[1])
+            .refundedAmount((Money) row[2])
+            .provider((PaymentProvider) row[3])
+            .paymentVersion((Long) row[4])
+            .build();
+    }
+
+    private <S extends Payment> S persist(S payment) {
+        entityManager.persist(payment);
+        return payment;
+    }
+
+    private static PaymentEvent eventOf(Payment payment, PaymentEventType type, Long version) {
+        return PaymentEvent.builder()
+            .paymentId(payment.getId())
+            .paymentVersion(version)
+            .type(type)
+            .status(payment.getStatus())
+            .amount(payment.getAmount())
+            .refundedAmount(payment.getRefundedAmount())
+            .provider(payment.getProvider())
+            .build();
+    }
+
+    private List<Predicate> filterPredicates(CriteriaBuilder cb, Root<Payment> payment, PaymentFilter filter) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter == null) {
+            return predicates;
+        }
+        if (filter.getStatus() != null) {
+            predicates.add(cb.equal(payment.get("status"), filter.getStatus()));
+        }
+        if (filter.getProvider() != null) {
+            predicates.add(cb.equal(payment.get("provider"), filter.getProvider()));
+        }
+        if (filter.getCurrency() != null) {
+            predicates.add(cb.equal(payment.get("amount").get("currency"), filter.getCurrency()));
+        }
+        if (filter.getCreatedFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(payment.<Instant>get("createdAt"), filter.getCreatedFrom()));
+        }
+        if (filter.getCreatedTo() != null) {
+            predicates.add(cb.lessThan(payment.<Instant>get("createdAt"), filter.getCreatedTo()));
+        }
+        return predicates;
+    }
+}
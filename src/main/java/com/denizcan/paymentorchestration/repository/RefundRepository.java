@@ -0,0 +1,52 @@
+package com.denizcan.paymentorchestration.repository;
+
+import com.denizcan.paymentorchestration.model.Refund;
+import com.denizcan.paymentorchestration.model.RefundStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+// İadeler PaymentRepository.reserveRefund ile oluşturulur ve completeRefunds ile sonuçlanır;
+// buradaki güncellemeler sadece iade hattının kiralama ve deneme bilgisini değiştirir
+@Repository
+public interface RefundRepository extends JpaRepository<Refund, String> {
+
+    List<Refund> findByPaymentIdOrderByCreatedAtAsc(String paymentId);
+
+    // Kiralaması dolmuş (sahibi kapanmış ya da çökmüş) ya da hiç kiralanmamış bekleyen iadeler
+    @Query("""
+        select r.id from Refund r
+        where r.status = :pending and (r.leaseUntil is null or r.leaseUntil < :now)
+        order by r.createdAt""")
+    List<String> findClaimable(@Param("pending") RefundStatus pending, @Param("now") Instant now, Pageable page);
+
+    // Koşullu UPDATE: aynı iadeyi aynı anda iki instance'tan sadece biri alır
+    @Transactional
+    @Modifying
+    @Query("""
+        update Refund r set r.leaseOwner = :owner, r.leaseUntil = :until
+        where r.id in :ids and r.status = :pending and (r.leaseUntil is null or r.leaseUntil < :now)""")
+    int claim(@Param("ids") Collection<String> ids, @Param("owner") String owner, @Param("until") Instant until,
+              @Param("pending") RefundStatus pending, @Param("now") Instant now);
+
+    List<Refund> findByIdInAndLeaseOwnerAndStatus(Collection<String> ids, String leaseOwner, RefundStatus status);
+
+    @Transactional
+    @Modifying
+    @Query("update Refund r set r.leaseUntil = :until where r.leaseOwner = :owner and r.status = :pending")
+    int renewLeases(@Param("owner") String owner, @Param("until") Instant until,
+                    @Param("pending") RefundStatus pending);
+
+    @Transactional
+    @Modifying
+    @Query("update Refund r set r.attempts = r.attempts + 1 where r.id in :ids")
+    int incrementAttempts(@Param("ids") Collection<String> ids);
+}
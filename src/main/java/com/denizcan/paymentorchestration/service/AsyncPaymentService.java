@@ -1,23 +1,42 @@
 package com.denizcan.paymentorchestration.service;
 
+import com.denizcan.paymentorchestration.factory.PaymentProviderFactory;
 import com.denizcan.paymentorchestration.model.Payment;
-import org.springframework.scheduling.annotation.Async;
+import com.denizcan.paymentorchestration.model.PaymentStatus;
+import com.denizcan.paymentorchestration.service.provider.AsyncPaymentProviderService;
+import com.denizcan.paymentorchestration.service.provider.ProviderConcurrencyLimiter;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 @Service
 public class AsyncPaymentService {
-    @Async("asyncExecutor")
+
+    private final PaymentProviderFactory providerFactory;
+    private final ProviderConcurrencyLimiter concurrencyLimiter;
+    private final Executor asyncExecutor;
+
+    public AsyncPaymentService(
+            PaymentProviderFactory providerFactory,
+            ProviderConcurrencyLimiter concurrencyLimiter,
+            @Qualifier("asyncExecutor") Executor asyncExecutor) {
+        this.providerFactory = providerFactory;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.asyncExecutor = asyncExecutor;
+    }
+
+    // Sağlayıcı çağrısı beklenirken thread tutulmaz; sadece sonuç geldiğinde
+    // durum güncellemesi asyncExecutor üzerinde kısa bir iş olarak çalışır.
     public CompletableFuture<Payment> processPaymentAsync(Payment payment) {
         log.info("Asenkron ödeme işlemi başlatıldı: {}", payment.getId());
-        try {
-            Thread.sleep(2000); // Simüle edilmiş uzun süren işlem
-            return CompletableFuture.completedFuture(payment);
-        } catch (InterruptedException e) {
-            log.error("Asenkron işlem başarısız: {}", e.getMessage());
-            return CompletableFuture.failedFuture(e);
-        }
+        AsyncPaymentProviderService provider = providerFactory.getAsyncProvider(payment.getProvider());
+        return concurrencyLimiter.executeAsync(payment.getProvider(), () -> provider.processPaymentAsync(payment))
+            .thenApplyAsync(success -> {
+                payment.setStatus(success ? PaymentStatus.COMPLETED : PaymentStatus.FAILED);
+                return payment;
+            }, asyncExecutor);
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,424 @@
+package com.denizcan.paymentorchestration.service;
+
+import com.denizcan.paymentorchestration.config.BatchProperties;
+import com.denizcan.paymentorchestration.dto.BatchItemResult;
+import com.denizcan.paymentorchestration.dto.PaymentRequest;
+import com.denizcan.paymentorchestration.exception.PaymentValidationException;
+import com.denizcan.paymentorchestration.exception.ProviderRejectedException;
+import com.denizcan.paymentorchestration.exception.ProviderTimeoutException;
+import com.denizcan.paymentorchestration.factory.PaymentProviderFactory;
+import com.denizcan.paymentorchestration.model.Payment;
+import com.denizcan.paymentorchestration.model.PaymentStatus;
+import com.denizcan.paymentorchestration.repository.PaymentRepository;
+import com.denizcan.paymentorchestration.service.provider.AsyncPaymentProviderService;
+import com.denizcan.paymentorchestration.service.provider.ProviderConcurrencyLimiter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Toplu ödeme oluşturma ve işleme. Veritabanı erişimi parça (chunk) bazında yapılır,
+// böylece N kalemlik bir istek N/chunkSize mertebesinde gidiş-dönüş ile tamamlanır.
+@Slf4j
+@Service
+public class BatchPaymentService {
+    private static final long FLUSH_INTERVAL_MS = 50;
+    private static final Set<PaymentStatus> PENDING_ONLY = EnumSet.of(PaymentStatus.PENDING);
+    private static final Set<PaymentStatus> PROCESSING_ONLY = EnumSet.of(PaymentStatus.PROCESSING);
+
+    private final PaymentService paymentService;
+    private final PaymentRepository paymentRepository;
+    private final PaymentCache paymentCache;
+    private final PaymentTransitions transitions;
+    private final PaymentStateMachine stateMachine;
+    private final PaymentProviderFactory providerFactory;
+    private final ProviderConcurrencyLimiter concurrencyLimiter;
+    private final TransactionTemplate transactionTemplate;
+    private final BatchProperties properties;
+
+    public BatchPaymentService(
+            PaymentService paymentService,
+            PaymentRepository paymentRepository,
+            PaymentCache paymentCache,
+            PaymentTransitions transitions,
+            PaymentStateMachine stateMachine,
+            PaymentProviderFactory providerFactory,
+            ProviderConcurrencyLimiter concurrencyLimiter,
+            PlatformTransactionManager transactionManager,
+            BatchProperties properties) {
+        this.paymentService = paymentService;
+        this.paymentRepository = paymentRepository;
+        this.paymentCache = paymentCache;
+        this.transitions = transitions;
+        this.stateMachine = stateMachine;
+        this.providerFactory = providerFactory;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+    }
+
+    public void validateBatchSize(int size) {
+        if (size > properties.getMaxItems()) {
+            throw new PaymentValidationException(
+                String.format("Toplu istek en fazla %d kalem içerebilir, gelen: %d", properties.getMaxItems(), size));
+        }
+    }
+
+    public void createPayments(List<PaymentRequest> requests, BatchResultSink sink) {
+        validateBatchSize(requests.size());
+        int chunkSize = properties.getChunkSize();
+
+        for (int from = 0; from < requests.size(); from += chunkSize) {
+            int to = Math.min(from + chunkSize, requests.size());
+            List<Payment> valid = new ArrayList<>(to - from);
+            int[] indexes = new int[to - from];
+
+            for (int i = from; i < to; i++) {
+                Payment payment = paymentService.buildPayment(requests.get(i));
+                try {
+                    paymentService.validatePayment(payment);
+                    indexes[valid.size()] = i;
+                    valid.add(payment);
+                } catch (PaymentValidationException e) {
+                    sink.accept(BatchItemResult.failure(i, null, e.getMessage()));
+                }
+            }
+
+            if (!valid.isEmpty()) {
+                // ID'ler uygulama içinde üretilir; saveAll tek bir JDBC batch INSERT'e dönüşür
+                List<Payment> saved = transactionTemplate.execute(status -> paymentRepository.saveAll(valid));
+                for (int k = 0; k < saved.size(); k++) {
+                    Payment payment = saved.get(k);
+                    sink.accept(BatchItemResult.success(indexes[k], payment.getId(), payment.getStatus()));
+                }
+            }
+            sink.flush();
+        }
+    }
+
+    public void processPayments(List<String> paymentIds, BatchResultSink sink) {
+        validateBatchSize(paymentIds.size());
+        int chunkSize = properties.getChunkSize();
+        Semaphore inFlight = new Semaphore(properties.getMaxParallelism());
+        BlockingQueue<Outcome> completed = new LinkedBlockingQueue<>();
+        // PROCESSING'e çekilmiş ama henüz sağlayıcıya gönderilmemiş kalemler
+        Deque<Claim> unsent = new ArrayDeque<>();
+        AtomicBoolean abandoned = new AtomicBoolean();
+        int submitted = 0;
+        int applied = 0;
+        boolean finished = false;
+        boolean interrupted = false;
+
+        try {
+            for (int from = 0; from < paymentIds.size(); from += chunkSize) {
+                int to = Math.min(from + chunkSize, paymentIds.size());
+                ClaimedChunk chunk = claimChunk(paymentIds.subList(from, to), from);
+                unsent.addAll(chunk.claims());
+                chunk.rejected().forEach(sink::accept);
+
+                for (Claim claim; (claim = unsent.peek()) != null; ) {
+                    // Paralellik limiti doluyken tamamlanan sonuçları yazmaya devam et
+                    while (!inFlight.tryAcquire(FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS)) {
+                        applied += applyOutcomes(completed, sink, 0);
+                    }
+                    unsent.poll();
+                    submitted++;
+                    Claim sent = claim;
+                    callProvider(sent.payment()).whenComplete((success, ex) -> {
+                        completed.add(new Outcome(sent.index(), sent.payment(), result(sent.payment(), success, ex)));
+                        inFlight.release();
+                        // İstek yarıda bırakıldıysa sonucu bekleyen kimse yok, burada yazılır
+                        if (abandoned.get()) {
+                            persistAbandoned(completed);
+                        }
+                    });
+                    if (completed.size() >= chunkSize) {
+                        applied += applyOutcomes(completed, sink, 0);
+                    }
+                }
+            }
+
+            while (applied < submitted) {
+                applied += applyOutcomes(completed, sink, FLUSH_INTERVAL_MS);
+            }
+            finished = true;
+        } catch (InterruptedException e) {
+            interrupted = true;
+            log.error("Toplu ödeme işleme kesildi, {} kalemin sonucu istemciye yazılamadı", submitted - applied);
+        } finally {
+            if (!finished) {
+                abandon(unsent, completed, abandoned);
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private ClaimedChunk claimChunk(List<String> ids, int offset) {
+        Map<String, Integer> indexById = new LinkedHashMap<>();
+        List<BatchItemResult> rejected = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i++) {
+            if (indexById.putIfAbsent(ids.get(i), offset + i) != null) {
+                rejected.add(BatchItemResult.failure(offset + i, ids.get(i),
+                    "Aynı ödeme toplu istekte birden fazla kez yer alıyor"));
+            }
+        }
+
+        // Tek SELECT ... FOR UPDATE ile parçayı oku, bekleyenleri tek UPDATE ile PROCESSING'e çek
+        List<Claim> claims = transactionTemplate.execute(status -> {
+            Map<String, Claim> candidates = new LinkedHashMap<>();
+            for (Payment payment : paymentRepository.findAllByIdForUpdate(indexById.keySet())) {
+                int index = indexById.remove(payment.getId());
+                transitions.project(payment);
+                if (stateMachine.canTransition(payment.getStatus(), PaymentStatus.PROCESSING)) {
+                    candidates.put(payment.getId(), new Claim(index, payment));
+                } else {
+                    rejected.add(BatchItemResult.failure(index, payment.getId(),
+                        stateMachine.rejection(payment.getStatus(), PaymentStatus.PROCESSING).getMessage()));
+                }
+            }
+            if (candidates.isEmpty()) {
+                return List.<Claim>of();
+            }
+            // Olay günlüğü modunda satır kilidi geçişi korumaz; arada değişen ödeme reddedilir
+            List<Claim> claimed = new ArrayList<>(candidates.size());
+            List<String> candidateIds = List.copyOf(candidates.keySet());
+            for (String id : transitions.transitionAll(candidateIds, PENDING_ONLY, PaymentStatus.PROCESSING)) {
+                claimed.add(candidates.remove(id));
+            }
+            candidates.values().forEach(claim -> rejected.add(BatchItemResult.failure(claim.index(),
+                claim.payment().getId(), "Ödeme durumu eşzamanlı olarak değişti: " + claim.payment().getId())));
+            return claimed;
+        });
+
+        paymentCache.evictAll(claims.stream().map(claim -> claim.payment().getId()).toList());
+        indexById.forEach((id, index) ->
+            rejected.add(BatchItemResult.failure(index, id, "Ödeme bulunamadı: " + id)));
+        claims.forEach(claim -> claim.payment().setStatus(PaymentStatus.PROCESSING));
+        return new ClaimedChunk(claims, rejected);
+    }
+
+    private CompletableFuture<Boolean> callProvider(Payment payment) {
+        try {
+            AsyncPaymentProviderService provider = providerFactory.getAsyncProvider(payment.getProvider());
+            return concurrencyLimiter.executeAsyncAwaitingPermit(payment.getProvider(),
+                () -> provider.processPaymentAsync(payment));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private static Result result(Payment payment, Boolean success, Throwable ex) {
+        if (ex == null) {
+            return success ? Result.COMPLETED : Result.FAILED;
+        }
+        Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+        if (cause instanceof ProviderRejectedException) {
+            // Devre açıkken her kalem buraya düşer; özet uyarı persist'te parça başına bir kez yazılır
+            log.debug("Ödeme {} sağlayıcıya gönderilmeden reddedildi: {}", payment.getId(), cause.getMessage());
+            return Result.REJECTED;
+        }
+        if (cause instanceof ProviderTimeoutException) {
+            log.warn("Ödeme {} için sağlayıcı sonucu bilinmiyor, durum sorgusuyla netleştirilmeli", payment.getId());
+            return Result.UNKNOWN;
+        }
+        log.error("Toplu ödeme sağlayıcı çağrısı başarısız: {}", cause.getMessage());
+        return Result.FAILED;
+    }
+
+    private int applyOutcomes(BlockingQueue<Outcome> completed, BatchResultSink sink, long waitMillis)
+            throws InterruptedException {
+        List<Outcome> outcomes = new ArrayList<>();
+        if (waitMillis > 0) {
+            Outcome first = completed.poll(waitMillis, TimeUnit.MILLISECONDS);
+            if (first == null) {
+                return 0;
+            }
+            outcomes.add(first);
+        }
+        completed.drainTo(outcomes, properties.getChunkSize() - outcomes.size());
+        if (outcomes.isEmpty()) {
+            return 0;
+        }
+
+        Set<String> moved;
+        try {
+            moved = persist(outcomes);
+        } catch (RuntimeException e) {
+            // Yazılamayan sonuçlar kuyruğa geri konur, istek bırakılırken bir kez daha denenir
+            completed.addAll(outcomes);
+            throw e;
+        }
+        refreshUnmoved(outcomes, moved);
+
+        for (Outcome outcome : outcomes) {
+            sink.accept(new BatchItemResult(outcome.index(), outcome.payment().getId(),
+                outcome.payment().getStatus(), message(outcome, moved)));
+        }
+        sink.flush();
+        return outcomes.size();
+    }
+
+    // Geçişi uygulanmayan ödemenin durumu başka bir istekle (webhook, tekil işlem) değişmiştir ya da
+    // sonuç hiç yazılmamıştır (zaman aşımı); istemciye yazılmamış durum değil, güncel durum raporlanır
+    private void refreshUnmoved(List<Outcome> outcomes, Set<String> moved) {
+        List<String> unmoved = outcomes.stream()
+            .map(outcome -> outcome.payment().getId())
+            .filter(id -> !moved.contains(id))
+            .toList();
+        if (unmoved.isEmpty()) {
+            return;
+        }
+        Map<String, Payment> current = new HashMap<>();
+        for (Payment payment : paymentRepository.findAllById(unmoved)) {
+            current.put(payment.getId(), transitions.project(payment));
+        }
+        for (Outcome outcome : outcomes) {
+            Payment payment = current.get(outcome.payment().getId());
+            if (payment != null) {
+                outcome.payment().setStatus(payment.getStatus());
+            }
+        }
+    }
+
+    private static String message(Outcome outcome, Set<String> moved) {
+        if (moved.contains(outcome.payment().getId())) {
+            return outcome.result().message();
+        }
+        if (outcome.result() == Result.UNKNOWN) {
+            return outcome.payment().getStatus() == PaymentStatus.PROCESSING ? outcome.result().message() : null;
+        }
+        return "Ödeme durumu eşzamanlı olarak değişti: " + outcome.payment().getId();
+    }
+
+    // Geçişi gerçekten uygulanan ödemelerin id'lerini döner
+    private Set<String> persist(List<Outcome> outcomes) {
+        List<String> succeeded = new ArrayList<>();
+        List<String> failed = new ArrayList<>();
+        List<String> rejected = new ArrayList<>();
+        for (Outcome outcome : outcomes) {
+            switch (outcome.result()) {
+                case COMPLETED -> succeeded.add(outcome.payment().getId());
+                case FAILED -> failed.add(outcome.payment().getId());
+                case REJECTED -> rejected.add(outcome.payment().getId());
+                // Zaman aşımında ödeme tahsil edilmiş olabilir; durum sorgusuna kadar PROCESSING'de kalır
+                case UNKNOWN -> { }
+            }
+        }
+
+        // Parça başına en fazla üç UPDATE: başarılılar, başarısızlar ve gönderilmeden reddedilenler
+        Set<String> moved = new HashSet<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!succeeded.isEmpty()) {
+                moved.addAll(transitions.transitionAll(succeeded, PROCESSING_ONLY, PaymentStatus.COMPLETED));
+            }
+            if (!failed.isEmpty()) {
+                moved.addAll(transitions.transitionAll(failed, PROCESSING_ONLY, PaymentStatus.FAILED));
+            }
+            if (!rejected.isEmpty()) {
+                moved.addAll(transitions.transitionAll(rejected, stateMachine.releaseSources(), PaymentStatus.PENDING));
+            }
+        });
+
+        paymentCache.evictAll(succeeded);
+        paymentCache.evictAll(failed);
+        paymentCache.evictAll(rejected);
+        if (!rejected.isEmpty()) {
+            log.warn("{} ödeme sağlayıcıya gönderilmeden reddedildi (devre açık ya da limit dolu), PENDING'e geri alındı",
+                rejected.size());
+        }
+        for (Outcome outcome : outcomes) {
+            if (moved.contains(outcome.payment().getId())) {
+                outcome.payment().setStatus(outcome.result().status());
+            }
+        }
+        return moved;
+    }
+
+    // İstemci bağlantısı koptuğunda, yazma hatasında ya da kesintide çağrılır. Sağlayıcıya hiç
+    // gönderilmemiş kalemler PENDING'e geri bırakılır; gelmiş sonuçlar istemciye yazılmadan
+    // veritabanına işlenir, yoldakiler ise geldikleri thread'de işlenir. Hiçbir ödeme
+    // PROCESSING'de sahipsiz kalmaz.
+    private void abandon(Deque<Claim> unsent, BlockingQueue<Outcome> completed, AtomicBoolean abandoned) {
+        // Bayrak kuyruk boşaltılmadan önce kalkar: geri çağrı ya sonucu buradaki boşaltmadan
+        // önce kuyruğa koymuştur ya da bayrağı görüp kendisi yazar
+        abandoned.set(true);
+        List<String> ids = unsent.stream().map(claim -> claim.payment().getId()).toList();
+        if (!ids.isEmpty()) {
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                    transitions.transitionAll(ids, stateMachine.releaseSources(), PaymentStatus.PENDING));
+                paymentCache.evictAll(ids);
+                log.warn("Toplu işlem yarıda kaldı, gönderilmemiş {} ödeme PENDING'e geri alındı", ids.size());
+            } catch (RuntimeException e) {
+                log.error("Gönderilmemiş {} ödeme PENDING'e geri alınamadı: {}", ids.size(), e.getMessage());
+            }
+        }
+        persistAbandoned(completed);
+    }
+
+    private void persistAbandoned(BlockingQueue<Outcome> completed) {
+        List<Outcome> outcomes = new ArrayList<>();
+        completed.drainTo(outcomes);
+        if (outcomes.isEmpty()) {
+            return;
+        }
+        try {
+            persist(outcomes);
+        } catch (RuntimeException e) {
+            log.error("Yarıda kalan toplu işlemin {} sonucu yazılamadı: {}", outcomes.size(), e.getMessage());
+        }
+    }
+
+    private record ClaimedChunk(List<Claim> claims, List<BatchItemResult> rejected) {
+    }
+
+    private record Claim(int index, Payment payment) {
+    }
+
+    private record Outcome(int index, Payment payment, Result result) {
+    }
+
+    // Sağlayıcı çağrısının sonucu ve ödemenin bırakılacağı durum
+    private enum Result {
+        COMPLETED(PaymentStatus.COMPLETED, null),
+        FAILED(PaymentStatus.FAILED, null),
+        UNKNOWN(PaymentStatus.PROCESSING, "Sağlayıcı sonucu bilinmiyor, durum /status-check ile netleştirilmeli"),
+        REJECTED(PaymentStatus.PENDING, "Sağlayıcıya gönderilmeden reddedildi, ödeme tekrar işlenebilir");
+
+        private final PaymentStatus status;
+        private final String message;
+
+        Result(PaymentStatus status, String message) {
+            this.status = status;
+            this.message = message;
+        }
+
+        PaymentStatus status() {
+            return status;
+        }
+
+        String message() {
+            return message;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.denizcan.paymentorchestration.service;
+
+import com.denizcan.paymentorchestration.dto.BatchItemResult;
+
+// Toplu işlem sonuçlarının çağırana akıtıldığı hedef. flush, bir parça
+// tamamlandığında çağrılır ki istemci sonuçları beklemeden görebilsin.
+public interface BatchResultSink {
+    void accept(BatchItemResult result);
+
+    void flush();
+}
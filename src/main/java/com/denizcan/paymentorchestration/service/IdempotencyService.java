@@ -0,0 +1,209 @@
+package com.denizcan.paymentorchestration.service;
+
+import com.denizcan.paymentorchestration.config.IdempotencyProperties;
+import com.denizcan.paymentorchestration.dto.IdempotentResponse;
+import com.denizcan.paymentorchestration.exception.IdempotencyConflictException;
+import com.denizcan.paymentorchestration.exception.PaymentValidationException;
+import com.denizcan.paymentorchestration.model.IdempotencyRecord;
+import com.denizcan.paymentorchestration.model.IdempotencyScope;
+import com.denizcan.paymentorchestration.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+@Slf4j
+@Service
+public class IdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final int RESERVE_ATTEMPTS = 2;
+
+    private final IdempotencyRecordRepository recordRepository;
+    private final ObjectMapper objectMapper;
+    private final IdempotencyProperties properties;
+    private final Clock clock;
+
+    // Tamamlanmış kayıtlar; tekrar eden istekler veritabanına gitmeden buradan döner
+    private final Cache<String, IdempotencyRecord> cache;
+
+    public IdempotencyService(
+            IdempotencyRecordRepository recordRepository,
+            ObjectMapper objectMapper,
+            IdempotencyProperties properties,
+            Clock clock) {
+        this.recordRepository = recordRepository;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.clock = clock;
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(properties.getCacheSize())
+            .build();
+    }
+
+    public IdempotentResponse execute(
+            IdempotencyScope scope,
+            String key,
+            Object request,
+            HttpStatus status,
+            Supplier<?> action) {
+        String id = recordId(scope, key);
+        String requestHash = hash(toJson(request));
+
+        IdempotencyRecord cached = cache.getIfPresent(id);
+        if (cached != null && !cached.isExpired(clock.instant())) {
+            return replay(cached, requestHash);
+        }
+        String token = UUID.randomUUID().toString();
+        IdempotentResponse stored = reserveOrReplay(id, key, requestHash, token);
+        if (stored != null) {
+            return stored;
+        }
+
+        Object result;
+        try {
+            result = action.get();
+        } catch (RuntimeException | Error e) {
+            // Başarısız istek anahtarı tüketmez; istemci aynı anahtarla tekrar deneyebilir
+            release(id, token, e);
+            throw e;
+        }
+        IdempotencyRecord record = complete(id, token, requestHash, status.value(), result == null ? null : toJson(result));
+        return new IdempotentResponse(record.getResponseStatus(), record.getResponseBody(), false);
+    }
+
+    @Scheduled(fixedDelayString = "${payment.idempotency.purge-interval:PT10M}")
+    public void purgeExpired() {
+        Instant now = clock.instant();
+        cache.asMap().values().removeIf(record -> record.isExpired(now));
+        int deleted = recordRepository.deleteExpired(now);
+        if (deleted > 0) {
+            log.info("Süresi dolan {} idempotency kaydı silindi", deleted);
+        }
+    }
+
+    // Anahtar, işlem çalışmadan önce yanıtsız bir kayıtla ayrılır. Birincil anahtar, aynı anahtarla
+    // hangi instance'a gelirse gelsin ikinci isteğin işlemi tekrar çalıştırmasını engeller: kaybeden
+    // istek ya saklanan yanıtı alır ya da ilki sürerken 409 döner. Anahtar ayrıldıysa null döner;
+    // rezervasyon token ile işaretlenir ve sonraki yazmalar yalnızca bu token'lı satıra uygulanır.
+    private IdempotentResponse reserveOrReplay(String id, String key, String requestHash, String token) {
+        for (int attempt = 0; attempt < RESERVE_ATTEMPTS; attempt++) {
+            Instant now = clock.instant();
+            try {
+                recordRepository.saveAndFlush(IdempotencyRecord.builder()
+                    .id(id)
+                    .requestHash(requestHash)
+                    .reservationToken(token)
+                    .createdAt(now)
+                    .expiresAt(now.plus(properties.getPendingTimeout()))
+                    .build());
+                return null;
+            } catch (DataIntegrityViolationException e) {
+                log.debug("Idempotency anahtarı zaten ayrılmış: {}", id);
+            }
+
+            IdempotencyRecord existing = recordRepository.findById(id).orElse(null);
+            if (existing == null) {
+                continue;
+            }
+            if (existing.isExpired(now)) {
+                // Süresi dolan yanıt ya da yarıda kalan bir isteğin rezervasyonu; anahtar yeniden ayrılır
+                recordRepository.deleteIfExpired(id, now);
+                continue;
+            }
+            if (existing.isPending()) {
+                if (!existing.getRequestHash().equals(requestHash)) {
+                    throw differentBody();
+                }
+                throw new IdempotencyConflictException("Bu anahtarla gönderilen istek hâlâ işleniyor: " + key);
+            }
+            cache.put(id, existing);
+            return replay(existing, requestHash);
+        }
+        throw new IdempotencyConflictException("Bu anahtarla gönderilen istek hâlâ işleniyor: " + key);
+    }
+
+    private IdempotencyRecord complete(String id, String token, String requestHash, int status, String body) {
+        Instant now = clock.instant();
+        IdempotencyRecord record = IdempotencyRecord.builder()
+            .id(id)
+            .requestHash(requestHash)
+            .reservationToken(token)
+            .responseStatus(status)
+            .responseBody(body)
+            .createdAt(now)
+            .expiresAt(now.plus(properties.getTtl()))
+            .build();
+        if (recordRepository.complete(id, token, status, body, record.getExpiresAt()) == 0) {
+            // İşlem pendingTimeout'u aştı ve anahtar bu arada başka bir istek tarafından alındı; yeni
+            // sahibin rezervasyonu başka bir token taşıdığı için üzerine yazılmadı. Önbelleğe yazılırsa
+            // bu düğüm anahtarın yeni sahibine bu isteğin yanıtını döner
+            log.warn("Idempotency rezervasyonu tamamlanamadı, anahtar artık bu isteğe ait değil: {}", id);
+            cache.invalidate(id);
+            return record;
+        }
+        cache.put(id, record);
+        return record;
+    }
+
+    private void release(String id, String token, Throwable failure) {
+        try {
+            // Anahtar bu arada başka bir isteğe geçtiyse onun rezervasyonu silinmez
+            recordRepository.deletePending(id, token);
+        } catch (RuntimeException e) {
+            // Rezervasyon pendingTimeout dolunca kendiliğinden serbest kalır
+            failure.addSuppressed(e);
+        }
+    }
+
+    private IdempotentResponse replay(IdempotencyRecord record, String requestHash) {
+        if (!record.getRequestHash().equals(requestHash)) {
+            throw differentBody();
+        }
+        log.debug("Idempotent istek tekrarı: {}", record.getId());
+        return new IdempotentResponse(record.getResponseStatus(), record.getResponseBody(), true);
+    }
+
+    private static IdempotencyConflictException differentBody() {
+        return new IdempotencyConflictException("Idempotency anahtarı farklı bir istek gövdesiyle tekrar kullanılamaz");
+    }
+
+    private String recordId(IdempotencyScope scope, String key) {
+        if (key == null || key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new PaymentValidationException(
+                String.format("Idempotency anahtarı 1 ile %d karakter arasında olmalıdır", MAX_KEY_LENGTH));
+        }
+        return scope.name() + ":" + key;
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Idempotency için JSON üretilemedi", e);
+        }
+    }
+
+    private static String hash(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
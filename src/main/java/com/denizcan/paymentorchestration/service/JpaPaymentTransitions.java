@@ -0,0 +1,43 @@
+package com.denizcan.paymentorchestration.service;
+
+import com.denizcan.paymentorchestration.model.Payment;
+import com.denizcan.paymentorchestration.model.PaymentStatus;
+import com.denizcan.paymentorchestration.repository.PaymentRepository;
+
+import java.util.Collection;
+import java.util.List;
+
+// Geçişler doğrudan koşullu UPDATE ile veritabanına yazılır
+public class JpaPaymentTransitions implements PaymentTransitions {
+
+    private final PaymentRepository paymentRepository;
+
+    public JpaPaymentTransitions(PaymentRepository paymentRepository) {
+        this.paymentRepository = paymentRepository;
+    }
+
+    @Override
+    public boolean transition(String id, Collection<PaymentStatus> from, PaymentStatus to) {
+        return paymentRepository.transitionStatus(id, from, to) == 1;
+    }
+
+    // Okunan sürüm hâlâ geçerliyse geçiş satırı tekrar okumadan yazılır; sürümü bilinmeyen
+    // kopyalar id ile geçirilir
+    @Override
+    public boolean transition(Payment current, Collection<PaymentStatus> from, PaymentStatus to) {
+        if (current.getVersion() == null) {
+            return PaymentTransitions.super.transition(current, from, to);
+        }
+        if (paymentRepository.transitionStatus(current, from, to) != 1) {
+            return false;
+        }
+        current.setStatus(to);
+        current.setVersion(current.getVersion() + 1);
+        return true;
+    }
+
+    @Override
+    public List<String> transitionAll(Collection<String> ids, Collection<PaymentStatus> from, PaymentStatus to) {
+        return ids.isEmpty() ? List.of() : paymentRepository.moveStatuses(ids, from, to);
+    }
+}
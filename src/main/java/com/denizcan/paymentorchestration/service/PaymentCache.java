@@ -0,0 +1,74 @@
+package com.denizcan.paymentorchestration.service;
+
+import com.denizcan.paymentorchestration.dto.PaymentStatusView;
+import com.denizcan.paymentorchestration.model.Payment;
+import com.denizcan.paymentorchestration.service.inflight.InFlightIndex;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.function.Supplier;
+
+// Payment entity'si değiştirilebilir olduğu için önbellekte kopyası tutulur ve her okumada
+// yeni bir kopya verilir; böylece çağıranın yaptığı değişiklik kaydedilmeden önbelleğe sızmaz.
+// Bekleyen ve işlemdeki ödemeler ayrıca heap dışındaki InFlightIndex'te tutulur; ödemeye yapılan
+// her yazma buradan geçtiği için ikisi birlikte güncellenir.
+@Component
+public class PaymentCache {
+
+    public static final String CACHE_NAME = "payments";
+
+    private final Cache cache;
+    private final InFlightIndex inFlight;
+
+    public PaymentCache(CacheManager cacheManager, InFlightIndex inFlight) {
+        this.cache = cacheManager.getCache(CACHE_NAME);
+        this.inFlight = inFlight;
+    }
+
+    public Payment get(String id, Supplier<Payment> loader) {
+        Payment cached;
+        try {
+            // Aynı anahtar için eşzamanlı yüklemeler tek veritabanı okumasına iner
+            cached = cache.get(id, () -> copy(load(id, loader)));
+        } catch (Cache.ValueRetrievalException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        return copy(cached);
+    }
+
+    // İşlemdeki ödemenin durumu indeksten okunur; indekste yoksa ödeme yüklenir
+    public PaymentStatusView getStatus(String id, Supplier<Payment> loader) {
+        PaymentStatusView status = inFlight.get(id);
+        return status != null ? status : PaymentStatusView.of(get(id, loader));
+    }
+
+    public void put(Payment payment) {
+        cache.put(payment.getId(), copy(payment));
+        inFlight.put(payment);
+    }
+
+    public void evict(String id) {
+        cache.evict(id);
+        inFlight.remove(id);
+    }
+
+    public void evictAll(Collection<String> ids) {
+        ids.forEach(this::evict);
+    }
+
+    private Payment load(String id, Supplier<Payment> loader) {
+        long generation = inFlight.generation(id);
+        Payment payment = loader.get();
+        inFlight.putIfUnchanged(payment, generation);
+        return payment;
+    }
+
+    private static Payment copy(Payment payment) {
+        return payment.toBuilder().build();
+    }
+}
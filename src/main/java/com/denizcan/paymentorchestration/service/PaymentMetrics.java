@@ -0,0 +1,126 @@
+package com.denizcan.paymentorchestration.service;
+
+import com.denizcan.paymentorchestration.model.Currency;
+import com.denizcan.paymentorchestration.model.Payment;
+import com.denizcan.paymentorchestration.model.PaymentProvider;
+import com.denizcan.paymentorchestration.model.PaymentStatus;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Sıcak yoldaki zamanlayıcılar. Her etiket kombinasyonu ilk kullanıldığında bir kez kaydedilir
+// ve diziye konur; sonraki kayıtlarda etiket listesi kurulmaz, registry'de arama yapılmaz.
+// Hiç görülmemiş kombinasyonlar histogram serisi olarak dışarı verilmez. Sağlayıcısı ya da
+// para birimi bilinmeyen ölçümler "none" etiketiyle yazılır.
+@Component
+public class PaymentMetrics {
+
+    public enum ProviderOperation { PROCESS, REFUND, STATUS_QUERY }
+
+    public enum ProviderOutcome { APPROVED, DECLINED, ERROR }
+
+    private static final String NONE = "none";
+    private static final PaymentProvider[] PROVIDERS = PaymentProvider.values();
+    private static final Currency[] CURRENCIES = Currency.values();
+    private static final PaymentStatus[] STATUSES = PaymentStatus.values();
+    private static final ProviderOperation[] OPERATIONS = ProviderOperation.values();
+    private static final ProviderOutcome[] OUTCOMES = ProviderOutcome.values();
+    // Bilinmeyen sağlayıcı ve para birimi için dizinin son elemanı
+    private static final int PROVIDER_SLOTS = PROVIDERS.length + 1;
+    private static final int CURRENCY_SLOTS = CURRENCIES.length + 1;
+
+    private final MeterRegistry meterRegistry;
+    private final AtomicReferenceArray<Timer> providerCalls =
+        new AtomicReferenceArray<>(OPERATIONS.length * PROVIDER_SLOTS * CURRENCY_SLOTS * OUTCOMES.length);
+    private final AtomicReferenceArray<Timer> providerBatchCalls =
+        new AtomicReferenceArray<>(PROVIDER_SLOTS * OUTCOMES.length);
+    private final AtomicReferenceArray<Timer> transitions =
+        new AtomicReferenceArray<>(STATUSES.length * PROVIDER_SLOTS * CURRENCY_SLOTS * 2);
+
+    public PaymentMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void recordProviderCall(ProviderOperation operation, PaymentProvider provider, Currency currency,
+                                   ProviderOutcome outcome, long nanos) {
+        int providerSlot = providerSlot(provider);
+        int currencySlot = currencySlot(currency);
+        int index = ((operation.ordinal() * PROVIDER_SLOTS + providerSlot) * CURRENCY_SLOTS + currencySlot)
+            * OUTCOMES.length + outcome.ordinal();
+        Timer timer = providerCalls.get(index);
+        if (timer == null) {
+            timer = Timer.builder("payment.provider.call")
+                .description("Tek bir sağlayıcı çağrısının süresi (tekrar denemeler ayrı ölçülür)")
+                .tag("operation", operation.name().toLowerCase())
+                .tag("provider", providerTag(providerSlot))
+                .tag("currency", currencyTag(currencySlot))
+                .tag("outcome", outcome.name().toLowerCase())
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .register(meterRegistry);
+            providerCalls.set(index, timer);
+        }
+        timer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordProviderBatchCall(PaymentProvider provider, ProviderOutcome outcome, long nanos) {
+        int providerSlot = providerSlot(provider);
+        int index = providerSlot * OUTCOMES.length + outcome.ordinal();
+        Timer timer = providerBatchCalls.get(index);
+        if (timer == null) {
+            timer = Timer.builder("payment.provider.batch.call")
+                .description("Toplu iade çağrısının süresi")
+                .tag("provider", providerTag(providerSlot))
+                .tag("outcome", outcome.name().toLowerCase())
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .register(meterRegistry);
+            providerBatchCalls.set(index, timer);
+        }
+        timer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordTransition(PaymentStatus target, Payment payment, boolean applied, long nanos) {
+        int providerSlot = providerSlot(payment.getProvider());
+        int currencySlot = currencySlot(payment.getAmount() == null ? null : payment.getAmount().currency());
+        int index = ((target.ordinal() * PROVIDER_SLOTS + providerSlot) * CURRENCY_SLOTS + currencySlot) * 2
+            + (applied ? 1 : 0);
+        Timer timer = transitions.get(index);
+        if (timer == null) {
+            timer = Timer.builder("payment.transition")
+                .description("Durum geçişinin (koşullu UPDATE, önbellekte yoksa ödemenin okunması) süresi")
+                .tag("status", target.name())
+                .tag("provider", providerTag(providerSlot))
+                .tag("currency", currencyTag(currencySlot))
+                .tag("outcome", applied ? "applied" : "rejected")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(100_000))
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .register(meterRegistry);
+            transitions.set(index, timer);
+        }
+        timer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static int providerSlot(PaymentProvider provider) {
+        return provider == null ? PROVIDERS.length : provider.ordinal();
+    }
+
+    private static int currencySlot(Currency currency) {
+        return currency == null ? CURRENCIES.length : currency.ordinal();
+    }
+
+    private static String providerTag(int slot) {
+        return slot == PROVIDERS.length ? NONE : PROVIDERS[slot].name();
+    }
+
+    private static String currencyTag(int slot) {
+        return slot == CURRENCIES.length ? NONE : CURRENCIES[slot].name();
+    }
+}
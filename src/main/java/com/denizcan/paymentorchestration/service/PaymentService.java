@@ -1,196 +1,352 @@
 package com.denizcan.paymentorchestration.service;
 
+import com.denizcan.paymentorchestration.model.Money;
 import com.denizcan.paymentorchestration.model.Payment;
 import com.denizcan.paymentorchestration.repository.PaymentRepository;
+import com.denizcan.paymentorchestration.exception.InvalidStatusTransitionException;
 import com.denizcan.paymentorchestration.exception.PaymentNotFoundException;
 import com.denizcan.paymentorchestration.exception.PaymentValidationException;
+import com.denizcan.paymentorchestration.exception.ProviderRejectedException;
+import com.denizcan.paymentorchestration.exception.ProviderTimeoutException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
-import java.math.BigDecimal;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import com.denizcan.paymentorchestration.dto.PaymentFilter;
+import com.denizcan.paymentorchestration.dto.PaymentPage;
 import com.denizcan.paymentorchestration.dto.PaymentRequest;
+import com.denizcan.paymentorchestration.dto.PaymentStatusView;
+import com.denizcan.paymentorchestration.repository.PaymentCursor;
 import com.denizcan.paymentorchestration.model.PaymentStatus;
 import com.denizcan.paymentorchestration.factory.PaymentProviderFactory;
+import com.denizcan.paymentorchestration.factory.ProviderRouter;
+import com.denizcan.paymentorchestration.service.provider.AsyncPaymentProviderService;
 import com.denizcan.paymentorchestration.service.provider.PaymentProviderService;
+import com.denizcan.paymentorchestration.service.archive.PaymentArchive;
+import com.denizcan.paymentorchestration.service.fx.FxService;
+import com.denizcan.paymentorchestration.service.provider.ProviderConcurrencyLimiter;
 import lombok.extern.slf4j.Slf4j;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Service
 @Slf4j
 public class PaymentService {
     
+    public static final int MAX_PAGE_SIZE = 500;
+
+    // Sağlayıcı sonucu sadece bu ara durumdan yazılır
+    private static final Set<PaymentStatus> PROCESSING_ONLY = EnumSet.of(PaymentStatus.PROCESSING);
+
     private final PaymentRepository paymentRepository;
     private final PaymentProviderFactory providerFactory;
     private final AsyncPaymentService asyncPaymentService;
+    private final ProviderConcurrencyLimiter concurrencyLimiter;
+    private final PaymentCache paymentCache;
+    private final PaymentStateMachine stateMachine;
+    private final ProviderRouter providerRouter;
+    private final FxService fxService;
+    private final PaymentMetrics metrics;
+    private final PaymentArchive archive;
+    private final PaymentTransitions transitions;
 
     @Autowired
     public PaymentService(
             PaymentRepository paymentRepository, 
             PaymentProviderFactory providerFactory,
-            AsyncPaymentService asyncPaymentService) {
+            AsyncPaymentService asyncPaymentService,
+            ProviderConcurrencyLimiter concurrencyLimiter,
+            PaymentCache paymentCache,
+            PaymentStateMachine stateMachine,
+            ProviderRouter providerRouter,
+            FxService fxService,
+            PaymentMetrics metrics,
+            PaymentArchive archive,
+            PaymentTransitions transitions) {
         this.paymentRepository = paymentRepository;
         this.providerFactory = providerFactory;
         this.asyncPaymentService = asyncPaymentService;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.paymentCache = paymentCache;
+        this.stateMachine = stateMachine;
+        this.providerRouter = providerRouter;
+        this.fxService = fxService;
+        this.metrics = metrics;
+        this.archive = archive;
+        this.transitions = transitions;
     }
     
     // Create
     public Payment createPayment(PaymentRequest request) {
-        Payment payment = Payment.builder()
+        Payment payment = buildPayment(request);
+        validatePayment(payment);
+        return save(payment);
+    }
+
+    Payment buildPayment(PaymentRequest request) {
+        return Payment.builder()
             .amount(request.getAmount())
-            .currency(request.getCurrency())
+            .settlementAmount(fxService.toSettlement(request.getAmount()))
             .provider(request.getProvider())
             .description(request.getDescription())
             .status(PaymentStatus.PENDING)
             .build();
-            
-        validatePayment(payment);
-        return paymentRepository.save(payment);
     }
 
-    private void validatePayment(Payment payment) {
-        if (payment.getAmount().compareTo(BigDecimal.ZERO) <= 0) {
-            throw new PaymentValidationException("Ödeme tutarı sıfırdan büyük olmalıdır");
-        }
-        
-        if (payment.getCurrency() == null || payment.getCurrency().trim().isEmpty()) {
-            throw new PaymentValidationException("Para birimi belirtilmelidir");
+    // Sıcak yolda çağrılır; tutar ve para birimi zaten tipli geldiğinden nesne üretmez
+    void validatePayment(Payment payment) {
+        Money amount = payment.getAmount();
+        if (amount == null) {
+            throw new PaymentValidationException("Tutar boş olamaz");
         }
-        
-        // Desteklenen para birimlerini kontrol et
-        List<String> supportedCurrencies = List.of("TRY", "USD", "EUR");
-        if (!supportedCurrencies.contains(payment.getCurrency())) {
-            throw new PaymentValidationException("Desteklenmeyen para birimi: " + payment.getCurrency());
+        if (!amount.isPositive()) {
+            throw new PaymentValidationException("Ödeme tutarı sıfırdan büyük olmalıdır");
         }
         
+        // Sağlayıcı seçilmemişse canlı gecikme ve başarı oranına göre yönlendirilir
         if (payment.getProvider() == null) {
-            throw new PaymentValidationException("Ödeme sağlayıcı seçilmelidir");
+            payment.setProvider(providerRouter.route(payment.getAmount()));
         }
     }
 
-    // Read
+    // Read: veritabanında olmayan ödeme arşivde aranır
     public Payment getPaymentById(String id) {
+        return paymentCache.get(id, () -> load(id));
+    }
+
+    // Durum sorgusu: bekleyen ve işlemdeki ödemeler veritabanına gitmeden indeksten okunur
+    public PaymentStatusView getPaymentStatus(String id) {
+        return paymentCache.getStatus(id, () -> load(id));
+    }
+
+    private Payment load(String id) {
         return paymentRepository.findById(id)
+            .map(transitions::project)
+            .or(() -> archive.find(id))
             .orElseThrow(() -> new PaymentNotFoundException("Ödeme bulunamadı: " + id));
     }
     
-    // Read All
-    public List<Payment> getAllPayments() {
-        return paymentRepository.findAll();
+    // Read Page
+    public PaymentPage getPayments(PaymentFilter filter, String cursor, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new PaymentValidationException(
+                String.format("Sayfa boyutu 1 ile %d arasında olmalıdır", MAX_PAGE_SIZE));
+        }
+
+        PaymentCursor after = (cursor == null || cursor.isBlank()) ? null : PaymentCursor.decode(cursor);
+        // Bir fazla kayıt okuyarak sonraki sayfanın varlığını COUNT sorgusu olmadan anla
+        List<Payment> rows = paymentRepository.findPage(filter, after, limit + 1);
+        if (rows.size() <= limit) {
+            return new PaymentPage(rows, null);
+        }
+
+        List<Payment> items = rows.subList(0, limit);
+        return new PaymentPage(List.copyOf(items), PaymentCursor.after(items.get(limit - 1)).encode());
+    }
+
+    // Export: sonuç kümesi belleğe alınmadan satır satır tüketiciye verilir
+    @Transactional(readOnly = true)
+    public long exportPayments(PaymentFilter filter, Consumer<Payment> consumer) {
+        try (Stream<Payment> payments = paymentRepository.streamAll(filter)) {
+            // peek + count kullanılmaz: boyutu önceden bilinen akışlarda count() peek'i atlayabilir
+            long[] exported = {0};
+            payments.forEach(payment -> {
+                consumer.accept(payment);
+                exported[0]++;
+            });
+            return exported[0];
+        }
     }
     
     // Update
     public Payment updatePayment(String id, Payment paymentDetails) {
         Payment payment = getPaymentById(id); // Bu metod zaten PaymentNotFoundException fırlatıyor
+        rejectArchived(payment);
+        Money amount = paymentDetails.getAmount();
+        Money refunded = payment.getRefundedAmount();
+        if (amount == null) {
+            throw new PaymentValidationException("Tutar boş olamaz");
+        }
+        if (refunded != null && refunded.isPositive()) {
+            if (amount.currency() != refunded.currency()) {
+                throw new PaymentValidationException("İadesi olan ödemenin para birimi değiştirilemez");
+            }
+            if (amount.isLessThan(refunded)) {
+                throw new PaymentValidationException("Ödeme tutarı iade edilmiş tutarın altına düşürülemez");
+            }
+        }
         
-        payment.setAmount(paymentDetails.getAmount());
-        payment.setCurrency(paymentDetails.getCurrency());
+        payment.setAmount(amount);
+        payment.setSettlementAmount(fxService.toSettlement(amount));
+        payment.setRefundedAmount(Money.ofMinor(refunded == null ? 0 : refunded.minorUnits(), amount.currency()));
         payment.setDescription(paymentDetails.getDescription());
         // Status'u direkt güncellemeyelim, bu iş mantığına göre ayrı bir metod ile yapılmalı
         
-        return paymentRepository.save(payment);
+        try {
+            return save(payment);
+        } catch (OptimisticLockingFailureException e) {
+            // Okuduğumuz sürüm eskimiş; bir sonraki deneme güncel hali okusun
+            paymentCache.evict(id);
+            throw e;
+        }
     }
     
     // Delete
     public void deletePayment(String id) {
         Payment payment = getPaymentById(id); // Önce varlığını kontrol edelim
+        rejectArchived(payment);
         paymentRepository.delete(payment);
+        transitions.removed(id);
+        paymentCache.evict(id);
     }
     
     // İş mantığı metodları
     public Payment completePayment(String id) {
-        Payment payment = getPaymentById(id);
-        validateStatusTransition(payment, PaymentStatus.COMPLETED);
-        payment.setStatus(PaymentStatus.COMPLETED);
-        return paymentRepository.save(payment);
+        return transition(id, PaymentStatus.COMPLETED);
     }
     
     public Payment failPayment(String id) {
-        Payment payment = getPaymentById(id);
-        validateStatusTransition(payment, PaymentStatus.FAILED);
-        payment.setStatus(PaymentStatus.FAILED);
-        return paymentRepository.save(payment);
+        return transition(id, PaymentStatus.FAILED);
     }
 
-    private void validateStatusTransition(Payment payment, PaymentStatus newStatus) {
-        PaymentStatus currentStatus = payment.getStatus();
-        
-        // Örnek kural: COMPLETED veya FAILED durumundaki ödemeler değiştirilemez
-        if (currentStatus == PaymentStatus.COMPLETED || currentStatus == PaymentStatus.FAILED) {
-            throw new PaymentValidationException(
-                String.format("'%s' durumundaki ödemenin durumu değiştirilemez", currentStatus));
+    private static void rejectArchived(Payment payment) {
+        if (payment.isArchived()) {
+            throw new PaymentValidationException("Arşivlenmiş ödeme değiştirilemez: " + payment.getId());
         }
-        
-        // Örnek kural: PROCESSING durumundan sadece COMPLETED veya FAILED'a geçilebilir
-        if (currentStatus == PaymentStatus.PROCESSING && 
-            newStatus != PaymentStatus.COMPLETED && 
-            newStatus != PaymentStatus.FAILED) {
-            throw new PaymentValidationException(
-                "İşlemdeki ödeme sadece tamamlanabilir veya iptal edilebilir");
+    }
+
+    // Tüm yazmalar buradan geçer ki önbellek veritabanıyla aynı kalsın
+    private Payment save(Payment payment) {
+        Payment saved = paymentRepository.save(payment);
+        paymentCache.put(saved);
+        return saved;
+    }
+
+    // Durum geçişi okuma-değiştirme-yazma yerine tek koşullu yazma ile yapılır (UPDATE ya da
+    // olay günlüğü). Yarışı kaybeden istek ödemenin güncel durumuyla hata alır.
+    private Payment transition(String id, PaymentStatus target) {
+        long start = System.nanoTime();
+        Transitioned result = apply(id, stateMachine.sourcesOf(target), target);
+        Payment current = result.payment();
+        boolean applied = result.applied();
+        metrics.recordTransition(target, current, applied, System.nanoTime() - start);
+        if (!applied) {
+            InvalidStatusTransitionException rejection = stateMachine.rejection(current.getStatus(), target);
+            if (rejection == null) {
+                // UPDATE anında durum uygun değildi ama okuduğumuzda tekrar uygun hale gelmiş
+                throw new OptimisticLockingFailureException("Ödeme durumu eşzamanlı olarak değişti: " + id);
+            }
+            throw rejection;
+        }
+        return current;
+    }
+
+    // Sağlayıcı sonucu yazılırken ödeme webhook ile sonuçlanmış olabilir; bu durumda
+    // mevcut sonuç korunur ve güncel hali dönülür
+    private Payment finishProcessing(String id, PaymentStatus outcome) {
+        long start = System.nanoTime();
+        Transitioned result = apply(id, PROCESSING_ONLY, outcome);
+        if (!result.applied()) {
+            log.warn("Ödeme {} sağlayıcı sonucu yazılmadan önce başka bir istekle sonuçlandı", id);
+        }
+        metrics.recordTransition(outcome, result.payment(), result.applied(), System.nanoTime() - start);
+        return result.payment();
+    }
+
+    // Çağrı sağlayıcıya hiç gitmeden reddedildi (devre açık ya da limit dolu); ödeme
+    // sonradan tekrar işlenebilsin diye PENDING'e geri alınır
+    private void releaseProcessing(String id) {
+        if (!apply(id, stateMachine.releaseSources(), PaymentStatus.PENDING).applied()) {
+            log.warn("Ödeme {} PENDING'e geri alınamadı, durumu başka bir istekle değişti", id);
         }
     }
 
+    // Geçiş önbellekteki kopyanın sürümüne koşullu yazılır; başarılıysa kopya yerinde güncellenip
+    // önbelleğe konur, ödeme tekrar okunmaz. Kopya eskimişse güncel hal okunup bir kez daha denenir.
+    private Transitioned apply(String id, Set<PaymentStatus> from, PaymentStatus to) {
+        Payment current = getPaymentById(id);
+        if (!from.contains(current.getStatus()) || !transitions.transition(current, from, to)) {
+            paymentCache.evict(id);
+            current = getPaymentById(id);
+            if (!from.contains(current.getStatus()) || !transitions.transition(current, from, to)) {
+                return new Transitioned(current, false);
+            }
+        }
+        paymentCache.put(current);
+        return new Transitioned(current, true);
+    }
+
+    private record Transitioned(Payment payment, boolean applied) {
+    }
+
+    // Sağlayıcı zaman aşımında ödeme tahsil edilmiş olabilir; durum sorgusu netleştirene kadar
+    // ödeme PROCESSING'de bırakılır
+    private void warnUnknownOutcome(String id) {
+        log.warn("Ödeme {} için sağlayıcı sonucu bilinmiyor, durum sorgusuyla netleştirilmeli", id);
+    }
+
+    private static Throwable unwrap(Throwable ex) {
+        return ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+    }
+
     public Payment processPayment(String id) {
-        Payment payment = getPaymentById(id);
-        validateStatusTransition(payment, PaymentStatus.PROCESSING);
-        
-        payment.setStatus(PaymentStatus.PROCESSING);
-        paymentRepository.save(payment);
+        Payment payment = transition(id, PaymentStatus.PROCESSING);
         
         PaymentProviderService provider = providerFactory.getProvider(payment.getProvider());
-        boolean success = provider.processPayment(payment);
-        
-        if (success) {
-            payment.setStatus(PaymentStatus.COMPLETED);
-        } else {
-            payment.setStatus(PaymentStatus.FAILED);
+        boolean success;
+        try {
+            success = concurrencyLimiter.execute(payment.getProvider(), () -> provider.processPayment(payment));
+        } catch (ProviderRejectedException e) {
+            releaseProcessing(id);
+            throw e;
+        } catch (ProviderTimeoutException e) {
+            warnUnknownOutcome(id);
+            throw e;
+        } catch (RuntimeException e) {
+            // Asenkron yolla aynı sonuç: sağlayıcıya ulaşılamayan ödeme başarısız sayılır
+            log.error("Ödeme işlemi başarısız: {}", e.getMessage());
+            return finishProcessing(id, PaymentStatus.FAILED);
         }
         
-        return paymentRepository.save(payment);
+        return finishProcessing(id, success ? PaymentStatus.COMPLETED : PaymentStatus.FAILED);
     }
 
     public CompletableFuture<Payment> processPaymentAsynchronously(String id) {
-        Payment payment = getPaymentById(id);
-        validateStatusTransition(payment, PaymentStatus.PROCESSING);
-        
-        payment.setStatus(PaymentStatus.PROCESSING);
-        paymentRepository.save(payment);
+        Payment payment = transition(id, PaymentStatus.PROCESSING);
         
         return asyncPaymentService.processPaymentAsync(payment)
-            .thenApply(processedPayment -> {
-                PaymentProviderService provider = providerFactory.getProvider(payment.getProvider());
-                boolean success = provider.processPayment(processedPayment);
-                
-                if (success) {
-                    processedPayment.setStatus(PaymentStatus.COMPLETED);
-                } else {
-                    processedPayment.setStatus(PaymentStatus.FAILED);
+            .handle((processed, ex) -> {
+                if (ex != null && unwrap(ex) instanceof ProviderRejectedException rejected) {
+                    releaseProcessing(id);
+                    throw rejected;
+                }
+                if (ex != null && unwrap(ex) instanceof ProviderTimeoutException timeout) {
+                    warnUnknownOutcome(id);
+                    throw timeout;
+                }
+                if (ex != null) {
+                    log.error("Ödeme işlemi başarısız: {}", ex.getMessage());
+                    return finishProcessing(id, PaymentStatus.FAILED);
                 }
-                
-                return paymentRepository.save(processedPayment);
-            })
-            .exceptionally(ex -> {
-                log.error("Ödeme işlemi başarısız: {}", ex.getMessage());
-                payment.setStatus(PaymentStatus.FAILED);
-                return paymentRepository.save(payment);
+                return finishProcessing(id, processed.getStatus());
             });
     }
 
-    public Payment refundPayment(String id) {
+    // Sonucu bilinmeyen (PROCESSING'de kalmış) ödemenin durumunu sağlayıcıdan sorgulayıp yazar.
+    // Sorgu yan etkisiz olduğundan zaman aşımında tekrar denenir ve hedge edilebilir.
+    public CompletableFuture<Payment> checkProviderStatus(String id) {
         Payment payment = getPaymentById(id);
-        
-        if (payment.getStatus() != PaymentStatus.COMPLETED) {
-            throw new PaymentValidationException(
-                "Sadece tamamlanmış ödemeler iade edilebilir. Mevcut durum: " + payment.getStatus());
-        }
-        
-        PaymentProviderService provider = providerFactory.getProvider(payment.getProvider());
-        boolean success = provider.refundPayment(payment);
-        
-        if (!success) {
-            throw new PaymentValidationException("İade işlemi başarısız oldu");
+        if (payment.getStatus() != PaymentStatus.PROCESSING) {
+            throw new PaymentValidationException("Sadece işlemdeki ödemelerin durumu sağlayıcıdan sorgulanabilir");
         }
-        
-        payment.setStatus(PaymentStatus.REFUNDED);
-        return paymentRepository.save(payment);
+
+        AsyncPaymentProviderService provider = providerFactory.getAsyncProvider(payment.getProvider());
+        return concurrencyLimiter.executeIdempotent(payment.getProvider(), () -> provider.queryPaymentStatusAsync(payment))
+            .thenApply(success -> finishProcessing(id, success ? PaymentStatus.COMPLETED : PaymentStatus.FAILED));
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,88 @@
+package com.denizcan.paymentorchestration.service;
+
+import com.denizcan.paymentorchestration.exception.InvalidStatusTransitionException;
+import com.denizcan.paymentorchestration.model.PaymentStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+// Ödeme durum geçiş tablosu. Tablo bir kez kurulur; geçiş kontrolü tek bir bit maskesi
+// okumasıdır ve nesne üretmez. Reddedilen geçişler için istisnalar da önceden oluşturulur.
+@Component
+public class PaymentStateMachine {
+
+    private static final PaymentStatus[] STATUSES = PaymentStatus.values();
+
+    // kaynak ordinal -> izin verilen hedeflerin bit maskesi
+    private final long[] allowedTargets = new long[STATUSES.length];
+    // hedef -> bu hedefe geçilebilecek kaynaklar; koşullu UPDATE'in IN listesi
+    private final Map<PaymentStatus, Set<PaymentStatus>> sources = new EnumMap<>(PaymentStatus.class);
+    private final InvalidStatusTransitionException[][] rejections =
+        new InvalidStatusTransitionException[STATUSES.length][STATUSES.length];
+    // Geri bırakma (PENDING'e dönüş) iç geçişinin kaynakları
+    private final Set<PaymentStatus> releaseSources;
+
+    public PaymentStateMachine() {
+        allow(PaymentStatus.PENDING, PaymentStatus.PROCESSING, PaymentStatus.COMPLETED, PaymentStatus.FAILED);
+        allow(PaymentStatus.PROCESSING, PaymentStatus.COMPLETED, PaymentStatus.FAILED);
+        allow(PaymentStatus.COMPLETED, PaymentStatus.PARTIALLY_REFUNDED, PaymentStatus.REFUNDED);
+        // Kısmi iadeler kalan tutar bitene kadar tekrarlanabilir
+        allow(PaymentStatus.PARTIALLY_REFUNDED, PaymentStatus.PARTIALLY_REFUNDED, PaymentStatus.REFUNDED);
+        // FAILED ve REFUNDED son durumlardır
+
+        // İç geçiş: sağlayıcıya hiç gitmeyen (devre açık, limit dolu ya da toplu işlemde gönderilmemiş)
+        // ödeme tekrar işlenebilsin diye PENDING'e geri bırakılır. İstemci bu geçişi isteyemez;
+        // canTransition ve sourcesOf(PENDING) onu içermez.
+        releaseSources = Collections.unmodifiableSet(EnumSet.of(PaymentStatus.PROCESSING));
+
+        for (PaymentStatus to : STATUSES) {
+            EnumSet<PaymentStatus> from = EnumSet.noneOf(PaymentStatus.class);
+            for (PaymentStatus candidate : STATUSES) {
+                if (canTransition(candidate, to)) {
+                    from.add(candidate);
+                } else {
+                    rejections[candidate.ordinal()][to.ordinal()] = new InvalidStatusTransitionException(candidate, to);
+                }
+            }
+            sources.put(to, Collections.unmodifiableSet(from));
+        }
+    }
+
+    private void allow(PaymentStatus from, PaymentStatus... targets) {
+        for (PaymentStatus to : targets) {
+            allowedTargets[from.ordinal()] |= 1L << to.ordinal();
+        }
+    }
+
+    public boolean canTransition(PaymentStatus from, PaymentStatus to) {
+        return (allowedTargets[from.ordinal()] & (1L << to.ordinal())) != 0;
+    }
+
+    public void checkTransition(PaymentStatus from, PaymentStatus to) {
+        if (!canTransition(from, to)) {
+            throw rejections[from.ordinal()][to.ordinal()];
+        }
+    }
+
+    // Geçiş geçerliyse null döner
+    public InvalidStatusTransitionException rejection(PaymentStatus from, PaymentStatus to) {
+        return rejections[from.ordinal()][to.ordinal()];
+    }
+
+    public Set<PaymentStatus> sourcesOf(PaymentStatus to) {
+        return sources.get(to);
+    }
+
+    // Ödemenin PENDING'e geri bırakılabileceği durumlar
+    public Set<PaymentStatus> releaseSources() {
+        return releaseSources;
+    }
+
+    public boolean isFinal(PaymentStatus status) {
+        return allowedTargets[status.ordinal()] == 0;
+    }
+}
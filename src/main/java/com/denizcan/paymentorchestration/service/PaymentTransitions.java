@@ -0,0 +1,41 @@
+package com.denizcan.paymentorchestration.service;
+
+import com.denizcan.paymentorchestration.model.Payment;
+import com.denizcan.paymentorchestration.model.PaymentStatus;
+
+import java.util.Collection;
+import java.util.List;
+
+// Ödeme durum geçişlerinin kaydedildiği yer. Varsayılan olarak veritabanıdır; olay günlüğü
+// modunda geçişler önce günlüğe yazılır, veritabanı arkadan güncellenen bir projeksiyona döner.
+public interface PaymentTransitions {
+
+    // Ödeme from durumlarından birindeyse to'ya geçirir; yarışı kaybeden çağrı false alır
+    boolean transition(String id, Collection<PaymentStatus> from, PaymentStatus to);
+
+    // Okunmuş ödemeyi geçirir; başarılıysa kopya geçişten sonraki haline getirilir ve çağıranın
+    // ödemeyi tekrar okuması gerekmez
+    default boolean transition(Payment current, Collection<PaymentStatus> from, PaymentStatus to) {
+        if (!transition(current.getId(), from, to)) {
+            return false;
+        }
+        current.setStatus(to);
+        return true;
+    }
+
+    // Uygun durumdaki ödemeleri to'ya geçirir ve geçenlerin id'lerini döner
+    List<String> transitionAll(Collection<String> ids, Collection<PaymentStatus> from, PaymentStatus to);
+
+    // Veritabanından okunan ödemenin durumunu kayıt sisteminin güncel haline getirir
+    default Payment project(Payment payment) {
+        return payment;
+    }
+
+    // Ödemenin bilinen son geçişi veritabanına yazılana kadar bekler
+    default void awaitProjected(String id) {
+    }
+
+    // Veritabanından silinen ödeme kayıt sisteminden de çıkarılır
+    default void removed(String id) {
+    }
+}
@@ -0,0 +1,329 @@
+package com.denizcan.paymentorchestration.service.archive;
+
+import com.denizcan.paymentorchestration.model.Currency;
+import com.denizcan.paymentorchestration.model.Money;
+import com.denizcan.paymentorchestration.model.Payment;
+import com.denizcan.paymentorchestration.model.PaymentProvider;
+import com.denizcan.paymentorchestration.model.PaymentStatus;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.zip.CRC32C;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+// Arşiv dosyası: satırlar id sırasında, her alan ayrı bir kolon olarak sıkıştırılır. Aynı
+// kolondaki değerler birbirine benzediği için (tekrar eden durum ve para birimi, yakın
+// zamanlar) satır satır yazmaya göre çok daha iyi sıkışır.
+// Düzen: [MAGIC][biçim][satır sayısı][ilk id][son id] başlığı sıkıştırılmadan yazılır ki indeks
+// dosyanın tamamını okumadan id aralığını öğrenebilsin. Ardından her kolon
+// [ham uzunluk][sıkıştırılmış uzunluk][veri] olarak gelir; dosya içeriğin CRC32C'si ile biter.
+final class ArchiveSegment {
+
+    private static final int MAGIC = 0x50415243;
+    private static final int FORMAT = 1;
+
+    private final String[] ids;
+    private final long[] amounts;
+    private final Currency[] currencies;
+    private final long[] refunded;
+    private final long[] settlementAmounts;
+    private final Currency[] settlementCurrencies;
+    private final PaymentStatus[] statuses;
+    private final PaymentProvider[] providers;
+    private final String[] descriptions;
+    private final long[] versions;
+    private final long[] createdAtMicros;
+
+    private ArchiveSegment(int rows) {
+        ids = new String[rows];
+        amounts = new long[rows];
+        currencies = new Currency[rows];
+        refunded = new long[rows];
+        settlementAmounts = new long[rows];
+        settlementCurrencies = new Currency[rows];
+        statuses = new PaymentStatus[rows];
+        providers = new PaymentProvider[rows];
+        descriptions = new String[rows];
+        versions = new long[rows];
+        createdAtMicros = new long[rows];
+    }
+
+    record Header(int rows, String firstId, String lastId) {
+    }
+
+    static Header write(Path file, List<Payment> payments) throws IOException {
+        List<Payment> sorted = new ArrayList<>(payments);
+        sorted.sort(Comparator.comparing(Payment::getId));
+        int rows = sorted.size();
+        Header header = new Header(rows, sorted.get(0).getId(), sorted.get(rows - 1).getId());
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT);
+        out.writeInt(rows);
+        out.writeUTF(header.firstId());
+        out.writeUTF(header.lastId());
+
+        writeColumn(out, column -> {
+            for (Payment payment : sorted) {
+                column.writeUTF(payment.getId());
+            }
+        });
+        writeColumn(out, column -> {
+            for (Payment payment : sorted) {
+                column.writeLong(payment.getAmount().minorUnits());
+            }
+        });
+        writeColumn(out, column -> writeEnums(column, sorted, payment -> payment.getAmount().currency()));
+        writeColumn(out, column -> {
+            for (Payment payment : sorted) {
+                column.writeLong(payment.getRefundedAmount() == null ? 0 : payment.getRefundedAmount().minorUnits());
+            }
+        });
+        writeColumn(out, column -> {
+            for (Payment payment : sorted) {
+                column.writeLong(payment.getSettlementAmount() == null ? 0 : payment.getSettlementAmount().minorUnits());
+            }
+        });
+        writeColumn(out, column -> writeEnums(column, sorted,
+            payment -> payment.getSettlementAmount() == null ? null : payment.getSettlementAmount().currency()));
+        writeColumn(out, column -> writeEnums(column, sorted, Payment::getStatus));
+        writeColumn(out, column -> writeEnums(column, sorted, Payment::getProvider));
+        writeColumn(out, column -> {
+            for (Payment payment : sorted) {
+                column.writeBoolean(payment.getDescription() != null);
+                if (payment.getDescription() != null) {
+                    column.writeUTF(payment.getDescription());
+                }
+            }
+        });
+        writeColumn(out, column -> {
+            for (Payment payment : sorted) {
+                column.writeLong(payment.getVersion() == null ? 0 : payment.getVersion());
+            }
+        });
+        // Zamanlar bir öncekinden fark olarak yazılır; küçük farklar iyi sıkışır
+        writeColumn(out, column -> {
+            long previous = 0;
+            for (Payment payment : sorted) {
+                long micros = ChronoUnit.MICROS.between(Instant.EPOCH, payment.getCreatedAt());
+                column.writeLong(micros - previous);
+                previous = micros;
+            }
+        });
+
+        CRC32C crc = new CRC32C();
+        crc.update(bytes.toByteArray());
+        out.writeInt((int) crc.getValue());
+        out.flush();
+        // Dosya diske inmeden ödemeler veritabanından silinmemeli
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        return header;
+    }
+
+    static Header readHeader(Path file) throws IOException {
+        try (InputStream stream = Files.newInputStream(file)) {
+            return readHeader(new DataInputStream(stream), file);
+        }
+    }
+
+    static ArchiveSegment read(Path file) throws IOException {
+        byte[] content = Files.readAllBytes(file);
+        if (content.length < Integer.BYTES) {
+            throw new IOException("Arşiv dosyası bozuk: " + file);
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(content, 0, content.length - Integer.BYTES);
+        if ((int) crc.getValue() != ByteBuffer.wrap(content, content.length - Integer.BYTES, Integer.BYTES).getInt()) {
+            throw new IOException("Arşiv dosyası bozuk: " + file);
+        }
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(content));
+        int rows = readHeader(in, file).rows();
+        ArchiveSegment segment = new ArchiveSegment(rows);
+
+        DataInputStream column = readColumn(in);
+        for (int i = 0; i < rows; i++) {
+            segment.ids[i] = column.readUTF();
+        }
+        column = readColumn(in);
+        for (int i = 0; i < rows; i++) {
+            segment.amounts[i] = column.readLong();
+        }
+        readEnums(readColumn(in), Currency.class, segment.currencies);
+        column = readColumn(in);
+        for (int i = 0; i < rows; i++) {
+            segment.refunded[i] = column.readLong();
+        }
+        column = readColumn(in);
+        for (int i = 0; i < rows; i++) {
+            segment.settlementAmounts[i] = column.readLong();
+        }
+        readEnums(readColumn(in), Currency.class, segment.settlementCurrencies);
+        readEnums(readColumn(in), PaymentStatus.class, segment.statuses);
+        readEnums(readColumn(in), PaymentProvider.class, segment.providers);
+        column = readColumn(in);
+        for (int i = 0; i < rows; i++) {
+            segment.descriptions[i] = column.readBoolean() ? column.readUTF() : null;
+        }
+        column = readColumn(in);
+        for (int i = 0; i < rows; i++) {
+            segment.versions[i] = column.readLong();
+        }
+        column = readColumn(in);
+        long micros = 0;
+        for (int i = 0; i < rows; i++) {
+            micros += column.readLong();
+            segment.createdAtMicros[i] = micros;
+        }
+        return segment;
+    }
+
+    // Bulunamazsa null
+    Payment find(String id) {
+        int row = Arrays.binarySearch(ids, id);
+        if (row < 0) {
+            return null;
+        }
+        Currency currency = currencies[row];
+        return Payment.builder()
+            .id(ids[row])
+            .amount(Money.ofMinor(amounts[row], currency))
+            .refundedAmount(Money.ofMinor(refunded[row], currency))
+            .settlementAmount(settlementCurrencies[row] == null
+                ? null
+                : Money.ofMinor(settlementAmounts[row], settlementCurrencies[row]))
+            .status(statuses[row])
+            .provider(providers[row])
+            .description(descriptions[row])
+            .version(versions[row])
+            .createdAt(Instant.EPOCH.plus(createdAtMicros[row], ChronoUnit.MICROS))
+            .archived(true)
+            .build();
+    }
+
+    int size() {
+        return ids.length;
+    }
+
+    private static Header readHeader(DataInputStream in, Path file) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Arşiv dosyası değil: " + file);
+        }
+        int format = in.readInt();
+        if (format != FORMAT) {
+            throw new IOException("Desteklenmeyen arşiv biçimi " + format + ": " + file);
+        }
+        return new Header(in.readInt(), in.readUTF(), in.readUTF());
+    }
+
+    private static void writeColumn(DataOutputStream out, ColumnWriter writer) throws IOException {
+        ByteArrayOutputStream raw = new ByteArrayOutputStream();
+        DataOutputStream column = new DataOutputStream(raw);
+        writer.write(column);
+        column.flush();
+        byte[] input = raw.toByteArray();
+
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(64, input.length / 4));
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                compressed.write(buffer, 0, deflater.deflate(buffer));
+            }
+            out.writeInt(input.length);
+            out.writeInt(compressed.size());
+            compressed.writeTo(out);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static DataInputStream readColumn(DataInputStream in) throws IOException {
+        byte[] output = new byte[in.readInt()];
+        byte[] compressed = in.readNBytes(in.readInt());
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            int inflated = 0;
+            while (inflated < output.length) {
+                int count = inflater.inflate(output, inflated, output.length - inflated);
+                if (count == 0 && (inflater.finished() || inflater.needsInput())) {
+                    throw new IOException("Arşiv kolonu beklenenden kısa");
+                }
+                inflated += count;
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Arşiv kolonu çözülemedi", e);
+        } finally {
+            inflater.end();
+        }
+        return new DataInputStream(new ByteArrayInputStream(output));
+    }
+
+    // Enum kolonları, dosyada geçen adların sözlüğü ve satır başına bir bayt olarak yazılır;
+    // enum sırası değişse de eski dosyalar doğru okunur. 0 boş değer içindir.
+    private static <E extends Enum<E>> void writeEnums(DataOutputStream column, List<Payment> payments,
+                                                       Function<Payment, E> getter)
+            throws IOException {
+        Map<E, Integer> dictionary = new LinkedHashMap<>();
+        byte[] codes = new byte[payments.size()];
+        for (int i = 0; i < codes.length; i++) {
+            E value = getter.apply(payments.get(i));
+            codes[i] = value == null ? 0 : (byte) (int) dictionary.computeIfAbsent(value, v -> dictionary.size() + 1);
+        }
+        column.writeByte(dictionary.size());
+        for (E value : dictionary.keySet()) {
+            column.writeUTF(value.name());
+        }
+        column.write(codes);
+    }
+
+    private static <E extends Enum<E>> void readEnums(DataInputStream column, Class<E> type, E[] target)
+            throws IOException {
+        List<E> dictionary = new ArrayList<>();
+        int size = column.readUnsignedByte();
+        for (int i = 0; i < size; i++) {
+            dictionary.add(Enum.valueOf(type, column.readUTF()));
+        }
+        for (int i = 0; i < target.length; i++) {
+            int code = column.readUnsignedByte();
+            target[i] = code == 0 ? null : dictionary.get(code - 1);
+        }
+    }
+
+    @FunctionalInterface
+    private interface ColumnWriter {
+        void write(DataOutputStream column) throws IOException;
+    }
+}
@@ -0,0 +1,156 @@
+package com.denizcan.paymentorchestration.service.archive;
+
+import com.denizcan.paymentorchestration.config.ArchiveProperties;
+import com.denizcan.paymentorchestration.model.Payment;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+// Arşive taşınmış ödemelerin okunduğu soğuk katman. Dosyalar ödemenin oluşturulduğu güne göre
+// ayrı dizinlerde durur (data/archive/2026-01-31/seg-*.seg). İndeks her dosyanın id aralığını
+// ilk id'ye göre sıralı tutar; arama aralığı id'yi kapsayabilecek dosyaları ikili aramayla
+// bulur ve dosya içinde de ikili arama yapar. Zaman sıralı id'ler sayesinde aralıklar
+// çoğunlukla ayrıktır, veritabanında olmayan bir id için çoğu zaman hiçbir dosya açılmaz.
+@Slf4j
+@Component
+public class PaymentArchive {
+
+    private static final String SUFFIX = ".seg";
+
+    private final ArchiveProperties properties;
+    private final Cache<Path, ArchiveSegment> segments;
+    private final Object writeLock = new Object();
+    private volatile Index index = Index.of(List.of());
+
+    public PaymentArchive(ArchiveProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.segments = Caffeine.newBuilder()
+            .maximumSize(properties.getCachedSegments())
+            .build();
+        Gauge.builder("payment.archive.segments", this, PaymentArchive::segmentCount)
+            .description("Arşivdeki dosya sayısı")
+            .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void open() throws IOException {
+        Files.createDirectories(properties.getDir());
+        List<Entry> entries = new ArrayList<>();
+        try (Stream<Path> files = Files.walk(properties.getDir(), 2)) {
+            for (Path file : files.filter(path -> path.getFileName().toString().endsWith(SUFFIX)).toList()) {
+                ArchiveSegment.Header header = ArchiveSegment.readHeader(file);
+                entries.add(new Entry(file, header.firstId(), header.lastId()));
+            }
+        }
+        index = Index.of(entries);
+        if (!entries.isEmpty()) {
+            log.info("Arşivden {} dosya yüklendi", entries.size());
+        }
+    }
+
+    public Optional<Payment> find(String id) {
+        Index current = index;
+        // İlk id'si aranan id'den büyük olmayan son dosyadan geriye doğru, önceki dosyaların
+        // en büyük son id'si aranan id'nin altına düşene kadar bakılır
+        for (int i = current.floor(id); i >= 0 && current.maxLastId()[i].compareTo(id) >= 0; i--) {
+            Entry entry = current.entries()[i];
+            if (entry.covers(id)) {
+                Payment payment = segments.get(entry.file(), PaymentArchive::read).find(id);
+                if (payment != null) {
+                    return Optional.of(payment);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    // Dosya tamamen diske yazılıp yerine taşındıktan sonra döner. Ödemeler daha sonra
+    // veritabanından silinemezse iki yerde birden bulunur; okuma önce veritabanına baktığı için
+    // sonuç değişmez ve bir sonraki turda tekrar arşivlenirler.
+    public void write(LocalDate day, List<Payment> payments) throws IOException {
+        Path dir = properties.getDir().resolve(day.toString());
+        Files.createDirectories(dir);
+        Path temp = Files.createTempFile(dir, "seg-", ".tmp");
+        ArchiveSegment.Header header;
+        try {
+            header = ArchiveSegment.write(temp, payments);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        Path file = dir.resolve(temp.getFileName().toString().replace(".tmp", SUFFIX));
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+
+        synchronized (writeLock) {
+            List<Entry> entries = new ArrayList<>(List.of(index.entries()));
+            entries.add(new Entry(file, header.firstId(), header.lastId()));
+            index = Index.of(entries);
+        }
+    }
+
+    public int segmentCount() {
+        return index.entries().length;
+    }
+
+    private static ArchiveSegment read(Path file) {
+        try {
+            return ArchiveSegment.read(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Arşiv dosyası okunamadı: " + file, e);
+        }
+    }
+
+    private record Entry(Path file, String firstId, String lastId) {
+        boolean covers(String id) {
+            return firstId.compareTo(id) <= 0 && lastId.compareTo(id) >= 0;
+        }
+    }
+
+    // maxLastId[i], 0..i arasındaki dosyaların en büyük son id'si; çakışan aralıklarda
+    // geriye doğru taramanın nerede durabileceğini söyler
+    private record Index(Entry[] entries, String[] maxLastId) {
+
+        static Index of(List<Entry> unsorted) {
+            Entry[] entries = unsorted.stream()
+                .sorted(Comparator.comparing(Entry::firstId))
+                .toArray(Entry[]::new);
+            String[] maxLastId = new String[entries.length];
+            for (int i = 0; i < entries.length; i++) {
+                String last = entries[i].lastId();
+                maxLastId[i] = i > 0 && maxLastId[i - 1].compareTo(last) > 0 ? maxLastId[i - 1] : last;
+            }
+            return new Index(entries, maxLastId);
+        }
+
+        // İlk id'si id'den büyük olmayan son dosyanın sırası; yoksa -1
+        int floor(String id) {
+            int low = 0;
+            int high = entries.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (entries[mid].firstId().compareTo(id) <= 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return high;
+        }
+    }
+}
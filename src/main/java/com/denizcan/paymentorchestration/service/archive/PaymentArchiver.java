@@ -0,0 +1,115 @@
+package com.denizcan.paymentorchestration.service.archive;
+
+import com.denizcan.paymentorchestration.config.ArchiveProperties;
+import com.denizcan.paymentorchestration.config.RefundProperties;
+import com.denizcan.paymentorchestration.model.Payment;
+import com.denizcan.paymentorchestration.model.PaymentStatus;
+import com.denizcan.paymentorchestration.repository.PaymentRepository;
+import com.denizcan.paymentorchestration.service.PaymentCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+// Sonuçlanmış eski ödemeleri veritabanından arşiv dosyalarına taşır; payment tablosu ve
+// indeksleri sadece güncel ödemeler kadar büyür. Her grup tek transaction'da kilitlenir,
+// oluşturulduğu güne göre dosyalara yazılır ve silinir; dosya yazılamazsa transaction geri
+// alınır ve ödemeler veritabanında kalır. Eşik iade süresinden kısa olamaz; iade edilebilir
+// (COMPLETED) bir ödeme süresi dolmadan arşive taşınmaz.
+@Slf4j
+@Service
+public class PaymentArchiver {
+
+    private static final Set<PaymentStatus> ARCHIVABLE =
+        EnumSet.of(PaymentStatus.COMPLETED, PaymentStatus.FAILED, PaymentStatus.REFUNDED);
+
+    private final PaymentRepository paymentRepository;
+    private final PaymentArchive archive;
+    private final PaymentCache paymentCache;
+    private final ArchiveProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+    private final Counter archived;
+
+    public PaymentArchiver(
+            PaymentRepository paymentRepository,
+            PaymentArchive archive,
+            PaymentCache paymentCache,
+            ArchiveProperties properties,
+            RefundProperties refundProperties,
+            PlatformTransactionManager transactionManager,
+            Clock clock,
+            MeterRegistry meterRegistry) {
+        if (properties.isEnabled() && properties.getOlderThan().compareTo(refundProperties.getWindow()) < 0) {
+            throw new IllegalStateException(String.format(
+                "payment.archive.older-than (%s) iade süresinden (payment.refunds.window, %s) kısa olamaz",
+                properties.getOlderThan(), refundProperties.getWindow()));
+        }
+        this.paymentRepository = paymentRepository;
+        this.archive = archive;
+        this.paymentCache = paymentCache;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.clock = clock;
+        this.archived = Counter.builder("payment.archive.archived")
+            .description("Arşive taşınan ödeme sayısı")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${payment.archive.interval:PT10M}",
+        initialDelayString = "${payment.archive.interval:PT10M}")
+    public void archive() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Instant cutoff = clock.instant().minus(properties.getOlderThan());
+        int total = 0;
+        int moved;
+        do {
+            moved = transactionTemplate.execute(status -> archiveBatch(cutoff));
+            total += moved;
+        } while (moved == properties.getBatchSize());
+        if (total > 0) {
+            log.info("{} tarihinden eski {} ödeme arşive taşındı", cutoff, total);
+        }
+    }
+
+    private int archiveBatch(Instant cutoff) {
+        List<Payment> payments = paymentRepository.lockArchivable(ARCHIVABLE, cutoff, properties.getBatchSize());
+        if (payments.isEmpty()) {
+            return 0;
+        }
+
+        Map<LocalDate, List<Payment>> byDay = payments.stream().collect(Collectors.groupingBy(
+            payment -> LocalDate.ofInstant(payment.getCreatedAt(), ZoneOffset.UTC), TreeMap::new, Collectors.toList()));
+        try {
+            for (Map.Entry<LocalDate, List<Payment>> day : byDay.entrySet()) {
+                archive.write(day.getKey(), day.getValue());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Ödemeler arşive yazılamadı", e);
+        }
+
+        List<String> ids = payments.stream().map(Payment::getId).toList();
+        paymentRepository.deleteArchived(ids);
+        paymentCache.evictAll(ids);
+        archived.increment(ids.size());
+        return ids.size();
+    }
+}
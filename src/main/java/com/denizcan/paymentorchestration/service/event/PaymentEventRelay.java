@@ -0,0 +1,122 @@
+package com.denizcan.paymentorchestration.service.event;
+
+import com.denizcan.paymentorchestration.config.EventProperties;
+import com.denizcan.paymentorchestration.model.PaymentEvent;
+import com.denizcan.paymentorchestration.repository.PaymentEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Outbox'taki olayları alıp sıra numarası verir ve abonelere dağıtır. Yazma anında alınan
+// id'ler commit sırasını yansıtmaz (önce id alan transaction sonra commit edebilir, düğümler
+// sequence'tan ayrı bloklar alır); numara yayın anında verildiği için aboneler boşluk görmeden
+// okur. Aynı ödemenin olayları ödeme sürümüne göre numaralanır.
+@Slf4j
+@Component
+public class PaymentEventRelay {
+    // Sürümsüz olaylar sürüm sütunu eklenmeden önce yazılmıştır, en başa alınır
+    private static final Comparator<PaymentEvent> PAYMENT_ORDER = Comparator
+        .comparing(PaymentEvent::getPaymentVersion, Comparator.nullsFirst(Comparator.naturalOrder()))
+        .thenComparing(PaymentEvent::getId);
+
+    private final PaymentEventRepository eventRepository;
+    private final PaymentEventStream eventStream;
+    private final TransactionTemplate transactionTemplate;
+    private final EventProperties properties;
+    private final Counter relayed;
+
+    public PaymentEventRelay(
+            PaymentEventRepository eventRepository,
+            PaymentEventStream eventStream,
+            PlatformTransactionManager transactionManager,
+            EventProperties properties,
+            MeterRegistry meterRegistry) {
+        this.eventRepository = eventRepository;
+        this.eventStream = eventStream;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.relayed = Counter.builder("payment.events.relayed")
+            .description("Outbox'tan yayınlanan olay sayısı")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${payment.events.relay-interval:PT0.05S}")
+    public void relay() {
+        try {
+            List<PaymentEvent> batch;
+            do {
+                batch = transactionTemplate.execute(status -> assignNext());
+                eventStream.publish(batch);
+                relayed.increment(batch.size());
+            } while (batch.size() >= properties.getBatchSize());
+        } catch (DataAccessException e) {
+            // Başka bir relay aynı numaraları vermiş olabilir; sıradaki turda tekrar denenir
+            log.warn("Ödeme olayları yayınlanamadı, tekrar denenecek: {}", e.getMessage());
+        }
+    }
+
+    private List<PaymentEvent> assignNext() {
+        // Önce satırlar kilitlenir, sonra son numara okunur; eşzamanlı relay'in commit'i görülmüş olur
+        List<PaymentEvent> batch = eventRepository.findUnpublished(PageRequest.ofSize(properties.getBatchSize()));
+        if (batch.isEmpty()) {
+            return batch;
+        }
+        List<PaymentEvent> ordered = orderPerPayment(batch);
+        long sequence = eventRepository.findLastSequenceNumber();
+        for (PaymentEvent event : ordered) {
+            event.setSequenceNumber(++sequence);
+        }
+        return ordered;
+    }
+
+    // Partideki ödemelerin partiye girmemiş olayları da alınır; yoksa sürümü küçük olay daha büyük
+    // id aldıysa bir sonraki partide, sonrakinden sonra yayınlanırdı. Her ödemenin olayları kendi
+    // yerlerinde sürüm sırasına dizilir, ödemeler arası sıra id sırası kalır.
+    private List<PaymentEvent> orderPerPayment(List<PaymentEvent> batch) {
+        Set<String> paymentIds = batch.stream().map(PaymentEvent::getPaymentId).collect(Collectors.toSet());
+        List<PaymentEvent> events = eventRepository.findUnpublishedOf(paymentIds);
+        Map<String, Deque<PaymentEvent>> byVersion = new HashMap<>();
+        events.stream()
+            .sorted(PAYMENT_ORDER)
+            .forEach(event -> byVersion.computeIfAbsent(event.getPaymentId(), id -> new ArrayDeque<>()).add(event));
+        return events.stream()
+            .map(event -> byVersion.get(event.getPaymentId()).poll())
+            .toList();
+    }
+
+    @Scheduled(fixedDelayString = "${payment.events.purge-interval:PT10M}")
+    public void purgePublished() {
+        Instant before = Instant.now().minus(properties.getRetention());
+        try {
+            int deleted = 0;
+            List<Long> ids;
+            do {
+                ids = eventRepository.findPublishedBefore(before, PageRequest.ofSize(properties.getBatchSize()));
+                if (!ids.isEmpty()) {
+                    deleted += eventRepository.deleteByIds(ids);
+                }
+            } while (ids.size() == properties.getBatchSize());
+            if (deleted > 0) {
+                log.info("Saklama süresi dolan {} yayınlanmış ödeme olayı silindi", deleted);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Yayınlanmış ödeme olayları silinemedi, tekrar denenecek: {}", e.getMessage());
+        }
+    }
+}
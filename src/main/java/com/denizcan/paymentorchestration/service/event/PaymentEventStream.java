@@ -0,0 +1,113 @@
+package com.denizcan.paymentorchestration.service.event;
+
+import com.denizcan.paymentorchestration.config.EventProperties;
+import com.denizcan.paymentorchestration.model.PaymentEvent;
+import com.denizcan.paymentorchestration.repository.PaymentEventRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Yayınlanmış olayların abonelere dağıtımı. Son bufferSize olay halka tamponda tutulur;
+// güncel aboneler veritabanına gitmeden buradan okur, geride kalanlar sıra numarasıyla
+// veritabanından yetişir. Yeni olay bekleyen aboneler publish ile uyandırılır.
+@Component
+public class PaymentEventStream {
+
+    private final PaymentEventRepository eventRepository;
+    private final PaymentEvent[] buffer;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition published = lock.newCondition();
+    private long head;
+    private int buffered;
+
+    public PaymentEventStream(PaymentEventRepository eventRepository, EventProperties properties) {
+        this.eventRepository = eventRepository;
+        this.buffer = new PaymentEvent[properties.getBufferSize()];
+    }
+
+    @PostConstruct
+    void start() {
+        head = eventRepository.findLastSequenceNumber();
+    }
+
+    // Relay tarafından commit sonrasında, sıra numarası artan şekilde çağrılır
+    public void publish(List<PaymentEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        lock.lock();
+        try {
+            if (events.get(0).getSequenceNumber() != head + 1) {
+                // Arada başka bir relay yayın yapmış; tamponda boşluk olmasın diye baştan başla
+                buffered = 0;
+            }
+            for (PaymentEvent event : events) {
+                buffer[(int) (event.getSequenceNumber() % buffer.length)] = event;
+                buffered = Math.min(buffered + 1, buffer.length);
+                head = event.getSequenceNumber();
+            }
+            published.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long head() {
+        lock.lock();
+        try {
+            return head;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // after'dan sonraki en fazla max olay, sıra numarasına göre
+    public List<PaymentEvent> readAfter(long after, int max) {
+        lock.lock();
+        try {
+            if (after >= head) {
+                return List.of();
+            }
+            if (after >= head - buffered) {
+                int count = (int) Math.min(max, head - after);
+                List<PaymentEvent> events = new ArrayList<>(count);
+                for (long sequence = after + 1; sequence <= after + count; sequence++) {
+                    events.add(buffer[(int) (sequence % buffer.length)]);
+                }
+                return events;
+            }
+        } finally {
+            lock.unlock();
+        }
+        return readStored(after, max);
+    }
+
+    // Tamponu atlayıp doğrudan veritabanından okur; başka bir örneğin relay'inin yayınladıkları da görünür
+    public List<PaymentEvent> readStored(long after, int max) {
+        return eventRepository.findBySequenceNumberGreaterThanOrderBySequenceNumberAsc(after, PageRequest.ofSize(max));
+    }
+
+    // after'dan sonra yeni olay yayınlanana ya da süre dolana kadar bekler
+    public boolean awaitAfter(long after, Duration timeout) throws InterruptedException {
+        long remaining = timeout.toNanos();
+        lock.lock();
+        try {
+            while (head <= after) {
+                if (remaining <= 0) {
+                    return false;
+                }
+                remaining = published.awaitNanos(remaining);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,405 @@
+package com.denizcan.paymentorchestration.service.eventlog;
+
+import com.denizcan.paymentorchestration.config.EventLogProperties;
+import com.denizcan.paymentorchestration.exception.ProjectionLagException;
+import com.denizcan.paymentorchestration.model.Payment;
+import com.denizcan.paymentorchestration.model.PaymentStatus;
+import com.denizcan.paymentorchestration.repository.PaymentRepository;
+import com.denizcan.paymentorchestration.service.PaymentCache;
+import com.denizcan.paymentorchestration.service.PaymentTransitions;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Olay günlüğü modu: ödemenin yaşam döngüsündeki durum geçişlerinin kayıt sistemi günlüktür.
+// Geçiş, ödemenin son durumunu tutan bellek içi projeksiyona göre kontrol edilir, günlüğe
+// eklenir ve aynı anda gelen geçişlerle tek fsync paylaşılarak onaylanır. Arka plandaki tek
+// thread günlüğü sırayla okur, ödeme başına son durumu hedef durum başına tek UPDATE ile
+// veritabanına yazar (outbox olayları buradan çıkar) ve kontrol noktasını ilerletir.
+// Projeksiyonda sadece veritabanına henüz yazılmamış ya da sonuçlanmamış ödemeler tutulur;
+// geri kalanı için veritabanı zaten günceldir. Açılışta son anlık görüntü ve ondan sonraki
+// kayıtlar okunarak projeksiyon yeniden kurulur.
+// Projeksiyon her sürecin kendi belleğinde durduğu için bu mod tek instance ile çalışır; aynı
+// veritabanını paylaşan ikinci bir instance diğerinin geçişlerini görmez.
+@Slf4j
+public class EventSourcedTransitions implements PaymentTransitions, Closeable {
+
+    private static final Set<PaymentStatus> LIFECYCLE = EnumSet.of(
+        PaymentStatus.PENDING, PaymentStatus.PROCESSING, PaymentStatus.COMPLETED, PaymentStatus.FAILED);
+    private static final Set<PaymentStatus> SETTLED = EnumSet.of(PaymentStatus.COMPLETED, PaymentStatus.FAILED);
+    private static final int STRIPES = 256;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+    private static final long RETRY_DELAY_MS = 1_000;
+
+    private final PaymentRepository paymentRepository;
+    private final PaymentCache paymentCache;
+    private final Clock clock;
+    private final PaymentEventLog eventLog;
+    private final Path snapshotFile;
+    private final FileChannel checkpointFile;
+    private final MappedByteBuffer checkpoint;
+    private final boolean fsync;
+    private final int batchSize;
+    private final long snapshotEvery;
+    private final Duration projectionTimeout;
+    private final Map<String, Projected> projection = new ConcurrentHashMap<>();
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+    private final Object appliedMonitor = new Object();
+    // Projeksiyondan düşen kayıt sayacı; transitionAll toplu okuduğu durumun eskiyip eskimediğini buna bakarak anlar
+    private final AtomicLong dropped = new AtomicLong();
+    private final Thread applier;
+    private volatile long applied;
+    private volatile boolean running = true;
+    private long appliedSinceSnapshot;
+
+    public EventSourcedTransitions(
+            EventLogProperties properties,
+            PaymentRepository paymentRepository,
+            PaymentCache paymentCache,
+            Clock clock) throws IOException {
+        this.paymentRepository = paymentRepository;
+        this.paymentCache = paymentCache;
+        this.clock = clock;
+        this.fsync = properties.isFsync();
+        this.batchSize = properties.getBatchSize();
+        this.snapshotEvery = properties.getSnapshotEvery();
+        this.projectionTimeout = properties.getProjectionTimeout();
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+
+        Path dir = properties.getDir();
+        Files.createDirectories(dir);
+        this.eventLog = new PaymentEventLog(dir.resolve("segments"),
+            (int) properties.getSegmentSize().toBytes(), properties.isFsync());
+        this.snapshotFile = dir.resolve("projection.snap");
+        this.checkpointFile = FileChannel.open(dir.resolve("applied.chk"),
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.checkpoint = checkpointFile.map(FileChannel.MapMode.READ_WRITE, 0, Long.BYTES);
+        recover();
+
+        this.applier = Thread.ofPlatform().name("eventlog-projector").daemon().start(this::runApplier);
+    }
+
+    @Override
+    public boolean transition(String id, Collection<PaymentStatus> from, PaymentStatus to) {
+        long end;
+        ReentrantLock stripe = stripeOf(id);
+        stripe.lock();
+        try {
+            Projected current = projection.get(id);
+            PaymentStatus status = current != null ? current.status() : storedStatus(id);
+            if (status == null || !from.contains(status)) {
+                return false;
+            }
+            end = append(PaymentLogEvent.transitioned(id, status, to, nowMicros()));
+            projection.put(id, new Projected(to, end));
+        } finally {
+            stripe.unlock();
+        }
+        commit(end);
+        return true;
+    }
+
+    @Override
+    public List<String> transitionAll(Collection<String> ids, Collection<PaymentStatus> from, PaymentStatus to) {
+        // Projeksiyonda olmayan ödemelerin durumu tek sorguyla okunur. Okumadan sonra projeksiyondan
+        // kayıt düşerse (geçiş uygulandı ya da ödeme silindi) toplu okunan durum eskimiş olabilir;
+        // o zaman projeksiyonda bulunmayan ödemenin durumu kilit altında tekrar okunur.
+        long droppedBefore = dropped.get();
+        List<String> misses = ids.stream().filter(id -> !projection.containsKey(id)).toList();
+        Map<String, PaymentStatus> stored = new HashMap<>();
+        if (!misses.isEmpty()) {
+            paymentRepository.findAllById(misses).forEach(payment -> stored.put(payment.getId(), payment.getStatus()));
+        }
+
+        List<String> moved = new ArrayList<>();
+        long end = -1;
+        for (String id : ids) {
+            ReentrantLock stripe = stripeOf(id);
+            stripe.lock();
+            try {
+                Projected current = projection.get(id);
+                PaymentStatus status;
+                if (current != null) {
+                    status = current.status();
+                } else if (dropped.get() == droppedBefore) {
+                    status = stored.get(id);
+                } else {
+                    status = storedStatus(id);
+                }
+                if (status == null || !from.contains(status)) {
+                    continue;
+                }
+                end = append(PaymentLogEvent.transitioned(id, status, to, nowMicros()));
+                projection.put(id, new Projected(to, end));
+                moved.add(id);
+            } finally {
+                stripe.unlock();
+            }
+        }
+        if (end >= 0) {
+            commit(end);
+        }
+        return moved;
+    }
+
+    // Refund gibi veritabanının yönettiği durumlar projeksiyonla ezilmez
+    @Override
+    public Payment project(Payment payment) {
+        Projected current = projection.get(payment.getId());
+        if (current != null && LIFECYCLE.contains(payment.getStatus())) {
+            payment.setStatus(current.status());
+        }
+        return payment;
+    }
+
+    @Override
+    public void awaitProjected(String id) {
+        Projected current = projection.get(id);
+        if (current == null || applied >= current.position()) {
+            return;
+        }
+        long deadline = System.nanoTime() + projectionTimeout.toNanos();
+        synchronized (appliedMonitor) {
+            while (applied < current.position()) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    throw new ProjectionLagException(
+                        "Ödemenin son durumu henüz veritabanına yazılmadı, istek daha sonra tekrar gönderilmeli: " + id);
+                }
+                LockSupport.unpark(applier);
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(appliedMonitor, remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new ProjectionLagException("Ödemenin veritabanına yazılması beklenirken kesildi: " + id);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void removed(String id) {
+        long end;
+        ReentrantLock stripe = stripeOf(id);
+        stripe.lock();
+        try {
+            end = append(PaymentLogEvent.removed(id, nowMicros()));
+            projection.remove(id);
+            dropped.incrementAndGet();
+        } finally {
+            stripe.unlock();
+        }
+        commit(end);
+    }
+
+    public int projectionSize() {
+        return projection.size();
+    }
+
+    // Günlüğe yazılmış ama veritabanına henüz uygulanmamış bayt sayısı
+    public long lagBytes() {
+        return eventLog.end() - applied;
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        applier.interrupt();
+        try {
+            applier.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            // Uygulanmamış kayıtlar günlükte kalır, açılışta kontrol noktasından itibaren uygulanır
+            snapshot();
+        } finally {
+            checkpointFile.close();
+            eventLog.close();
+        }
+    }
+
+    private void recover() throws IOException {
+        ProjectionSnapshot snapshot = ProjectionSnapshot.read(snapshotFile);
+        if (snapshot == null) {
+            if (Files.exists(snapshotFile)) {
+                log.warn("Projeksiyon anlık görüntüsü okunamadı, günlüğün kalan kısmından kurulacak: {}", snapshotFile);
+            }
+            snapshot = ProjectionSnapshot.EMPTY;
+        }
+        projection.putAll(snapshot.entries());
+        applied = Math.min(checkpoint.getLong(0), eventLog.end());
+
+        long[] replayed = {0};
+        eventLog.replay(snapshot.position(), Long.MAX_VALUE, (end, payload) -> {
+            PaymentLogEvent event = PaymentLogEvent.decode(payload);
+            if (event.type() == PaymentLogEvent.Type.REMOVED) {
+                projection.remove(event.id());
+            } else {
+                projection.put(event.id(), new Projected(event.to(), end));
+            }
+            replayed[0]++;
+        });
+        projection.values().removeIf(this::settledAndApplied);
+        if (!projection.isEmpty() || replayed[0] > 0) {
+            log.info("Ödeme projeksiyonu kuruldu: anlık görüntüden {} kayıt, günlükten {} olay, uygulanmayı bekleyen {} bayt",
+                snapshot.entries().size(), replayed[0], lagBytes());
+        }
+    }
+
+    private void runApplier() {
+        while (running) {
+            long end = eventLog.end();
+            if (end <= applied) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                continue;
+            }
+            try {
+                apply(end);
+            } catch (RuntimeException | IOException e) {
+                // Kontrol noktası ilerlemez; veritabanı geri gelene kadar aynı aralık tekrar denenir
+                log.error("Olay günlüğü {} konumundan itibaren veritabanına yazılamadı, tekrar denenecek: {}",
+                    applied, e.getMessage());
+                try {
+                    Thread.sleep(RETRY_DELAY_MS);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    // Aralıktaki olaylar ödeme başına son duruma indirgenir; ara durumlar veritabanına yazılmaz.
+    // UPDATE sadece satır aralıktaki ilk olayın önceki durumundaysa yapılır: önceki olaylar uygulanmış
+    // olduğundan veritabanındaki durum odur. Kontrol noktası yazılmadan çöken bir turun tekrarı
+    // böylece satırı değiştirmez, sonradan sonuçlanmış bir ödemeyi eski duruma çekmez.
+    // Bir turda en fazla batchSize olay okunur; uzun bir veritabanı kesintisinden sonra birikmiş
+    // günlük belleğe tek seferde alınmaz, kontrol noktası tur tur ilerler.
+    void apply(long end) throws IOException {
+        eventLog.sync(end);
+        Map<String, PaymentStatus[]> latest = new LinkedHashMap<>();
+        long[] events = {0};
+        long upTo = eventLog.replay(applied, end, batchSize, (position, payload) -> {
+            PaymentLogEvent event = PaymentLogEvent.decode(payload);
+            if (event.type() == PaymentLogEvent.Type.REMOVED) {
+                latest.remove(event.id());
+            } else {
+                // [aralıktaki ilk önceki durum, son durum]
+                latest.computeIfAbsent(event.id(), id -> new PaymentStatus[] {event.from(), null})[1] = event.to();
+            }
+            events[0]++;
+        });
+
+        // (önceki durum, hedef) çifti başına tek UPDATE
+        Map<PaymentStatus, Map<PaymentStatus, List<String>>> byTarget = new EnumMap<>(PaymentStatus.class);
+        latest.forEach((id, change) -> {
+            if (change[0] != change[1]) {
+                byTarget.computeIfAbsent(change[1], target -> new EnumMap<>(PaymentStatus.class))
+                    .computeIfAbsent(change[0], from -> new ArrayList<>()).add(id);
+            }
+        });
+        byTarget.forEach((target, bySource) -> bySource.forEach((from, ids) ->
+            paymentRepository.transitionStatuses(ids, EnumSet.of(from), target)));
+
+        checkpoint.putLong(0, upTo);
+        if (fsync) {
+            // Kontrol noktası diskte geride kalırsa açılışta uygulanmış turlar tekrar okunur
+            checkpoint.force();
+        }
+        synchronized (appliedMonitor) {
+            applied = upTo;
+            appliedMonitor.notifyAll();
+        }
+        paymentCache.evictAll(latest.keySet());
+        for (String id : latest.keySet()) {
+            if (projection.computeIfPresent(id, (key, current) -> settledAndApplied(current) ? null : current) == null) {
+                dropped.incrementAndGet();
+            }
+        }
+
+        appliedSinceSnapshot += events[0];
+        if (appliedSinceSnapshot >= snapshotEvery) {
+            snapshot();
+            appliedSinceSnapshot = 0;
+        }
+    }
+
+    // Geçişler günlüğe ekleme ve projeksiyona yazma adımlarını şerit kilidi altında yapar. Konum ve
+    // kopya bütün şeritler kilitliyken alınır; yoksa günlüğe eklenmiş ama projeksiyona henüz
+    // yazılmamış bir geçiş konumun altında kalır, açılışta tekrar okunmaz ve günlükten silinirdi.
+    // Projeksiyonda sadece işlemdeki ödemeler olduğu için kopya kısa sürer.
+    private void snapshot() throws IOException {
+        long position;
+        Map<String, Projected> copy;
+        for (ReentrantLock stripe : stripes) {
+            stripe.lock();
+        }
+        try {
+            position = eventLog.end();
+            copy = new HashMap<>(projection);
+        } finally {
+            for (ReentrantLock stripe : stripes) {
+                stripe.unlock();
+            }
+        }
+        new ProjectionSnapshot(position, copy).write(snapshotFile);
+        // Veritabanına uygulanmamış kayıtlar silinmez
+        eventLog.deleteBefore(Math.min(position, applied));
+    }
+
+    private boolean settledAndApplied(Projected projected) {
+        return SETTLED.contains(projected.status()) && projected.position() <= applied;
+    }
+
+    private PaymentStatus storedStatus(String id) {
+        return paymentRepository.findById(id).map(Payment::getStatus).orElse(null);
+    }
+
+    private long append(PaymentLogEvent event) {
+        try {
+            return eventLog.append(event.encode());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Ödeme olayı günlüğe yazılamadı", e);
+        }
+    }
+
+    private void commit(long end) {
+        eventLog.sync(end);
+        LockSupport.unpark(applier);
+    }
+
+    private ReentrantLock stripeOf(String id) {
+        return stripes[(id.hashCode() & 0x7fffffff) % STRIPES];
+    }
+
+    private long nowMicros() {
+        Instant now = clock.instant();
+        return now.getEpochSecond() * 1_000_000 + now.getNano() / 1_000;
+    }
+}
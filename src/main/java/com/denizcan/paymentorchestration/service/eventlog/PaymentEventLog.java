@@ -0,0 +1,251 @@
+package com.denizcan.paymentorchestration.service.eventlog;
+
+import com.denizcan.paymentorchestration.service.journal.GroupCommit;
+import com.denizcan.paymentorchestration.service.journal.RecordFormat;
+import com.denizcan.paymentorchestration.service.journal.RecordFormat.RecordConsumer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+// Ödeme olayları için yalnızca sona eklenen, segmentlere bölünmüş ve bellek eşlemli günlük.
+// Kayıtlar webhook günlüğüyle aynı biçimdedir (bkz. RecordFormat); uzunluğu 0 olan yer segmentin
+// sonudur. Konumlar günlüğün başından itibaren bayt cinsindendir ve her segment ilk kaydının
+// konumuyla adlandırılır. Ekleme sadece belleğe kopyalar; sync ile diske yazılır ve aynı anda
+// bekleyen eklemeler tek fsync'i paylaşır (bkz. GroupCommit). Açılışta son segmentin bozuk
+// kuyruğu atılır.
+@Slf4j
+public class PaymentEventLog implements Closeable {
+
+    private static final String SUFFIX = ".seg";
+
+    private final Path dir;
+    private final int segmentBytes;
+    private final boolean fsync;
+    private final FileChannel lockFile;
+    private final FileLock lock;
+    private final NavigableMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final GroupCommit groupCommit;
+    private Segment active;
+    private volatile long written;
+
+    public PaymentEventLog(Path dir, int segmentBytes, boolean fsync) throws IOException {
+        Files.createDirectories(dir);
+        this.dir = dir;
+        this.segmentBytes = segmentBytes;
+        this.fsync = fsync;
+        this.lockFile = FileChannel.open(dir.resolve("log.lock"), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        this.lock = lockFile.tryLock();
+        if (lock == null) {
+            lockFile.close();
+            throw new IOException("Ödeme olay günlüğü başka bir süreç tarafından kullanılıyor: " + dir);
+        }
+
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : files.filter(path -> path.getFileName().toString().endsWith(SUFFIX)).toList()) {
+                String name = file.getFileName().toString();
+                long base = Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+                segments.put(base, Segment.open(base, file, 0));
+            }
+        }
+        if (segments.isEmpty()) {
+            active = createSegment(0);
+            written = 0;
+        } else {
+            active = segments.lastEntry().getValue();
+            int end = validEnd(active);
+            if (end + Long.BYTES <= active.capacity() && active.buffer().getLong(end) != 0) {
+                log.warn("Ödeme olay günlüğünün sonunda yarım kalmış kayıt var, {} konumundan itibaren atılıyor",
+                    active.base() + end);
+                for (int at = end; at < active.capacity(); at++) {
+                    active.buffer().put(at, (byte) 0);
+                }
+                active.buffer().force();
+            }
+            written = active.base() + end;
+        }
+        groupCommit = new GroupCommit(written);
+    }
+
+    // Kaydı günlüğe ekler ve bitiş konumunu döner. Kayıt sync çağrılana kadar kalıcı değildir.
+    public long append(byte[] payload) throws IOException {
+        int length = RecordFormat.sizeOf(payload);
+        if (length > segmentBytes) {
+            throw new IllegalArgumentException("Olay segment boyutundan büyük: " + payload.length + " bayt");
+        }
+        appendLock.lock();
+        try {
+            int at = (int) (written - active.base());
+            if (at + length > active.capacity()) {
+                roll();
+                at = 0;
+            }
+            RecordFormat.write(active.buffer(), at, payload);
+            written += length;
+            return written;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    // position'a kadar eklenmiş kayıtları diske yazar
+    public void sync(long position) {
+        if (!fsync) {
+            return;
+        }
+        groupCommit.sync(position, () -> {
+            long target;
+            Segment segment;
+            appendLock.lock();
+            try {
+                target = written;
+                segment = active;
+            } finally {
+                appendLock.unlock();
+            }
+            // Önceki segmentler kapatılırken zaten diske yazıldı
+            segment.buffer().force();
+            return target;
+        });
+    }
+
+    // [from, to) aralığındaki kayıtları sırayla verir; from bir kaydın bitiş konumu olmalıdır
+    public void replay(long from, long to, RecordConsumer consumer) {
+        replay(from, to, Integer.MAX_VALUE, consumer);
+    }
+
+    // En fazla maxRecords kayıt verir ve verilen son kaydın bitiş konumunu döner (kayıt yoksa from)
+    public long replay(long from, long to, int maxRecords, RecordConsumer consumer) {
+        long end = Math.min(to, written);
+        long last = from;
+        int records = 0;
+        Map.Entry<Long, Segment> first = segments.floorEntry(from);
+        Long startBase = first != null ? first.getKey() : segments.firstKey();
+        for (Segment segment : segments.tailMap(startBase, true).values()) {
+            int at = segment.base() < from ? (int) (from - segment.base()) : 0;
+            MappedByteBuffer buffer = segment.buffer();
+            while (records < maxRecords && at + RecordFormat.HEADER_BYTES <= segment.capacity()
+                    && segment.base() + at < end) {
+                int length = RecordFormat.length(buffer, at);
+                if (length <= 0) {
+                    break;
+                }
+                byte[] payload = new byte[length];
+                buffer.get(at + RecordFormat.HEADER_BYTES, payload);
+                at += RecordFormat.sizeOf(payload);
+                last = segment.base() + at;
+                consumer.accept(last, payload);
+                records++;
+            }
+            if (records >= maxRecords) {
+                break;
+            }
+        }
+        return last;
+    }
+
+    // Tüm kayıtları position'dan önce biten segmentleri siler; etkin segment silinmez
+    public void deleteBefore(long position) throws IOException {
+        appendLock.lock();
+        try {
+            List<Segment> candidates = List.copyOf(segments.headMap(active.base(), false).values());
+            for (Segment segment : candidates) {
+                Long next = segments.higherKey(segment.base());
+                if (next == null || next > position) {
+                    break;
+                }
+                segments.remove(segment.base());
+                segment.channel().close();
+                Files.deleteIfExists(segment.file());
+            }
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    public long end() {
+        return written;
+    }
+
+    public int segmentCount() {
+        return segments.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        appendLock.lock();
+        try {
+            if (fsync) {
+                active.buffer().force();
+            }
+            for (Segment segment : segments.values()) {
+                segment.channel().close();
+            }
+            lock.release();
+        } finally {
+            appendLock.unlock();
+            lockFile.close();
+        }
+    }
+
+    // Dolan segment kapatılmadan önce diske yazılır; sync sadece etkin segmenti zorlar
+    private void roll() throws IOException {
+        if (fsync) {
+            active.buffer().force();
+        }
+        active = createSegment(written);
+    }
+
+    private Segment createSegment(long base) throws IOException {
+        Path file = dir.resolve(String.format("%020d%s", base, SUFFIX));
+        Segment segment = Segment.open(base, file, segmentBytes);
+        segments.put(base, segment);
+        return segment;
+    }
+
+    private static int validEnd(Segment segment) {
+        MappedByteBuffer buffer = segment.buffer();
+        int at = 0;
+        while (at + RecordFormat.HEADER_BYTES <= segment.capacity()) {
+            int length = RecordFormat.length(buffer, at);
+            if (length <= 0 || at + RecordFormat.HEADER_BYTES + length > segment.capacity()) {
+                break;
+            }
+            byte[] payload = new byte[length];
+            buffer.get(at + RecordFormat.HEADER_BYTES, payload);
+            if (!RecordFormat.intact(buffer, at, payload)) {
+                break;
+            }
+            at += RecordFormat.sizeOf(payload);
+        }
+        return at;
+    }
+
+    private record Segment(long base, Path file, FileChannel channel, MappedByteBuffer buffer) {
+
+        // size 0 ise mevcut dosya kendi boyutuyla eşlenir
+        static Segment open(long base, Path file, int size) throws IOException {
+            FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            long bytes = size > 0 ? size : channel.size();
+            return new Segment(base, file, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes));
+        }
+
+        int capacity() {
+            return buffer.capacity();
+        }
+    }
+}
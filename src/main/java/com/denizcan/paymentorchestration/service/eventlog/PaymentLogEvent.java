@@ -0,0 +1,71 @@
+package com.denizcan.paymentorchestration.service.eventlog;
+
+import com.denizcan.paymentorchestration.model.PaymentStatus;
+import com.denizcan.paymentorchestration.model.TimeOrderedIdGenerator;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+// Günlükteki ikili olay: [tip][id biçimi][id][önceki durum][yeni durum][zaman (epoch µs)].
+// Zaman sıralı id 8 baytlık sayı olarak, eski UUID id'ler uzunluk önekli metin olarak yazılır;
+// bir durum geçişi böylece 20 bayt tutar.
+record PaymentLogEvent(Type type, String id, PaymentStatus from, PaymentStatus to, long atMicros) {
+
+    private static final PaymentStatus[] STATUSES = PaymentStatus.values();
+    private static final byte NUMERIC_ID = 0;
+    private static final byte TEXT_ID = 1;
+    private static final byte NO_STATUS = -1;
+
+    enum Type {
+        // Ödemenin durumu değişti
+        TRANSITIONED,
+        // Ödeme silindi; projeksiyondan çıkarılır
+        REMOVED
+    }
+
+    static PaymentLogEvent transitioned(String id, PaymentStatus from, PaymentStatus to, long atMicros) {
+        return new PaymentLogEvent(Type.TRANSITIONED, id, from, to, atMicros);
+    }
+
+    static PaymentLogEvent removed(String id, long atMicros) {
+        return new PaymentLogEvent(Type.REMOVED, id, null, null, atMicros);
+    }
+
+    byte[] encode() {
+        long numericId = TimeOrderedIdGenerator.decode(id);
+        byte[] text = numericId == 0 ? id.getBytes(StandardCharsets.UTF_8) : null;
+        ByteBuffer buffer = ByteBuffer.allocate(2 + (text == null ? Long.BYTES : Short.BYTES + text.length) + 2 + Long.BYTES);
+        buffer.put((byte) type.ordinal());
+        if (text == null) {
+            buffer.put(NUMERIC_ID).putLong(numericId);
+        } else {
+            buffer.put(TEXT_ID).putShort((short) text.length).put(text);
+        }
+        buffer.put(codeOf(from)).put(codeOf(to)).putLong(atMicros);
+        return buffer.array();
+    }
+
+    static PaymentLogEvent decode(byte[] payload) {
+        ByteBuffer buffer = ByteBuffer.wrap(payload);
+        Type type = Type.values()[buffer.get()];
+        String id;
+        if (buffer.get() == NUMERIC_ID) {
+            id = TimeOrderedIdGenerator.encode(buffer.getLong());
+        } else {
+            byte[] text = new byte[buffer.getShort()];
+            buffer.get(text);
+            id = new String(text, StandardCharsets.UTF_8);
+        }
+        PaymentStatus from = statusOf(buffer.get());
+        PaymentStatus to = statusOf(buffer.get());
+        return new PaymentLogEvent(type, id, from, to, buffer.getLong());
+    }
+
+    private static byte codeOf(PaymentStatus status) {
+        return status == null ? NO_STATUS : (byte) status.ordinal();
+    }
+
+    private static PaymentStatus statusOf(byte code) {
+        return code == NO_STATUS ? null : STATUSES[code];
+    }
+}
@@ -0,0 +1,7 @@
+package com.denizcan.paymentorchestration.service.eventlog;
+
+import com.denizcan.paymentorchestration.model.PaymentStatus;
+
+// Ödemenin günlükteki son durumu ve bu durumu yazan kaydın bitiş konumu
+record Projected(PaymentStatus status, long position) {
+}
@@ -0,0 +1,87 @@
+package com.denizcan.paymentorchestration.service.eventlog;
+
+import com.denizcan.paymentorchestration.model.PaymentStatus;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+import java.util.zip.CRC32C;
+
+// Projeksiyonun günlükteki bir konuma kadarki hali. Açılışta günlüğün tamamı yerine son
+// anlık görüntü ve ondan sonraki kayıtlar okunur. Dosya geçici adla yazılıp diske zorlanır,
+// sonra tek adımda yerine taşınır; sağlaması tutmayan dosya yok sayılır.
+record ProjectionSnapshot(long position, Map<String, Projected> entries) {
+
+    private static final int MAGIC = 0x50455353;
+    private static final int FORMAT = 1;
+    private static final PaymentStatus[] STATUSES = PaymentStatus.values();
+
+    static final ProjectionSnapshot EMPTY = new ProjectionSnapshot(0, Map.of());
+
+    void write(Path file) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        CRC32C crc = new CRC32C();
+        try (OutputStream raw = Files.newOutputStream(temp);
+             DataOutputStream out = new DataOutputStream(
+                 new BufferedOutputStream(new CheckedOutputStream(raw, crc), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT);
+            out.writeLong(position);
+            out.writeInt(entries.size());
+            for (Map.Entry<String, Projected> entry : entries.entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.writeByte(entry.getValue().status().ordinal());
+                out.writeLong(entry.getValue().position());
+            }
+            out.flush();
+            // Sağlama kendisi hariç tüm içeriği kapsar
+            new DataOutputStream(raw).writeInt((int) crc.getValue());
+        }
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    // Dosya yoksa, başka bir biçimdeyse ya da bozuksa null döner
+    static ProjectionSnapshot read(Path file) {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        CRC32C crc = new CRC32C();
+        try (InputStream raw = new BufferedInputStream(Files.newInputStream(file), 1 << 16)) {
+            DataInputStream in = new DataInputStream(new CheckedInputStream(raw, crc));
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT) {
+                return null;
+            }
+            long position = in.readLong();
+            int count = in.readInt();
+            Map<String, Projected> entries = new HashMap<>(Math.max(16, count * 4 / 3 + 1));
+            for (int i = 0; i < count; i++) {
+                String id = in.readUTF();
+                PaymentStatus status = STATUSES[in.readByte()];
+                entries.put(id, new Projected(status, in.readLong()));
+            }
+            int expected = (int) crc.getValue();
+            if (new DataInputStream(raw).readInt() != expected) {
+                return null;
+            }
+            return new ProjectionSnapshot(position, entries);
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.denizcan.paymentorchestration.service.fx;
+
+import com.denizcan.paymentorchestration.model.Currency;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Map;
+
+// Dışarıdan güncellenen kur dosyası:
+// {"base": "USD", "asOf": "2026-01-01T10:00:00Z", "rates": {"TRY": 32.5012, "EUR": 0.9214}}
+// Dosya yeni bir adla yazılıp üzerine taşınmalı; yarım yazılmış dosya okunursa hata verir ve
+// eldeki tablo kullanılmaya devam edilir.
+public class FileFxRateSource implements FxRateSource {
+
+    private final Path file;
+    private final ObjectMapper objectMapper;
+
+    public FileFxRateSource(Path file, ObjectMapper objectMapper) {
+        this.file = file;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public FxRateSnapshot load() throws IOException {
+        RateFile rates = objectMapper.readValue(Files.readAllBytes(file), RateFile.class);
+        if (rates.base() == null || rates.asOf() == null || rates.rates() == null) {
+            throw new IOException("Kur dosyası eksik: " + file);
+        }
+        try {
+            return FxRateSnapshot.of(rates.base(), rates.rates(), rates.asOf(), file.getFileName().toString());
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Kur dosyası geçersiz: " + e.getMessage(), e);
+        }
+    }
+
+    record RateFile(Currency base, Instant asOf, Map<Currency, BigDecimal> rates) {
+    }
+}
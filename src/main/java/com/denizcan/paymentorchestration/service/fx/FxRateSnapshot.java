@@ -0,0 +1,126 @@
+package com.denizcan.paymentorchestration.service.fx;
+
+import com.denizcan.paymentorchestration.exception.PaymentValidationException;
+import com.denizcan.paymentorchestration.model.Currency;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.Map;
+
+// Değişmez kur tablosu. Kurlar tek bir base para birimine göre verilir; tüm çiftlerin çapraz
+// kurları ve para birimleri arasındaki ondalık hane farkı oluşturulurken bir kez hesaplanır.
+// Çevrim en küçük birimler üzerinde long aritmetiğiyle yapılır, nesne üretmez.
+public final class FxRateSnapshot {
+
+    // Kurlar 9 ondalık haneyle sabit noktalı tutulur
+    static final long RATE_SCALE = 1_000_000_000L;
+    private static final int RATE_DIGITS = 9;
+    private static final Currency[] CURRENCIES = Currency.values();
+
+    private final Currency base;
+    private final Instant asOf;
+    private final String source;
+    // [kaynak * N + hedef]; 0 ise çift için kur yok
+    private final long[] rates;
+
+    private FxRateSnapshot(Currency base, Instant asOf, String source, long[] rates) {
+        this.base = base;
+        this.asOf = asOf;
+        this.source = source;
+        this.rates = rates;
+    }
+
+    // perBase: bir birim base'in her para birimindeki karşılığı
+    public static FxRateSnapshot of(Currency base, Map<Currency, BigDecimal> perBase, Instant asOf, String source) {
+        BigDecimal[] quotes = new BigDecimal[CURRENCIES.length];
+        quotes[base.ordinal()] = BigDecimal.ONE;
+        perBase.forEach((currency, rate) -> {
+            if (rate == null || rate.signum() <= 0) {
+                throw new IllegalArgumentException("Geçersiz kur: " + currency + "=" + rate);
+            }
+            if (currency != base) {
+                quotes[currency.ordinal()] = rate;
+            }
+        });
+
+        long[] rates = new long[CURRENCIES.length * CURRENCIES.length];
+        for (Currency from : CURRENCIES) {
+            for (Currency to : CURRENCIES) {
+                BigDecimal fromQuote = quotes[from.ordinal()];
+                BigDecimal toQuote = quotes[to.ordinal()];
+                if (fromQuote == null || toQuote == null) {
+                    continue;
+                }
+                long scaled = from == to && from.getDecimalPlaces() == to.getDecimalPlaces()
+                    ? RATE_SCALE
+                    : toQuote.divide(fromQuote, MathContext.DECIMAL128)
+                        .movePointRight(to.getDecimalPlaces() - from.getDecimalPlaces() + RATE_DIGITS)
+                        .setScale(0, RoundingMode.HALF_EVEN)
+                        .longValueExact();
+                if (scaled <= 0) {
+                    throw new IllegalArgumentException(
+                        String.format("%s/%s kuru %d haneye sığmayacak kadar küçük", from, to, RATE_DIGITS));
+                }
+                rates[index(from, to)] = scaled;
+            }
+        }
+        return new FxRateSnapshot(base, asOf, source, rates);
+    }
+
+    public boolean supports(Currency from, Currency to) {
+        return rates[index(from, to)] != 0;
+    }
+
+    // Tutarı en küçük birimden en küçük birime çevirir; sonuç yarım birimde sıfırdan uzağa yuvarlanır.
+    // Kur tam ve kesirli kısmına, tutar da RATE_SCALE'e göre ikiye bölünerek çarpılır; böylece
+    // sonuç long'a sığdığı sürece ara çarpımlar taşmaz.
+    public long convert(long minorUnits, Currency from, Currency to) {
+        long rate = rates[index(from, to)];
+        if (rate == 0) {
+            throw new IllegalStateException(from + "/" + to + " için kur yok");
+        }
+        if (rate == RATE_SCALE) {
+            return minorUnits;
+        }
+        long amount = Math.abs(minorUnits);
+        long rateWhole = rate / RATE_SCALE;
+        long rateFraction = rate % RATE_SCALE;
+        long amountHigh = amount / RATE_SCALE;
+        long amountLow = amount % RATE_SCALE;
+        try {
+            long result = Math.addExact(
+                Math.addExact(Math.multiplyExact(amount, rateWhole), Math.multiplyExact(amountHigh, rateFraction)),
+                (amountLow * rateFraction + RATE_SCALE / 2) / RATE_SCALE);
+            return minorUnits < 0 ? -result : result;
+        } catch (ArithmeticException e) {
+            throw new PaymentValidationException(
+                String.format("%d %s tutarı %s karşılığına çevrilemeyecek kadar büyük", minorUnits, from, to));
+        }
+    }
+
+    // Raporlama ve loglar için; sıcak yolda kullanılmaz
+    public BigDecimal rate(Currency from, Currency to) {
+        long rate = rates[index(from, to)];
+        return rate == 0 ? null
+            : BigDecimal.valueOf(rate, RATE_DIGITS + to.getDecimalPlaces() - from.getDecimalPlaces())
+                .stripTrailingZeros();
+    }
+
+    public Currency getBase() {
+        return base;
+    }
+
+    public Instant getAsOf() {
+        return asOf;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    private static int index(Currency from, Currency to) {
+        return from.ordinal() * CURRENCIES.length + to.ordinal();
+    }
+}
@@ -0,0 +1,9 @@
+package com.denizcan.paymentorchestration.service.fx;
+
+import java.io.IOException;
+
+// Kur tablosunun kaynağı. Her çağrıda kaynağın o anki halinden yeni bir anlık görüntü üretir.
+public interface FxRateSource {
+
+    FxRateSnapshot load() throws IOException;
+}
@@ -0,0 +1,127 @@
+package com.denizcan.paymentorchestration.service.fx;
+
+import com.denizcan.paymentorchestration.config.FxProperties;
+import com.denizcan.paymentorchestration.exception.FxRateUnavailableException;
+import com.denizcan.paymentorchestration.model.Currency;
+import com.denizcan.paymentorchestration.model.Money;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+
+// Kur tablosunu kaynaktan periyodik olarak yükler ve tek bir volatile referansla yayınlar.
+// Okuma tarafı kilit almaz; her çevrim o an yayınlanmış tek bir tabloyu kullanır.
+// Yükleme başarısız olursa eldeki tablo maxAge dolana kadar kullanılmaya devam edilir.
+@Slf4j
+@Service
+public class FxService {
+
+    private final FxRateSource source;
+    private final FxProperties properties;
+    private final Clock clock;
+    private final long maxAgeMillis;
+    private final Counter refreshed;
+    private final Counter failed;
+    private volatile FxRateSnapshot snapshot;
+
+    public FxService(FxRateSource source, FxProperties properties, Clock clock, MeterRegistry meterRegistry) {
+        this.source = source;
+        this.properties = properties;
+        this.clock = clock;
+        this.maxAgeMillis = properties.getMaxAge().toMillis();
+        this.refreshed = Counter.builder("payment.fx.refresh")
+            .description("Kur tablosu yükleme denemeleri")
+            .tag("outcome", "success")
+            .register(meterRegistry);
+        this.failed = Counter.builder("payment.fx.refresh")
+            .description("Kur tablosu yükleme denemeleri")
+            .tag("outcome", "failure")
+            .register(meterRegistry);
+        Gauge.builder("payment.fx.snapshot.age", this, FxService::ageSeconds)
+            .description("Kullanılan kur tablosunun yaşı (sn)")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+    }
+
+    // İlk tablo uygulama trafiğe açılmadan yüklenir
+    @PostConstruct
+    void start() {
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${payment.fx.refresh-interval:PT1M}",
+        initialDelayString = "${payment.fx.refresh-interval:PT1M}")
+    public void refresh() {
+        FxRateSnapshot next;
+        try {
+            next = source.load();
+        } catch (Exception e) {
+            failed.increment();
+            log.warn("Kur tablosu yüklenemedi, eldeki tablo kullanılmaya devam ediliyor: {}", e.getMessage());
+            return;
+        }
+        FxRateSnapshot current = snapshot;
+        if (current != null && next.getAsOf().isBefore(current.getAsOf())) {
+            log.warn("Kaynaktaki kur tablosu ({}) kullanılandan ({}) eski, yok sayılıyor",
+                next.getAsOf(), current.getAsOf());
+            return;
+        }
+        snapshot = next;
+        refreshed.increment();
+        if (current == null || !current.getAsOf().equals(next.getAsOf())) {
+            log.info("Kur tablosu yüklendi: kaynak {}, tarih {}", next.getSource(), next.getAsOf());
+        }
+    }
+
+    public Money convert(Money amount, Currency target) {
+        if (amount.currency() == target) {
+            return amount;
+        }
+        FxRateSnapshot current = usableSnapshot(amount.currency(), target);
+        if (current == null) {
+            throw new FxRateUnavailableException(
+                String.format("%s/%s için güncel kur bulunamadı", amount.currency(), target));
+        }
+        return Money.ofMinor(current.convert(amount.minorUnits(), amount.currency(), target), target);
+    }
+
+    // Ödeme kaydı kur yüzünden engellenmesin diye kur yoksa null döner
+    public Money toSettlement(Money amount) {
+        if (amount == null) {
+            return null;
+        }
+        Currency target = properties.getSettlementCurrency();
+        if (amount.currency() == target) {
+            return amount;
+        }
+        FxRateSnapshot current = usableSnapshot(amount.currency(), target);
+        if (current == null) {
+            log.debug("{} için uzlaşma tutarı hesaplanamadı, kur yok", amount);
+            return null;
+        }
+        return Money.ofMinor(current.convert(amount.minorUnits(), amount.currency(), target), target);
+    }
+
+    public FxRateSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    private FxRateSnapshot usableSnapshot(Currency from, Currency to) {
+        FxRateSnapshot current = snapshot;
+        if (current == null || !current.supports(from, to)
+                || clock.millis() - current.getAsOf().toEpochMilli() > maxAgeMillis) {
+            return null;
+        }
+        return current;
+    }
+
+    private double ageSeconds() {
+        FxRateSnapshot current = snapshot;
+        return current == null ? Double.NaN : (clock.millis() - current.getAsOf().toEpochMilli()) / 1_000.0;
+    }
+}
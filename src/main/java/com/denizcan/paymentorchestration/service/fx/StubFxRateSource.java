@@ -0,0 +1,22 @@
+package com.denizcan.paymentorchestration.service.fx;
+
+import com.denizcan.paymentorchestration.config.FxProperties;
+
+import java.time.Clock;
+
+// Yapılandırmadaki sabit kurlar; geliştirme ve testlerde dış kaynak olmadan çevrim yapılabilsin diye
+public class StubFxRateSource implements FxRateSource {
+
+    private final FxProperties.Stub stub;
+    private final Clock clock;
+
+    public StubFxRateSource(FxProperties.Stub stub, Clock clock) {
+        this.stub = stub;
+        this.clock = clock;
+    }
+
+    @Override
+    public FxRateSnapshot load() {
+        return FxRateSnapshot.of(stub.getBase(), stub.getRates(), clock.instant(), "stub");
+    }
+}
@@ -0,0 +1,431 @@
+package com.denizcan.paymentorchestration.service.inflight;
+
+import com.denizcan.paymentorchestration.dto.PaymentStatusView;
+import com.denizcan.paymentorchestration.model.Currency;
+import com.denizcan.paymentorchestration.model.Money;
+import com.denizcan.paymentorchestration.model.Payment;
+import com.denizcan.paymentorchestration.model.PaymentProvider;
+import com.denizcan.paymentorchestration.model.PaymentStatus;
+import com.denizcan.paymentorchestration.model.TimeOrderedIdGenerator;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Bekleyen ve işlemdeki ödemelerin durum, sağlayıcı, tutar ve sürümünü bellek eşlemli bir dosyada
+// sabit genişlikli kayıtlarla tutan açık adresli (linear probing) hash tablosu. Kayıtlar heap'te
+// olmadığından milyonlarca ödeme GC'nin taradığı nesne sayısını artırmaz; dosya düzgün kapatıldıysa
+// yeniden başlatmada olduğu gibi açılır, yarıda kalmışsa boş başlatılır.
+//
+// İndeks veritabanının önünde bir önbellektir, bulunamayan ödeme veritabanından okunur. Yazmalar
+// tek kilit altında yapılır; okumalar kilitsizdir ve kaydın damgası (seqlock) yarım yazılmış
+// kaydın okunmasını engeller. Silmede sonraki kayıtlar geri kaydırıldığından eşzamanlı bir okuma
+// kaydı kaçırabilir, o zaman da veritabanına düşer. Yalnızca zaman sıralı id'ler indekslenir.
+@Slf4j
+public class InFlightIndex implements Closeable {
+
+    static final int HEADER_BYTES = 64;
+    static final int SLOT_BYTES = 40;
+    static final int MIN_CAPACITY = 1 << 10;
+    static final int MAX_CAPACITY = 1 << 25;
+
+    private static final Set<PaymentStatus> IN_FLIGHT = EnumSet.of(PaymentStatus.PENDING, PaymentStatus.PROCESSING);
+
+    // Başlık: [MAGIC][FORMAT][kapasite][enum şeması][düzgün kapatıldı]
+    private static final int MAGIC = 0x50494658;
+    private static final int FORMAT = 1;
+    private static final int CAPACITY_AT = 8;
+    private static final int SCHEMA_AT = 12;
+    private static final int CLEAN_AT = 16;
+
+    // Kayıt: [id][sürüm][tutar (minor)][damga][yüklenme (epoch sn)][durum][sağlayıcı][para birimi]
+    private static final int KEY = 0;
+    private static final int VERSION = 8;
+    private static final int AMOUNT = 16;
+    private static final int STAMP = 24;
+    private static final int LOADED_AT = 28;
+    private static final int STATUS = 32;
+    private static final int PROVIDER = 33;
+    private static final int CURRENCY = 34;
+
+    private static final int STRIPES = 1024;
+    private static final int MAX_READ_RETRIES = 64;
+    // İndeks doluyken bir eklemenin süresi geçmiş kayıt aramak için tarayacağı en fazla yuva
+    static final int PURGE_SLOTS = 256;
+    private static final long ANY_GENERATION = -1;
+
+    private static final VarHandle INT = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final PaymentStatus[] STATUSES = PaymentStatus.values();
+    private static final PaymentProvider[] PROVIDERS = PaymentProvider.values();
+    private static final Currency[] CURRENCIES = Currency.values();
+
+    private final FileChannel channel;
+    private final FileLock lock;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private final int mask;
+    private final int shift;
+    private final int maxEntries;
+    private final long maxAgeSeconds;
+    private final Clock clock;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    // Her yazma ödemenin şeridini artırır; yükleme sürerken yazılan ödemenin eski hali indekse girmez
+    private final AtomicLongArray generations = new AtomicLongArray(STRIPES);
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private volatile int size;
+    // Temizlik taramasının kaldığı yuva; taramalar tabloyu sırayla dolaşır
+    private int purgeCursor;
+
+    public InFlightIndex(Path file, int capacity, Duration maxAge, Clock clock) throws IOException {
+        if (Integer.bitCount(capacity) != 1 || capacity < MIN_CAPACITY || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException(String.format(
+                "İndeks kapasitesi %d ile %d arasında ikinin kuvveti olmalıdır: %d", MIN_CAPACITY, MAX_CAPACITY, capacity));
+        }
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.shift = Long.SIZE - Integer.numberOfTrailingZeros(capacity);
+        this.maxEntries = capacity / 4 * 3;
+        this.maxAgeSeconds = maxAge.toSeconds();
+        this.clock = clock;
+
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.lock = channel.tryLock();
+        if (lock == null) {
+            channel.close();
+            throw new IOException("İşlemdeki ödeme indeksi başka bir süreç tarafından kullanılıyor: " + file);
+        }
+
+        long bytes = HEADER_BYTES + (long) capacity * SLOT_BYTES;
+        boolean reusable = channel.size() == bytes && isCleanHeader();
+        if (!reusable && channel.size() > 0) {
+            log.warn("İşlemdeki ödeme indeksi düzgün kapatılmamış ya da biçimi değişmiş, boş başlatılıyor: {}", file);
+            channel.truncate(0);
+        }
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (reusable) {
+            size = countEntries();
+            log.info("İşlemdeki ödeme indeksi {} kayıtla açıldı", size);
+        } else {
+            buffer.putInt(0, MAGIC).putInt(4, FORMAT).putInt(CAPACITY_AT, capacity).putInt(SCHEMA_AT, schema());
+        }
+        // Kapanışa kadar dosya kirli sayılır; çökmede yarım yazılmış kayıt kalmış olabilir
+        buffer.putInt(CLEAN_AT, 0);
+        buffer.force(0, HEADER_BYTES);
+    }
+
+    // İşlemdeki ödemenin indeksteki hali; yoksa ya da max-age'i geçmişse null
+    public PaymentStatusView get(String id) {
+        long key = TimeOrderedIdGenerator.decode(id);
+        PaymentStatusView view = key == 0 ? null : find(id, key);
+        (view == null ? misses : hits).increment();
+        return view;
+    }
+
+    // Yazma öncesi okunan değer putIfUnchanged'e verilir
+    public long generation(String id) {
+        long key = TimeOrderedIdGenerator.decode(id);
+        return key == 0 ? 0 : generations.get(stripe(key));
+    }
+
+    // Veritabanına yazılmış güncel hal: işlemdeyse kaydedilir, değilse indeksten çıkarılır
+    public void put(Payment payment) {
+        update(payment, ANY_GENERATION);
+    }
+
+    // Veritabanından okunan hal, okuma başladığından beri ödemeye yazılmadıysa kaydedilir
+    public void putIfUnchanged(Payment payment, long generation) {
+        update(payment, generation);
+    }
+
+    public void remove(String id) {
+        long key = TimeOrderedIdGenerator.decode(id);
+        if (key == 0) {
+            return;
+        }
+        writeLock.lock();
+        try {
+            generations.incrementAndGet(stripe(key));
+            int slot = slotOf(key);
+            if (slot >= 0) {
+                deleteAt(slot);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writeLock.lock();
+        try {
+            buffer.force();
+            buffer.putInt(CLEAN_AT, 1);
+            buffer.force(0, HEADER_BYTES);
+            lock.release();
+        } finally {
+            writeLock.unlock();
+            channel.close();
+        }
+    }
+
+    private PaymentStatusView find(String id, long key) {
+        long now = clock.instant().getEpochSecond();
+        int slot = home(key);
+        for (int probes = 0; probes < capacity; probes++, slot = (slot + 1) & mask) {
+            int at = offset(slot);
+            for (int retries = 0; ; retries++) {
+                int stamp = (int) INT.getAcquire(buffer, at + STAMP);
+                long found = buffer.getLong(at + KEY);
+                long version = buffer.getLong(at + VERSION);
+                long amount = buffer.getLong(at + AMOUNT);
+                int loadedAt = buffer.getInt(at + LOADED_AT);
+                int status = buffer.get(at + STATUS);
+                int provider = buffer.get(at + PROVIDER);
+                int currency = buffer.get(at + CURRENCY);
+                VarHandle.loadLoadFence();
+                if ((stamp & 1) == 0 && stamp == (int) INT.getVolatile(buffer, at + STAMP)) {
+                    if (found == 0 || (found == key && isExpired(loadedAt, now))) {
+                        return null;
+                    }
+                    if (found != key) {
+                        break;
+                    }
+                    return new PaymentStatusView(id, STATUSES[status], provider == 0 ? null : PROVIDERS[provider - 1],
+                        Money.ofMinor(amount, CURRENCIES[currency]), version);
+                }
+                if (retries == MAX_READ_RETRIES) {
+                    return null;
+                }
+                Thread.onSpinWait();
+            }
+        }
+        return null;
+    }
+
+    private void update(Payment payment, long generation) {
+        long key = TimeOrderedIdGenerator.decode(payment.getId());
+        if (key == 0) {
+            return;
+        }
+        int stripe = stripe(key);
+        writeLock.lock();
+        try {
+            if (generation != ANY_GENERATION) {
+                if (generations.get(stripe) != generation) {
+                    return;
+                }
+            } else {
+                generations.incrementAndGet(stripe);
+            }
+
+            int slot = slotOf(key);
+            if (!IN_FLIGHT.contains(payment.getStatus()) || payment.getAmount() == null) {
+                if (slot >= 0) {
+                    deleteAt(slot);
+                }
+                return;
+            }
+            if (slot < 0) {
+                if (size >= maxEntries && purgeExpired() == 0) {
+                    log.debug("İşlemdeki ödeme indeksi dolu, ödeme {} indekslenmedi", payment.getId());
+                    return;
+                }
+                slot = freeSlotOf(key);
+                size++;
+            }
+            write(offset(slot), key, payment);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private int slotOf(long key) {
+        int slot = home(key);
+        for (int probes = 0; probes < capacity; probes++, slot = (slot + 1) & mask) {
+            long found = buffer.getLong(offset(slot) + KEY);
+            if (found == key) {
+                return slot;
+            }
+            if (found == 0) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    private int freeSlotOf(long key) {
+        int slot = home(key);
+        while (buffer.getLong(offset(slot) + KEY) != 0) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    // Boşluğun ardındaki kayıtlar, ev adresleriyle bulundukları yer arasında boşluk kalıyorsa
+    // geri kaydırılır; böylece silinen kayıt arama zincirini koparmaz ve mezar taşı gerekmez
+    private void deleteAt(int slot) {
+        int hole = slot;
+        int next = slot;
+        while (true) {
+            next = (next + 1) & mask;
+            long key = buffer.getLong(offset(next) + KEY);
+            if (key == 0) {
+                break;
+            }
+            if (((next - home(key)) & mask) >= ((next - hole) & mask)) {
+                copy(offset(next), offset(hole));
+                hole = next;
+            }
+        }
+        clear(offset(hole));
+        size--;
+    }
+
+    // Süresi geçmiş kayıtlar okumada görünmez ama yer tutar; indeks dolunca temizlenir. Yazma kilidi
+    // altında çalıştığı için her çağrı tablonun tamamını değil, kaldığı yerden en fazla PURGE_SLOTS
+    // yuvayı tarar; dolu indekse ekleme böylece kapasiteden bağımsız sürede eklenir ya da reddedilir.
+    // Süresi geçmiş kayıtlar en geç kapasite / PURGE_SLOTS eklemede bir taranmış olur.
+    private int purgeExpired() {
+        long now = clock.instant().getEpochSecond();
+        int purged = 0;
+        int slot = purgeCursor;
+        for (int scanned = 0; scanned < PURGE_SLOTS; scanned++, slot = (slot + 1) & mask) {
+            int at = offset(slot);
+            while (buffer.getLong(at + KEY) != 0 && isExpired(buffer.getInt(at + LOADED_AT), now)) {
+                deleteAt(slot);
+                purged++;
+            }
+        }
+        purgeCursor = slot;
+        if (purged > 0) {
+            log.debug("İşlemdeki ödeme indeksinden süresi geçmiş {} kayıt temizlendi", purged);
+        }
+        return purged;
+    }
+
+    private void write(int at, long key, Payment payment) {
+        int stamp = beginWrite(at);
+        Long version = payment.getVersion();
+        Money amount = payment.getAmount();
+        PaymentProvider provider = payment.getProvider();
+        buffer.putLong(at + KEY, key)
+            .putLong(at + VERSION, version == null ? 0 : version)
+            .putLong(at + AMOUNT, amount.minorUnits())
+            .putInt(at + LOADED_AT, (int) clock.instant().getEpochSecond())
+            .put(at + STATUS, (byte) payment.getStatus().ordinal())
+            .put(at + PROVIDER, (byte) (provider == null ? 0 : provider.ordinal() + 1))
+            .put(at + CURRENCY, (byte) amount.currency().ordinal());
+        endWrite(at, stamp);
+    }
+
+    private void copy(int from, int to) {
+        int stamp = beginWrite(to);
+        buffer.putLong(to + KEY, buffer.getLong(from + KEY))
+            .putLong(to + VERSION, buffer.getLong(from + VERSION))
+            .putLong(to + AMOUNT, buffer.getLong(from + AMOUNT))
+            .putInt(to + LOADED_AT, buffer.getInt(from + LOADED_AT))
+            .put(to + STATUS, buffer.get(from + STATUS))
+            .put(to + PROVIDER, buffer.get(from + PROVIDER))
+            .put(to + CURRENCY, buffer.get(from + CURRENCY));
+        endWrite(to, stamp);
+    }
+
+    private void clear(int at) {
+        int stamp = beginWrite(at);
+        buffer.putLong(at + KEY, 0);
+        endWrite(at, stamp);
+    }
+
+    // Damga tekken kayıt yazılıyordur; okuyucu damgayı okumadan önce ve sonra karşılaştırır
+    private int beginWrite(int at) {
+        int stamp = buffer.getInt(at + STAMP);
+        INT.setOpaque(buffer, at + STAMP, stamp + 1);
+        VarHandle.storeStoreFence();
+        return stamp;
+    }
+
+    private void endWrite(int at, int stamp) {
+        INT.setRelease(buffer, at + STAMP, stamp + 2);
+    }
+
+    private boolean isExpired(int loadedAt, long now) {
+        return now - Integer.toUnsignedLong(loadedAt) >= maxAgeSeconds;
+    }
+
+    private int home(long key) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> shift);
+    }
+
+    private static int stripe(long key) {
+        return (int) (key ^ key >>> 32) & (STRIPES - 1);
+    }
+
+    private static int offset(int slot) {
+        return HEADER_BYTES + slot * SLOT_BYTES;
+    }
+
+    private int countEntries() {
+        int count = 0;
+        for (int slot = 0; slot < capacity; slot++) {
+            if (buffer.getLong(offset(slot) + KEY) != 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private boolean isCleanHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        while (header.hasRemaining()) {
+            if (channel.read(header, header.position()) < 0) {
+                return false;
+            }
+        }
+        return header.getInt(0) == MAGIC && header.getInt(4) == FORMAT && header.getInt(CAPACITY_AT) == capacity
+            && header.getInt(SCHEMA_AT) == schema() && header.getInt(CLEAN_AT) == 1;
+    }
+
+    // Kayıtlar enum sıra numarası tuttuğundan enum'lar değişince eski dosya kullanılmaz
+    private static int schema() {
+        return (Arrays.toString(STATUSES) + Arrays.toString(PROVIDERS) + Arrays.toString(CURRENCIES)).hashCode();
+    }
+}
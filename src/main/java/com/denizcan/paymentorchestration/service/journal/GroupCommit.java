@@ -0,0 +1,33 @@
+package com.denizcan.paymentorchestration.service.journal;
+
+// Aynı anda bekleyen eklemelerin tek fsync'i paylaşmasını sağlar (group commit). fsync sürerken
+// gelenler bekler; sıra kendilerine geldiğinde kayıtları çoğunlukla bir önceki fsync ile diske
+// yazılmış olur.
+public final class GroupCommit {
+
+    private long synced;
+
+    public GroupCommit(long synced) {
+        this.synced = synced;
+    }
+
+    // position'a kadar eklenmiş kayıtları kalıcı kılar. flush o ana kadar eklenmiş konumu
+    // okuyup diske zorlar ve o konumu döner; dönen konuma kadarki kayıtlar kalıcı sayılır.
+    public synchronized <E extends Exception> void sync(long position, Flush<E> flush) throws E {
+        if (synced >= position) {
+            return;
+        }
+        synced = flush.force();
+    }
+
+    // Günlük kesildiğinde ya da sıfırlandığında kalıcı konum geri çekilir. Süren bir fsync'in
+    // bitmesi beklenir; o fsync kesilmeden önceki konumu yazamaz.
+    public synchronized void reset(long position) {
+        synced = position;
+    }
+
+    @FunctionalInterface
+    public interface Flush<E extends Exception> {
+        long force() throws E;
+    }
+}
@@ -0,0 +1,49 @@
+package com.denizcan.paymentorchestration.service.journal;
+
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32C;
+
+// Webhook günlüğü ile ödeme olay günlüğünün ortak kayıt biçimi: [uzunluk][CRC32C][içerik].
+// Uzunluğu 0 olan yer kayıtların sonudur. Okuma ve yazma mutlak konumlarla yapılır, tamponun
+// konumu değişmez; aynı kod bellek eşlemli segmentlerde ve dosyaya yazılacak tamponda çalışır.
+public final class RecordFormat {
+
+    public static final int HEADER_BYTES = 8;
+
+    private RecordFormat() {
+    }
+
+    // Başlık dahil kayıt boyutu
+    public static int sizeOf(byte[] payload) {
+        return HEADER_BYTES + payload.length;
+    }
+
+    // Kaydı at konumundan itibaren yazar. Uzunluk en son yazılır: aynı tamponu okuyan taraf
+    // içeriği ve sağlamayı yazılmamış bir kaydı tam sanmaz.
+    public static void write(ByteBuffer buffer, int at, byte[] payload) {
+        buffer.put(at + HEADER_BYTES, payload);
+        buffer.putInt(at + Integer.BYTES, crcOf(payload));
+        buffer.putInt(at, payload.length);
+    }
+
+    // at konumundaki başlığın içerik uzunluğu
+    public static int length(ByteBuffer header, int at) {
+        return header.getInt(at);
+    }
+
+    // İçerik, at konumundaki başlığın sağlamasıyla eşleşiyorsa kayıt yarım ya da bozuk değildir
+    public static boolean intact(ByteBuffer header, int at, byte[] payload) {
+        return crcOf(payload) == header.getInt(at + Integer.BYTES);
+    }
+
+    private static int crcOf(byte[] payload) {
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    @FunctionalInterface
+    public interface RecordConsumer {
+        void accept(long endPosition, byte[] payload);
+    }
+}
@@ -0,0 +1,22 @@
+package com.denizcan.paymentorchestration.service.provider;
+
+import com.denizcan.paymentorchestration.model.Payment;
+import com.denizcan.paymentorchestration.model.Refund;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+// Sağlayıcı çağrısı sürerken hiçbir thread'i bloklamayan asenkron SPI.
+// Dönen future, sağlayıcı cevabı geldiğinde tamamlanır.
+public interface AsyncPaymentProviderService {
+    CompletableFuture<Boolean> processPaymentAsync(Payment payment);
+    CompletableFuture<Boolean> refundPaymentAsync(Payment payment);
+
+    // Ödemenin sağlayıcı tarafında başarıyla tahsil edilip edilmediğini sorgular. Yan etkisi
+    // olmadığından tekrar denenebilir ve hedge edilebilir.
+    CompletableFuture<Boolean> queryPaymentStatusAsync(Payment payment);
+
+    // Birden fazla (kısmi) iadeyi tek istekte gönderir. İade id'si sağlayıcıya idempotency
+    // anahtarı olarak gider; aynı iade tekrar gönderilirse ikinci kez iade yapılmaz.
+    // Sonuç listesi iadelerle aynı sıradadır.
+    CompletableFuture<List<Boolean>> refundBatchAsync(List<Refund> refunds);
+}
@@ -0,0 +1,101 @@
+package com.denizcan.paymentorchestration.service.provider;
+
+import com.denizcan.paymentorchestration.model.Currency;
+import com.denizcan.paymentorchestration.model.Payment;
+import com.denizcan.paymentorchestration.model.PaymentProvider;
+import com.denizcan.paymentorchestration.model.Refund;
+import com.denizcan.paymentorchestration.service.PaymentMetrics;
+import com.denizcan.paymentorchestration.service.PaymentMetrics.ProviderOperation;
+import com.denizcan.paymentorchestration.service.PaymentMetrics.ProviderOutcome;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+// Sağlayıcı servisinin önüne konan ölçüm katmanı; her çağrının süresini sağlayıcı, para birimi
+// ve sonuçla kaydeder. Asenkron çağrılarda ölçüm dönen future'a eklenir, future'ın kendisi
+// değiştirilmeden döner ki üstteki süre sınırı ve iptal asıl çağrıya uygulansın.
+public class InstrumentedProviderService implements PaymentProviderService, AsyncPaymentProviderService {
+
+    private final PaymentProvider provider;
+    private final PaymentProviderService delegate;
+    private final AsyncPaymentProviderService asyncDelegate;
+    private final PaymentMetrics metrics;
+
+    public InstrumentedProviderService(PaymentProvider provider, PaymentProviderService delegate, PaymentMetrics metrics) {
+        this.provider = provider;
+        this.delegate = delegate;
+        this.asyncDelegate = delegate instanceof AsyncPaymentProviderService async ? async : null;
+        this.metrics = metrics;
+    }
+
+    public boolean isAsync() {
+        return asyncDelegate != null;
+    }
+
+    @Override
+    public boolean processPayment(Payment payment) {
+        return timed(ProviderOperation.PROCESS, payment, () -> delegate.processPayment(payment));
+    }
+
+    @Override
+    public boolean refundPayment(Payment payment) {
+        return timed(ProviderOperation.REFUND, payment, () -> delegate.refundPayment(payment));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> processPaymentAsync(Payment payment) {
+        long start = System.nanoTime();
+        return timedAsync(ProviderOperation.PROCESS, payment, asyncDelegate.processPaymentAsync(payment), start);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> refundPaymentAsync(Payment payment) {
+        long start = System.nanoTime();
+        return timedAsync(ProviderOperation.REFUND, payment, asyncDelegate.refundPaymentAsync(payment), start);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> queryPaymentStatusAsync(Payment payment) {
+        long start = System.nanoTime();
+        return timedAsync(ProviderOperation.STATUS_QUERY, payment, asyncDelegate.queryPaymentStatusAsync(payment), start);
+    }
+
+    @Override
+    public CompletableFuture<List<Boolean>> refundBatchAsync(List<Refund> refunds) {
+        long start = System.nanoTime();
+        CompletableFuture<List<Boolean>> call = asyncDelegate.refundBatchAsync(refunds);
+        call.whenComplete((results, ex) -> metrics.recordProviderBatchCall(provider,
+            ex != null ? ProviderOutcome.ERROR : ProviderOutcome.APPROVED, System.nanoTime() - start));
+        return call;
+    }
+
+    private boolean timed(ProviderOperation operation, Payment payment, BooleanCall call) {
+        long start = System.nanoTime();
+        try {
+            boolean approved = call.get();
+            record(operation, payment, approved ? ProviderOutcome.APPROVED : ProviderOutcome.DECLINED, start);
+            return approved;
+        } catch (RuntimeException e) {
+            record(operation, payment, ProviderOutcome.ERROR, start);
+            throw e;
+        }
+    }
+
+    private CompletableFuture<Boolean> timedAsync(ProviderOperation operation, Payment payment,
+                                                  CompletableFuture<Boolean> call, long start) {
+        call.whenComplete((approved, ex) -> record(operation, payment,
+            ex != null ? ProviderOutcome.ERROR : approved ? ProviderOutcome.APPROVED : ProviderOutcome.DECLINED,
+            start));
+        return call;
+    }
+
+    private void record(ProviderOperation operation, Payment payment, ProviderOutcome outcome, long start) {
+        Currency currency = payment.getAmount() == null ? null : payment.getAmount().currency();
+        metrics.recordProviderCall(operation, provider, currency, outcome, System.nanoTime() - start);
+    }
+
+    @FunctionalInterface
+    private interface BooleanCall {
+        boolean get();
+    }
+}
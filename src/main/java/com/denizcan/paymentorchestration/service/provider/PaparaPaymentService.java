@@ -1,21 +1,33 @@
 package com.denizcan.paymentorchestration.service.provider;
 
+import com.denizcan.paymentorchestration.config.ProviderProperties;
+import com.denizcan.paymentorchestration.exception.ProviderUnavailableException;
 import com.denizcan.paymentorchestration.model.Payment;
+import com.denizcan.paymentorchestration.model.PaymentProvider;
+import com.denizcan.paymentorchestration.model.Refund;
 import org.springframework.stereotype.Service;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 @Slf4j
 @Service
-public class PaparaPaymentService implements PaymentProviderService {
+public class PaparaPaymentService implements PaymentProviderService, AsyncPaymentProviderService {
+    private final ProviderSimulator simulator;
+
+    public PaparaPaymentService(ProviderProperties properties) {
+        this.simulator = new ProviderSimulator(PaymentProvider.PAPARA, properties.simulationFor(PaymentProvider.PAPARA));
+    }
+
     @Override
     public boolean processPayment(Payment payment) {
         log.info("Papara ile ödeme işlemi başlatıldı: {}", payment.getId());
         try {
-            Thread.sleep(1000); // Simüle edilmiş API çağrısı
-            return true;
+            return simulator.call(); // Simüle edilmiş API çağrısı
         } catch (InterruptedException e) {
-            log.error("Papara ödeme işlemi başarısız: {}", e.getMessage());
-            return false;
+            Thread.currentThread().interrupt();
+            throw new ProviderUnavailableException("Papara ödeme çağrısı kesildi");
         }
     }
 
@@ -23,11 +35,34 @@ public class PaparaPaymentService implements PaymentProviderService {
     public boolean refundPayment(Payment payment) {
         log.info("Papara ile iade işlemi başlatıldı: {}", payment.getId());
         try {
-            Thread.sleep(1000); // Simüle edilmiş API çağrısı
-            return true;
+            return simulator.call(); // Simüle edilmiş API çağrısı
         } catch (InterruptedException e) {
-            log.error("Papara iade işlemi başarısız: {}", e.getMessage());
-            return false;
+            Thread.currentThread().interrupt();
+            throw new ProviderUnavailableException("Papara iade çağrısı kesildi");
         }
     }
-} 
\ No newline at end of file
+
+    @Override
+    public CompletableFuture<Boolean> processPaymentAsync(Payment payment) {
+        log.info("Papara ile asenkron ödeme işlemi başlatıldı: {}", payment.getId());
+        return simulator.callAsync();
+    }
+
+    @Override
+    public CompletableFuture<Boolean> refundPaymentAsync(Payment payment) {
+        log.info("Papara ile asenkron iade işlemi başlatıldı: {}", payment.getId());
+        return simulator.callAsync();
+    }
+
+    @Override
+    public CompletableFuture<Boolean> queryPaymentStatusAsync(Payment payment) {
+        log.info("Papara üzerinden ödeme durumu sorgulanıyor: {}", payment.getId());
+        return simulator.callAsync();
+    }
+
+    @Override
+    public CompletableFuture<List<Boolean>> refundBatchAsync(List<Refund> refunds) {
+        log.info("Papara ile {} iade toplu olarak gönderiliyor", refunds.size());
+        return simulator.callBatchAsync(refunds.stream().map(Refund::getId).toList());
+    }
+}
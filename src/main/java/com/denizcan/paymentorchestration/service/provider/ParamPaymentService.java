@@ -1,22 +1,35 @@
 package com.denizcan.paymentorchestration.service.provider;
 
+import com.denizcan.paymentorchestration.config.ProviderProperties;
+import com.denizcan.paymentorchestration.exception.ProviderUnavailableException;
 import com.denizcan.paymentorchestration.model.Payment;
+import com.denizcan.paymentorchestration.model.PaymentProvider;
+import com.denizcan.paymentorchestration.model.Refund;
 import org.springframework.stereotype.Service;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 @Slf4j
 @Service
-public class ParamPaymentService implements PaymentProviderService {
+public class ParamPaymentService implements PaymentProviderService, AsyncPaymentProviderService {
+    private final ProviderSimulator simulator;
+
+    public ParamPaymentService(ProviderProperties properties) {
+        this.simulator = new ProviderSimulator(PaymentProvider.PARAM, properties.simulationFor(PaymentProvider.PARAM));
+    }
+
     @Override
     public boolean processPayment(Payment payment) {
         log.info("PARAM ile ödeme işlemi başlatıldı: {}", payment.getId());
         // Burada PARAM API entegrasyonu yapılacak
         try {
-            Thread.sleep(1000); // Simüle edilmiş API çağrısı
-            return true;
+            return simulator.call(); // Simüle edilmiş API çağrısı
         } catch (InterruptedException e) {
-            log.error("PARAM ödeme işlemi başarısız: {}", e.getMessage());
-            return false;
+            // Çağrı süre sınırını aştığı için kesildi; sonuç bilinmediğinden ret sayılmaz
+            Thread.currentThread().interrupt();
+            throw new ProviderUnavailableException("PARAM ödeme çağrısı kesildi");
         }
     }
 
@@ -24,11 +37,34 @@ public class ParamPaymentService implements PaymentProviderService {
     public boolean refundPayment(Payment payment) {
         log.info("PARAM ile iade işlemi başlatıldı: {}", payment.getId());
         try {
-            Thread.sleep(1000); // Simüle edilmiş API çağrısı
-            return true;
+            return simulator.call(); // Simüle edilmiş API çağrısı
         } catch (InterruptedException e) {
-            log.error("PARAM iade işlemi başarısız: {}", e.getMessage());
-            return false;
+            Thread.currentThread().interrupt();
+            throw new ProviderUnavailableException("PARAM iade çağrısı kesildi");
         }
     }
-} 
\ No newline at end of file
+
+    @Override
+    public CompletableFuture<Boolean> processPaymentAsync(Payment payment) {
+        log.info("PARAM ile asenkron ödeme işlemi başlatıldı: {}", payment.getId());
+        return simulator.callAsync();
+    }
+
+    @Override
+    public CompletableFuture<Boolean> refundPaymentAsync(Payment payment) {
+        log.info("PARAM ile asenkron iade işlemi başlatıldı: {}", payment.getId());
+        return simulator.callAsync();
+    }
+
+    @Override
+    public CompletableFuture<Boolean> queryPaymentStatusAsync(Payment payment) {
+        log.info("PARAM üzerinden ödeme durumu sorgulanıyor: {}", payment.getId());
+        return simulator.callAsync();
+    }
+
+    @Override
+    public CompletableFuture<List<Boolean>> refundBatchAsync(List<Refund> refunds) {
+        log.info("PARAM ile {} iade toplu olarak gönderiliyor", refunds.size());
+        return simulator.callBatchAsync(refunds.stream().map(Refund::getId).toList());
+    }
+}
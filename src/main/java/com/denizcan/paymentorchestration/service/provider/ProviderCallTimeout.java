@@ -0,0 +1,139 @@
+package com.denizcan.paymentorchestration.service.provider;
+
+import com.denizcan.paymentorchestration.config.ProviderProperties;
+import com.denizcan.paymentorchestration.exception.ProviderTimeoutException;
+import com.denizcan.paymentorchestration.exception.ProviderUnavailableException;
+import com.denizcan.paymentorchestration.model.PaymentProvider;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+// Sağlayıcı çağrısının süre sınırı. Süre dolunca çağırana ProviderTimeoutException döner ama
+// sağlayıcı çağrısı arka planda sürebilir; onFinish çağrının kendisi bittiğinde bir kez çalışır.
+@Slf4j
+@Component
+public class ProviderCallTimeout {
+    private final Map<PaymentProvider, Long> timeoutMillis = new EnumMap<>(PaymentProvider.class);
+    // Bloklayan sağlayıcı çağrısı süre sınırı aşılınca kesilebilsin diye ayrı bir sanal thread'de çalışır
+    private final ExecutorService callExecutor;
+
+    @Autowired
+    public ProviderCallTimeout(ProviderProperties properties) {
+        this(properties, Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("provider-call-", 0).factory()));
+    }
+
+    ProviderCallTimeout(ProviderProperties properties, ExecutorService callExecutor) {
+        this.callExecutor = callExecutor;
+        for (PaymentProvider provider : PaymentProvider.values()) {
+            timeoutMillis.put(provider, properties.callTimeoutFor(provider).toMillis());
+        }
+    }
+
+    public <T> T call(PaymentProvider provider, Supplier<T> call, Runnable onFinish) {
+        if (provider == null) {
+            try {
+                return call.get();
+            } finally {
+                onFinish.run();
+            }
+        }
+        // Görev başlamadan iptal edilirse lambda hiç çalışmaz; onFinish'i o zaman iptal eden çalıştırır.
+        // Bayrağı önce alan taraf onFinish'in sahibidir, böylece izin ne sızar ne iki kez bırakılır
+        AtomicBoolean started = new AtomicBoolean();
+        Future<T> future;
+        try {
+            future = callExecutor.submit(() -> {
+                if (!started.compareAndSet(false, true)) {
+                    return null;
+                }
+                try {
+                    return call.get();
+                } finally {
+                    onFinish.run();
+                }
+            });
+        } catch (RuntimeException e) {
+            onFinish.run();
+            throw e;
+        }
+        try {
+            return future.get(timeoutMillis.get(provider), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Kesme isteği gönderilir; kesmeye cevap vermeyen çağrı bitene kadar onFinish beklenir
+            cancel(future, started, onFinish);
+            throw timeout(provider);
+        } catch (InterruptedException e) {
+            cancel(future, started, onFinish);
+            Thread.currentThread().interrupt();
+            throw new ProviderUnavailableException("Sağlayıcı çağrısı beklenirken kesildi: " + provider);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new ProviderUnavailableException("Sağlayıcı çağrısı başarısız: " + e.getCause());
+        }
+    }
+
+    private static void cancel(Future<?> future, AtomicBoolean started, Runnable onFinish) {
+        future.cancel(true);
+        if (started.compareAndSet(false, true)) {
+            onFinish.run();
+        }
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        // Süren çağrılar bitebilsin diye önce beklenir, bitmeyenler kesilir
+        callExecutor.shutdown();
+        if (!callExecutor.awaitTermination(5, TimeUnit.SECONDS)) {
+            callExecutor.shutdownNow();
+        }
+    }
+
+    // Süre sınırı sağlayıcının future'ının kopyasına uygulanır; orTimeout asıl future'ı
+    // tamamlasaydı onFinish sağlayıcı cevap vermeden çalışırdı
+    public <T> CompletableFuture<T> callAsync(PaymentProvider provider, Supplier<CompletableFuture<T>> call,
+                                              Runnable onFinish) {
+        CompletableFuture<T> future;
+        try {
+            future = call.get();
+        } catch (RuntimeException e) {
+            onFinish.run();
+            throw e;
+        }
+        future.whenComplete((result, ex) -> onFinish.run());
+        if (provider == null) {
+            return future;
+        }
+        return future.copy()
+            .orTimeout(timeoutMillis.get(provider), TimeUnit.MILLISECONDS)
+            .exceptionallyCompose(ex -> CompletableFuture.failedFuture(
+                unwrap(ex) instanceof TimeoutException ? timeout(provider) : unwrap(ex)));
+    }
+
+    private ProviderTimeoutException timeout(PaymentProvider provider) {
+        log.warn("Ödeme sağlayıcı {} ms içinde cevap vermedi: {}", timeoutMillis.get(provider), provider);
+        return new ProviderTimeoutException("Ödeme sağlayıcı zamanında cevap vermedi: " + provider);
+    }
+
+    private static Throwable unwrap(Throwable ex) {
+        return ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+    }
+}
@@ -0,0 +1,191 @@
+package com.denizcan.paymentorchestration.service.provider;
+
+import com.denizcan.paymentorchestration.config.ProviderProperties;
+import com.denizcan.paymentorchestration.model.PaymentProvider;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Sağlayıcı başına devre kesici. Kayan pencerede hata ya da yavaş çağrı oranı eşiği
+// aşınca devre açılır ve çağrılar sağlayıcıya gitmeden reddedilir; openDuration sonunda
+// sınırlı sayıda deneme çağrısı geçer, hepsi başarılıysa devre kapanır.
+// Reddedilen (false dönen) ödemeler sağlayıcı hatası sayılmaz.
+@Slf4j
+@Component
+public class ProviderCircuitBreaker {
+
+    public enum State { CLOSED, HALF_OPEN, OPEN }
+
+    private static final int WINDOW_SLOTS = 10;
+
+    private final Clock clock;
+    private final ProviderProperties.CircuitBreaker config;
+    private final long slotMillis;
+    private final long slowCallNanos;
+    private final Breaker[] breakers;
+
+    public ProviderCircuitBreaker(ProviderProperties properties, Clock clock, MeterRegistry meterRegistry) {
+        this.clock = clock;
+        this.config = properties.getCircuitBreaker();
+        this.slotMillis = Math.max(1, config.getWindow().toMillis() / WINDOW_SLOTS);
+        this.slowCallNanos = config.getSlowCallDuration().toNanos();
+        this.breakers = new Breaker[PaymentProvider.values().length];
+        for (PaymentProvider provider : PaymentProvider.values()) {
+            Breaker breaker = new Breaker();
+            breakers[provider.ordinal()] = breaker;
+            Gauge.builder("payment.provider.circuit.state", breaker, b -> b.state.get().ordinal())
+                .description("Devre durumu: 0 kapalı, 1 yarı açık, 2 açık")
+                .tag("provider", provider.name())
+                .register(meterRegistry);
+        }
+    }
+
+    // Çağrı izni verilirse true döner; yarı açık durumda deneme kotasından düşer
+    public boolean tryAcquire(PaymentProvider provider) {
+        Breaker breaker = breakers[provider.ordinal()];
+        State state = breaker.state.get();
+        if (state == State.CLOSED) {
+            return true;
+        }
+        if (state == State.OPEN) {
+            if (clock.millis() - breaker.openedAt.get() < config.getOpenDuration().toMillis()) {
+                return false;
+            }
+            // Kotayı sadece geçişi yapan thread doldurur; diğerleri kota dolana kadar 0'dan düşüp reddedilir
+            if (breaker.state.compareAndSet(State.OPEN, State.HALF_OPEN)) {
+                breaker.probeSuccesses.set(0);
+                breaker.probesLeft.set(config.getHalfOpenCalls());
+                log.info("{} sağlayıcısı için devre yarı açık, deneme çağrıları başlıyor", provider);
+            }
+        }
+        return breaker.probesLeft.getAndDecrement() > 0;
+    }
+
+    // İzin alınmış ama sağlayıcıya gönderilemeyen çağrının deneme kotasını geri verir
+    public void release(PaymentProvider provider) {
+        Breaker breaker = breakers[provider.ordinal()];
+        if (breaker.state.get() == State.HALF_OPEN) {
+            breaker.probesLeft.incrementAndGet();
+        }
+    }
+
+    // Yönlendirme için: izin tüketmeden sağlayıcının çağrı kabul edip etmeyeceğini söyler
+    public boolean isCallPermitted(PaymentProvider provider) {
+        Breaker breaker = breakers[provider.ordinal()];
+        return switch (breaker.state.get()) {
+            case CLOSED -> true;
+            case HALF_OPEN -> breaker.probesLeft.get() > 0;
+            case OPEN -> clock.millis() - breaker.openedAt.get() >= config.getOpenDuration().toMillis();
+        };
+    }
+
+    public State getState(PaymentProvider provider) {
+        return breakers[provider.ordinal()].state.get();
+    }
+
+    public void onResult(PaymentProvider provider, long latencyNanos, boolean error) {
+        Breaker breaker = breakers[provider.ordinal()];
+        boolean failure = error || latencyNanos >= slowCallNanos;
+        long now = clock.millis();
+
+        switch (breaker.state.get()) {
+            case HALF_OPEN -> {
+                if (failure) {
+                    open(provider, breaker, State.HALF_OPEN, now);
+                } else if (breaker.probeSuccesses.incrementAndGet() >= config.getHalfOpenCalls()
+                        && breaker.state.compareAndSet(State.HALF_OPEN, State.CLOSED)) {
+                    breaker.clear();
+                    log.info("{} sağlayıcısı için devre kapandı", provider);
+                }
+            }
+            case CLOSED -> {
+                breaker.record(now / slotMillis, error, latencyNanos >= slowCallNanos);
+                evaluate(provider, breaker, now);
+            }
+            case OPEN -> {
+                // Devre açılmadan önce başlamış çağrıların sonuçları dikkate alınmaz
+            }
+        }
+    }
+
+    private void evaluate(PaymentProvider provider, Breaker breaker, long now) {
+        long epoch = now / slotMillis;
+        long calls = 0;
+        long errors = 0;
+        long slow = 0;
+        for (Slot slot : breaker.slots) {
+            if (epoch - slot.epoch.get() < WINDOW_SLOTS) {
+                calls += slot.calls.get();
+                errors += slot.errors.get();
+                slow += slot.slow.get();
+            }
+        }
+        if (calls < config.getMinimumCalls()) {
+            return;
+        }
+        if ((double) errors / calls >= config.getErrorRateThreshold()
+                || (double) slow / calls >= config.getSlowCallRateThreshold()) {
+            open(provider, breaker, State.CLOSED, now);
+        }
+    }
+
+    private void open(PaymentProvider provider, Breaker breaker, State from, long now) {
+        breaker.openedAt.set(now);
+        if (breaker.state.compareAndSet(from, State.OPEN)) {
+            breaker.probesLeft.set(0);
+            log.warn("{} sağlayıcısı için devre açıldı, çağrılar {} boyunca reddedilecek",
+                provider, config.getOpenDuration());
+        }
+    }
+
+    private static final class Breaker {
+        private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+        private final AtomicLong openedAt = new AtomicLong();
+        private final AtomicInteger probesLeft = new AtomicInteger();
+        private final AtomicInteger probeSuccesses = new AtomicInteger();
+        private final Slot[] slots = new Slot[WINDOW_SLOTS];
+
+        private Breaker() {
+            for (int i = 0; i < WINDOW_SLOTS; i++) {
+                slots[i] = new Slot();
+            }
+        }
+
+        private void record(long epoch, boolean error, boolean slow) {
+            Slot slot = slots[(int) (epoch % WINDOW_SLOTS)];
+            long seen = slot.epoch.get();
+            if (seen < epoch && slot.epoch.compareAndSet(seen, epoch)) {
+                slot.calls.set(0);
+                slot.errors.set(0);
+                slot.slow.set(0);
+            }
+            slot.calls.incrementAndGet();
+            if (error) {
+                slot.errors.incrementAndGet();
+            }
+            if (slow) {
+                slot.slow.incrementAndGet();
+            }
+        }
+
+        // Kapanan devre önceki hataları hatırlamasın
+        private void clear() {
+            for (Slot slot : slots) {
+                slot.epoch.set(-1);
+            }
+        }
+    }
+
+    private static final class Slot {
+        private final AtomicLong epoch = new AtomicLong(-1);
+        private final AtomicLong calls = new AtomicLong();
+        private final AtomicLong errors = new AtomicLong();
+        private final AtomicLong slow = new AtomicLong();
+    }
+}
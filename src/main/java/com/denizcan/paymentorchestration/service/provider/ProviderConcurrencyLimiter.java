@@ -0,0 +1,225 @@
+package com.denizcan.paymentorchestration.service.provider;
+
+import com.denizcan.paymentorchestration.config.ProviderProperties;
+import com.denizcan.paymentorchestration.exception.ProviderRejectedException;
+import com.denizcan.paymentorchestration.model.PaymentProvider;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// Her sağlayıcı için ayrı bir bölme (bulkhead) uygular: eşzamanlılık sınırı ve devre kesici.
+// Sanal thread modunda thread havuzu boyutu artık bir tavan olmadığı için, platform modunda
+// ise yavaş bir sağlayıcı tüm istek thread'lerini tutmasın diye sağlayıcıya giden yük burada
+// sınırlanır. Tüm sağlayıcı çağrıları buradan geçtiği için gecikme ve sonuçlar da burada ölçülür.
+// Süre sınırı ProviderCallTimeout'ta, tekrar deneme ve hedge ProviderRetryExecutor'da uygulanır;
+// her deneme ayrı izin alır. İzin süre sınırında değil, sağlayıcı çağrısı gerçekten bittiğinde
+// bırakılır; böylece süresi dolup arka planda süren çağrılar da sınıra dahil olur.
+@Slf4j
+@Component
+public class ProviderConcurrencyLimiter {
+    private static final Runnable NO_PERMIT = () -> { };
+
+    private final Map<PaymentProvider, Semaphore> permits = new EnumMap<>(PaymentProvider.class);
+    private final Map<PaymentProvider, Counter> busyRejections = new EnumMap<>(PaymentProvider.class);
+    private final Map<PaymentProvider, Counter> circuitRejections = new EnumMap<>(PaymentProvider.class);
+    private final long acquireTimeoutMillis;
+    private final ProviderStats stats;
+    private final ProviderCircuitBreaker circuitBreaker;
+    private final ProviderRetryExecutor retryExecutor;
+    private final ProviderCallTimeout callTimeout;
+
+    public ProviderConcurrencyLimiter(
+            ProviderProperties properties,
+            ProviderStats stats,
+            ProviderCircuitBreaker circuitBreaker,
+            ProviderRetryExecutor retryExecutor,
+            ProviderCallTimeout callTimeout,
+            MeterRegistry meterRegistry) {
+        for (PaymentProvider provider : PaymentProvider.values()) {
+            Semaphore semaphore = new Semaphore(properties.maxConcurrencyFor(provider));
+            permits.put(provider, semaphore);
+            busyRejections.put(provider, rejectionCounter(meterRegistry, provider, "bulkhead_full"));
+            circuitRejections.put(provider, rejectionCounter(meterRegistry, provider, "circuit_open"));
+            Gauge.builder("payment.provider.bulkhead.available", semaphore, Semaphore::availablePermits)
+                .description("Sağlayıcı bölmesinde boşta kalan çağrı izni")
+                .tag("provider", provider.name())
+                .register(meterRegistry);
+        }
+        this.acquireTimeoutMillis = properties.getAcquireTimeout().toMillis();
+        this.stats = stats;
+        this.circuitBreaker = circuitBreaker;
+        this.retryExecutor = retryExecutor;
+        this.callTimeout = callTimeout;
+    }
+
+    public <T> T execute(PaymentProvider provider, Supplier<T> call) {
+        return retryExecutor.execute(provider, () -> executeOnce(provider, call));
+    }
+
+    public <T> CompletableFuture<T> executeAsync(PaymentProvider provider, Supplier<CompletableFuture<T>> call) {
+        Supplier<CompletableFuture<T>> attempt = () -> executeAsyncOnce(provider, call);
+        return retryExecutor.executeAsync(provider, attempt, attempt);
+    }
+
+    // Kendi thread'ine sahip toplu işlemler için: izin gelene kadar acquireTimeout süresince bekler,
+    // izin sağlayıcı çağrısı tamamlandığında bırakılır. Tekrar denemeler beklemeden izin ister.
+    public <T> CompletableFuture<T> executeAsyncAwaitingPermit(PaymentProvider provider,
+                                                                Supplier<CompletableFuture<T>> call) {
+        return retryExecutor.executeAsync(provider,
+            () -> executeAsyncAwaitingPermitOnce(provider, call),
+            () -> executeAsyncOnce(provider, call));
+    }
+
+    // Yan etkisi olmayan çağrılar (durum sorgusu) için: zaman aşımı da tekrar denenir, hedge açıksa
+    // yavaş deneme ikinci bir istekle yarıştırılır
+    public <T> CompletableFuture<T> executeIdempotent(PaymentProvider provider, Supplier<CompletableFuture<T>> call) {
+        return retryExecutor.executeIdempotent(provider, () -> executeAsyncOnce(provider, call));
+    }
+
+    public int availablePermits(PaymentProvider provider) {
+        return permits.get(provider).availablePermits();
+    }
+
+    private <T> T executeOnce(PaymentProvider provider, Supplier<T> call) {
+        Semaphore semaphore = permits.get(provider);
+        if (semaphore == null) {
+            return timed(provider, call, NO_PERMIT);
+        }
+        checkCircuit(provider);
+
+        try {
+            if (!semaphore.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw busy(provider);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw busy(provider);
+        }
+
+        return timed(provider, call, semaphore::release);
+    }
+
+    private <T> CompletableFuture<T> executeAsyncOnce(PaymentProvider provider, Supplier<CompletableFuture<T>> call) {
+        Semaphore semaphore = permits.get(provider);
+        if (semaphore == null) {
+            return timedAsync(provider, call, NO_PERMIT);
+        }
+        if (!circuitBreaker.tryAcquire(provider)) {
+            return CompletableFuture.failedFuture(circuitOpen(provider));
+        }
+
+        // Asenkron yolda beklemek thread tutmak demek; limit doluysa hemen reddet
+        if (!semaphore.tryAcquire()) {
+            return CompletableFuture.failedFuture(busy(provider));
+        }
+
+        return timedAsync(provider, call, semaphore::release);
+    }
+
+    private <T> CompletableFuture<T> executeAsyncAwaitingPermitOnce(PaymentProvider provider,
+                                                                     Supplier<CompletableFuture<T>> call) {
+        Semaphore semaphore = permits.get(provider);
+        if (semaphore == null) {
+            return timedAsync(provider, call, NO_PERMIT);
+        }
+        if (!circuitBreaker.tryAcquire(provider)) {
+            return CompletableFuture.failedFuture(circuitOpen(provider));
+        }
+
+        try {
+            if (!semaphore.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                return CompletableFuture.failedFuture(busy(provider));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(busy(provider));
+        }
+
+        return timedAsync(provider, call, semaphore::release);
+    }
+
+    private void checkCircuit(PaymentProvider provider) {
+        if (!circuitBreaker.tryAcquire(provider)) {
+            throw circuitOpen(provider);
+        }
+    }
+
+    // Bekleme süresi ölçüme dahil edilmez, sadece sağlayıcı çağrısının kendisi ölçülür
+    private <T> T timed(PaymentProvider provider, Supplier<T> call, Runnable release) {
+        long start = System.nanoTime();
+        boolean success = false;
+        boolean error = true;
+        try {
+            T result = callTimeout.call(provider, call, release);
+            success = !Boolean.FALSE.equals(result);
+            error = false;
+            return result;
+        } finally {
+            onResult(provider, System.nanoTime() - start, success, error);
+        }
+    }
+
+    private <T> CompletableFuture<T> timedAsync(PaymentProvider provider, Supplier<CompletableFuture<T>> call,
+                                                Runnable release) {
+        long start = System.nanoTime();
+        CompletableFuture<T> future;
+        try {
+            future = callTimeout.callAsync(provider, call, release);
+        } catch (RuntimeException e) {
+            onResult(provider, System.nanoTime() - start, false, true);
+            throw e;
+        }
+        return future.handle((result, ex) -> {
+            Throwable cause = ex == null ? null : unwrap(ex);
+            onResult(provider, System.nanoTime() - start, cause == null && !Boolean.FALSE.equals(result),
+                cause != null);
+            if (cause != null) {
+                throw cause instanceof RuntimeException runtime ? runtime : new CompletionException(cause);
+            }
+            return result;
+        });
+    }
+
+    private static Throwable unwrap(Throwable ex) {
+        return ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+    }
+
+    private void onResult(PaymentProvider provider, long latencyNanos, boolean success, boolean error) {
+        if (provider == null) {
+            return;
+        }
+        stats.record(provider, latencyNanos, success);
+        circuitBreaker.onResult(provider, latencyNanos, error);
+    }
+
+    private ProviderRejectedException busy(PaymentProvider provider) {
+        // Devre kesicinin verdiği deneme izni kullanılmadı, geri ver
+        circuitBreaker.release(provider);
+        busyRejections.get(provider).increment();
+        log.warn("Ödeme sağlayıcı eşzamanlılık limitine ulaştı: {}", provider);
+        return new ProviderRejectedException("Ödeme sağlayıcı şu anda meşgul: " + provider);
+    }
+
+    private ProviderRejectedException circuitOpen(PaymentProvider provider) {
+        circuitRejections.get(provider).increment();
+        return new ProviderRejectedException("Ödeme sağlayıcı geçici olarak devre dışı: " + provider);
+    }
+
+    private static Counter rejectionCounter(MeterRegistry meterRegistry, PaymentProvider provider, String reason) {
+        return Counter.builder("payment.provider.rejections")
+            .description("Sağlayıcıya gönderilmeden reddedilen çağrı sayısı")
+            .tag("provider", provider.name())
+            .tag("reason", reason)
+            .register(meterRegistry);
+    }
+}
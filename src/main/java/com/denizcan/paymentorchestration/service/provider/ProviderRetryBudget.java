@@ -0,0 +1,76 @@
+package com.denizcan.paymentorchestration.service.provider;
+
+import com.denizcan.paymentorchestration.config.ProviderProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Tüm sağlayıcılar için ortak tekrar deneme bütçesi (token bucket). Bir sağlayıcı çöktüğünde
+// her isteğin maxAttempts kez denenmesi yükü katlar; bütçe tekrarları ilk çağrıların
+// budgetRatio oranıyla sınırlar. Düşük trafikte de birkaç tekrar yapılabilsin diye bütçe
+// saniyede budgetMinPerSecond kadar kendiliğinden dolar. Sayılar binde bir token cinsindendir.
+@Component
+public class ProviderRetryBudget {
+
+    private static final long TOKEN = 1_000;
+
+    private final Clock clock;
+    private final long depositPerRequest;
+    private final double refillPerMilli;
+    private final long capacity;
+    private final AtomicLong balance;
+    private final AtomicLong lastRefill;
+
+    public ProviderRetryBudget(ProviderProperties properties, Clock clock, MeterRegistry meterRegistry) {
+        ProviderProperties.Retry retry = properties.getRetry();
+        this.clock = clock;
+        this.depositPerRequest = Math.round(retry.getBudgetRatio() * TOKEN);
+        this.refillPerMilli = retry.getBudgetMinPerSecond() * TOKEN / 1_000.0;
+        this.capacity = retry.getBudgetBurst() * TOKEN;
+        this.balance = new AtomicLong(capacity);
+        this.lastRefill = new AtomicLong(clock.millis());
+        Gauge.builder("payment.provider.retry.budget", this, ProviderRetryBudget::available)
+            .description("Kullanılabilir tekrar deneme hakkı")
+            .register(meterRegistry);
+    }
+
+    // Her ilk çağrıda bir kez
+    public void onRequest() {
+        add(depositPerRequest);
+    }
+
+    // Tekrar ya da hedge denemesi için bir token düşer; bütçe boşsa false
+    public boolean tryAcquire() {
+        refill();
+        while (true) {
+            long current = balance.get();
+            if (current < TOKEN) {
+                return false;
+            }
+            if (balance.compareAndSet(current, current - TOKEN)) {
+                return true;
+            }
+        }
+    }
+
+    public double available() {
+        return (double) balance.get() / TOKEN;
+    }
+
+    private void refill() {
+        long now = clock.millis();
+        long last = lastRefill.get();
+        if (now > last && lastRefill.compareAndSet(last, now)) {
+            add((long) ((now - last) * refillPerMilli));
+        }
+    }
+
+    private void add(long amount) {
+        if (amount > 0) {
+            balance.accumulateAndGet(amount, (current, delta) -> Math.min(capacity, current + delta));
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.denizcan.paymentorchestration.service.provider;
+
+import com.denizcan.paymentorchestration.config.ProviderProperties;
+import com.denizcan.paymentorchestration.exception.ProviderRejectedException;
+import com.denizcan.paymentorchestration.exception.ProviderTimeoutException;
+import com.denizcan.paymentorchestration.exception.ProviderUnavailableException;
+import com.denizcan.paymentorchestration.model.PaymentProvider;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Sağlayıcıya ulaşılamayan çağrıların tekrar denenmesi ve yan etkisi olmayan çağrılarda hedge.
+// Tekrar denemeler ve hedge'ler sağlayıcı başına bütçeden harcar; her deneme verilen supplier
+// ile başlatılır, bu yüzden bölme izni ve süre sınırı deneme başına ayrı uygulanır.
+@Slf4j
+@Component
+public class ProviderRetryExecutor {
+    private final Map<PaymentProvider, Counter> retries = new EnumMap<>(PaymentProvider.class);
+    private final Map<PaymentProvider, Counter> exhaustedRetries = new EnumMap<>(PaymentProvider.class);
+    private final Map<PaymentProvider, Counter> hedges = new EnumMap<>(PaymentProvider.class);
+    private final Map<PaymentProvider, Counter> hedgeWins = new EnumMap<>(PaymentProvider.class);
+    private final ProviderProperties.Retry retry;
+    private final ProviderProperties.Hedging hedging;
+    private final ProviderStats stats;
+    private final ProviderRetryBudget retryBudget;
+
+    public ProviderRetryExecutor(
+            ProviderProperties properties,
+            ProviderStats stats,
+            ProviderRetryBudget retryBudget,
+            MeterRegistry meterRegistry) {
+        for (PaymentProvider provider : PaymentProvider.values()) {
+            retries.put(provider, retryCounter(meterRegistry, provider, "retried"));
+            exhaustedRetries.put(provider, retryCounter(meterRegistry, provider, "budget_exhausted"));
+            hedges.put(provider, hedgeCounter(meterRegistry, provider, "fired"));
+            hedgeWins.put(provider, hedgeCounter(meterRegistry, provider, "won"));
+        }
+        this.retry = properties.getRetry();
+        this.hedging = properties.getHedging();
+        this.stats = stats;
+        this.retryBudget = retryBudget;
+    }
+
+    public <T> T execute(PaymentProvider provider, Supplier<T> attempt) {
+        retryBudget.onRequest();
+        for (int attemptNo = 1; ; attemptNo++) {
+            try {
+                return attempt.get();
+            } catch (ProviderUnavailableException e) {
+                if (!shouldRetry(provider, e, attemptNo, false)) {
+                    throw e;
+                }
+                try {
+                    Thread.sleep(backoffMillis(attemptNo));
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    // İlk deneme first ile, tekrarlar next ile başlatılır
+    public <T> CompletableFuture<T> executeAsync(PaymentProvider provider, Supplier<CompletableFuture<T>> first,
+                                                 Supplier<CompletableFuture<T>> next) {
+        retryBudget.onRequest();
+        return withRetries(provider, first, next, 1, false);
+    }
+
+    // Zaman aşımı da tekrar denenir ve hedge açıksa her deneme sağlayıcının p95 gecikmesini
+    // aşınca ikinci bir istekle yarıştırılır
+    public <T> CompletableFuture<T> executeIdempotent(PaymentProvider provider, Supplier<CompletableFuture<T>> attempt) {
+        retryBudget.onRequest();
+        Supplier<CompletableFuture<T>> hedgedAttempt = () -> hedged(provider, attempt);
+        return withRetries(provider, hedgedAttempt, hedgedAttempt, 1, true);
+    }
+
+    // Başarısız deneme, bekleme süresi bir zamanlayıcıyla geçirildikten sonra tekrarlanır;
+    // beklerken thread tutulmaz
+    private <T> CompletableFuture<T> withRetries(PaymentProvider provider, Supplier<CompletableFuture<T>> attempt,
+                                                 Supplier<CompletableFuture<T>> next, int attemptNo,
+                                                 boolean idempotent) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        start(attempt).whenComplete((value, ex) -> {
+            if (ex == null) {
+                result.complete(value);
+                return;
+            }
+            Throwable cause = unwrap(ex);
+            if (!(cause instanceof ProviderUnavailableException unavailable)
+                    || !shouldRetry(provider, unavailable, attemptNo, idempotent)) {
+                result.completeExceptionally(cause);
+                return;
+            }
+            CompletableFuture.delayedExecutor(backoffMillis(attemptNo), TimeUnit.MILLISECONDS).execute(() ->
+                withRetries(provider, next, next, attemptNo + 1, idempotent).whenComplete((retried, retryEx) -> {
+                    if (retryEx == null) {
+                        result.complete(retried);
+                    } else {
+                        result.completeExceptionally(unwrap(retryEx));
+                    }
+                }));
+        });
+        return result;
+    }
+
+    // İlk deneme hedge gecikmesi içinde sonuçlanmazsa ikinci deneme gönderilir; önce gelen başarılı
+    // cevap kullanılır, ikisi de başarısızsa son hata döner
+    private <T> CompletableFuture<T> hedged(PaymentProvider provider, Supplier<CompletableFuture<T>> attempt) {
+        CompletableFuture<T> primary = start(attempt);
+        if (!hedging.isEnabled() || primary.isDone()) {
+            return primary;
+        }
+
+        CompletableFuture<T> result = new CompletableFuture<>();
+        AtomicInteger outstanding = new AtomicInteger(1);
+        primary.whenComplete((value, ex) -> settle(result, outstanding, value, ex));
+        CompletableFuture.delayedExecutor(hedgeDelayMillis(provider), TimeUnit.MILLISECONDS).execute(() -> {
+            if (result.isDone() || !retryBudget.tryAcquire()) {
+                return;
+            }
+            // İlk deneme bu arada başarısız olup sonucu kapattıysa hedge gönderilmez
+            if (outstanding.getAndUpdate(n -> n == 0 ? 0 : n + 1) == 0) {
+                return;
+            }
+            hedges.get(provider).increment();
+            start(attempt).whenComplete((value, ex) -> {
+                if (settle(result, outstanding, value, ex)) {
+                    hedgeWins.get(provider).increment();
+                }
+            });
+        });
+        return result;
+    }
+
+    private static <T> boolean settle(CompletableFuture<T> result, AtomicInteger outstanding, T value, Throwable ex) {
+        if (ex == null) {
+            return result.complete(value);
+        }
+        if (outstanding.decrementAndGet() == 0) {
+            result.completeExceptionally(unwrap(ex));
+        }
+        return false;
+    }
+
+    private long hedgeDelayMillis(PaymentProvider provider) {
+        ProviderStats.Snapshot snapshot = stats.snapshot(provider);
+        long delay = snapshot.samples() >= hedging.getMinSamples()
+            ? snapshot.p95Micros() / 1_000
+            : hedging.getFallbackDelay().toMillis();
+        return Math.max(hedging.getMinDelay().toMillis(), delay);
+    }
+
+    // Sadece sağlayıcıya ulaşılamayan çağrılar tekrarlanır. Yerel olarak reddedilen çağrılar
+    // (devre açık, limit dolu) tekrarlanırsa yük artar; zaman aşımına uğrayan çağrı ise sağlayıcıda
+    // işlenmiş olabileceğinden sadece idempotent işlemlerde tekrarlanır.
+    private boolean shouldRetry(PaymentProvider provider, ProviderUnavailableException e, int attempt,
+                                boolean idempotent) {
+        if (attempt >= retry.getMaxAttempts() || provider == null || e instanceof ProviderRejectedException) {
+            return false;
+        }
+        if (e instanceof ProviderTimeoutException && !idempotent) {
+            return false;
+        }
+        if (!retryBudget.tryAcquire()) {
+            exhaustedRetries.get(provider).increment();
+            log.warn("Tekrar deneme bütçesi tükendi, {} çağrısı tekrarlanmayacak", provider);
+            return false;
+        }
+        retries.get(provider).increment();
+        log.info("{} çağrısı tekrar deneniyor ({}. deneme): {}", provider, attempt + 1, e.getMessage());
+        return true;
+    }
+
+    // Üstel artan tavan içinde tamamen rastgele bekleme; aynı anda düşen istekler aynı anda
+    // tekrar gelmesin
+    private long backoffMillis(int attempt) {
+        long ceiling = Math.min(retry.getMaxBackoff().toMillis(),
+            retry.getInitialBackoff().toMillis() << Math.min(attempt - 1, 20));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    private static <T> CompletableFuture<T> start(Supplier<CompletableFuture<T>> attempt) {
+        try {
+            return attempt.get();
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private static Throwable unwrap(Throwable ex) {
+        return ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+    }
+
+    private static Counter retryCounter(MeterRegistry meterRegistry, PaymentProvider provider, String outcome) {
+        return Counter.builder("payment.provider.retries")
+            .description("Sağlayıcıya ulaşılamayan çağrılar için tekrar deneme kararları")
+            .tag("provider", provider.name())
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+
+    private static Counter hedgeCounter(MeterRegistry meterRegistry, PaymentProvider provider, String outcome) {
+        return Counter.builder("payment.provider.hedges")
+            .description("Gönderilen ve ilk denemeyi geçen hedge istekleri")
+            .tag("provider", provider.name())
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+}
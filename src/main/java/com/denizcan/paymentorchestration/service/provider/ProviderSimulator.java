@@ -0,0 +1,83 @@
+package com.denizcan.paymentorchestration.service.provider;
+
+import com.denizcan.paymentorchestration.config.ProviderProperties;
+import com.denizcan.paymentorchestration.exception.ProviderUnavailableException;
+import com.denizcan.paymentorchestration.model.PaymentProvider;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Sağlayıcı API'si entegre edilene kadar yanıtı taklit eder: gecikme yapılandırılan
+// dağılımdan, sonuç ise ret ve hata oranlarından çekilir.
+public class ProviderSimulator {
+
+    // Sağlayıcının idempotency kayıtlarını taklit eder; gerçek sağlayıcılar da anahtarları
+    // sınırlı bir süre saklar
+    private static final int REMEMBERED_KEYS = 100_000;
+
+    private final PaymentProvider provider;
+    private final ProviderProperties.Simulation simulation;
+    private final Cache<String, Boolean> outcomes = Caffeine.newBuilder()
+        .maximumSize(REMEMBERED_KEYS)
+        .build();
+
+    public ProviderSimulator(PaymentProvider provider, ProviderProperties.Simulation simulation) {
+        this.provider = provider;
+        this.simulation = simulation;
+    }
+
+    public boolean call() throws InterruptedException {
+        Thread.sleep(nextLatencyMillis());
+        return nextOutcome();
+    }
+
+    // Gecikme bir zamanlayıcı ile simüle edilir, bekleme süresince thread tutulmaz
+    public CompletableFuture<Boolean> callAsync() {
+        return CompletableFuture.supplyAsync(this::nextOutcome,
+            CompletableFuture.delayedExecutor(nextLatencyMillis(), TimeUnit.MILLISECONDS));
+    }
+
+    // Toplu çağrı: gecikme ve erişim hatası istek başına, ret kalem başına çekilir. Kalemin
+    // sonucu idempotency anahtarına bağlanır; aynı anahtarla tekrar gönderim ilk sonucu döner.
+    public CompletableFuture<List<Boolean>> callBatchAsync(List<String> idempotencyKeys) {
+        return CompletableFuture.supplyAsync(() -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            if (random.nextDouble() < simulation.getErrorRate()) {
+                throw new ProviderUnavailableException(provider + " sağlayıcısına ulaşılamadı (simülasyon)");
+            }
+            List<Boolean> results = new ArrayList<>(idempotencyKeys.size());
+            for (String key : idempotencyKeys) {
+                results.add(outcomes.get(key, k -> ThreadLocalRandom.current().nextDouble() >= simulation.getFailureRate()));
+            }
+            return results;
+        }, CompletableFuture.delayedExecutor(nextLatencyMillis(), TimeUnit.MILLISECONDS));
+    }
+
+    long nextLatencyMillis() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        double base = simulation.getLatency().toNanos() / 1_000_000.0;
+        double millis = switch (simulation.getDistribution()) {
+            case FIXED -> base;
+            case UNIFORM -> {
+                double jitter = simulation.getJitter().toNanos() / 1_000_000.0;
+                yield base - jitter + random.nextDouble() * 2 * jitter;
+            }
+            case EXPONENTIAL -> -base * Math.log(1 - random.nextDouble());
+            case LOG_NORMAL -> base * Math.exp(simulation.getSigma() * random.nextGaussian());
+        };
+        return Math.max(0, Math.round(millis));
+    }
+
+    boolean nextOutcome() {
+        double roll = ThreadLocalRandom.current().nextDouble();
+        if (roll < simulation.getErrorRate()) {
+            throw new ProviderUnavailableException(provider + " sağlayıcısına ulaşılamadı (simülasyon)");
+        }
+        return roll >= simulation.getErrorRate() + simulation.getFailureRate();
+    }
+}
@@ -0,0 +1,135 @@
+package com.denizcan.paymentorchestration.service.provider;
+
+import com.denizcan.paymentorchestration.config.RoutingProperties;
+import com.denizcan.paymentorchestration.model.PaymentProvider;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Sağlayıcı başına kayan pencereli gecikme histogramı ve başarı sayaçları. Her sağlayıcı
+// çağrısında kaydedildiği için kayıt yolu kilitsizdir ve nesne üretmez.
+@Component
+public class ProviderStats {
+    // Logaritmik-doğrusal kovalar: her ikinin kuvveti 8 kovaya bölünür (~%12,5 çözünürlük)
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    // Mikrosaniye cinsinden 2^30 (~18 dk) üzeri gecikmeler son kovaya yazılır
+    private static final int MAX_EXPONENT = 30;
+    static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final Clock clock;
+    private final long slotMillis;
+    private final Slot[][] slots;
+
+    public ProviderStats(RoutingProperties properties, Clock clock) {
+        this.clock = clock;
+        this.slotMillis = Math.max(1, properties.getWindow().toMillis() / properties.getSlots());
+        this.slots = new Slot[PaymentProvider.values().length][properties.getSlots()];
+        for (Slot[] providerSlots : slots) {
+            for (int i = 0; i < providerSlots.length; i++) {
+                providerSlots[i] = new Slot();
+            }
+        }
+    }
+
+    // Reddedilen (false dönen) çağrılar da başarısız sayılır; onay oranı düşük sağlayıcı
+    // yönlendirmede geri plana düşer
+    public void record(PaymentProvider provider, long latencyNanos, boolean success) {
+        if (provider == null) {
+            return;
+        }
+        long epoch = clock.millis() / slotMillis;
+        Slot slot = current(slots[provider.ordinal()], epoch);
+        slot.latencies.incrementAndGet(bucketOf(latencyNanos / 1_000));
+        (success ? slot.successes : slot.failures).incrementAndGet();
+    }
+
+    public Snapshot snapshot(PaymentProvider provider) {
+        long epoch = clock.millis() / slotMillis;
+        Slot[] providerSlots = slots[provider.ordinal()];
+        long[] buckets = new long[BUCKET_COUNT];
+        long successes = 0;
+        long failures = 0;
+        for (Slot slot : providerSlots) {
+            // Pencerenin dışında kalmış (sıfırlanmamış eski) slotlar sayılmaz
+            if (epoch - slot.epoch.get() >= providerSlots.length) {
+                continue;
+            }
+            successes += slot.successes.get();
+            failures += slot.failures.get();
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                buckets[i] += slot.latencies.get(i);
+            }
+        }
+        long samples = successes + failures;
+        return new Snapshot(samples,
+            samples == 0 ? 1.0 : (double) successes / samples,
+            percentile(buckets, samples, 0.50),
+            percentile(buckets, samples, 0.95),
+            percentile(buckets, samples, 0.99));
+    }
+
+    // Slot başka bir döneme aitse ilk gelen thread onu sahiplenip sıfırlar. Sıfırlama
+    // sırasında aynı slota yazan birkaç örnek kaybolabilir; istatistik için kabul edilebilir.
+    private static Slot current(Slot[] providerSlots, long epoch) {
+        Slot slot = providerSlots[(int) (epoch % providerSlots.length)];
+        long seen = slot.epoch.get();
+        if (seen < epoch && slot.epoch.compareAndSet(seen, epoch)) {
+            slot.successes.set(0);
+            slot.failures.set(0);
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                slot.latencies.set(i, 0);
+            }
+        }
+        return slot;
+    }
+
+    static int bucketOf(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) Math.max(0, micros);
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        if (exponent >= MAX_EXPONENT) {
+            return BUCKET_COUNT - 1;
+        }
+        int subBucket = (int) (micros >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    // Kovadaki en büyük değer; yüzdelik değer yukarı yuvarlanmış olur
+    static long highestValueOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long lowest = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << (exponent - SUB_BUCKET_BITS);
+        return lowest + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+
+    private static long percentile(long[] buckets, long samples, double percentile) {
+        if (samples == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(samples * percentile);
+        long seen = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            seen += buckets[i];
+            if (seen >= rank) {
+                return highestValueOf(i);
+            }
+        }
+        return highestValueOf(buckets.length - 1);
+    }
+
+    public record Snapshot(long samples, double successRatio, long p50Micros, long p95Micros, long p99Micros) {
+    }
+
+    private static final class Slot {
+        private final AtomicLong epoch = new AtomicLong(-1);
+        private final AtomicLong successes = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+        private final AtomicLongArray latencies = new AtomicLongArray(BUCKET_COUNT);
+    }
+}
@@ -0,0 +1,6 @@
+package com.denizcan.paymentorchestration.service.reconciliation;
+
+// providerValue sağlayıcı dosyasındaki, ledgerValue bizdeki değerdir; olmayan taraf boş kalır
+public record Mismatch(MismatchType type, String paymentId, String providerTransactionId,
+                       String providerValue, String ledgerValue) {
+}
@@ -0,0 +1,16 @@
+package com.denizcan.paymentorchestration.service.reconciliation;
+
+public enum MismatchType {
+    // Sağlayıcının uzlaştırdığı ödeme bizde (veritabanı ve arşiv) yok
+    MISSING_IN_LEDGER,
+    // Bizde başarılı görünen ödeme sağlayıcının dosyasında yok
+    MISSING_AT_PROVIDER,
+    // Tutar ya da para birimi farklı
+    AMOUNT_DRIFT,
+    // Sağlayıcının sonucu bizdeki durumla uyuşmuyor; sonucu bilinmeyen ödemeler de buraya düşer
+    STATUS_DRIFT,
+    // Aynı ödeme sağlayıcının dosyalarında birden fazla kez uzlaştırılmış
+    DUPLICATE,
+    // Dosyadaki satır okunamadı
+    MALFORMED
+}
@@ -0,0 +1,21 @@
+package com.denizcan.paymentorchestration.service.reconciliation;
+
+import com.denizcan.paymentorchestration.model.PaymentProvider;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+// Bir uzlaşma çalışmasının özeti; uyuşmazlıkların tamamı reportFile'a yazılır
+public record ReconciliationReport(
+        PaymentProvider provider,
+        List<Path> files,
+        long settlementRecords,
+        long ledgerPayments,
+        Map<MismatchType, Long> mismatches,
+        Path reportFile) {
+
+    public long mismatchCount() {
+        return mismatches.values().stream().mapToLong(Long::longValue).sum();
+    }
+}
@@ -0,0 +1,613 @@
+package com.denizcan.paymentorchestration.service.reconciliation;
+
+import com.denizcan.paymentorchestration.config.ReconciliationProperties;
+import com.denizcan.paymentorchestration.model.Currency;
+import com.denizcan.paymentorchestration.model.Money;
+import com.denizcan.paymentorchestration.model.Payment;
+import com.denizcan.paymentorchestration.model.PaymentProvider;
+import com.denizcan.paymentorchestration.model.PaymentStatus;
+import com.denizcan.paymentorchestration.model.TimeOrderedIdGenerator;
+import com.denizcan.paymentorchestration.repository.PaymentRepository;
+import com.denizcan.paymentorchestration.service.PaymentTransitions;
+import com.denizcan.paymentorchestration.service.archive.PaymentArchive;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+// Sağlayıcı uzlaşma dosyalarını ödemelerle karşılaştırır (Grace hash join). Dosyalar paralel
+// okunur ve her kayıt ödeme id'sinin özetine göre diskteki bir bölüme yazılır. Dosyalardaki
+// zaman sıralı id'lerin aralığındaki ödemeler veritabanından birincil anahtar sırasıyla tek
+// seferde okunup aynı şekilde bölümlenir. Sonra her bölüm paralel eşleştirilir: sağlayıcı
+// tarafı belleğe alınır, ödeme tarafı üzerinden geçilir. Bellekte aynı anda en fazla
+// parallelism kadar bölüm tutulur. Bölüm sayısı dosya boyutundan tahmin edilen kayıt sayısı ve
+// kayıt başına bellek tahmininden hesaplanır; tahmin tutmazsa sınırı aşan bölüm eşleştirmeden
+// önce farklı bir özetle tekrar bölünür. Aralığa girmeyen (eski UUID id'li, başka sağlayıcıya
+// yazılmış ya da arşivlenmiş) ödemeler id ile ayrıca aranır.
+@Slf4j
+@Service
+public class ReconciliationService {
+
+    private static final Set<PaymentStatus> SUCCEEDED =
+        EnumSet.of(PaymentStatus.COMPLETED, PaymentStatus.PARTIALLY_REFUNDED, PaymentStatus.REFUNDED);
+    private static final Currency[] CURRENCIES = Currency.values();
+    private static final PaymentStatus[] STATUSES = PaymentStatus.values();
+    // Eşleştirmede belleğe alınan bir sağlayıcı kaydının yaklaşık yeri: HashMap girdisi, kayıt,
+    // Money ve iki kısa String
+    private static final long RECORD_BYTES = 256;
+    // Kayıt sayısı tahmini için en kısa makul satır; az tahmin edilen bölüm sonradan bölünür
+    private static final long MIN_LINE_BYTES = 48;
+    // Aynı id'nin binlerce tekrarı gibi bölünerek küçülmeyen bölümlerde bölme burada durur
+    private static final int MAX_SPLIT_DEPTH = 6;
+    private static final int SPILL_BUFFER_BYTES = 1 << 13;
+    private static final int LOOKUP_CHUNK = 500;
+    private static final DateTimeFormatter REPORT_TIME =
+        DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC);
+
+    private final PaymentRepository paymentRepository;
+    private final PaymentArchive archive;
+    private final PaymentTransitions transitions;
+    private final ReconciliationProperties properties;
+    private final TransactionTemplate readOnly;
+    private final Clock clock;
+    private final Counter records;
+    private final Map<MismatchType, Counter> mismatchCounters = new EnumMap<>(MismatchType.class);
+
+    public ReconciliationService(
+            PaymentRepository paymentRepository,
+            PaymentArchive archive,
+            PaymentTransitions transitions,
+            ReconciliationProperties properties,
+            PlatformTransactionManager transactionManager,
+            Clock clock,
+            MeterRegistry meterRegistry) {
+        this.paymentRepository = paymentRepository;
+        this.archive = archive;
+        this.transitions = transitions;
+        this.properties = properties;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.clock = clock;
+        this.records = Counter.builder("payment.reconciliation.records")
+            .description("Uzlaştırılan sağlayıcı kaydı sayısı")
+            .register(meterRegistry);
+        for (MismatchType type : MismatchType.values()) {
+            mismatchCounters.put(type, Counter.builder("payment.reconciliation.mismatches")
+                .description("Uzlaştırmada bulunan uyuşmazlıklar")
+                .tag("type", type.name())
+                .register(meterRegistry));
+        }
+    }
+
+    // Gelen kutusundaki dosyalar sağlayıcı başına tek çalışmada uzlaştırılır ve taşınır
+    @Scheduled(fixedDelayString = "${payment.reconciliation.interval:PT15M}",
+        initialDelayString = "${payment.reconciliation.interval:PT15M}")
+    public void reconcileInbox() {
+        if (!properties.isEnabled() || !Files.isDirectory(properties.getInbox())) {
+            return;
+        }
+        Map<PaymentProvider, List<Path>> byProvider = new TreeMap<>();
+        try (Stream<Path> files = Files.list(properties.getInbox())) {
+            files.filter(file -> file.getFileName().toString().endsWith(".csv")).sorted().forEach(file -> {
+                Optional<PaymentProvider> provider = providerOf(file);
+                if (provider.isPresent()) {
+                    byProvider.computeIfAbsent(provider.get(), key -> new ArrayList<>()).add(file);
+                } else {
+                    log.warn("Uzlaşma dosyasının sağlayıcısı adından anlaşılamadı, atlanıyor: {}", file);
+                }
+            });
+        } catch (IOException e) {
+            log.error("Uzlaşma gelen kutusu okunamadı: {}", e.getMessage());
+            return;
+        }
+
+        byProvider.forEach((provider, files) -> {
+            try {
+                ReconciliationReport report = reconcile(provider, files);
+                Files.createDirectories(properties.getProcessedDir());
+                for (Path file : files) {
+                    Files.move(file, properties.getProcessedDir().resolve(file.getFileName()),
+                        StandardCopyOption.REPLACE_EXISTING);
+                }
+                log.info("{} uzlaştırması: {} dosya, {} kayıt, {} ödeme, uyuşmazlıklar {} ({})",
+                    provider, files.size(), report.settlementRecords(), report.ledgerPayments(),
+                    report.mismatches(), report.reportFile());
+            } catch (IOException | RuntimeException e) {
+                // Dosyalar gelen kutusunda kalır, sonraki turda tekrar denenir
+                log.error("{} uzlaştırması başarısız: {}", provider, e.getMessage());
+            }
+        });
+    }
+
+    public ReconciliationReport reconcile(PaymentProvider provider, List<Path> files) throws IOException {
+        long totalBytes = 0;
+        for (Path file : files) {
+            totalBytes += Files.size(file);
+        }
+        int partitions = fanout(Math.max(1, totalBytes / MIN_LINE_BYTES), 1);
+        Files.createDirectories(properties.getWorkDir());
+        Files.createDirectories(properties.getReportDir());
+        Path work = Files.createTempDirectory(properties.getWorkDir(), provider.name() + "-");
+        Path reportFile = properties.getReportDir()
+            .resolve(provider.name() + "-" + REPORT_TIME.format(clock.instant()) + ".csv");
+
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism());
+        ReconciliationReport report;
+        try (MismatchWriter mismatches = new MismatchWriter(reportFile)) {
+            IdRange range = new IdRange();
+            AtomicLongArray settledCounts = new AtomicLongArray(partitions);
+            long settlementRecords = runAll(executor, files.size(), i ->
+                partitionSettlements(files.get(i), work.resolve("s" + i), partitions, settledCounts, range, mismatches));
+            long ledgerPayments = range.isEmpty() ? 0 : partitionLedger(provider, range, work.resolve("l"), partitions);
+            runAll(executor, partitions, partition -> {
+                List<Path> settled = new ArrayList<>(files.size());
+                for (int i = 0; i < files.size(); i++) {
+                    settled.add(Partitions.fileOf(work.resolve("s" + i), partition));
+                }
+                join(new Bucket("p" + partition, settled, Partitions.fileOf(work.resolve("l"), partition),
+                    settledCounts.get(partition), 0), work, mismatches);
+                return 0;
+            });
+            report = new ReconciliationReport(provider, List.copyOf(files), settlementRecords, ledgerPayments,
+                mismatches.counts(), reportFile);
+        } finally {
+            executor.shutdownNow();
+            deleteRecursively(work);
+        }
+
+        records.increment(report.settlementRecords());
+        report.mismatches().forEach((type, count) -> mismatchCounters.get(type).increment(count));
+        return report;
+    }
+
+    private long partitionSettlements(Path file, Path prefix, int partitions, AtomicLongArray settledCounts,
+                                      IdRange range, MismatchWriter mismatches) throws IOException {
+        try (Partitions out = new Partitions(prefix, partitions, 0)) {
+            long count = SettlementFileReader.read(file, new SettlementFileReader.Handler() {
+                @Override
+                public void record(SettlementRecord record) {
+                    range.include(record.paymentId());
+                    try {
+                        writeSettlement(out.of(record.paymentId()), record);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+
+                @Override
+                public void malformed(long lineNumber, String reason) {
+                    mismatches.write(new Mismatch(MismatchType.MALFORMED, null, null,
+                        file.getFileName() + ":" + lineNumber, reason));
+                }
+            });
+            long[] counts = out.counts();
+            for (int partition = 0; partition < counts.length; partition++) {
+                settledCounts.addAndGet(partition, counts[partition]);
+            }
+            return count;
+        }
+    }
+
+    private long partitionLedger(PaymentProvider provider, IdRange range, Path prefix, int partitions) {
+        return readOnly.execute(status -> {
+            long count = 0;
+            try (Partitions out = new Partitions(prefix, partitions, 0);
+                 Stream<Payment> payments = paymentRepository.streamByIdRange(provider, range.min(), range.max())) {
+                for (Iterator<Payment> it = payments.iterator(); it.hasNext(); count++) {
+                    Payment payment = transitions.project(it.next());
+                    writeLedger(out.of(payment.getId()),
+                        new LedgerEntry(payment.getId(), payment.getAmount(), payment.getStatus()));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return count;
+        });
+    }
+
+    private void join(Bucket bucket, Path work, MismatchWriter mismatches) throws IOException {
+        if (bucket.settlementRecords() * RECORD_BYTES > joinBudget()) {
+            if (bucket.depth() < MAX_SPLIT_DEPTH) {
+                for (Bucket part : split(bucket, work)) {
+                    join(part, work, mismatches);
+                }
+                return;
+            }
+            log.warn("Uzlaştırma bölümü {} bölünmesine rağmen bellek payını aşıyor: {} kayıt",
+                bucket.name(), bucket.settlementRecords());
+        }
+
+        Map<String, SettlementRecord> settled = new HashMap<>();
+        for (Path file : bucket.settlementFiles()) {
+            try (DataInputStream in = Partitions.open(file)) {
+                while (in != null && in.readBoolean()) {
+                    SettlementRecord record = readSettlement(in);
+                    SettlementRecord previous = settled.put(record.paymentId(), record);
+                    if (previous != null) {
+                        mismatches.write(new Mismatch(MismatchType.DUPLICATE, record.paymentId(),
+                            record.providerTransactionId(), previous.providerTransactionId(), null));
+                    }
+                }
+            }
+        }
+
+        try (DataInputStream in = Partitions.open(bucket.ledgerFile())) {
+            while (in != null && in.readBoolean()) {
+                LedgerEntry entry = readLedger(in);
+                SettlementRecord record = settled.remove(entry.id());
+                if (record != null) {
+                    compare(record, entry.amount(), entry.status(), mismatches);
+                } else if (SUCCEEDED.contains(entry.status())) {
+                    mismatches.write(new Mismatch(MismatchType.MISSING_AT_PROVIDER, entry.id(), null, null,
+                        entry.amount() + " " + entry.status()));
+                }
+            }
+        }
+
+        // Aralık taramasına girmeyen kayıtlar id ile aranır
+        List<SettlementRecord> rest = new ArrayList<>(settled.values());
+        for (int from = 0; from < rest.size(); from += LOOKUP_CHUNK) {
+            List<SettlementRecord> chunk = rest.subList(from, Math.min(from + LOOKUP_CHUNK, rest.size()));
+            Map<String, Payment> found = new HashMap<>();
+            paymentRepository.findAllById(chunk.stream().map(SettlementRecord::paymentId).toList())
+                .forEach(payment -> found.put(payment.getId(), transitions.project(payment)));
+            for (SettlementRecord record : chunk) {
+                Payment payment = found.get(record.paymentId());
+                if (payment == null) {
+                    payment = archive.find(record.paymentId()).orElse(null);
+                }
+                if (payment == null) {
+                    mismatches.write(new Mismatch(MismatchType.MISSING_IN_LEDGER, record.paymentId(),
+                        record.providerTransactionId(), record.amount() + " " + outcomeOf(record), null));
+                } else {
+                    compare(record, payment.getAmount(), payment.getStatus(), mismatches);
+                }
+            }
+        }
+    }
+
+    // Bölümün iki tarafı da farklı bir özetle alt bölümlere dağıtılır; aynı id'li kayıtlar yine
+    // aynı alt bölüme düşer. Dosya sırası korunduğu için tekrar eden kayıtlar aynı sırayla okunur.
+    private List<Bucket> split(Bucket bucket, Path work) throws IOException {
+        int fanout = fanout(bucket.settlementRecords(), 2);
+        int depth = bucket.depth() + 1;
+        Path settledPrefix = work.resolve(bucket.name() + "-s");
+        Path ledgerPrefix = work.resolve(bucket.name() + "-l");
+        long[] counts;
+        try (Partitions out = new Partitions(settledPrefix, fanout, depth)) {
+            for (Path file : bucket.settlementFiles()) {
+                try (DataInputStream in = Partitions.open(file)) {
+                    while (in != null && in.readBoolean()) {
+                        SettlementRecord record = readSettlement(in);
+                        writeSettlement(out.of(record.paymentId()), record);
+                    }
+                }
+                Files.deleteIfExists(file);
+            }
+            counts = out.counts();
+        }
+        try (Partitions out = new Partitions(ledgerPrefix, fanout, depth)) {
+            try (DataInputStream in = Partitions.open(bucket.ledgerFile())) {
+                while (in != null && in.readBoolean()) {
+                    LedgerEntry entry = readLedger(in);
+                    writeLedger(out.of(entry.id()), entry);
+                }
+            }
+            Files.deleteIfExists(bucket.ledgerFile());
+        }
+
+        List<Bucket> parts = new ArrayList<>(fanout);
+        for (int i = 0; i < fanout; i++) {
+            parts.add(new Bucket(bucket.name() + "." + i, List.of(Partitions.fileOf(settledPrefix, i)),
+                Partitions.fileOf(ledgerPrefix, i), counts[i], depth));
+        }
+        return parts;
+    }
+
+    // Kayıtları bellek payına sığacak kadar bölüme dağıtır; açık dosya sınırını aşmaz
+    private int fanout(long records, int min) {
+        long needed = Math.ceilDiv(records * RECORD_BYTES, joinBudget());
+        int maxFanout = Math.max(2, properties.getMaxOpenFiles() / parallelism());
+        return (int) Math.max(min, Math.min(maxFanout, needed));
+    }
+
+    private long joinBudget() {
+        return Math.max(RECORD_BYTES, properties.getMemoryBudget().toBytes() / parallelism());
+    }
+
+    private int parallelism() {
+        return Math.max(1, properties.getParallelism());
+    }
+
+    private static void writeSettlement(DataOutputStream out, SettlementRecord record) throws IOException {
+        out.writeUTF(record.paymentId());
+        out.writeUTF(record.providerTransactionId());
+        out.writeLong(record.amount().minorUnits());
+        out.writeByte(record.amount().currency().ordinal());
+        out.writeBoolean(record.success());
+    }
+
+    private static SettlementRecord readSettlement(DataInputStream in) throws IOException {
+        return new SettlementRecord(in.readUTF(), in.readUTF(),
+            Money.ofMinor(in.readLong(), CURRENCIES[in.readByte()]), in.readBoolean());
+    }
+
+    private static void writeLedger(DataOutputStream out, LedgerEntry entry) throws IOException {
+        out.writeUTF(entry.id());
+        out.writeLong(entry.amount().minorUnits());
+        out.writeByte(entry.amount().currency().ordinal());
+        out.writeByte(entry.status().ordinal());
+    }
+
+    private static LedgerEntry readLedger(DataInputStream in) throws IOException {
+        return new LedgerEntry(in.readUTF(), Money.ofMinor(in.readLong(), CURRENCIES[in.readByte()]),
+            STATUSES[in.readByte()]);
+    }
+
+    private static void compare(SettlementRecord record, Money amount, PaymentStatus status, MismatchWriter mismatches) {
+        if (!record.amount().equals(amount)) {
+            mismatches.write(new Mismatch(MismatchType.AMOUNT_DRIFT, record.paymentId(),
+                record.providerTransactionId(), record.amount().toString(), amount.toString()));
+        }
+        boolean matches = record.success() ? SUCCEEDED.contains(status) : status == PaymentStatus.FAILED;
+        if (!matches) {
+            mismatches.write(new Mismatch(MismatchType.STATUS_DRIFT, record.paymentId(),
+                record.providerTransactionId(), outcomeOf(record), status.name()));
+        }
+    }
+
+    private static String outcomeOf(SettlementRecord record) {
+        return record.success() ? "SUCCESS" : "FAILURE";
+    }
+
+    // Dosya adı <SAĞLAYICI>-... ya da <SAĞLAYICI>.csv biçiminde olmalı
+    private static Optional<PaymentProvider> providerOf(Path file) {
+        String name = file.getFileName().toString();
+        int end = name.indexOf('-') > 0 ? name.indexOf('-') : name.length() - ".csv".length();
+        try {
+            return Optional.of(PaymentProvider.valueOf(name.substring(0, end).toUpperCase()));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static long runAll(ExecutorService executor, int count, PartitionTask task) throws IOException {
+        List<Future<Long>> futures = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int index = i;
+            futures.add(executor.submit(() -> task.run(index)));
+        }
+        long total = 0;
+        try {
+            for (Future<Long> future : futures) {
+                total += future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Uzlaştırma kesildi", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() instanceof UncheckedIOException unchecked ? unchecked.getCause() : e.getCause();
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(cause);
+        }
+        return total;
+    }
+
+    private static void deleteRecursively(Path dir) {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (IOException e) {
+            log.warn("Uzlaştırma çalışma dizini silinemedi: {}", dir);
+        }
+    }
+
+    @FunctionalInterface
+    private interface PartitionTask {
+        long run(int index) throws IOException;
+    }
+
+    // Eşleştirilecek bölüm: sağlayıcı tarafı bir ya da daha fazla dosyada, ödeme tarafı tek dosyada
+    private record Bucket(String name, List<Path> settlementFiles, Path ledgerFile, long settlementRecords,
+                          int depth) {
+    }
+
+    private record LedgerEntry(String id, Money amount, PaymentStatus status) {
+    }
+
+    // Dosyalardaki zaman sıralı id'lerin en küçüğü ve en büyüğü; eski UUID id'ler aralığa girmez
+    private static final class IdRange {
+        private String min;
+        private String max;
+
+        synchronized void include(String id) {
+            if (TimeOrderedIdGenerator.decode(id) == 0) {
+                return;
+            }
+            if (min == null || id.compareTo(min) < 0) {
+                min = id;
+            }
+            if (max == null || id.compareTo(max) > 0) {
+                max = id;
+            }
+        }
+
+        synchronized boolean isEmpty() {
+            return min == null;
+        }
+
+        synchronized String min() {
+            return min;
+        }
+
+        synchronized String max() {
+            return max;
+        }
+    }
+
+    // Bir girdinin bölüm dosyaları; her kayıttan önce true, dosya sonunda false yazılır.
+    // Dosyalar ilk kayıtta açılır, boş bölüm için dosya oluşmaz. Özet derinliğe göre karıştırılır;
+    // aynı bölüme düşmüş kayıtlar alt bölümlere yine dağılır.
+    private static final class Partitions implements Closeable {
+        private final Path prefix;
+        private final DataOutputStream[] streams;
+        private final long[] counts;
+        private final int depth;
+
+        Partitions(Path prefix, int count, int depth) {
+            this.prefix = prefix;
+            this.streams = new DataOutputStream[count];
+            this.counts = new long[count];
+            this.depth = depth;
+        }
+
+        DataOutputStream of(String id) throws IOException {
+            int partition = partitionOf(id);
+            counts[partition]++;
+            DataOutputStream stream = streams[partition];
+            if (stream == null) {
+                stream = new DataOutputStream(new BufferedOutputStream(
+                    Files.newOutputStream(fileOf(prefix, partition)), SPILL_BUFFER_BYTES));
+                streams[partition] = stream;
+            }
+            stream.writeBoolean(true);
+            return stream;
+        }
+
+        long[] counts() {
+            return counts.clone();
+        }
+
+        // murmur3 karıştırması; derinlik tohumu her seviyede farklı bir dağılım verir
+        private int partitionOf(String id) {
+            int h = id.hashCode() + depth * 0x9E3779B9;
+            h ^= h >>> 16;
+            h *= 0x85EBCA6B;
+            h ^= h >>> 13;
+            h *= 0xC2B2AE35;
+            h ^= h >>> 16;
+            return (h & 0x7fffffff) % streams.length;
+        }
+
+        // Bölüm dosyası yoksa null döner
+        static DataInputStream open(Path file) throws IOException {
+            if (!Files.exists(file)) {
+                return null;
+            }
+            return new DataInputStream(new BufferedInputStream(Files.newInputStream(file), SPILL_BUFFER_BYTES));
+        }
+
+        static Path fileOf(Path prefix, int partition) {
+            return prefix.resolveSibling(prefix.getFileName() + "-" + partition + ".bin");
+        }
+
+        @Override
+        public void close() throws IOException {
+            IOException failure = null;
+            for (DataOutputStream stream : streams) {
+                if (stream == null) {
+                    continue;
+                }
+                try (stream) {
+                    stream.writeBoolean(false);
+                } catch (IOException e) {
+                    failure = e;
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+
+    // Uyuşmazlıklar bulunduğu anda rapora yazılır; bölümler paralel eşleştirildiği için yazma senkronizedir
+    private static final class MismatchWriter implements Closeable {
+        private final BufferedWriter writer;
+        private final Map<MismatchType, LongAdder> counts = new EnumMap<>(MismatchType.class);
+
+        MismatchWriter(Path file) throws IOException {
+            this.writer = Files.newBufferedWriter(file);
+            for (MismatchType type : MismatchType.values()) {
+                counts.put(type, new LongAdder());
+            }
+            writer.write("type,payment_id,provider_transaction_id,provider_value,ledger_value");
+            writer.newLine();
+        }
+
+        synchronized void write(Mismatch mismatch) {
+            counts.get(mismatch.type()).increment();
+            try {
+                writer.write(String.join(",", mismatch.type().name(), csv(mismatch.paymentId()),
+                    csv(mismatch.providerTransactionId()), csv(mismatch.providerValue()), csv(mismatch.ledgerValue())));
+                writer.newLine();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Uzlaştırma raporu yazılamadı", e);
+            }
+        }
+
+        Map<MismatchType, Long> counts() {
+            Map<MismatchType, Long> snapshot = new EnumMap<>(MismatchType.class);
+            counts.forEach((type, count) -> {
+                if (count.sum() > 0) {
+                    snapshot.put(type, count.sum());
+                }
+            });
+            return snapshot;
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+
+        private static String csv(String value) {
+            if (value == null) {
+                return "";
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0) {
+                return value;
+            }
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.denizcan.paymentorchestration.service.reconciliation;
+
+import com.denizcan.paymentorchestration.exception.PaymentValidationException;
+import com.denizcan.paymentorchestration.model.Currency;
+import com.denizcan.paymentorchestration.model.Money;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Uzlaşma dosyasını (CSV: payment_id,provider_transaction_id,amount,currency,status) sabit
+// boyutlu bir tampon üzerinden satır satır okur; dosya ne kadar büyük olursa olsun bellekte
+// sadece tampon ve o anki satır tutulur. Başlık satırı atlanır, bozuk satırlar ayrıca bildirilir.
+final class SettlementFileReader {
+
+    static final String HEADER = "payment_id,provider_transaction_id,amount,currency,status";
+
+    private static final int BUFFER_BYTES = 1 << 20;
+    private static final int MAX_LINE_BYTES = 1 << 12;
+    private static final int FIELDS = 5;
+
+    private SettlementFileReader() {
+    }
+
+    // Okunan geçerli kayıt sayısını döner
+    static long read(Path file, Handler handler) throws IOException {
+        long records = 0;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES);
+            byte[] line = new byte[MAX_LINE_BYTES];
+            int length = 0;
+            long lineNumber = 0;
+            boolean overflow = false;
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    byte b = buffer.get();
+                    if (b == '\n') {
+                        lineNumber++;
+                        records += accept(line, length, overflow, lineNumber, handler);
+                        length = 0;
+                        overflow = false;
+                    } else if (b != '\r') {
+                        if (length < MAX_LINE_BYTES) {
+                            line[length++] = b;
+                        } else {
+                            overflow = true;
+                        }
+                    }
+                }
+                buffer.clear();
+            }
+            if (length > 0 || overflow) {
+                records += accept(line, length, overflow, lineNumber + 1, handler);
+            }
+        }
+        return records;
+    }
+
+    private static int accept(byte[] line, int length, boolean overflow, long lineNumber, Handler handler) {
+        if (length == 0 && !overflow) {
+            return 0;
+        }
+        if (overflow) {
+            handler.malformed(lineNumber, "Satır " + MAX_LINE_BYTES + " bayttan uzun");
+            return 0;
+        }
+        String text = new String(line, 0, length, StandardCharsets.UTF_8);
+        if (lineNumber == 1 && text.equals(HEADER)) {
+            return 0;
+        }
+        String[] fields = text.split(",", -1);
+        if (fields.length != FIELDS || fields[0].isEmpty()) {
+            handler.malformed(lineNumber, "Beklenen " + FIELDS + " alan, gelen: " + fields.length);
+            return 0;
+        }
+        Currency currency = Currency.fromCode(fields[3]);
+        if (currency == null) {
+            handler.malformed(lineNumber, "Desteklenmeyen para birimi: " + fields[3]);
+            return 0;
+        }
+        Money amount;
+        try {
+            amount = Money.of(new BigDecimal(fields[2]), currency);
+        } catch (NumberFormatException | PaymentValidationException e) {
+            handler.malformed(lineNumber, "Geçersiz tutar: " + fields[2]);
+            return 0;
+        }
+        // Sağlayıcılar webhook'ta olduğu gibi SUCCESS/FAILURE bildirir
+        boolean success = "SUCCESS".equals(fields[4]);
+        if (!success && !"FAILURE".equals(fields[4])) {
+            handler.malformed(lineNumber, "Geçersiz durum: " + fields[4]);
+            return 0;
+        }
+        handler.record(new SettlementRecord(fields[0], fields[1], amount, success));
+        return 1;
+    }
+
+    interface Handler {
+        void record(SettlementRecord record);
+
+        void malformed(long lineNumber, String reason);
+    }
+}
@@ -0,0 +1,8 @@
+package com.denizcan.paymentorchestration.service.reconciliation;
+
+import com.denizcan.paymentorchestration.model.Money;
+
+// Sağlayıcının uzlaşma dosyasındaki tek satır. paymentId, ödemeyi sağlayıcıya gönderirken
+// kullandığımız referanstır; providerTransactionId sağlayıcının kendi işlem numarasıdır.
+record SettlementRecord(String paymentId, String providerTransactionId, Money amount, boolean success) {
+}
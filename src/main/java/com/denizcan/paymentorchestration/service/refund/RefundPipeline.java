@@ -0,0 +1,343 @@
+package com.denizcan.paymentorchestration.service.refund;
+
+import com.denizcan.paymentorchestration.config.RefundProperties;
+import com.denizcan.paymentorchestration.exception.RefundBacklogException;
+import com.denizcan.paymentorchestration.factory.PaymentProviderFactory;
+import com.denizcan.paymentorchestration.model.PaymentProvider;
+import com.denizcan.paymentorchestration.model.Refund;
+import com.denizcan.paymentorchestration.model.RefundStatus;
+import com.denizcan.paymentorchestration.repository.PaymentRepository;
+import com.denizcan.paymentorchestration.repository.RefundRepository;
+import com.denizcan.paymentorchestration.service.PaymentCache;
+import com.denizcan.paymentorchestration.service.provider.AsyncPaymentProviderService;
+import com.denizcan.paymentorchestration.service.provider.ProviderConcurrencyLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// İadeler sağlayıcı başına kuyrukta toplanır ve tek istekte gönderilir. Her sağlayıcının
+// kendi thread'i ilk iade geldikten sonra linger kadar bekleyip grubu doldurur; sağlayıcı
+// çağrısı sürerken thread tutulmaz, sonuçlar grup başına tek transaction'da yazılır.
+// Sağlayıcıya ulaşılamazsa ya da sonuç bilinmiyorsa iadeler PENDING kalır ve artan aralıklarla
+// tekrar gönderilir; iade id'si idempotency anahtarı olduğundan tekrar gönderim iki kez iade
+// yapmaz. maxAttempts denemeden sonra iade FAILED_PERMANENT olur ve hattan çıkar.
+// Her iade onu gönderen instance'a kiralanır ve kiralama düzenli olarak uzatılır; kapanan ya da
+// çöken bir instance'ın iadeleri kiralama dolunca diğer instance'lar tarafından devralınır.
+@Slf4j
+@Service
+public class RefundPipeline {
+
+    // Açılışta ve her kontrolde tek sorguda devralınan en fazla iade
+    private static final int CLAIM_PAGE = 1000;
+
+    private final PaymentRepository paymentRepository;
+    private final RefundRepository refundRepository;
+    private final PaymentCache paymentCache;
+    private final PaymentProviderFactory providerFactory;
+    private final ProviderConcurrencyLimiter concurrencyLimiter;
+    private final RefundProperties properties;
+    private final Executor asyncExecutor;
+    private final Map<PaymentProvider, BlockingQueue<Refund>> queues = new EnumMap<>(PaymentProvider.class);
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Set<String> inPipeline = ConcurrentHashMap.newKeySet();
+    private final String owner = UUID.randomUUID().toString();
+    private final List<Thread> dispatchers = new ArrayList<>();
+    private final DistributionSummary batchSizes;
+    private final Counter succeeded;
+    private final Counter failed;
+    private final Counter retried;
+    private final Counter deadLettered;
+    private volatile boolean running;
+
+    public RefundPipeline(
+            PaymentRepository paymentRepository,
+            RefundRepository refundRepository,
+            PaymentCache paymentCache,
+            PaymentProviderFactory providerFactory,
+            ProviderConcurrencyLimiter concurrencyLimiter,
+            RefundProperties properties,
+            @Qualifier("asyncExecutor") Executor asyncExecutor,
+            MeterRegistry meterRegistry) {
+        this.paymentRepository = paymentRepository;
+        this.refundRepository = refundRepository;
+        this.paymentCache = paymentCache;
+        this.providerFactory = providerFactory;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.properties = properties;
+        this.asyncExecutor = asyncExecutor;
+        for (PaymentProvider provider : PaymentProvider.values()) {
+            queues.put(provider, new LinkedBlockingQueue<>());
+        }
+        this.batchSizes = DistributionSummary.builder("payment.refund.batch.size")
+            .description("Sağlayıcıya tek istekte gönderilen iade sayısı")
+            .register(meterRegistry);
+        this.succeeded = Counter.builder("payment.refund.completed")
+            .description("Sağlayıcıdan sonucu gelen iade sayısı")
+            .tag("outcome", "succeeded")
+            .register(meterRegistry);
+        this.failed = Counter.builder("payment.refund.completed")
+            .description("Sağlayıcıdan sonucu gelen iade sayısı")
+            .tag("outcome", "failed")
+            .register(meterRegistry);
+        this.retried = Counter.builder("payment.refund.retries")
+            .description("Sağlayıcıya ulaşılamadığı için tekrar gönderilen iade sayısı")
+            .register(meterRegistry);
+        this.deadLettered = Counter.builder("payment.refund.completed")
+            .description("Sağlayıcıdan sonucu gelen iade sayısı")
+            .tag("outcome", "failed_permanent")
+            .register(meterRegistry);
+        Gauge.builder("payment.refund.pending", pending, AtomicInteger::get)
+            .description("Sağlayıcı sonucu beklenen iade sayısı")
+            .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        maintainLeases();
+
+        running = true;
+        for (PaymentProvider provider : providerFactory.getRegisteredProviders()) {
+            dispatchers.add(Thread.ofPlatform().name("refund-dispatcher-" + provider).daemon()
+                .start(() -> runDispatcher(provider)));
+        }
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        for (Thread dispatcher : dispatchers) {
+            dispatcher.interrupt();
+            dispatcher.join(TimeUnit.SECONDS.toMillis(5));
+        }
+        // Kiralamalar hemen bırakılır; diğer instance'lar süre dolmasını beklemeden devralır
+        try {
+            refundRepository.renewLeases(owner, Instant.now(), RefundStatus.PENDING);
+        } catch (DataAccessException e) {
+            log.warn("İade kiralamaları bırakılamadı, süreleri dolunca devralınacak: {}", e.getMessage());
+        }
+    }
+
+    // Bu instance'ın iadelerinin kiralamasını uzatır, sonra kiralaması dolmuş iadeleri devralır
+    @Scheduled(fixedDelayString = "${payment.refunds.lease-check-interval:PT10S}")
+    public void maintainLeases() {
+        try {
+            refundRepository.renewLeases(owner, leaseUntil(), RefundStatus.PENDING);
+            int claimed = claimExpired();
+            if (claimed > 0) {
+                log.info("Kiralaması dolmuş {} iade devralınıp kuyruğa alındı", claimed);
+            }
+        } catch (DataAccessException e) {
+            log.warn("İade kiralamaları güncellenemedi, tekrar denenecek: {}", e.getMessage());
+        }
+    }
+
+    // Kuyruk sınırı aşılmayacak kadar iade alınır, kalanlar bir sonraki kontrole bırakılır
+    private int claimExpired() {
+        int claimed = 0;
+        while (true) {
+            int free = Math.min(CLAIM_PAGE, properties.getMaxPending() - pending.get());
+            if (free <= 0) {
+                return claimed;
+            }
+            Instant now = Instant.now();
+            List<String> ids = refundRepository.findClaimable(RefundStatus.PENDING, now, PageRequest.ofSize(free));
+            if (!ids.isEmpty() && refundRepository.claim(ids, owner, leaseUntil(), RefundStatus.PENDING, now) > 0) {
+                for (Refund refund : refundRepository.findByIdInAndLeaseOwnerAndStatus(ids, owner, RefundStatus.PENDING)) {
+                    if (submit(refund)) {
+                        claimed++;
+                    }
+                }
+            }
+            if (ids.size() < free) {
+                return claimed;
+            }
+        }
+    }
+
+    // İade veritabanına yazılmadan önce çağrılır; sınır aşılmışsa tutar ödemeden ayrılmaz
+    public void checkCapacity() {
+        if (pending.get() >= properties.getMaxPending()) {
+            throw new RefundBacklogException("İade kuyruğu dolu, istek daha sonra tekrar gönderilmeli");
+        }
+    }
+
+    // Hatta zaten olan iade (ör. kiralaması yenilenemeyip geri alınan) ikinci kez eklenmez
+    public boolean submit(Refund refund) {
+        if (!inPipeline.add(refund.getId())) {
+            return false;
+        }
+        pending.incrementAndGet();
+        queues.get(refund.getProvider()).add(refund);
+        return true;
+    }
+
+    // reserveRefund'a verilen kiralama: iade oluşturulduğu anda bu instance'a aittir
+    public String owner() {
+        return owner;
+    }
+
+    public Instant leaseUntil() {
+        return Instant.now().plus(properties.getLease());
+    }
+
+    public int depth() {
+        return pending.get();
+    }
+
+    private void runDispatcher(PaymentProvider provider) {
+        BlockingQueue<Refund> queue = queues.get(provider);
+        int batchSize = properties.getBatchSize();
+        while (running) {
+            try {
+                Refund first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                List<Refund> batch = new ArrayList<>(batchSize);
+                batch.add(first);
+                long deadline = System.nanoTime() + properties.getLinger().toNanos();
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    Refund next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                send(provider, batch);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private void send(PaymentProvider provider, List<Refund> batch) {
+        batchSizes.record(batch.size());
+        CompletableFuture<List<Boolean>> call;
+        try {
+            AsyncPaymentProviderService service = providerFactory.getAsyncProvider(provider);
+            call = concurrencyLimiter.executeAsyncAwaitingPermit(provider, () -> service.refundBatchAsync(batch));
+        } catch (RuntimeException e) {
+            call = CompletableFuture.failedFuture(e);
+        }
+        call.whenCompleteAsync((outcomes, ex) -> complete(provider, batch, outcomes, ex), asyncExecutor);
+    }
+
+    private void complete(PaymentProvider provider, List<Refund> batch, List<Boolean> outcomes, Throwable ex) {
+        if (ex != null) {
+            log.warn("{} iade {} sağlayıcısına gönderilemedi, tekrar denenecek: {}",
+                batch.size(), provider, unwrap(ex).getMessage());
+            retryLater(provider, batch);
+            return;
+        }
+
+        List<String> accepted = new ArrayList<>();
+        List<String> rejected = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            (outcomes.get(i) ? accepted : rejected).add(batch.get(i).getId());
+        }
+        try {
+            paymentRepository.completeRefunds(accepted, rejected);
+        } catch (RuntimeException e) {
+            // Sağlayıcı sonucu yazılamadı; sağlayıcı sonucu iade id'sine bağladığından tekrar
+            // gönderim aynı sonucu döner
+            log.error("{} iadenin sonucu yazılamadı, tekrar denenecek: {}", batch.size(), e.getMessage());
+            retryLater(provider, batch);
+            return;
+        }
+
+        paymentCache.evictAll(batch.stream().map(Refund::getPaymentId).distinct().toList());
+        release(batch);
+        succeeded.increment(accepted.size());
+        failed.increment(rejected.size());
+    }
+
+    private void retryLater(PaymentProvider provider, List<Refund> batch) {
+        batch.forEach(refund -> refund.setAttempts(refund.getAttempts() + 1));
+        try {
+            refundRepository.incrementAttempts(batch.stream().map(Refund::getId).toList());
+        } catch (RuntimeException e) {
+            // Sayaç bellekte artmaya devam eder, deneme sınırı yine uygulanır
+            log.warn("{} iadenin deneme sayısı yazılamadı: {}", batch.size(), e.getMessage());
+        }
+
+        List<Refund> retry = new ArrayList<>(batch.size());
+        List<Refund> exhausted = new ArrayList<>();
+        for (Refund refund : batch) {
+            (refund.getAttempts() >= properties.getMaxAttempts() ? exhausted : retry).add(refund);
+        }
+        if (!exhausted.isEmpty() && !deadLetter(provider, exhausted)) {
+            retry.addAll(exhausted);
+        }
+        if (retry.isEmpty()) {
+            return;
+        }
+        retried.increment(retry.size());
+        int attempts = retry.stream().mapToInt(Refund::getAttempts).max().orElse(1);
+        CompletableFuture.delayedExecutor(backoff(attempts).toMillis(), TimeUnit.MILLISECONDS)
+            .execute(() -> queues.get(provider).addAll(retry));
+    }
+
+    // Sağlayıcıda gerçekleşmiş olabilecekleri için tutar ödemeye geri verilmez; mutabakat ya da
+    // elle inceleme sonuçlandırır. Yazılamazsa iadeler tekrar denenir ve bir sonraki turda
+    // yeniden işaretlenir.
+    private boolean deadLetter(PaymentProvider provider, List<Refund> refunds) {
+        List<String> ids = refunds.stream().map(Refund::getId).toList();
+        try {
+            paymentRepository.failRefundsPermanently(ids);
+        } catch (RuntimeException e) {
+            log.warn("{} iade kalıcı hataya alınamadı: {}", refunds.size(), e.getMessage());
+            return false;
+        }
+        log.error("{} iade {} denemede {} sağlayıcısına gönderilemedi, kalıcı hataya alındı: {}",
+            refunds.size(), properties.getMaxAttempts(), provider, ids);
+        release(refunds);
+        deadLettered.increment(refunds.size());
+        return true;
+    }
+
+    private void release(List<Refund> refunds) {
+        refunds.forEach(refund -> inPipeline.remove(refund.getId()));
+        pending.addAndGet(-refunds.size());
+    }
+
+    // retryDelay her denemede iki katına çıkar, maxRetryDelay'de sabitlenir
+    Duration backoff(int attempts) {
+        Duration delay = properties.getRetryDelay().multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(properties.getMaxRetryDelay()) > 0 ? properties.getMaxRetryDelay() : delay;
+    }
+
+    private static Throwable unwrap(Throwable ex) {
+        return ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+    }
+}
@@ -0,0 +1,130 @@
+package com.denizcan.paymentorchestration.service.refund;
+
+import com.denizcan.paymentorchestration.config.RefundProperties;
+import com.denizcan.paymentorchestration.exception.PaymentValidationException;
+import com.denizcan.paymentorchestration.factory.PaymentProviderFactory;
+import com.denizcan.paymentorchestration.model.Money;
+import com.denizcan.paymentorchestration.model.Payment;
+import com.denizcan.paymentorchestration.model.PaymentStatus;
+import com.denizcan.paymentorchestration.model.Refund;
+import com.denizcan.paymentorchestration.repository.PaymentRepository;
+import com.denizcan.paymentorchestration.repository.RefundRepository;
+import com.denizcan.paymentorchestration.service.PaymentCache;
+import com.denizcan.paymentorchestration.service.PaymentService;
+import com.denizcan.paymentorchestration.service.PaymentStateMachine;
+import com.denizcan.paymentorchestration.service.PaymentTransitions;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+@Service
+public class RefundService {
+
+    private static final Set<PaymentStatus> REFUNDABLE =
+        EnumSet.of(PaymentStatus.COMPLETED, PaymentStatus.PARTIALLY_REFUNDED);
+
+    private final PaymentService paymentService;
+    private final PaymentRepository paymentRepository;
+    private final RefundRepository refundRepository;
+    private final PaymentCache paymentCache;
+    private final PaymentStateMachine stateMachine;
+    private final PaymentTransitions transitions;
+    private final PaymentProviderFactory providerFactory;
+    private final RefundPipeline pipeline;
+    private final RefundProperties properties;
+    private final Clock clock;
+
+    public RefundService(
+            PaymentService paymentService,
+            PaymentRepository paymentRepository,
+            RefundRepository refundRepository,
+            PaymentCache paymentCache,
+            PaymentStateMachine stateMachine,
+            PaymentTransitions transitions,
+            PaymentProviderFactory providerFactory,
+            RefundPipeline pipeline,
+            RefundProperties properties,
+            Clock clock) {
+        this.paymentService = paymentService;
+        this.paymentRepository = paymentRepository;
+        this.refundRepository = refundRepository;
+        this.paymentCache = paymentCache;
+        this.stateMachine = stateMachine;
+        this.transitions = transitions;
+        this.providerFactory = providerFactory;
+        this.pipeline = pipeline;
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    // Tutar verilmezse kalan tutarın tamamı iade edilir. Tutar okuma ve kilit olmadan tek
+    // koşullu UPDATE ile ayrılır; eşzamanlı iadeler toplamı hiçbir zaman ödeme tutarını aşamaz.
+    // Dönen iade PENDING'dir, sağlayıcı sonucu arka planda yazılır.
+    public Refund requestRefund(String paymentId, BigDecimal amount) {
+        if (amount != null && amount.signum() <= 0) {
+            throw new PaymentValidationException("İade tutarı sıfırdan büyük olmalıdır");
+        }
+        Payment payment = paymentService.getPaymentById(paymentId);
+        rejectClosed(payment);
+        // Desteklenmeyen sağlayıcıda tutar hiç ayrılmadan hata verilir
+        providerFactory.getAsyncProvider(payment.getProvider());
+        pipeline.checkCapacity();
+
+        // Tutar ödemenin para biriminde kabul edilir
+        Money requested = amount != null ? Money.of(amount, payment.getAmount().currency()) : remainingOf(payment);
+        if (!requested.isPositive()) {
+            throw new PaymentValidationException("Ödemenin iade edilebilir tutarı kalmadı");
+        }
+        // Tutar veritabanında ayrılır; ödemenin sonuçlandığı geçiş oraya yazılmış olmalı
+        transitions.awaitProjected(paymentId);
+        Refund refund = paymentRepository.reserveRefund(paymentId, requested, REFUNDABLE,
+            pipeline.owner(), pipeline.leaseUntil());
+        paymentCache.evict(paymentId);
+        if (refund == null) {
+            throw rejection(paymentId, requested);
+        }
+        pipeline.submit(refund);
+        return refund;
+    }
+
+    public List<Refund> getRefunds(String paymentId) {
+        paymentService.getPaymentById(paymentId);
+        return refundRepository.findByPaymentIdOrderByCreatedAtAsc(paymentId);
+    }
+
+    private RuntimeException rejection(String paymentId, Money requested) {
+        Payment current = paymentService.getPaymentById(paymentId);
+        // Ödeme, okunduğu an ile tutarın ayrıldığı an arasında arşive taşınmış olabilir
+        rejectClosed(current);
+        if (!REFUNDABLE.contains(current.getStatus())) {
+            return stateMachine.rejection(current.getStatus(), PaymentStatus.REFUNDED);
+        }
+        Money remaining = remainingOf(current);
+        if (requested.isGreaterThan(remaining)) {
+            return new PaymentValidationException("İade tutarı iade edilebilir tutarı aşıyor, kalan: " + remaining);
+        }
+        // UPDATE anında uygun değildi ama okuduğumuzda tekrar uygun hale gelmiş
+        return new OptimisticLockingFailureException("Ödeme durumu eşzamanlı olarak değişti: " + paymentId);
+    }
+
+    // İade süresi ödemenin oluşturulduğu andan sayılır. Arşiv eşiği bu süreden kısa olamadığı
+    // için arşivdeki ödemelerin süresi de dolmuştur; süre sonradan uzatıldıysa arşivdeki ödeme
+    // salt okunur kalır.
+    private void rejectClosed(Payment payment) {
+        if (!payment.getCreatedAt().plus(properties.getWindow()).isAfter(clock.instant())) {
+            throw new PaymentValidationException("İade süresi dolmuş ödeme iade edilemez: " + payment.getId());
+        }
+        if (payment.isArchived()) {
+            throw new PaymentValidationException("Arşivlenmiş ödeme salt okunurdur, iade edilemez: " + payment.getId());
+        }
+    }
+
+    private static Money remainingOf(Payment payment) {
+        return payment.getAmount().minus(payment.getRefundedAmount());
+    }
+}
@@ -0,0 +1,184 @@
+package com.denizcan.paymentorchestration.service.webhook;
+
+import com.denizcan.paymentorchestration.service.journal.GroupCommit;
+import com.denizcan.paymentorchestration.service.journal.RecordFormat;
+import com.denizcan.paymentorchestration.service.journal.RecordFormat.RecordConsumer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongConsumer;
+
+// Webhook'lar için yalnızca sona eklenen günlük (write-ahead log). Kayıtlar ödeme olay
+// günlüğüyle aynı biçimdedir (bkz. RecordFormat); yarım yazılmış son kayıt açılışta kesilip
+// atılır. Uygulanan kısmın sonu ayrı bir kontrol noktası dosyasında tutulur, açılışta bu
+// noktadan sonraki kayıtlar yeniden oynatılır. Aynı anda gelen eklemeler tek bir fsync'i
+// paylaşır (bkz. GroupCommit).
+@Slf4j
+public class WebhookJournal implements Closeable {
+
+    private static final int MAX_RECORD_BYTES = 1 << 20;
+
+    private final FileChannel wal;
+    private final FileChannel checkpoint;
+    private final FileLock lock;
+    private final boolean fsync;
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final GroupCommit groupCommit;
+    private volatile long written;
+    private long applied;
+
+    public WebhookJournal(Path dir, boolean fsync) throws IOException {
+        Files.createDirectories(dir);
+        this.fsync = fsync;
+        this.wal = FileChannel.open(dir.resolve("webhooks.wal"),
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.checkpoint = FileChannel.open(dir.resolve("webhooks.checkpoint"),
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.lock = wal.tryLock();
+        if (lock == null) {
+            close();
+            throw new IOException("Webhook günlüğü başka bir süreç tarafından kullanılıyor: " + dir);
+        }
+        this.written = wal.size();
+        this.groupCommit = new GroupCommit(written);
+        this.applied = Math.min(readCheckpoint(), written);
+    }
+
+    // Kaydı günlüğe ekler ve diske yazılana kadar bekler. onAppended, kayıt sırası korunsun
+    // diye ekleme kilidi altında kaydın bitiş konumuyla çağrılır.
+    public void append(byte[] payload, LongConsumer onAppended) throws IOException {
+        ByteBuffer record = ByteBuffer.allocate(RecordFormat.sizeOf(payload));
+        RecordFormat.write(record, 0, payload);
+
+        long end;
+        appendLock.lock();
+        try {
+            long position = written;
+            while (record.hasRemaining()) {
+                position += wal.write(record, position);
+            }
+            end = position;
+            written = end;
+            onAppended.accept(end);
+        } finally {
+            appendLock.unlock();
+        }
+
+        if (fsync) {
+            groupCommit.sync(end, () -> {
+                long target = written;
+                wal.force(false);
+                return target;
+            });
+        }
+    }
+
+    // Kontrol noktasından sonraki kayıtları sırayla verir; bozuk ya da yarım kalmış kuyruğu keser
+    public void replay(RecordConsumer consumer) throws IOException {
+        appendLock.lock();
+        try {
+            long position = applied;
+            ByteBuffer header = ByteBuffer.allocate(RecordFormat.HEADER_BYTES);
+            while (position + RecordFormat.HEADER_BYTES <= written) {
+                header.clear();
+                readFully(header, position);
+                int length = RecordFormat.length(header, 0);
+                if (length < 0 || length > MAX_RECORD_BYTES
+                        || position + RecordFormat.HEADER_BYTES + length > written) {
+                    break;
+                }
+                ByteBuffer payload = ByteBuffer.allocate(length);
+                readFully(payload, position + RecordFormat.HEADER_BYTES);
+                if (!RecordFormat.intact(header, 0, payload.array())) {
+                    break;
+                }
+                position += RecordFormat.sizeOf(payload.array());
+                consumer.accept(position, payload.array());
+            }
+            if (position < written) {
+                log.warn("Webhook günlüğünün sonundaki {} bayt yarım kalmış, atılıyor", written - position);
+                wal.truncate(position);
+                wal.force(false);
+                written = position;
+                groupCommit.reset(position);
+            }
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    // offset'e kadar olan kayıtların veritabanına uygulandığını kaydeder. Günlüğün tamamı
+    // uygulanmış ve compactThreshold aşılmışsa günlük sıfırlanır.
+    public void checkpoint(long offset, long compactThreshold) throws IOException {
+        applied = offset;
+        writeCheckpoint(offset);
+        if (offset < compactThreshold) {
+            return;
+        }
+
+        appendLock.lock();
+        try {
+            if (written != offset) {
+                return;
+            }
+            // Önce kontrol noktası sıfırlanır: arada çökülürse günlük baştan oynatılır ve
+            // koşullu UPDATE'ler tekrar uygulanmaz
+            writeCheckpoint(0);
+            wal.truncate(0);
+            wal.force(false);
+            written = 0;
+            groupCommit.reset(0);
+            applied = 0;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    public long size() {
+        return written;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (lock != null && lock.isValid()) {
+                lock.release();
+            }
+        } finally {
+            wal.close();
+            checkpoint.close();
+        }
+    }
+
+    private long readCheckpoint() throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES);
+        checkpoint.read(buffer, 0);
+        return buffer.hasRemaining() ? 0 : buffer.getLong(0);
+    }
+
+    private void writeCheckpoint(long offset) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES).putLong(0, offset);
+        while (buffer.hasRemaining()) {
+            checkpoint.write(buffer, buffer.position());
+        }
+        if (fsync) {
+            checkpoint.force(false);
+        }
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (wal.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Webhook günlüğü beklenenden kısa");
+            }
+        }
+    }
+}
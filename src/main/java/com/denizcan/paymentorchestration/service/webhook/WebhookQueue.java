@@ -0,0 +1,261 @@
+package com.denizcan.paymentorchestration.service.webhook;
+
+import com.denizcan.paymentorchestration.config.WebhookProperties;
+import com.denizcan.paymentorchestration.dto.WebhookRequest;
+import com.denizcan.paymentorchestration.exception.IdempotencyConflictException;
+import com.denizcan.paymentorchestration.exception.WebhookBacklogException;
+import com.denizcan.paymentorchestration.model.PaymentStatus;
+import com.denizcan.paymentorchestration.service.PaymentCache;
+import com.denizcan.paymentorchestration.service.PaymentStateMachine;
+import com.denizcan.paymentorchestration.service.PaymentTransitions;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+// Webhook'lar günlüğe yazılır yazılmaz onaylanır; veritabanına arka plandaki tek bir thread
+// uygular. Biriken webhook'lar ödeme bazında birleştirilir (ilk sonuç kazanır, sonrakiler
+// zaten durum makinesince reddedilirdi) ve hedef durum başına tek koşullu UPDATE ile yazılır.
+// Uygulama sırasında çökülürse kontrol noktasından sonraki kayıtlar açılışta tekrar uygulanır;
+// koşullu UPDATE sayesinde tekrar uygulama ya da sağlayıcının aynı bildirimi tekrar
+// göndermesi durumu değiştirmez. Yine de yakın zamanda görülen sağlayıcı işlem numaraları
+// bellekte tutulur ve tekrar gönderimler günlüğe ve fsync'e hiç ulaşmadan onaylanır.
+@Slf4j
+@Service
+public class WebhookQueue {
+
+    private static final long RETRY_DELAY_MS = 1_000;
+
+    private final PaymentTransitions transitions;
+    private final PaymentCache paymentCache;
+    private final PaymentStateMachine stateMachine;
+    private final ObjectMapper objectMapper;
+    private final WebhookProperties properties;
+    private final BlockingQueue<Entry> pending = new LinkedBlockingQueue<>();
+    private final Counter applied;
+    private final Counter ignored;
+    private final Counter duplicates;
+    // Sağlayıcı işlem numarası -> ilk gelen bildirimin ödemesi ve sonucu
+    private final Cache<String, String> seen;
+    private final Timer applyLatency;
+    private final DistributionSummary batchSizes;
+    private WebhookJournal journal;
+    private Thread applier;
+    private volatile boolean running;
+
+    public WebhookQueue(
+            PaymentTransitions transitions,
+            PaymentCache paymentCache,
+            PaymentStateMachine stateMachine,
+            ObjectMapper objectMapper,
+            WebhookProperties properties,
+            MeterRegistry meterRegistry) {
+        this.transitions = transitions;
+        this.paymentCache = paymentCache;
+        this.stateMachine = stateMachine;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.applied = Counter.builder("payment.webhook.processed")
+            .description("Uygulanan ve durum değiştirmeden atlanan webhook sayısı")
+            .tag("outcome", "applied")
+            .register(meterRegistry);
+        this.ignored = Counter.builder("payment.webhook.processed")
+            .description("Uygulanan ve durum değiştirmeden atlanan webhook sayısı")
+            .tag("outcome", "ignored")
+            .register(meterRegistry);
+        this.duplicates = Counter.builder("payment.webhook.processed")
+            .description("Uygulanan ve durum değiştirmeden atlanan webhook sayısı")
+            .tag("outcome", "duplicate")
+            .register(meterRegistry);
+        this.seen = Caffeine.newBuilder()
+            .maximumSize(properties.getDedupSize())
+            .expireAfterWrite(properties.getDedupTtl())
+            .build();
+        this.applyLatency = Timer.builder("payment.webhook.apply.latency")
+            .description("Webhook onayından veritabanına uygulanmasına kadar geçen süre")
+            .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("payment.webhook.batch.size")
+            .description("Tek turda uygulanan webhook sayısı")
+            .register(meterRegistry);
+        Gauge.builder("payment.webhook.queue.depth", pending, BlockingQueue::size)
+            .description("Uygulanmayı bekleyen webhook sayısı")
+            .register(meterRegistry);
+        Gauge.builder("payment.webhook.queue.lag", this, queue -> queue.oldestAgeSeconds())
+            .description("Uygulanmayı bekleyen en eski webhook'un yaşı (sn)")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() throws IOException {
+        journal = new WebhookJournal(properties.getDir(), properties.isFsync());
+        journal.replay((offset, payload) -> {
+            WebhookRequest request = read(payload);
+            if (request.getProviderTransactionId() != null) {
+                seen.put(request.getProviderTransactionId(), resultOf(request));
+            }
+            pending.add(new Entry(offset, request, System.nanoTime()));
+        });
+        if (!pending.isEmpty()) {
+            log.info("Uygulanmamış {} webhook günlükten yüklendi", pending.size());
+        }
+
+        running = true;
+        applier = Thread.ofPlatform().name("webhook-applier").daemon().start(this::runApplier);
+    }
+
+    @PreDestroy
+    void stop() throws IOException, InterruptedException {
+        running = false;
+        applier.interrupt();
+        applier.join(TimeUnit.SECONDS.toMillis(5));
+        // Uygulanmamış kayıtlar günlükte kalır, açılışta tekrar yüklenir
+        journal.close();
+    }
+
+    // Webhook kalıcı olarak günlüğe yazıldığında true döner. Aynı sağlayıcı işlem numarasıyla
+    // yakın zamanda gelmiş bir bildirim günlüğe yazılmadan false döner; numara aynı sonuç farklıysa
+    // istek çakışma olarak reddedilir.
+    public boolean append(WebhookRequest request) {
+        if (pending.size() >= properties.getMaxPending()) {
+            throw new WebhookBacklogException("Webhook kuyruğu dolu, bildirim daha sonra tekrar gönderilmeli");
+        }
+        String transactionId = request.getProviderTransactionId();
+        if (transactionId != null && !markSeen(transactionId, request)) {
+            duplicates.increment();
+            return false;
+        }
+        boolean journaled = false;
+        try {
+            byte[] payload = objectMapper.writeValueAsBytes(request);
+            long receivedAt = System.nanoTime();
+            journal.append(payload, offset -> pending.add(new Entry(offset, request, receivedAt)));
+            journaled = true;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Webhook günlüğe yazılamadı", e);
+        } finally {
+            // Yazılamayan bildirim hata ile döner; sağlayıcının tekrar gönderimi yok sayılmamalı
+            if (!journaled && transactionId != null) {
+                seen.invalidate(transactionId);
+            }
+        }
+        return true;
+    }
+
+    private boolean markSeen(String transactionId, WebhookRequest request) {
+        String result = resultOf(request);
+        String previous = seen.asMap().putIfAbsent(transactionId, result);
+        if (previous == null) {
+            return true;
+        }
+        if (!previous.equals(result)) {
+            throw new IdempotencyConflictException(
+                "Aynı sağlayıcı işlem numarasıyla farklı bir sonuç gönderildi: " + transactionId);
+        }
+        return false;
+    }
+
+    private static String resultOf(WebhookRequest request) {
+        return request.getPaymentId() + ":" + request.getStatus();
+    }
+
+    public int depth() {
+        return pending.size();
+    }
+
+    private void runApplier() {
+        List<Entry> batch = new ArrayList<>(properties.getBatchSize());
+        while (running) {
+            try {
+                if (batch.isEmpty()) {
+                    Entry first = pending.poll(100, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    pending.drainTo(batch, properties.getBatchSize() - 1);
+                }
+                apply(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException | IOException e) {
+                // Grup bırakılmaz; veritabanı geri gelene kadar aynı grup tekrar denenir
+                log.error("{} webhook uygulanamadı, tekrar denenecek: {}", batch.size(), e.getMessage());
+                try {
+                    Thread.sleep(RETRY_DELAY_MS);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    void apply(List<Entry> batch) throws IOException {
+        Map<String, WebhookRequest> firstByPayment = new LinkedHashMap<>();
+        for (Entry entry : batch) {
+            firstByPayment.putIfAbsent(entry.request().getPaymentId(), entry.request());
+        }
+        List<String> completed = new ArrayList<>();
+        List<String> failed = new ArrayList<>();
+        firstByPayment.forEach((paymentId, request) ->
+            ("SUCCESS".equals(request.getStatus()) ? completed : failed).add(paymentId));
+
+        int updated = transition(completed, PaymentStatus.COMPLETED) + transition(failed, PaymentStatus.FAILED);
+        paymentCache.evictAll(firstByPayment.keySet());
+        journal.checkpoint(batch.get(batch.size() - 1).offset(), properties.getCompactThreshold().toBytes());
+
+        long now = System.nanoTime();
+        for (Entry entry : batch) {
+            applyLatency.record(now - entry.receivedAt(), TimeUnit.NANOSECONDS);
+        }
+        batchSizes.record(batch.size());
+        applied.increment(updated);
+        ignored.increment(batch.size() - updated);
+        if (updated < firstByPayment.size()) {
+            log.debug("{} webhook'tan {} tanesi ödeme bulunamadığı ya da ödeme zaten sonuçlandığı için uygulanmadı",
+                firstByPayment.size(), firstByPayment.size() - updated);
+        }
+    }
+
+    private int transition(List<String> ids, PaymentStatus target) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return transitions.transitionAll(ids, stateMachine.sourcesOf(target), target).size();
+    }
+
+    private double oldestAgeSeconds() {
+        Entry oldest = pending.peek();
+        return oldest == null ? 0 : (System.nanoTime() - oldest.receivedAt()) / 1_000_000_000.0;
+    }
+
+    private WebhookRequest read(byte[] payload) {
+        try {
+            return objectMapper.readValue(payload, WebhookRequest.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Webhook günlük kaydı okunamadı", e);
+        }
+    }
+
+    record Entry(long offset, WebhookRequest request, long receivedAt) {
+    }
+}
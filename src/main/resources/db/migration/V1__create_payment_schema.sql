@@ -0,0 +1,70 @@
+-- Ödeme şeması. Entity eşlemeleriyle aynı olmalı: prod profilinde Hibernate şemayı
+-- değiştirmez, açılışta sadece doğrular (ddl-auto=validate).
+
+create table payment (
+    id                  varchar(255)                not null,
+    amount              bigint                      not null,
+    currency            varchar(3)                  not null,
+    refunded_amount     bigint                      not null,
+    settlement_amount   bigint,
+    settlement_currency varchar(3),
+    status              varchar(255) check (status in ('PENDING','PROCESSING','COMPLETED','FAILED','PARTIALLY_REFUNDED','REFUNDED')),
+    provider            varchar(255) check (provider in ('VISA','MASTERCARD','PARAM','PAPARA','ZIP')),
+    description         varchar(255),
+    version             bigint,
+    created_at          timestamp(6) with time zone not null,
+    primary key (id)
+);
+
+-- Listeleme ve dışa aktarma filtreleri (created_at, id) üzerinden sayfalanır
+create index idx_payment_created_at_id on payment (created_at, id);
+create index idx_payment_status_created_at on payment (status, created_at, id);
+create index idx_payment_provider_created_at on payment (provider, created_at, id);
+create index idx_payment_currency_created_at on payment (currency, created_at, id);
+
+create table refund (
+    id           varchar(255)                not null,
+    payment_id   varchar(255)                not null,
+    provider     varchar(255)                not null check (provider in ('VISA','MASTERCARD','PARAM','PAPARA','ZIP')),
+    amount       bigint                      not null,
+    currency     varchar(3)                  not null,
+    status       varchar(255)                not null check (status in ('PENDING','SUCCEEDED','FAILED')),
+    created_at   timestamp(6) with time zone not null,
+    completed_at timestamp(6) with time zone,
+    primary key (id)
+);
+
+create index idx_refund_payment_id on refund (payment_id, created_at);
+create index idx_refund_status on refund (status);
+
+create sequence payment_event_seq start with 1 increment by 50;
+
+create table payment_event (
+    id              bigint                      not null,
+    sequence_number bigint,
+    payment_id      varchar(255)                not null,
+    type            varchar(255)                not null check (type in ('CREATED','UPDATED','STATUS_CHANGED','DELETED','REFUND_REQUESTED','REFUND_SUCCEEDED','REFUND_FAILED')),
+    status          varchar(255) check (status in ('PENDING','PROCESSING','COMPLETED','FAILED','PARTIALLY_REFUNDED','REFUNDED')),
+    amount          bigint                      not null,
+    currency        varchar(3)                  not null,
+    refunded_amount bigint,
+    provider        varchar(255) check (provider in ('VISA','MASTERCARD','PARAM','PAPARA','ZIP')),
+    refund_id       varchar(255),
+    refund_amount   bigint,
+    refund_currency varchar(3),
+    occurred_at     timestamp(6) with time zone not null,
+    primary key (id),
+    constraint idx_payment_event_sequence_number unique (sequence_number)
+);
+
+create table idempotency_keys (
+    id              varchar(300)                not null,
+    request_hash    varchar(64)                 not null,
+    response_status integer                     not null,
+    response_body   varchar(65535),
+    created_at      timestamp(6) with time zone not null,
+    expires_at      timestamp(6) with time zone not null,
+    primary key (id)
+);
+
+create index idx_idempotency_expires_at on idempotency_keys (expires_at);
@@ -0,0 +1,3 @@
+-- Anahtar, işlem çalışmadan önce yanıtsız (bekleyen) bir kayıtla ayrılır;
+-- yanıt işlem bitince yazılır.
+alter table idempotency_keys alter column response_status drop not null;
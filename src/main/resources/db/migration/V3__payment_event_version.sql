@@ -0,0 +1,5 @@
+-- Olay, yazıldığı değişiklikten sonraki ödeme sürümünü taşır; relay aynı ödemenin
+-- olaylarını id yerine bu sürüme göre numaralar.
+alter table payment_event add column payment_version bigint;
+
+create index idx_payment_event_payment_id on payment_event (payment_id, payment_version);
@@ -0,0 +1,16 @@
+-- İade hattı: başarısız gönderim sayısı, gönderen instance'ın kiralaması ve deneme hakkı
+-- bittiğinde kullanılan FAILED_PERMANENT durumu.
+alter table refund add column attempts integer default 0 not null;
+alter table refund add column lease_owner varchar(64);
+alter table refund add column lease_until timestamp(6) with time zone;
+
+-- Satır içi check kısıtının adı veritabanına göre değiştiği için durum sütunu yeniden kurulur
+alter table refund add column status_new varchar(255);
+update refund set status_new = status;
+alter table refund drop column status;
+alter table refund rename column status_new to status;
+alter table refund alter column status set not null;
+alter table refund add constraint refund_status_check
+    check (status in ('PENDING','SUCCEEDED','FAILED','FAILED_PERMANENT'));
+
+create index idx_refund_status on refund (status, lease_until);
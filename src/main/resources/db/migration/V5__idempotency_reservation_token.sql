@@ -0,0 +1,3 @@
+-- Her rezervasyon kendi token'ını taşır; tamamlama ve serbest bırakma yalnızca bu token'lı
+-- satıra uygulanır. Anahtar süresi dolup başka bir isteğe geçtiyse eski istek ona dokunmaz.
+alter table idempotency_keys add column reservation_token varchar(36);
@@ -0,0 +1,325 @@
+package com.denizcan.paymentorchestration;
+
+import com.denizcan.paymentorchestration.model.Currency;
+import com.denizcan.paymentorchestration.model.Money;
+import com.denizcan.paymentorchestration.model.Payment;
+import com.denizcan.paymentorchestration.model.PaymentProvider;
+import com.denizcan.paymentorchestration.model.PaymentStatus;
+import com.denizcan.paymentorchestration.repository.PaymentRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Uygulamayı simüle sağlayıcılarla ayağa kaldırıp create / process / webhook karışımını
+// sabit bir hızda (açık döngü) gönderir ve uç nokta başına p50/p99/p999, verim ve hata
+// oranını raporlar. Gecikme isteğin planlanan gönderim anından ölçülür; sunucu
+// yavaşladığında gönderim de yavaşlayıp kuyruk gecikmesini gizlemez.
+// Çalıştırmak için: mvn test -Pload-test -Dtest=PaymentLoadHarnessTest
+//   -Dload.rps=300 -Dload.duration=PT60S -Dload.mix=create:50,process:30,webhook:20
+//   -Dload.provider.latency=50ms -Dload.provider.distribution=LOG_NORMAL
+//   -Dload.provider.failure-rate=0.02 -Dload.provider.error-rate=0.01 -Dload.virtual-threads=true
+// Varsayılan hız tek çekirdekli bir CI makinesinde istemci ile sunucunun birlikte
+// kaldırabileceği kadardır; gerçek kapasite ölçümü için yükseltilmelidir.
+// Rapor target/load-report.json dosyasına da yazılır.
+@Slf4j
+@Tag("load")
+class PaymentLoadHarnessTest {
+
+    private static final int RPS = Integer.getInteger("load.rps", 50);
+    private static final Duration WARMUP = Duration.parse(System.getProperty("load.warmup", "PT5S"));
+    private static final Duration DURATION = Duration.parse(System.getProperty("load.duration", "PT20S"));
+    private static final String MIX = System.getProperty("load.mix", "create:50,process:30,webhook:20");
+    private static final boolean VIRTUAL_THREADS = Boolean.getBoolean("load.virtual-threads");
+    private static final String PROVIDER_LATENCY = System.getProperty("load.provider.latency", "50ms");
+    private static final String PROVIDER_DISTRIBUTION = System.getProperty("load.provider.distribution", "LOG_NORMAL");
+    private static final double PROVIDER_FAILURE_RATE = Double.parseDouble(System.getProperty("load.provider.failure-rate", "0.02"));
+    private static final double PROVIDER_ERROR_RATE = Double.parseDouble(System.getProperty("load.provider.error-rate", "0.01"));
+    private static final Path REPORT_FILE = Path.of("target", "load-report.json");
+
+    // Ölçülebilecek en uzun gecikme; daha uzun süren istekler bu değere kırpılır
+    private static final long MAX_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    // Entegrasyonu (simülasyonu) bulunan sağlayıcılar
+    private static final PaymentProvider[] PROVIDERS = {PaymentProvider.PARAM, PaymentProvider.PAPARA};
+
+    private enum Endpoint { CREATE, PROCESS, WEBHOOK }
+
+    @Test
+    void mixedTraffic_AtTargetRate_MeetsThroughputAndErrorBudget() throws IOException {
+        Map<Endpoint, Integer> mix = parseMix(MIX);
+        List<String> args = new ArrayList<>(List.of(
+            "--server.port=0",
+            "--spring.threads.virtual.enabled=" + VIRTUAL_THREADS,
+            "--spring.datasource.url=jdbc:h2:mem:load-harness;DB_CLOSE_DELAY=-1",
+            "--spring.jpa.show-sql=false",
+            "--logging.level.com.denizcan.paymentorchestration.controller=WARN",
+            "--logging.level.com.denizcan.paymentorchestration.service=WARN"));
+        for (PaymentProvider provider : PROVIDERS) {
+            String prefix = "--payment.providers.simulation." + provider + ".";
+            args.add(prefix + "distribution=" + PROVIDER_DISTRIBUTION);
+            args.add(prefix + "latency=" + PROVIDER_LATENCY);
+            args.add(prefix + "failure-rate=" + PROVIDER_FAILURE_RATE);
+            args.add(prefix + "error-rate=" + PROVIDER_ERROR_RATE);
+        }
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(PaymentOrchestrationApplication.class)
+                .run(args.toArray(String[]::new))) {
+
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            LoadRun run = new LoadRun("http://localhost:" + port, mix, context.getBean(PaymentRepository.class));
+
+            // Act
+            run.drive(WARMUP);
+            run.reset();
+            Map<Endpoint, EndpointReport> reports = run.drive(DURATION);
+
+            // Assert
+            logReport(reports);
+            writeReport(reports);
+
+            double achieved = reports.values().stream().mapToDouble(EndpointReport::throughput).sum();
+            assertTrue(achieved >= RPS * 0.9,
+                String.format("Hedef hız %d istek/sn iken %.1f istek/sn gerçekleşti", RPS, achieved));
+            assertEquals(0, reports.get(Endpoint.CREATE).errors(), "Ödeme oluşturma hata vermemeli");
+            assertEquals(0, reports.get(Endpoint.WEBHOOK).errors(), "Webhook işleme hata vermemeli");
+            // Sağlayıcıya ulaşılamayan çağrılar 503 döner; oran simülasyondakini örnekleme
+            // sapmasının (4 standart sapma) ötesinde aşmamalı
+            EndpointReport process = reports.get(Endpoint.PROCESS);
+            double errorBudget = PROVIDER_ERROR_RATE
+                + 4 * Math.sqrt(PROVIDER_ERROR_RATE * (1 - PROVIDER_ERROR_RATE) / Math.max(1, process.requests()))
+                + 0.005;
+            assertTrue(process.errorRate() <= errorBudget,
+                String.format("İşleme hata oranı %%%.2f, üst sınır %%%.2f", process.errorRate() * 100, errorBudget * 100));
+        }
+    }
+
+    // Tek bir ölçüm turu: gönderici thread istekleri planlanan anlarda başlatır,
+    // yanıtlar HttpClient'ın kendi thread'lerinde kaydedilir
+    private static final class LoadRun {
+
+        private final String baseUrl;
+        private final Endpoint[] schedule;
+        private final PaymentRepository repository;
+        private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+        private final Map<Endpoint, Histogram> latencies = new EnumMap<>(Endpoint.class);
+        private final Map<Endpoint, LongAdder> errors = new EnumMap<>(Endpoint.class);
+        // Hataların HTTP durum koduna (ya da istemci istisnasına) göre dağılımı
+        private final Map<Endpoint, Map<String, LongAdder>> errorCauses = new EnumMap<>(Endpoint.class);
+        // Process ve webhook istekleri PENDING ödemeler üzerinde çalışır; önceden oluşturulur
+        private final Map<Endpoint, Queue<String>> pendingPayments = new EnumMap<>(Endpoint.class);
+
+        LoadRun(String baseUrl, Map<Endpoint, Integer> mix, PaymentRepository repository) {
+            this.baseUrl = baseUrl;
+            this.repository = repository;
+            // Ağırlıkları 100 elemanlık bir tabloya açar; seçim tek bir rastgele indeks ile yapılır
+            int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+            List<Endpoint> slots = new ArrayList<>();
+            mix.forEach((endpoint, weight) -> {
+                for (int i = 0; i < Math.round(100.0 * weight / total); i++) {
+                    slots.add(endpoint);
+                }
+            });
+            this.schedule = slots.toArray(Endpoint[]::new);
+            for (Endpoint endpoint : Endpoint.values()) {
+                latencies.put(endpoint, new ConcurrentHistogram(MAX_TRACKABLE_NANOS, 3));
+                errors.put(endpoint, new LongAdder());
+                errorCauses.put(endpoint, new ConcurrentHashMap<>());
+                pendingPayments.put(endpoint, new ConcurrentLinkedQueue<>());
+            }
+        }
+
+        Map<Endpoint, EndpointReport> drive(Duration duration) {
+            long requests = RPS * duration.toSeconds();
+            seed(requests);
+
+            long intervalNanos = TimeUnit.SECONDS.toNanos(1) / RPS;
+            List<CompletableFuture<Void>> inFlight = new ArrayList<>((int) requests);
+            long start = System.nanoTime();
+            for (long i = 0; i < requests; i++) {
+                long intended = start + i * intervalNanos;
+                long wait;
+                while ((wait = intended - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                Endpoint endpoint = schedule[ThreadLocalRandom.current().nextInt(schedule.length)];
+                inFlight.add(send(endpoint, intended));
+            }
+            CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new)).join();
+            double elapsedSeconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+            Map<Endpoint, EndpointReport> reports = new LinkedHashMap<>();
+            for (Endpoint endpoint : Endpoint.values()) {
+                Map<String, Long> causes = new TreeMap<>();
+                errorCauses.get(endpoint).forEach((cause, count) -> causes.put(cause, count.sum()));
+                reports.put(endpoint, EndpointReport.of(latencies.get(endpoint), errors.get(endpoint).sum(), causes, elapsedSeconds));
+            }
+            return reports;
+        }
+
+        void reset() {
+            latencies.values().forEach(Histogram::reset);
+            errors.values().forEach(LongAdder::reset);
+            errorCauses.values().forEach(Map::clear);
+        }
+
+        private CompletableFuture<Void> send(Endpoint endpoint, long intended) {
+            HttpRequest request = switch (endpoint) {
+                case CREATE -> post("/api/payments", """
+                    {"amount": 100.00, "currency": "TRY", "provider": "%s"}""".formatted(randomProvider()));
+                case PROCESS -> post("/api/payments/" + pendingPayments.get(endpoint).poll() + "/process", null);
+                case WEBHOOK -> post("/api/webhooks/payment-result", """
+                    {"paymentId": "%s", "status": "%s", "providerTransactionId": "%s"}""".formatted(
+                        pendingPayments.get(endpoint).poll(),
+                        ThreadLocalRandom.current().nextInt(10) == 0 ? "FAILED" : "SUCCESS",
+                        UUID.randomUUID()));
+            };
+            return client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .handle((response, error) -> {
+                    latencies.get(endpoint).recordValue(Math.min(System.nanoTime() - intended, MAX_TRACKABLE_NANOS));
+                    if (error != null || response.statusCode() >= 400) {
+                        errors.get(endpoint).increment();
+                        String cause = error != null ? error.getClass().getSimpleName() : String.valueOf(response.statusCode());
+                        errorCauses.get(endpoint).computeIfAbsent(cause, key -> new LongAdder()).increment();
+                    }
+                    return null;
+                });
+        }
+
+        private HttpRequest post(String path, String json) {
+            HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30));
+            if (json == null) {
+                return builder.POST(HttpRequest.BodyPublishers.noBody()).build();
+            }
+            return builder.header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+        }
+
+        // Karışımdaki payından biraz fazlası kadar ödeme oluşturur; kuyruk boşalırsa
+        // istek bilinmeyen bir ID ile gider ve hata olarak sayılır
+        private void seed(long requests) {
+            for (Endpoint endpoint : List.of(Endpoint.PROCESS, Endpoint.WEBHOOK)) {
+                long share = requests * slotsOf(endpoint) / schedule.length;
+                int count = (int) (share * 1.2) + 100;
+                List<Payment> payments = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    payments.add(Payment.builder()
+                        .amount(Money.of("100.00", Currency.TRY))
+                        .provider(randomProvider())
+                        .status(PaymentStatus.PENDING)
+                        .build());
+                }
+                Queue<String> queue = pendingPayments.get(endpoint);
+                queue.clear();
+                repository.saveAll(payments).forEach(payment -> queue.add(payment.getId()));
+            }
+        }
+
+        private long slotsOf(Endpoint endpoint) {
+            long slots = 0;
+            for (Endpoint slot : schedule) {
+                if (slot == endpoint) {
+                    slots++;
+                }
+            }
+            return slots;
+        }
+
+        private static PaymentProvider randomProvider() {
+            return PROVIDERS[ThreadLocalRandom.current().nextInt(PROVIDERS.length)];
+        }
+    }
+
+    private record EndpointReport(long requests, long errors, Map<String, Long> errorCauses, double throughput,
+                                  double p50Millis, double p99Millis, double p999Millis, double maxMillis) {
+        static EndpointReport of(Histogram histogram, long errors, Map<String, Long> errorCauses, double elapsedSeconds) {
+            return new EndpointReport(
+                histogram.getTotalCount(),
+                errors,
+                errorCauses,
+                histogram.getTotalCount() / elapsedSeconds,
+                histogram.getValueAtPercentile(50) / 1_000_000.0,
+                histogram.getValueAtPercentile(99) / 1_000_000.0,
+                histogram.getValueAtPercentile(99.9) / 1_000_000.0,
+                histogram.getMaxValue() / 1_000_000.0);
+        }
+
+        double errorRate() {
+            return requests == 0 ? 0 : (double) errors / requests;
+        }
+    }
+
+    private static Map<Endpoint, Integer> parseMix(String mix) {
+        Map<Endpoint, Integer> weights = new EnumMap<>(Endpoint.class);
+        for (String part : mix.split(",")) {
+            String[] pair = part.trim().split(":");
+            weights.put(Endpoint.valueOf(pair[0].trim().toUpperCase()), Integer.parseInt(pair[1].trim()));
+        }
+        return weights;
+    }
+
+    private static void logReport(Map<Endpoint, EndpointReport> reports) {
+        StringBuilder table = new StringBuilder(String.format(
+            "%n%d istek/sn hedef, %s süre, sağlayıcı %s %s%n%-8s %8s %10s %9s %9s %9s %9s %8s%n",
+            RPS, DURATION, PROVIDER_DISTRIBUTION, PROVIDER_LATENCY,
+            "uç nokta", "istek", "istek/sn", "p50 ms", "p99 ms", "p999 ms", "max ms", "hata %"));
+        reports.forEach((endpoint, report) -> table.append(String.format(
+            "%-8s %8d %10.1f %9.2f %9.2f %9.2f %9.2f %8.2f %s%n",
+            endpoint, report.requests(), report.throughput(), report.p50Millis(), report.p99Millis(),
+            report.p999Millis(), report.maxMillis(), report.errorRate() * 100,
+            report.errorCauses().isEmpty() ? "" : report.errorCauses())));
+        log.info("Yük testi sonucu:{}", table);
+    }
+
+    private static void writeReport(Map<Endpoint, EndpointReport> reports) throws IOException {
+        Map<String, Object> document = new LinkedHashMap<>();
+        document.put("targetRps", RPS);
+        document.put("duration", DURATION.toString());
+        document.put("mix", MIX);
+        document.put("provider", Map.of(
+            "distribution", PROVIDER_DISTRIBUTION,
+            "latency", PROVIDER_LATENCY,
+            "failureRate", PROVIDER_FAILURE_RATE,
+            "errorRate", PROVIDER_ERROR_RATE));
+        document.put("endpoints", reports);
+        Files.createDirectories(REPORT_FILE.getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(REPORT_FILE.toFile(), document);
+    }
+}
@@ -0,0 +1,105 @@
+package com.denizcan.paymentorchestration.config;
+
+import com.denizcan.paymentorchestration.PaymentOrchestrationApplication;
+import com.denizcan.paymentorchestration.model.Currency;
+import com.denizcan.paymentorchestration.model.Money;
+import com.denizcan.paymentorchestration.model.Payment;
+import com.denizcan.paymentorchestration.model.PaymentProvider;
+import com.denizcan.paymentorchestration.model.PaymentStatus;
+import com.denizcan.paymentorchestration.repository.PaymentRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Sağlayıcı gecikmesi ParamPaymentService'deki 1 sn iken /process uç noktasına
+// aynı anda yüklenerek iki çalışma modunun verimini karşılaştırır.
+// Çalıştırmak için: mvn test -Pload-test
+@Slf4j
+@Tag("load")
+class ExecutionModeLoadTest {
+
+    private static final int CONCURRENT_REQUESTS = 400;
+    private static final int WARMUP_REQUESTS = 400;
+    // Platform modunda havuz tavanı; sanal thread modunda Tomcat bu değeri kullanmaz.
+    // Küçük tutulması testi kısa tutar, oran tavanla doğru orantılı büyür.
+    private static final int PLATFORM_MAX_THREADS = 20;
+
+    @Test
+    void processPayment_VirtualThreads_OutperformPlatformThreads() {
+        // Act
+        double platformThroughput = measureThroughput(false);
+        double virtualThroughput = measureThroughput(true);
+
+        // Assert
+        log.info("Platform thread verimi: {} istek/sn", String.format("%.1f", platformThroughput));
+        log.info("Sanal thread verimi: {} istek/sn", String.format("%.1f", virtualThroughput));
+        assertTrue(virtualThroughput > platformThroughput * 2,
+            "Sanal thread modu en az iki kat verim sağlamalı");
+    }
+
+    private double measureThroughput(boolean virtualThreads) {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(PaymentOrchestrationApplication.class)
+                .run(
+                    "--server.port=0",
+                    "--server.tomcat.accept-count=" + CONCURRENT_REQUESTS,
+                    "--server.tomcat.threads.max=" + PLATFORM_MAX_THREADS,
+                    "--spring.threads.virtual.enabled=" + virtualThreads,
+                    "--spring.datasource.url=jdbc:h2:mem:load-" + virtualThreads + ";DB_CLOSE_DELAY=-1",
+                    "--spring.jpa.show-sql=false",
+                    "--payment.providers.max-concurrency=" + CONCURRENT_REQUESTS)) {
+
+            PaymentRepository repository = context.getBean(PaymentRepository.class);
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            HttpClient client = HttpClient.newHttpClient();
+
+            // Isınma turu: JIT ve bağlantı havuzu soğukken ölçüm yapılmasın
+            fireProcessRequests(client, port, createPayments(repository, WARMUP_REQUESTS));
+
+            List<String> paymentIds = createPayments(repository, CONCURRENT_REQUESTS);
+            long start = System.nanoTime();
+            long succeeded = fireProcessRequests(client, port, paymentIds);
+            double elapsedSeconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+            assertEquals(paymentIds.size(), succeeded);
+            return paymentIds.size() / elapsedSeconds;
+        }
+    }
+
+    private long fireProcessRequests(HttpClient client, int port, List<String> paymentIds) {
+        List<CompletableFuture<HttpResponse<Void>>> responses = new ArrayList<>(paymentIds.size());
+        for (String id : paymentIds) {
+            HttpRequest request = HttpRequest.newBuilder(
+                    URI.create("http://localhost:" + port + "/api/payments/" + id + "/process"))
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+            responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding()));
+        }
+        CompletableFuture.allOf(responses.toArray(CompletableFuture[]::new)).join();
+        return responses.stream().filter(r -> r.join().statusCode() == 200).count();
+    }
+
+    private List<String> createPayments(PaymentRepository repository, int count) {
+        List<Payment> payments = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            payments.add(Payment.builder()
+                .amount(Money.of("100.00", Currency.TRY))
+                .provider(PaymentProvider.PARAM)
+                .status(PaymentStatus.PENDING)
+                .build());
+        }
+        return repository.saveAll(payments).stream().map(Payment::getId).toList();
+    }
+}
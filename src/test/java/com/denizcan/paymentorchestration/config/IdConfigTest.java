@@ -0,0 +1,31 @@
+package com.denizcan.paymentorchestration.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.core.NestedExceptionUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Üretim profilindeki gibi boş bırakılan düğüm numarasıyla açılışın durduğunu doğrular
+class IdConfigTest {
+
+    private final ApplicationContextRunner runner = new ApplicationContextRunner()
+        .withUserConfiguration(IdConfig.class);
+
+    @Test
+    void constructor_NodeIdEmpty_FailsStartup() {
+        // Act & Assert
+        runner.withPropertyValues("payment.ids.node-id=").run(context -> {
+            Throwable cause = NestedExceptionUtils.getMostSpecificCause(context.getStartupFailure());
+            assertInstanceOf(IllegalStateException.class, cause);
+            assertTrue(cause.getMessage().contains("payment.ids.node-id"));
+        });
+    }
+
+    @Test
+    void constructor_NodeIdGiven_Starts() {
+        // Act & Assert
+        runner.withPropertyValues("payment.ids.node-id=0")
+            .run(context -> assertNull(context.getStartupFailure()));
+    }
+}
@@ -0,0 +1,45 @@
+package com.denizcan.paymentorchestration.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.test.context.ConfigDataApplicationContextInitializer;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Üretim profilinin gerçek properties dosyalarıyla açılıp sürücüyü URL'den seçtiğini doğrular.
+// Havuz bağlantıyı ilk kullanımda açtığı için çalışan bir PostgreSQL gerekmez
+class ProdProfileDataSourceTest {
+
+    private final ApplicationContextRunner runner = new ApplicationContextRunner()
+        .withInitializer(new ConfigDataApplicationContextInitializer())
+        .withConfiguration(AutoConfigurations.of(DataSourceAutoConfiguration.class))
+        .withPropertyValues("spring.profiles.active=prod");
+
+    @Test
+    void dataSource_PostgresUrl_UsesPostgresDriver() {
+        // Act & Assert
+        runner.withPropertyValues("PAYMENT_DB_URL=jdbc:postgresql://localhost:5432/payments?reWriteBatchedInserts=true")
+            .run(context -> {
+                assertNull(context.getStartupFailure());
+                HikariDataSource dataSource = (HikariDataSource) context.getBean(DataSource.class);
+                assertEquals("jdbc:postgresql://localhost:5432/payments?reWriteBatchedInserts=true", dataSource.getJdbcUrl());
+                assertEquals("org.postgresql.Driver", dataSource.getDriverClassName());
+            });
+    }
+
+    @Test
+    void dataSource_NoUrlGiven_FallsBackToH2File() {
+        // Act & Assert
+        runner.run(context -> {
+            assertNull(context.getStartupFailure());
+            HikariDataSource dataSource = (HikariDataSource) context.getBean(DataSource.class);
+            assertTrue(dataSource.getJdbcUrl().startsWith("jdbc:h2:file:"));
+            assertEquals("org.h2.Driver", dataSource.getDriverClassName());
+        });
+    }
+}
@@ -0,0 +1,68 @@
+package com.denizcan.paymentorchestration.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Gerçek uygulama bağlamında bir ödeme oluşturup işler ve Prometheus çıktısında endpoint,
+// sağlayıcı çağrısı, durum geçişi ve executor metriklerinin etiketleriyle yer aldığını doğrular
+@SpringBootTest(properties = "payment.providers.simulation.PARAM.latency=5ms")
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class MetricsEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void prometheus_AfterProcessingPayment_ExposesTaggedHistograms() throws Exception {
+        // Arrange
+        String created = mockMvc.perform(post("/api/payments")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"amount\":10.00,\"currency\":\"USD\",\"provider\":\"PARAM\"}"))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString();
+        JsonNode payment = objectMapper.readTree(created);
+        mockMvc.perform(post("/api/payments/{id}/process", payment.get("id").asText()))
+            .andExpect(status().isOk());
+
+        // Act
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+
+        // Assert
+        assertHasSeries(scrape, "http_server_requests_seconds_bucket{",
+            "uri=\"/api/payments/{id}/process\"", "provider=\"PARAM\"", "currency=\"USD\"");
+        assertHasSeries(scrape, "http_server_requests_seconds_count{",
+            "uri=\"/api/payments\"", "method=\"POST\"", "provider=\"PARAM\"", "currency=\"USD\"");
+        assertHasSeries(scrape, "payment_provider_call_seconds_bucket{",
+            "operation=\"process\"", "provider=\"PARAM\"", "currency=\"USD\"");
+        assertHasSeries(scrape, "payment_transition_seconds_bucket{",
+            "status=\"PROCESSING\"", "provider=\"PARAM\"", "outcome=\"applied\"");
+        assertHasSeries(scrape, "payment_executor_active{", "executor=\"asyncExecutor\"");
+    }
+
+    private static void assertHasSeries(String scrape, String prefix, String... tags) {
+        boolean found = scrape.lines()
+            .filter(line -> line.startsWith(prefix))
+            .anyMatch(line -> Arrays.stream(tags).allMatch(line::contains));
+        assertTrue(found, () -> prefix + " " + String.join(",", tags) + " serisi bulunamadı");
+    }
+}
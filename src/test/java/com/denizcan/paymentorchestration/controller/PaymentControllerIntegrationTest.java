@@ -1,28 +1,53 @@
 package com.denizcan.paymentorchestration.controller;
 
+import com.denizcan.paymentorchestration.config.SecurityConfig;
+import com.denizcan.paymentorchestration.dto.BatchItemResult;
+import com.denizcan.paymentorchestration.dto.BatchPaymentRequest;
+import com.denizcan.paymentorchestration.dto.BatchProcessRequest;
+import com.denizcan.paymentorchestration.dto.IdempotentResponse;
+import com.denizcan.paymentorchestration.dto.PaymentFilter;
+import com.denizcan.paymentorchestration.dto.PaymentPage;
 import com.denizcan.paymentorchestration.dto.PaymentRequest;
+import com.denizcan.paymentorchestration.dto.PaymentStatusView;
+import com.denizcan.paymentorchestration.exception.PaymentValidationException;
+import com.denizcan.paymentorchestration.model.Currency;
+import com.denizcan.paymentorchestration.model.IdempotencyScope;
+import com.denizcan.paymentorchestration.model.Money;
 import com.denizcan.paymentorchestration.model.Payment;
 import com.denizcan.paymentorchestration.model.PaymentProvider;
 import com.denizcan.paymentorchestration.model.PaymentStatus;
+import com.denizcan.paymentorchestration.service.BatchPaymentService;
+import com.denizcan.paymentorchestration.service.BatchResultSink;
+import com.denizcan.paymentorchestration.service.IdempotencyService;
 import com.denizcan.paymentorchestration.service.PaymentService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
-import org.mockito.Mock;
+import org.springframework.test.web.servlet.MvcResult;
 
-import java.math.BigDecimal;
+import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(PaymentController.class)
-@Import({PaymentService.class})
+@Import(SecurityConfig.class)
 class PaymentControllerIntegrationTest {
 
     @Autowired
@@ -31,15 +56,20 @@ class PaymentControllerIntegrationTest {
     @Autowired
     private ObjectMapper objectMapper;
 
-    @Mock
+    @MockBean
     private PaymentService paymentService;
 
+    @MockBean
+    private BatchPaymentService batchPaymentService;
+
+    @MockBean
+    private IdempotencyService idempotencyService;
+
     @Test
     void createPayment_ValidRequest_ReturnsCreated() throws Exception {
         // Arrange
         PaymentRequest request = PaymentRequest.builder()
-            .amount(new BigDecimal("100.00"))
-            .currency("TRY")
+            .amount(Money.of("100.00", Currency.TRY))
             .provider(PaymentProvider.PARAM)
             .description("Test ödeme")
             .build();
@@ -47,7 +77,6 @@ class PaymentControllerIntegrationTest {
         Payment expectedPayment = Payment.builder()
             .id("test-id")
             .amount(request.getAmount())
-            .currency(request.getCurrency())
             .provider(request.getProvider())
             .description(request.getDescription())
             .status(PaymentStatus.PENDING)
@@ -61,7 +90,8 @@ class PaymentControllerIntegrationTest {
                 .content(objectMapper.writeValueAsString(request)))
             .andExpect(status().isCreated())
             .andExpect(jsonPath("$.id").value(expectedPayment.getId()))
-            .andExpect(jsonPath("$.amount").value(expectedPayment.getAmount().doubleValue()))
+            .andExpect(jsonPath("$.amount").value(expectedPayment.getAmount().toDecimal().doubleValue()))
+            .andExpect(jsonPath("$.currency").value("TRY"))
             .andExpect(jsonPath("$.status").value(expectedPayment.getStatus().toString()));
     }
 
@@ -71,8 +101,7 @@ class PaymentControllerIntegrationTest {
         String paymentId = "test-id";
         Payment processedPayment = Payment.builder()
             .id(paymentId)
-            .amount(new BigDecimal("100.00"))
-            .currency("TRY")
+            .amount(Money.of("100.00", Currency.TRY))
             .provider(PaymentProvider.PARAM)
             .status(PaymentStatus.COMPLETED)
             .build();
@@ -86,6 +115,21 @@ class PaymentControllerIntegrationTest {
             .andExpect(jsonPath("$.status").value(PaymentStatus.COMPLETED.toString()));
     }
 
+    @Test
+    void getPaymentStatus_ValidId_ReturnsFlatAmountAndVersion() throws Exception {
+        // Arrange
+        when(paymentService.getPaymentStatus("test-id")).thenReturn(new PaymentStatusView("test-id",
+            PaymentStatus.PROCESSING, PaymentProvider.PARAM, Money.of("100.00", Currency.TRY), 3));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/payments/{id}/status", "test-id"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.status").value("PROCESSING"))
+            .andExpect(jsonPath("$.amount").value(100.00))
+            .andExpect(jsonPath("$.currency").value("TRY"))
+            .andExpect(jsonPath("$.version").value(3));
+    }
+
     @Test
     void processPaymentAsync_ValidId_ReturnsOk() throws Exception {
         // Arrange
@@ -99,9 +143,144 @@ class PaymentControllerIntegrationTest {
             .thenReturn(java.util.concurrent.CompletableFuture.completedFuture(processedPayment));
 
         // Act & Assert
-        mockMvc.perform(post("/api/payments/{id}/process-async", paymentId))
+        MvcResult result = mockMvc.perform(post("/api/payments/{id}/process-async", paymentId))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
             .andExpect(status().isOk())
             .andExpect(jsonPath("$.id").value(paymentId))
             .andExpect(jsonPath("$.status").value(PaymentStatus.PROCESSING.toString()));
     }
-} 
\ No newline at end of file
+
+    @Test
+    void createPayments_Batch_StreamsNdjsonResults() throws Exception {
+        // Arrange
+        PaymentRequest item = PaymentRequest.builder()
+            .amount(Money.of("100.00", Currency.TRY))
+            .provider(PaymentProvider.PARAM)
+            .build();
+        BatchPaymentRequest request = new BatchPaymentRequest(List.of(item, item));
+
+        doAnswer(invocation -> {
+            BatchResultSink sink = invocation.getArgument(1);
+            sink.accept(BatchItemResult.success(0, "id-1", PaymentStatus.PENDING));
+            sink.accept(BatchItemResult.failure(1, null, "Desteklenmeyen para birimi"));
+            sink.flush();
+            return null;
+        }).when(batchPaymentService).createPayments(anyList(), any(BatchResultSink.class));
+
+        // Act
+        MvcResult result = mockMvc.perform(post("/api/payments/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        // Assert
+        String body = mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+            .andReturn().getResponse().getContentAsString();
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("id-1", objectMapper.readValue(lines[0], BatchItemResult.class).getPaymentId());
+        assertEquals(1, objectMapper.readValue(lines[1], BatchItemResult.class).getIndex());
+    }
+
+    @Test
+    void processPayments_TooManyItems_ReturnsBadRequest() throws Exception {
+        // Arrange
+        BatchProcessRequest request = new BatchProcessRequest(List.of("a", "b"));
+        doThrow(new PaymentValidationException("Toplu istek en fazla 1 kalem içerebilir"))
+            .when(batchPaymentService).validateBatchSize(anyInt());
+
+        // Act & Assert
+        mockMvc.perform(post("/api/payments/batch/process")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void createPayments_EmptyBatch_ReturnsBadRequest() throws Exception {
+        // Act & Assert
+        mockMvc.perform(post("/api/payments/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new BatchPaymentRequest(List.of()))))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getPayments_WithFilters_ReturnsPage() throws Exception {
+        // Arrange
+        Payment payment = Payment.builder()
+            .id("test-id")
+            .status(PaymentStatus.PENDING)
+            .build();
+        when(paymentService.getPayments(any(PaymentFilter.class), eq("abc"), eq(20)))
+            .thenReturn(new PaymentPage(List.of(payment), "next"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/payments")
+                .param("status", "PENDING")
+                .param("provider", "PARAM")
+                .param("createdFrom", "2026-01-01T00:00:00Z")
+                .param("cursor", "abc")
+                .param("limit", "20"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.items[0].id").value("test-id"))
+            .andExpect(jsonPath("$.nextCursor").value("next"));
+
+        verify(paymentService).getPayments(argThat(filter ->
+            filter.getStatus() == PaymentStatus.PENDING
+                && filter.getProvider() == PaymentProvider.PARAM
+                && filter.getCreatedFrom() != null), eq("abc"), eq(20));
+    }
+
+    @Test
+    void exportPayments_StreamsOneLinePerPayment() throws Exception {
+        // Arrange
+        when(paymentService.exportPayments(any(PaymentFilter.class), any())).thenAnswer(invocation -> {
+            java.util.function.Consumer<Payment> consumer = invocation.getArgument(1);
+            consumer.accept(Payment.builder().id("a").build());
+            consumer.accept(Payment.builder().id("b").build());
+            return 2L;
+        });
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/payments/export").param("currency", "TRY"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        // Assert
+        String body = mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+            .andReturn().getResponse().getContentAsString();
+        assertEquals(2, body.split("\n").length);
+    }
+
+    @Test
+    void createPayment_ReplayedIdempotencyKey_ReturnsStoredResponse() throws Exception {
+        // Arrange
+        PaymentRequest request = PaymentRequest.builder()
+            .amount(Money.of("100.00", Currency.TRY))
+            .provider(PaymentProvider.PARAM)
+            .build();
+
+        when(idempotencyService.execute(eq(IdempotencyScope.PAYMENT_CREATE), eq("key-1"), any(), any(), any()))
+            .thenReturn(new IdempotentResponse(201, "{\"id\":\"test-id\",\"status\":\"PENDING\"}", true));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/payments")
+                .header("Idempotency-Key", "key-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+            .andExpect(status().isCreated())
+            .andExpect(header().string("Idempotent-Replayed", "true"))
+            .andExpect(jsonPath("$.id").value("test-id"));
+
+        verify(paymentService, never()).createPayment(any());
+    }
+}
@@ -0,0 +1,118 @@
+package com.denizcan.paymentorchestration.controller;
+
+import com.denizcan.paymentorchestration.config.EventConfig;
+import com.denizcan.paymentorchestration.config.MetricsConfig;
+import com.denizcan.paymentorchestration.config.SecurityConfig;
+import com.denizcan.paymentorchestration.model.PaymentEvent;
+import com.denizcan.paymentorchestration.model.PaymentEventType;
+import com.denizcan.paymentorchestration.model.PaymentStatus;
+import com.denizcan.paymentorchestration.service.event.PaymentEventStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@AutoConfigureObservability
+@WebMvcTest(PaymentEventController.class)
+@Import({SecurityConfig.class, EventConfig.class, MetricsConfig.class})
+class PaymentEventControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private PaymentEventStream eventStream;
+
+    // Abone thread'i mock'a son çağrısını yaptığında açılır. Mockito, başka bir thread mock'u
+    // çağırırken doğrulama yapılmasını desteklemez; doğrulamalar bu kapıdan sonra yapılır.
+    private final CountDownLatch senderDone = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(eventStream.readAfter(anyLong(), anyInt())).thenReturn(List.of());
+        // Gönderilecek olay kalmayınca abone thread'i sonlansın
+        when(eventStream.awaitAfter(anyLong(), any(Duration.class))).thenAnswer(invocation -> {
+            senderDone.countDown();
+            throw new InterruptedException();
+        });
+    }
+
+    @Test
+    void subscribe_AfterOffset_StreamsEventsWithSequenceIds() throws Exception {
+        // Arrange
+        when(eventStream.readAfter(0L, 500)).thenReturn(List.of(
+            event(1, PaymentEventType.CREATED, PaymentStatus.PENDING),
+            event(2, PaymentEventType.STATUS_CHANGED, PaymentStatus.COMPLETED)));
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/payments/events").param("after", "0")
+                .accept(MediaType.TEXT_EVENT_STREAM))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        assertTrue(senderDone.await(2, TimeUnit.SECONDS));
+        verify(eventStream).awaitAfter(eq(2L), any(Duration.class));
+
+        // Assert
+        String body = result.getResponse().getContentAsString();
+        assertTrue(body.contains("id:1\nevent:CREATED\n"), body);
+        assertTrue(body.contains("id:2\nevent:STATUS_CHANGED\n"), body);
+        assertTrue(body.contains("\"status\":\"COMPLETED\""), body);
+    }
+
+    @Test
+    void subscribe_LastEventIdHeader_ResumesAfterThatSequence() throws Exception {
+        // Act
+        mockMvc.perform(get("/api/payments/events").param("after", "0")
+                .header("Last-Event-ID", "7")
+                .accept(MediaType.TEXT_EVENT_STREAM))
+            .andExpect(request().asyncStarted());
+
+        // Assert
+        assertTrue(senderDone.await(2, TimeUnit.SECONDS));
+        verify(eventStream).readAfter(7L, 500);
+    }
+
+    @Test
+    void subscribe_WithoutOffset_StartsFromCurrentHead() throws Exception {
+        // Arrange
+        when(eventStream.head()).thenReturn(42L);
+
+        // Act
+        mockMvc.perform(get("/api/payments/events").accept(MediaType.TEXT_EVENT_STREAM))
+            .andExpect(request().asyncStarted());
+
+        // Assert
+        assertTrue(senderDone.await(2, TimeUnit.SECONDS));
+        verify(eventStream).readAfter(42L, 500);
+    }
+
+    private static PaymentEvent event(long sequence, PaymentEventType type, PaymentStatus status) {
+        return PaymentEvent.builder()
+            .sequenceNumber(sequence)
+            .paymentId("p-1")
+            .type(type)
+            .status(status)
+            .build();
+    }
+}
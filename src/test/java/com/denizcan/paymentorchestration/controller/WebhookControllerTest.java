@@ -1,27 +1,32 @@
 package com.denizcan.paymentorchestration.controller;
 
+import com.denizcan.paymentorchestration.config.SecurityConfig;
 import com.denizcan.paymentorchestration.dto.WebhookRequest;
-import com.denizcan.paymentorchestration.model.Payment;
-import com.denizcan.paymentorchestration.model.PaymentStatus;
-import com.denizcan.paymentorchestration.service.PaymentService;
+import com.denizcan.paymentorchestration.exception.IdempotencyConflictException;
+import com.denizcan.paymentorchestration.exception.WebhookBacklogException;
+import com.denizcan.paymentorchestration.model.Currency;
+import com.denizcan.paymentorchestration.model.Money;
+import com.denizcan.paymentorchestration.service.webhook.WebhookQueue;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
-import org.mockito.Mock;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
 
-import java.math.BigDecimal;
 
-import static org.mockito.ArgumentMatchers.anyString;
-import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(WebhookController.class)
-@Import({PaymentService.class})
+@Import(SecurityConfig.class)
 class WebhookControllerTest {
 
     @Autowired
@@ -30,8 +35,8 @@ class WebhookControllerTest {
     @Autowired
     private ObjectMapper objectMapper;
 
-    @Mock
-    private PaymentService paymentService;
+    @MockBean
+    private WebhookQueue webhookQueue;
 
     @Test
     void handlePaymentResult_SuccessStatus_ReturnsOk() throws Exception {
@@ -39,21 +44,16 @@ class WebhookControllerTest {
         WebhookRequest request = new WebhookRequest();
         request.setPaymentId("test-id");
         request.setStatus("SUCCESS");
-        request.setAmount(new BigDecimal("100.00"));
-        request.setCurrency("TRY");
-
-        Payment completedPayment = Payment.builder()
-            .id(request.getPaymentId())
-            .status(PaymentStatus.COMPLETED)
-            .build();
-
-        when(paymentService.completePayment(anyString())).thenReturn(completedPayment);
+        request.setAmount(Money.of("100.00", Currency.TRY));
 
         // Act & Assert
         mockMvc.perform(post("/api/webhooks/payment-result")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(request)))
             .andExpect(status().isOk());
+
+        verify(webhookQueue).append(argThat(queued ->
+            "test-id".equals(queued.getPaymentId()) && "SUCCESS".equals(queued.getStatus())));
     }
 
     @Test
@@ -65,18 +65,13 @@ class WebhookControllerTest {
         request.setErrorCode("ERROR_001");
         request.setErrorMessage("İşlem başarısız");
 
-        Payment failedPayment = Payment.builder()
-            .id(request.getPaymentId())
-            .status(PaymentStatus.FAILED)
-            .build();
-
-        when(paymentService.failPayment(anyString())).thenReturn(failedPayment);
-
         // Act & Assert
         mockMvc.perform(post("/api/webhooks/payment-result")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(request)))
             .andExpect(status().isOk());
+
+        verify(webhookQueue).append(argThat(queued -> "FAILURE".equals(queued.getStatus())));
     }
 
     @Test
@@ -90,5 +85,43 @@ class WebhookControllerTest {
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(request)))
             .andExpect(status().isBadRequest());
+
+        verify(webhookQueue, never()).append(any());
+    }
+
+    @Test
+    void handlePaymentResult_SameTransactionIdDifferentResult_ReturnsConflict() throws Exception {
+        // Arrange
+        WebhookRequest request = new WebhookRequest();
+        request.setPaymentId("test-id");
+        request.setStatus("FAILURE");
+        request.setProviderTransactionId("txn-1");
+
+        doThrow(new IdempotencyConflictException("Aynı sağlayıcı işlem numarasıyla farklı bir sonuç gönderildi"))
+            .when(webhookQueue).append(any());
+
+        // Act & Assert
+        mockMvc.perform(post("/api/webhooks/payment-result")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+            .andExpect(status().isConflict());
+    }
+
+    @Test
+    void handlePaymentResult_QueueFull_ReturnsServiceUnavailable() throws Exception {
+        // Arrange
+        WebhookRequest request = new WebhookRequest();
+        request.setPaymentId("test-id");
+        request.setStatus("SUCCESS");
+        request.setProviderTransactionId("txn-1");
+
+        doThrow(new WebhookBacklogException("Webhook kuyruğu dolu"))
+            .when(webhookQueue).append(any());
+
+        // Act & Assert
+        mockMvc.perform(post("/api/webhooks/payment-result")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+            .andExpect(status().isServiceUnavailable());
     }
-} 
\ No newline at end of file
+}
@@ -1,9 +1,14 @@
 package com.denizcan.paymentorchestration.factory;
 
+import com.denizcan.paymentorchestration.model.Currency;
+import com.denizcan.paymentorchestration.model.Money;
+import com.denizcan.paymentorchestration.model.Payment;
 import com.denizcan.paymentorchestration.model.PaymentProvider;
+import com.denizcan.paymentorchestration.service.PaymentMetrics;
 import com.denizcan.paymentorchestration.service.provider.ParamPaymentService;
 import com.denizcan.paymentorchestration.service.provider.PaparaPaymentService;
 import com.denizcan.paymentorchestration.service.provider.PaymentProviderService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -13,6 +18,8 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.util.Arrays;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class PaymentProviderFactoryTest {
@@ -23,31 +30,45 @@ class PaymentProviderFactoryTest {
     @Mock
     private PaparaPaymentService paparaPaymentService;
 
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PaymentMetrics metrics = new PaymentMetrics(meterRegistry);
     private PaymentProviderFactory factory;
 
     @BeforeEach
     void setUp() {
-        factory = new PaymentProviderFactory(Arrays.asList(paramPaymentService, paparaPaymentService));
+        factory = new PaymentProviderFactory(Arrays.asList(paramPaymentService, paparaPaymentService), metrics);
     }
 
     @Test
-    void getProvider_ParamProvider_ReturnsParamService() {
+    void getProvider_ParamProvider_DelegatesToParamServiceAndRecordsCall() {
+        // Arrange
+        Payment payment = Payment.builder().id("test-id").amount(Money.of("10.00", Currency.USD)).build();
+        when(paramPaymentService.processPayment(payment)).thenReturn(false);
+
         // Act
-        PaymentProviderService provider = factory.getProvider(PaymentProvider.PARAM);
+        boolean approved = factory.getProvider(PaymentProvider.PARAM).processPayment(payment);
 
         // Assert
-        assertNotNull(provider);
-        assertTrue(provider instanceof ParamPaymentService);
+        assertFalse(approved);
+        verify(paramPaymentService).processPayment(payment);
+        assertEquals(1, meterRegistry.get("payment.provider.call")
+            .tags("operation", "process", "provider", "PARAM", "currency", "USD", "outcome", "declined")
+            .timer().count());
     }
 
     @Test
-    void getProvider_PaparaProvider_ReturnsPaparaService() {
+    void getProvider_PaparaProvider_DelegatesToPaparaService() {
+        // Arrange
+        Payment payment = Payment.builder().id("test-id").amount(Money.of("10.00", Currency.TRY)).build();
+        when(paparaPaymentService.refundPayment(payment)).thenReturn(true);
+
         // Act
         PaymentProviderService provider = factory.getProvider(PaymentProvider.PAPARA);
 
         // Assert
         assertNotNull(provider);
-        assertTrue(provider instanceof PaparaPaymentService);
+        assertTrue(provider.refundPayment(payment));
+        verify(paparaPaymentService).refundPayment(payment);
     }
 
     @Test
@@ -60,7 +81,7 @@ class PaymentProviderFactoryTest {
     void constructor_WithValidProviders_InitializesSuccessfully() {
         // Act
         PaymentProviderFactory newFactory = new PaymentProviderFactory(
-            Arrays.asList(paramPaymentService, paparaPaymentService)
+            Arrays.asList(paramPaymentService, paparaPaymentService), metrics
         );
 
         // Assert
@@ -84,7 +105,7 @@ class PaymentProviderFactoryTest {
 
         // Act & Assert
         assertThrows(IllegalArgumentException.class, () -> 
-            new PaymentProviderFactory(Arrays.asList(invalidProvider))
+            new PaymentProviderFactory(Arrays.asList(invalidProvider), metrics)
         );
     }
 } 
\ No newline at end of file
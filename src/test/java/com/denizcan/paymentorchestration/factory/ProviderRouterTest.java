@@ -0,0 +1,205 @@
+package com.denizcan.paymentorchestration.factory;
+
+import com.denizcan.paymentorchestration.config.ProviderProperties;
+import com.denizcan.paymentorchestration.config.RoutingProperties;
+import com.denizcan.paymentorchestration.exception.PaymentValidationException;
+import com.denizcan.paymentorchestration.model.Currency;
+import com.denizcan.paymentorchestration.model.Money;
+import com.denizcan.paymentorchestration.model.PaymentProvider;
+import com.denizcan.paymentorchestration.service.PaymentMetrics;
+import com.denizcan.paymentorchestration.service.provider.PaparaPaymentService;
+import com.denizcan.paymentorchestration.service.provider.ParamPaymentService;
+import com.denizcan.paymentorchestration.service.provider.ProviderCircuitBreaker;
+import com.denizcan.paymentorchestration.service.provider.ProviderStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProviderRouterTest {
+
+    private static final Money AMOUNT = Money.of("100.00", Currency.TRY);
+
+    @Mock
+    private ParamPaymentService paramPaymentService;
+
+    @Mock
+    private PaparaPaymentService paparaPaymentService;
+
+    private final RoutingProperties properties = new RoutingProperties();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ProviderStats stats;
+    private ProviderCircuitBreaker circuitBreaker;
+    private PaymentProviderFactory factory;
+
+    @BeforeEach
+    void setUp() {
+        Clock clock = Clock.fixed(Instant.parse("2024-01-01T00:00:00Z"), ZoneOffset.UTC);
+        stats = new ProviderStats(properties, clock);
+        circuitBreaker = new ProviderCircuitBreaker(new ProviderProperties(), clock, meterRegistry);
+        factory = new PaymentProviderFactory(List.of(paramPaymentService, paparaPaymentService),
+            new PaymentMetrics(meterRegistry));
+    }
+
+    @Test
+    void route_CurrencyAndAmountRules_OnlyEligibleProviderChosen() {
+        // Arrange
+        RoutingProperties.Route paparaRoute = new RoutingProperties.Route();
+        paparaRoute.setCurrencies(Set.of(Currency.TRY));
+        paparaRoute.setMaxAmount(new BigDecimal("1000"));
+        properties.getProviders().put(PaymentProvider.PAPARA, paparaRoute);
+        ProviderRouter router = new ProviderRouter(factory, stats, circuitBreaker, properties, meterRegistry);
+
+        // Act & Assert
+        for (int i = 0; i < 100; i++) {
+            assertEquals(PaymentProvider.PARAM, router.route(Money.of("100.00", Currency.USD)));
+            assertEquals(PaymentProvider.PARAM, router.route(Money.of("5000.00", Currency.TRY)));
+        }
+    }
+
+    @Test
+    void route_NoEligibleProvider_ThrowsValidationException() {
+        // Arrange
+        RoutingProperties.Route disabled = new RoutingProperties.Route();
+        disabled.setWeight(0);
+        properties.getProviders().put(PaymentProvider.PARAM, disabled);
+        properties.getProviders().put(PaymentProvider.PAPARA, disabled);
+        ProviderRouter router = new ProviderRouter(factory, stats, circuitBreaker, properties, meterRegistry);
+
+        // Act & Assert
+        assertThrows(PaymentValidationException.class, () -> router.route(AMOUNT));
+    }
+
+    @Test
+    void route_CircuitOpen_FailsOverToOtherProvider() {
+        // Arrange
+        ProviderRouter router = new ProviderRouter(factory, stats, circuitBreaker, properties, meterRegistry);
+        for (int i = 0; i < 20; i++) {
+            circuitBreaker.onResult(PaymentProvider.PAPARA, TimeUnit.MILLISECONDS.toNanos(10), true);
+        }
+
+        // Act & Assert
+        assertEquals(ProviderCircuitBreaker.State.OPEN, circuitBreaker.getState(PaymentProvider.PAPARA));
+        for (int i = 0; i < 100; i++) {
+            assertEquals(PaymentProvider.PARAM, router.route(AMOUNT));
+        }
+    }
+
+    @Test
+    void route_CircuitOpensDuringSelection_ChoosesFromFirstEvaluation() {
+        // Arrange
+        // İlk değerlendirilen sağlayıcı uygun, sonraki her kontrolde devre açık görünür
+        ProviderCircuitBreaker flipping = mock(ProviderCircuitBreaker.class);
+        when(flipping.isCallPermitted(any())).thenReturn(true, false);
+        ProviderRouter router = new ProviderRouter(factory, stats, flipping, properties, meterRegistry);
+
+        // Act
+        PaymentProvider chosen = router.route(AMOUNT);
+
+        // Assert
+        assertTrue(factory.getRegisteredProviders().contains(chosen));
+        verify(flipping, times(factory.getRegisteredProviders().size())).isCallPermitted(any());
+    }
+
+    @Test
+    void refresh_RecordedCalls_ExposesRoutingMetrics() {
+        // Arrange
+        ProviderRouter router = new ProviderRouter(factory, stats, circuitBreaker, properties, meterRegistry);
+        for (int i = 0; i < properties.getMinSamples(); i++) {
+            stats.record(PaymentProvider.PAPARA, TimeUnit.MILLISECONDS.toNanos(100), i % 2 == 0);
+        }
+
+        // Act
+        router.refresh();
+        router.route(AMOUNT);
+
+        // Assert
+        assertEquals(0.5, meterRegistry.get("payment.routing.success.ratio")
+            .tag("provider", "PAPARA").gauge().value(), 1e-9);
+        assertEquals(0.1, meterRegistry.get("payment.routing.latency.p99")
+            .tag("provider", "PAPARA").gauge().value(), 0.1 / 8);
+        assertTrue(meterRegistry.get("payment.routing.score").tag("provider", "PARAM").gauge().value()
+            > meterRegistry.get("payment.routing.score").tag("provider", "PAPARA").gauge().value());
+        assertEquals(1, meterRegistry.get("payment.routing.decisions").counters().stream()
+            .mapToDouble(counter -> counter.count()).sum());
+    }
+
+    // Papara bozulduğunda (gecikme 8 kat, %10 hata) sabit 50/50 dağıtım ile yönlendirme
+    // motorunun ödeme gecikmesi p95'ini karşılaştırır. Skorlar gerçek çalışmadaki
+    // saniyelik yenileme yerine her 100 ödemede bir yenilenir. Taban pay (minShare) bozuk
+    // sağlayıcıya trafiğin %1'inden fazlasını gönderdiği için p99 onun gecikmesine düşer;
+    // payı %5'in altında kalan sağlayıcı p95'i belirleyemez.
+    @Test
+    void route_OneProviderDegrades_ImprovesP95() {
+        // Arrange
+        // Simülasyon ve yönlendirme sabit tohumlu kaynaklar kullanır; sonuç her çalıştırmada aynıdır
+        Random routing = new Random(7);
+        ProviderRouter router = new ProviderRouter(factory, stats, circuitBreaker, properties, meterRegistry,
+            () -> routing);
+        Random random = new Random(42);
+        int payments = 20_000;
+        long[] staticLatencies = new long[payments];
+        long[] routedLatencies = new long[payments];
+        int routedToPapara = 0;
+
+        // Act
+        for (int i = 0; i < payments; i++) {
+            PaymentProvider fixed = i % 2 == 0 ? PaymentProvider.PARAM : PaymentProvider.PAPARA;
+            staticLatencies[i] = simulatedLatencyMillis(fixed, random);
+
+            PaymentProvider routed = router.route(AMOUNT);
+            routedLatencies[i] = simulatedLatencyMillis(routed, random);
+            boolean success = routed == PaymentProvider.PARAM || random.nextDouble() >= 0.10;
+            stats.record(routed, TimeUnit.MILLISECONDS.toNanos(routedLatencies[i]), success);
+            if (routed == PaymentProvider.PAPARA) {
+                routedToPapara++;
+            }
+            if (i % 100 == 99) {
+                router.refresh();
+            }
+        }
+
+        // Assert
+        long staticP95 = percentile(staticLatencies, 0.95);
+        long routedP95 = percentile(routedLatencies, 0.95);
+        assertTrue(routedP95 * 2 < staticP95,
+            String.format("Yönlendirme p95'i iyileştirmeli: sabit %d ms, yönlendirmeli %d ms", staticP95, routedP95));
+        // Bozulan sağlayıcı tamamen bırakılmaz, toparlandığında fark edilebilsin diye az da olsa ölçülür
+        assertTrue(routedToPapara > 0 && routedToPapara < payments * 0.05,
+            "Papara'ya giden ödeme sayısı beklenmeyen: " + routedToPapara);
+    }
+
+    // PARAM: medyan 50 ms, PAPARA (bozuk): medyan 400 ms, log-normal dağılım
+    private static long simulatedLatencyMillis(PaymentProvider provider, Random random) {
+        return provider == PaymentProvider.PARAM
+            ? Math.round(50 * Math.exp(0.3 * random.nextGaussian()))
+            : Math.round(400 * Math.exp(0.5 * random.nextGaussian()));
+    }
+
+    private static long percentile(long[] latencies, double quantile) {
+        long[] sorted = latencies.clone();
+        Arrays.sort(sorted);
+        return sorted[(int) (sorted.length * quantile)];
+    }
+}
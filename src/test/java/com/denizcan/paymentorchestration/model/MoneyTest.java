@@ -0,0 +1,113 @@
+package com.denizcan.paymentorchestration.model;
+
+import com.denizcan.paymentorchestration.dto.PaymentRequest;
+import com.denizcan.paymentorchestration.exception.PaymentValidationException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Test
+    void of_DecimalAmount_StoresMinorUnits() {
+        // Act
+        Money money = Money.of("149.9", Currency.TRY);
+
+        // Assert
+        assertEquals(14_990, money.minorUnits());
+        assertEquals(new BigDecimal("149.90"), money.toDecimal());
+        assertEquals("149.90 TRY", money.toString());
+    }
+
+    @Test
+    void of_TooManyDecimalPlaces_ThrowsValidationException() {
+        // Act & Assert
+        assertThrows(PaymentValidationException.class, () -> Money.of("10.005", Currency.USD));
+        assertThrows(PaymentValidationException.class, () -> Money.of("1e30", Currency.USD));
+    }
+
+    @Test
+    void plusAndMinus_SameCurrency_ComputesInMinorUnits() {
+        // Arrange
+        Money total = Money.of("100.00", Currency.EUR);
+
+        // Act
+        Money remaining = total.minus(Money.of("30.25", Currency.EUR)).plus(Money.ofMinor(5, Currency.EUR));
+
+        // Assert
+        assertEquals(Money.of("69.80", Currency.EUR), remaining);
+        assertTrue(total.isGreaterThan(remaining));
+        assertTrue(remaining.isLessThan(total));
+    }
+
+    @Test
+    void minus_DifferentCurrency_ThrowsValidationException() {
+        // Arrange
+        Money lira = Money.of("10.00", Currency.TRY);
+        Money dollar = Money.of("10.00", Currency.USD);
+
+        // Act & Assert
+        assertThrows(PaymentValidationException.class, () -> lira.minus(dollar));
+        assertThrows(PaymentValidationException.class, () -> lira.compareTo(dollar));
+    }
+
+    @Test
+    void parse_UnknownCurrency_ThrowsValidationException() {
+        // Act & Assert
+        assertEquals(Currency.TRY, Currency.parse("TRY"));
+        assertNull(Currency.fromCode("GBP"));
+        assertThrows(PaymentValidationException.class, () -> Currency.parse("GBP"));
+    }
+
+    @Test
+    void json_PaymentRequest_KeepsFlatAmountAndCurrency() throws Exception {
+        // Arrange
+        String json = "{\"amount\":149.90,\"currency\":\"TRY\",\"provider\":\"PARAM\"}";
+
+        // Act
+        PaymentRequest request = objectMapper.readValue(json, PaymentRequest.class);
+        JsonNode written = objectMapper.readTree(objectMapper.writeValueAsString(request));
+
+        // Assert
+        assertEquals(Money.of("149.90", Currency.TRY), request.getAmount());
+        assertEquals(PaymentProvider.PARAM, request.getProvider());
+        assertEquals(0, new BigDecimal("149.90").compareTo(written.get("amount").decimalValue()));
+        assertEquals("TRY", written.get("currency").asText());
+    }
+
+    @Test
+    void json_UnsupportedCurrency_FailsWithValidationCause() {
+        // Arrange
+        String json = "{\"amount\":149.90,\"currency\":\"GBP\"}";
+
+        // Act
+        Exception e = assertThrows(Exception.class, () -> objectMapper.readValue(json, PaymentRequest.class));
+
+        // Assert
+        Throwable cause = e;
+        while (cause != null && !(cause instanceof PaymentValidationException)) {
+            cause = cause.getCause();
+        }
+        assertNotNull(cause, () -> "Beklenmeyen hata: " + e);
+    }
+
+    @Test
+    void json_StandaloneMoney_RoundTrips() throws Exception {
+        // Arrange
+        Money money = Money.of("0.05", Currency.USD);
+
+        // Act
+        String json = objectMapper.writeValueAsString(money);
+        Money read = objectMapper.readValue(json, Money.class);
+
+        // Assert
+        assertEquals("{\"amount\":0.05,\"currency\":\"USD\"}", json);
+        assertEquals(money, read);
+    }
+}
@@ -0,0 +1,104 @@
+package com.denizcan.paymentorchestration.model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeOrderedIdGeneratorTest {
+
+    @AfterEach
+    void tearDown() {
+        TimeOrderedIdGenerator.configure(0);
+    }
+
+    @Test
+    void next_ConsecutiveCalls_SortInCreationOrder() {
+        // Act
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            ids.add(TimeOrderedIdGenerator.next());
+        }
+
+        // Assert
+        for (int i = 1; i < ids.size(); i++) {
+            assertEquals(TimeOrderedIdGenerator.LENGTH, ids.get(i).length());
+            assertTrue(ids.get(i).compareTo(ids.get(i - 1)) > 0, "Id'ler metin olarak artan sırada olmalı");
+        }
+    }
+
+    @Test
+    void next_ConcurrentCalls_NeverRepeat() throws Exception {
+        // Arrange
+        Set<String> seen = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // Act
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 20_000; i++) {
+                        assertTrue(seen.add(TimeOrderedIdGenerator.next()));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Assert
+        assertEquals(160_000, seen.size());
+    }
+
+    @Test
+    void nextValue_ConfiguredNode_EmbedsNodeAndTimestamp() {
+        // Arrange
+        TimeOrderedIdGenerator.configure(TimeOrderedIdGenerator.MAX_NODE_ID);
+        long before = System.currentTimeMillis();
+
+        // Act
+        long value = TimeOrderedIdGenerator.nextValue();
+
+        // Assert
+        int nodeId = (int) (value >>> TimeOrderedIdGenerator.SEQUENCE_BITS) & TimeOrderedIdGenerator.MAX_NODE_ID;
+        long millis = (value >>> (TimeOrderedIdGenerator.NODE_BITS + TimeOrderedIdGenerator.SEQUENCE_BITS))
+            + TimeOrderedIdGenerator.EPOCH_MILLIS;
+        assertEquals(TimeOrderedIdGenerator.MAX_NODE_ID, nodeId);
+        // Önceki testlerde ödünç alınmış milisaniyeler yüzünden saatin biraz ilerisinde olabilir
+        assertTrue(millis >= before - 1 && millis < before + 1_000);
+    }
+
+    @Test
+    void configure_NodeOutOfRange_ThrowsException() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+            () -> TimeOrderedIdGenerator.configure(TimeOrderedIdGenerator.MAX_NODE_ID + 1));
+    }
+
+    @Test
+    void decode_EncodedValue_RoundTripsAndRejectsOtherFormats() {
+        // Arrange
+        long value = TimeOrderedIdGenerator.nextValue();
+
+        // Act
+        long decoded = TimeOrderedIdGenerator.decode(TimeOrderedIdGenerator.encode(value));
+
+        // Assert
+        assertEquals(value, decoded);
+        assertEquals(0, TimeOrderedIdGenerator.decode("3f2504e0-4f89-11d3-9a0c-0305e82c3301"));
+        assertEquals(0, TimeOrderedIdGenerator.decode("0000000000I00"));
+        assertEquals(0, TimeOrderedIdGenerator.decode(null));
+    }
+}
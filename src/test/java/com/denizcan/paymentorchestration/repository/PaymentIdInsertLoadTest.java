@@ -0,0 +1,129 @@
+package com.denizcan.paymentorchestration.repository;
+
+import com.denizcan.paymentorchestration.model.TimeOrderedIdGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Rastgele UUID ile zaman sıralı id arasında ekleme hızını, tablo büyüdükçe karşılaştırır.
+// Her düzen kendi H2 dosyasına payment tablosunun kolonlarıyla yazılır; her %10'luk dilimin
+// hızı ve sonunda dosya boyutu loglanır. Rastgele anahtarda her ekleme indeksin rastgele bir
+// sayfasını değiştirir; hız tablo büyüdükçe düşer ve H2 dosyası henüz sıkıştırılmamış sayfa
+// kopyalarıyla şişer. 1M satırda ölçülen: UUID ~7 bin satır/sn ve 2.7 GB, sıralı id ~65 bin
+// satır/sn ve 190 MB. 10M satır için diskte birkaç on GB boş yer gerekir.
+// Çalıştırmak için: mvn test -Pload-test -Dtest=PaymentIdInsertLoadTest [-Dload.ids.rows=10000000]
+@Slf4j
+@Tag("load")
+class PaymentIdInsertLoadTest {
+
+    private static final long ROWS = Long.getLong("load.ids.rows", 10_000_000);
+    private static final int BATCH_SIZE = 1_000;
+    private static final int COMMIT_EVERY = 50_000;
+    private static final Path DIR = Path.of("target", "id-load");
+
+    @Test
+    void insert_TimeOrderedIds_KeepUpWithGrowingTable() throws Exception {
+        // Act
+        InsertStats random = insert("uuid", () -> UUID.randomUUID().toString());
+        InsertStats ordered = insert("ordered", TimeOrderedIdGenerator::next);
+
+        // Assert
+        log.info("Rastgele UUID: {}", random);
+        log.info("Zaman sıralı id: {}", ordered);
+        assertTrue(ordered.fileBytes() < random.fileBytes(), "Kısa anahtarla dosya daha küçük olmalı");
+        assertTrue(ordered.lastSliceRate() > random.lastSliceRate(),
+            "Tablo büyüdüğünde sıralı anahtarla ekleme daha hızlı olmalı");
+    }
+
+    private InsertStats insert(String scheme, Supplier<String> ids) throws SQLException, IOException {
+        Path file = DIR.resolve(scheme);
+        deleteDatabase(file);
+        long slice = Math.max(COMMIT_EVERY, ROWS / 10);
+        double[] rates = new double[(int) ((ROWS + slice - 1) / slice)];
+
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:file:" + file.toAbsolutePath(), "sa", "")) {
+            try (Statement ddl = connection.createStatement()) {
+                ddl.execute("""
+                    create table payment (
+                        id varchar(255) primary key,
+                        amount numeric(38, 2) not null,
+                        currency varchar(3) not null,
+                        status varchar(20) not null,
+                        provider varchar(20) not null,
+                        created_at timestamp(6) not null,
+                        version bigint not null)""");
+            }
+            connection.setAutoCommit(false);
+
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "insert into payment (id, amount, currency, status, provider, created_at, version) values (?, ?, ?, ?, ?, ?, 0)")) {
+                BigDecimal amount = new BigDecimal("149.90");
+                long sliceStart = System.nanoTime();
+                for (long row = 1; row <= ROWS; row++) {
+                    insert.setString(1, ids.get());
+                    insert.setBigDecimal(2, amount);
+                    insert.setString(3, "TRY");
+                    insert.setString(4, "PENDING");
+                    insert.setString(5, "PARAM");
+                    insert.setTimestamp(6, Timestamp.from(Instant.now()));
+                    insert.addBatch();
+                    if (row % BATCH_SIZE == 0 || row == ROWS) {
+                        insert.executeBatch();
+                    }
+                    if (row % COMMIT_EVERY == 0 || row == ROWS) {
+                        connection.commit();
+                    }
+                    if (row % slice == 0 || row == ROWS) {
+                        long rowsInSlice = row % slice == 0 ? slice : row % slice;
+                        rates[(int) ((row - 1) / slice)] = rowsInSlice / ((System.nanoTime() - sliceStart) / 1e9);
+                        sliceStart = System.nanoTime();
+                    }
+                }
+            }
+            try (Statement checkpoint = connection.createStatement()) {
+                checkpoint.execute("checkpoint sync");
+            }
+        }
+        InsertStats stats = new InsertStats(rates, Files.size(Path.of(file + ".mv.db")));
+        deleteDatabase(file);
+        return stats;
+    }
+
+    private static void deleteDatabase(Path file) throws IOException {
+        Files.createDirectories(DIR);
+        Files.deleteIfExists(Path.of(file + ".mv.db"));
+        Files.deleteIfExists(Path.of(file + ".trace.db"));
+    }
+
+    record InsertStats(double[] sliceRates, long fileBytes) {
+
+        double lastSliceRate() {
+            return sliceRates[sliceRates.length - 1];
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder rates = new StringBuilder();
+            for (double rate : sliceRates) {
+                rates.append(rates.isEmpty() ? "" : ", ").append(Math.round(rate));
+            }
+            return String.format("dilim başına satır/sn [%s], dosya %d MB", rates, fileBytes / (1024 * 1024));
+        }
+    }
+}
@@ -0,0 +1,336 @@
+package com.denizcan.paymentorchestration.repository;
+
+import com.denizcan.paymentorchestration.dto.PaymentFilter;
+import com.denizcan.paymentorchestration.model.Currency;
+import com.denizcan.paymentorchestration.model.Money;
+import com.denizcan.paymentorchestration.model.Payment;
+import com.denizcan.paymentorchestration.model.PaymentEvent;
+import com.denizcan.paymentorchestration.model.PaymentEventType;
+import com.denizcan.paymentorchestration.model.PaymentProvider;
+import com.denizcan.paymentorchestration.model.PaymentStatus;
+import com.denizcan.paymentorchestration.model.Refund;
+import com.denizcan.paymentorchestration.model.RefundStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class PaymentRepositoryTest {
+
+    private static final Instant BASE_TIME = Instant.parse("2026-01-01T00:00:00Z");
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private PaymentEventRepository eventRepository;
+
+    @Autowired
+    private RefundRepository refundRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        List<Payment> payments = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            payments.add(Payment.builder()
+                .amount(Money.of("10.00", i % 2 == 0 ? Currency.TRY : Currency.USD))
+                .provider(i % 3 == 0 ? PaymentProvider.PAPARA : PaymentProvider.PARAM)
+                .status(i % 5 == 0 ? PaymentStatus.COMPLETED : PaymentStatus.PENDING)
+                // Bazı kayıtlar aynı zaman damgasını paylaşır, id ile sıralama da sınanır
+                .createdAt(BASE_TIME.plusSeconds(i / 2))
+                .build());
+        }
+        paymentRepository.saveAllAndFlush(payments);
+    }
+
+    @Test
+    void findPage_WalkingCursor_ReturnsEveryRowOnceNewestFirst() {
+        // Act
+        List<Payment> seen = new ArrayList<>();
+        PaymentCursor cursor = null;
+        List<Payment> page;
+        do {
+            page = paymentRepository.findPage(new PaymentFilter(), cursor, 7);
+            seen.addAll(page);
+            cursor = page.isEmpty() ? null : PaymentCursor.after(page.get(page.size() - 1));
+        } while (page.size() == 7);
+
+        // Assert
+        assertEquals(25, seen.size());
+        Set<String> ids = new HashSet<>();
+        seen.forEach(payment -> assertTrue(ids.add(payment.getId())));
+        for (int i = 1; i < seen.size(); i++) {
+            assertFalse(seen.get(i).getCreatedAt().isAfter(seen.get(i - 1).getCreatedAt()));
+        }
+    }
+
+    @Test
+    void findPage_WithFilters_ReturnsOnlyMatchingRows() {
+        // Arrange
+        PaymentFilter filter = PaymentFilter.builder()
+            .currency(Currency.TRY)
+            .status(PaymentStatus.PENDING)
+            .createdFrom(BASE_TIME.plusSeconds(2))
+            .createdTo(BASE_TIME.plusSeconds(10))
+            .build();
+
+        // Act
+        List<Payment> result = paymentRepository.findPage(filter, null, 100);
+
+        // Assert
+        assertFalse(result.isEmpty());
+        result.forEach(payment -> {
+            assertEquals(Currency.TRY, payment.getAmount().currency());
+            assertEquals(PaymentStatus.PENDING, payment.getStatus());
+            assertFalse(payment.getCreatedAt().isBefore(BASE_TIME.plusSeconds(2)));
+            assertTrue(payment.getCreatedAt().isBefore(BASE_TIME.plusSeconds(10)));
+        });
+    }
+
+    @Test
+    void streamAll_WithProviderFilter_StreamsDetachedRows() {
+        // Arrange
+        PaymentFilter filter = PaymentFilter.builder().provider(PaymentProvider.PAPARA).build();
+
+        // Act
+        List<Payment> streamed;
+        try (Stream<Payment> stream = paymentRepository.streamAll(filter)) {
+            streamed = stream.toList();
+        }
+
+        // Assert
+        assertEquals(9, streamed.size()); // 0, 3, ..., 24
+        streamed.forEach(payment -> assertEquals(PaymentProvider.PAPARA, payment.getProvider()));
+    }
+
+    @Test
+    void transitionStatuses_MixedStatuses_RecordsEventsOnlyForMovedRows() {
+        // Arrange
+        List<Payment> all = paymentRepository.findAll();
+        List<String> pending = all.stream().filter(p -> p.getStatus() == PaymentStatus.PENDING)
+            .map(Payment::getId).limit(3).toList();
+        String completed = all.stream().filter(p -> p.getStatus() == PaymentStatus.COMPLETED)
+            .findFirst().orElseThrow().getId();
+        List<String> ids = new ArrayList<>(pending);
+        ids.add(completed);
+
+        // Act
+        int updated = paymentRepository.transitionStatuses(ids, EnumSet.of(PaymentStatus.PENDING), PaymentStatus.FAILED);
+
+        // Assert
+        assertEquals(3, updated);
+        List<PaymentEvent> events = eventRepository.findAll();
+        assertEquals(Set.copyOf(pending), Set.copyOf(events.stream().map(PaymentEvent::getPaymentId).toList()));
+        events.forEach(event -> {
+            assertEquals(PaymentEventType.STATUS_CHANGED, event.getType());
+            assertEquals(PaymentStatus.FAILED, event.getStatus());
+            assertNull(event.getSequenceNumber()); // Numara relay yayınlarken verilir
+        });
+    }
+
+    @Test
+    void save_NewAndExistingPayment_RecordsCreatedThenUpdated() {
+        // Arrange
+        Payment payment = paymentRepository.save(Payment.builder()
+            .amount(Money.of("5.00", Currency.EUR))
+            .provider(PaymentProvider.PARAM)
+            .status(PaymentStatus.PENDING)
+            .build());
+        payment.setDescription("güncellendi");
+
+        // Act
+        paymentRepository.save(payment);
+        paymentRepository.transitionStatus(payment.getId(), EnumSet.of(PaymentStatus.PENDING), PaymentStatus.PROCESSING);
+
+        // Assert
+        List<PaymentEvent> events = eventRepository.findAll().stream()
+            .sorted(Comparator.comparing(PaymentEvent::getId))
+            .toList();
+        assertEquals(List.of(PaymentEventType.CREATED, PaymentEventType.UPDATED, PaymentEventType.STATUS_CHANGED),
+            events.stream().map(PaymentEvent::getType).toList());
+        assertEquals(PaymentStatus.PROCESSING, events.get(2).getStatus());
+        assertEquals(0, new BigDecimal("5.00").compareTo(events.get(2).getAmount().toDecimal()));
+    }
+
+    @Test
+    void save_ExistingPayment_RecordsUpdatedOnlyWithVersionRowTook() {
+        // Arrange
+        Payment payment = paymentRepository.save(Payment.builder()
+            .amount(Money.of("5.00", Currency.EUR))
+            .provider(PaymentProvider.PARAM)
+            .status(PaymentStatus.PENDING)
+            .build());
+        entityManager.flush();
+        entityManager.clear();
+        Payment detached = paymentRepository.findById(payment.getId()).orElseThrow();
+        entityManager.clear();
+
+        // Act
+        paymentRepository.save(detached); // Değişiklik yok
+        detached.setDescription("güncellendi");
+        Payment updated = paymentRepository.save(detached);
+
+        // Assert
+        List<PaymentEvent> events = eventRepository.findAll().stream()
+            .filter(event -> event.getPaymentId().equals(payment.getId()))
+            .sorted(Comparator.comparing(PaymentEvent::getId))
+            .toList();
+        assertEquals(List.of(PaymentEventType.CREATED, PaymentEventType.UPDATED),
+            events.stream().map(PaymentEvent::getType).toList());
+        assertEquals(1L, updated.getVersion());
+        assertEquals(updated.getVersion(), events.get(1).getPaymentVersion());
+    }
+
+    @Test
+    void transitionStatus_ReadPayment_AppliesOnlyWhileVersionMatches() {
+        // Arrange
+        Payment read = paymentRepository.findAll().stream()
+            .filter(payment -> payment.getStatus() == PaymentStatus.PENDING)
+            .findFirst().orElseThrow();
+        entityManager.clear();
+        Payment stale = read.toBuilder().build();
+        long version = read.getVersion();
+
+        // Act
+        int first = paymentRepository.transitionStatus(read, EnumSet.of(PaymentStatus.PENDING), PaymentStatus.PROCESSING);
+        int second = paymentRepository.transitionStatus(stale, EnumSet.of(PaymentStatus.PENDING, PaymentStatus.PROCESSING),
+            PaymentStatus.FAILED);
+
+        // Assert
+        assertEquals(1, first);
+        assertEquals(0, second);
+        entityManager.flush();
+        entityManager.clear();
+        Payment stored = paymentRepository.findById(read.getId()).orElseThrow();
+        assertEquals(PaymentStatus.PROCESSING, stored.getStatus());
+        assertEquals(version + 1, stored.getVersion());
+        PaymentEvent event = eventRepository.findAll().stream()
+            .filter(e -> e.getPaymentId().equals(read.getId()) && e.getType() == PaymentEventType.STATUS_CHANGED)
+            .findFirst().orElseThrow();
+        assertEquals(PaymentStatus.PROCESSING, event.getStatus());
+        assertEquals(version + 1, event.getPaymentVersion());
+    }
+
+    @Test
+    void reserveRefund_BeyondCapturedAmount_RejectedWithoutChangingPayment() {
+        // Arrange
+        Set<PaymentStatus> refundable = EnumSet.of(PaymentStatus.COMPLETED, PaymentStatus.PARTIALLY_REFUNDED);
+        Payment completed = paymentRepository.findAll().stream()
+            .filter(payment -> payment.getStatus() == PaymentStatus.COMPLETED)
+            .findFirst().orElseThrow();
+        String id = completed.getId();
+        Currency currency = completed.getAmount().currency();
+
+        // Act
+        Refund first = paymentRepository.reserveRefund(id, Money.of("6.00", currency), refundable, null, null);
+        Refund rejected = paymentRepository.reserveRefund(id, Money.of("5.00", currency), refundable, null, null);
+        Refund last = paymentRepository.reserveRefund(id, Money.of("4.00", currency), refundable, null, null);
+        entityManager.flush();
+        entityManager.clear();
+
+        // Assert
+        assertNotNull(first);
+        assertNull(rejected);
+        assertNotNull(last);
+        Payment stored = paymentRepository.findById(id).orElseThrow();
+        assertEquals(PaymentStatus.REFUNDED, stored.getStatus());
+        assertEquals(0, new BigDecimal("10.00").compareTo(stored.getRefundedAmount().toDecimal()));
+        assertEquals(2, refundRepository.findByPaymentIdOrderByCreatedAtAsc(id).size());
+    }
+
+    @Test
+    void completeRefunds_FailedRefund_ReleasesReservedAmount() {
+        // Arrange
+        Set<PaymentStatus> refundable = EnumSet.of(PaymentStatus.COMPLETED, PaymentStatus.PARTIALLY_REFUNDED);
+        Payment completed = paymentRepository.findAll().stream()
+            .filter(payment -> payment.getStatus() == PaymentStatus.COMPLETED)
+            .findFirst().orElseThrow();
+        String id = completed.getId();
+        Currency currency = completed.getAmount().currency();
+        Refund succeeded = paymentRepository.reserveRefund(id, Money.of("3.00", currency), refundable, null, null);
+        Refund failed = paymentRepository.reserveRefund(id, Money.of("7.00", currency), refundable, null, null);
+
+        // Act
+        int settled = paymentRepository.completeRefunds(List.of(succeeded.getId()), List.of(failed.getId()));
+        // Aynı sonucun tekrar yazılması tutarı ikinci kez geri vermemeli
+        int repeated = paymentRepository.completeRefunds(List.of(succeeded.getId()), List.of(failed.getId()));
+        entityManager.flush();
+        entityManager.clear();
+
+        // Assert
+        assertEquals(2, settled);
+        assertEquals(0, repeated);
+        Payment stored = paymentRepository.findById(id).orElseThrow();
+        assertEquals(PaymentStatus.PARTIALLY_REFUNDED, stored.getStatus());
+        assertEquals(0, new BigDecimal("3.00").compareTo(stored.getRefundedAmount().toDecimal()));
+        assertEquals(RefundStatus.FAILED, refundRepository.findById(failed.getId()).orElseThrow().getStatus());
+        assertEquals(List.of(PaymentEventType.REFUND_REQUESTED, PaymentEventType.REFUND_REQUESTED,
+                PaymentEventType.REFUND_SUCCEEDED, PaymentEventType.REFUND_FAILED),
+            eventRepository.findAll().stream()
+                .filter(event -> event.getPaymentId().equals(id) && event.getRefundId() != null)
+                .sorted(Comparator.comparing(PaymentEvent::getId))
+                .map(PaymentEvent::getType)
+                .toList());
+    }
+
+    @Test
+    void failRefundsPermanently_PendingRefund_RecordsEventAndKeepsAmountReserved() {
+        // Arrange
+        Set<PaymentStatus> refundable = EnumSet.of(PaymentStatus.COMPLETED, PaymentStatus.PARTIALLY_REFUNDED);
+        Payment completed = paymentRepository.findAll().stream()
+            .filter(payment -> payment.getStatus() == PaymentStatus.COMPLETED)
+            .findFirst().orElseThrow();
+        String id = completed.getId();
+        Currency currency = completed.getAmount().currency();
+        Refund refund = paymentRepository.reserveRefund(id, Money.of("4.00", currency), refundable, null, null);
+        entityManager.flush();
+        entityManager.clear();
+        long versionBefore = paymentRepository.findById(id).orElseThrow().getVersion();
+
+        // Act
+        int marked = paymentRepository.failRefundsPermanently(List.of(refund.getId()));
+        int repeated = paymentRepository.failRefundsPermanently(List.of(refund.getId()));
+        entityManager.flush();
+        entityManager.clear();
+
+        // Assert
+        assertEquals(1, marked);
+        assertEquals(0, repeated);
+        Payment stored = paymentRepository.findById(id).orElseThrow();
+        assertEquals(versionBefore + 1, stored.getVersion().longValue());
+        assertEquals(0, new BigDecimal("4.00").compareTo(stored.getRefundedAmount().toDecimal()));
+        assertEquals(RefundStatus.FAILED_PERMANENT, refundRepository.findById(refund.getId()).orElseThrow().getStatus());
+        List<PaymentEvent> failed = eventRepository.findAll().stream()
+            .filter(event -> refund.getId().equals(event.getRefundId()))
+            .filter(event -> event.getType() == PaymentEventType.REFUND_FAILED)
+            .toList();
+        assertEquals(1, failed.size());
+        assertEquals(stored.getVersion(), failed.get(0).getPaymentVersion());
+    }
+
+    @Test
+    void cursor_EncodeDecode_RoundTrips() {
+        // Arrange
+        PaymentCursor cursor = new PaymentCursor(Instant.parse("2026-01-01T10:00:00.123456Z"), "abc:def");
+
+        // Act & Assert
+        assertEquals(cursor, PaymentCursor.decode(cursor.encode()));
+    }
+}
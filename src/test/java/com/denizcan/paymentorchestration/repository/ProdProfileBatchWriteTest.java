@@ -0,0 +1,96 @@
+package com.denizcan.paymentorchestration.repository;
+
+import com.denizcan.paymentorchestration.dto.BatchItemResult;
+import com.denizcan.paymentorchestration.dto.PaymentRequest;
+import com.denizcan.paymentorchestration.model.Currency;
+import com.denizcan.paymentorchestration.model.Money;
+import com.denizcan.paymentorchestration.model.Payment;
+import com.denizcan.paymentorchestration.model.PaymentProvider;
+import com.denizcan.paymentorchestration.service.BatchPaymentService;
+import com.denizcan.paymentorchestration.service.BatchResultSink;
+import jakarta.persistence.EntityManagerFactory;
+import org.flywaydb.core.Flyway;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Üretim profilini dosyaya yazan H2 üzerinde çalıştırır: şema Flyway migration'larıyla kurulur,
+// Hibernate eşlemeleri o şemaya karşı doğrular ve toplu ödeme yazımı JDBC batch'leriyle gider.
+// Batch açıkken aynı INSERT, batch boyu kadar satır için bir kez hazırlanır; batch'siz her ödeme
+// ve olay satırı için ayrı statement hazırlanırdı.
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:file:./target/h2/prod-${random.uuid};MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+    "payment.ids.node-id=0",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+@ActiveProfiles("prod")
+class ProdProfileBatchWriteTest {
+
+    private static final int ITEMS = 2_000;
+
+    @Autowired
+    private BatchPaymentService batchPaymentService;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private Flyway flyway;
+
+    @Test
+    void schema_ProdProfile_IsCreatedByMigrations() {
+        // Act & Assert
+        assertEquals("5", flyway.info().current().getVersion().getVersion());
+        assertEquals(0, flyway.info().pending().length);
+    }
+
+    @Test
+    void createPayments_ProdProfile_WritesInJdbcBatches() {
+        // Arrange
+        List<PaymentRequest> requests = new ArrayList<>(ITEMS);
+        for (int i = 0; i < ITEMS; i++) {
+            requests.add(PaymentRequest.builder()
+                .amount(Money.ofMinor(1_000 + i, Currency.TRY))
+                .provider(PaymentProvider.PARAM)
+                .build());
+        }
+        AtomicInteger succeeded = new AtomicInteger();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // Act
+        batchPaymentService.createPayments(requests, new BatchResultSink() {
+            @Override
+            public void accept(BatchItemResult result) {
+                if (result.getError() == null) {
+                    succeeded.incrementAndGet();
+                }
+            }
+
+            @Override
+            public void flush() {
+            }
+        });
+
+        // Assert
+        assertEquals(ITEMS, succeeded.get());
+        assertEquals(ITEMS, statistics.getEntityStatistics(Payment.class.getName()).getInsertCount());
+        // Parça başına ödeme ve olay INSERT'i ile olay id'leri için sekans sorguları
+        assertTrue(statistics.getPrepareStatementCount() < ITEMS / 10,
+            () -> "INSERT'ler batch'lenmemiş: " + statistics.getPrepareStatementCount() + " statement");
+        assertEquals(ITEMS, paymentRepository.count());
+    }
+}
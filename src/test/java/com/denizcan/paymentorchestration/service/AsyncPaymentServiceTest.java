@@ -1,36 +1,72 @@
 package com.denizcan.paymentorchestration.service;
 
+import com.denizcan.paymentorchestration.config.ProviderProperties;
+import com.denizcan.paymentorchestration.config.RoutingProperties;
+import com.denizcan.paymentorchestration.factory.PaymentProviderFactory;
+import com.denizcan.paymentorchestration.model.Currency;
+import com.denizcan.paymentorchestration.model.Money;
 import com.denizcan.paymentorchestration.model.Payment;
 import com.denizcan.paymentorchestration.model.PaymentProvider;
 import com.denizcan.paymentorchestration.model.PaymentStatus;
+import com.denizcan.paymentorchestration.service.provider.AsyncPaymentProviderService;
+import com.denizcan.paymentorchestration.service.provider.ProviderConcurrencyLimiter;
+import com.denizcan.paymentorchestration.service.provider.ProviderCallTimeout;
+import com.denizcan.paymentorchestration.service.provider.ProviderCircuitBreaker;
+import com.denizcan.paymentorchestration.service.provider.ProviderRetryBudget;
+import com.denizcan.paymentorchestration.service.provider.ProviderRetryExecutor;
+import com.denizcan.paymentorchestration.service.provider.ProviderStats;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.math.BigDecimal;
+import java.time.Clock;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class AsyncPaymentServiceTest {
 
-    @InjectMocks
+    @Mock
+    private PaymentProviderFactory providerFactory;
+
+    @Mock
+    private AsyncPaymentProviderService asyncProvider;
+
     private AsyncPaymentService asyncPaymentService;
 
+    @BeforeEach
+    void setUp() {
+        ProviderProperties providerProperties = new ProviderProperties();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ProviderStats providerStats = new ProviderStats(new RoutingProperties(), Clock.systemUTC());
+        ProviderConcurrencyLimiter concurrencyLimiter = new ProviderConcurrencyLimiter(providerProperties, providerStats,
+            new ProviderCircuitBreaker(providerProperties, Clock.systemUTC(), meterRegistry),
+            new ProviderRetryExecutor(providerProperties, providerStats,
+                new ProviderRetryBudget(providerProperties, Clock.systemUTC(), meterRegistry), meterRegistry),
+            new ProviderCallTimeout(providerProperties), meterRegistry);
+        asyncPaymentService = new AsyncPaymentService(providerFactory, concurrencyLimiter, Runnable::run);
+    }
+
     @Test
     void processPaymentAsync_Success_ReturnsCompletedFuture() throws ExecutionException, InterruptedException {
         // Arrange
         Payment payment = Payment.builder()
             .id("test-id")
-            .amount(new BigDecimal("100.00"))
-            .currency("TRY")
+            .amount(Money.of("100.00", Currency.TRY))
             .provider(PaymentProvider.PARAM)
-            .status(PaymentStatus.PENDING)
+            .status(PaymentStatus.PROCESSING)
             .build();
 
+        when(providerFactory.getAsyncProvider(PaymentProvider.PARAM)).thenReturn(asyncProvider);
+        when(asyncProvider.processPaymentAsync(any())).thenReturn(CompletableFuture.completedFuture(true));
+
         // Act
         CompletableFuture<Payment> future = asyncPaymentService.processPaymentAsync(payment);
 
@@ -38,19 +74,43 @@ class AsyncPaymentServiceTest {
         Payment result = future.get(); // Bekleyerek sonucu al
         assertNotNull(result);
         assertEquals(payment.getId(), result.getId());
+        assertEquals(PaymentStatus.COMPLETED, result.getStatus());
+    }
+
+    @Test
+    void processPaymentAsync_ProviderDeclines_MarksFailed() throws ExecutionException, InterruptedException {
+        // Arrange
+        Payment payment = Payment.builder()
+            .id("test-id")
+            .provider(PaymentProvider.PAPARA)
+            .status(PaymentStatus.PROCESSING)
+            .build();
+
+        when(providerFactory.getAsyncProvider(PaymentProvider.PAPARA)).thenReturn(asyncProvider);
+        when(asyncProvider.processPaymentAsync(any())).thenReturn(CompletableFuture.completedFuture(false));
+
+        // Act
+        Payment result = asyncPaymentService.processPaymentAsync(payment).get();
+
+        // Assert
+        assertEquals(PaymentStatus.FAILED, result.getStatus());
     }
 
     @Test
-    void processPaymentAsync_WithInterruption_ReturnsFutureWithException() {
+    void processPaymentAsync_ProviderError_ReturnsFutureWithException() {
         // Arrange
         Payment payment = Payment.builder()
             .id("test-id")
+            .provider(PaymentProvider.PARAM)
             .build();
 
+        when(providerFactory.getAsyncProvider(PaymentProvider.PARAM)).thenReturn(asyncProvider);
+        when(asyncProvider.processPaymentAsync(any()))
+            .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("Sağlayıcı hatası")));
+
         // Act & Assert
         CompletableFuture<Payment> future = asyncPaymentService.processPaymentAsync(payment);
-        Thread.currentThread().interrupt(); // Thread'i interrupt et
-        
+
         assertThrows(ExecutionException.class, future::get);
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,320 @@
+package com.denizcan.paymentorchestration.service;
+
+import com.denizcan.paymentorchestration.config.BatchProperties;
+import com.denizcan.paymentorchestration.config.ProviderProperties;
+import com.denizcan.paymentorchestration.config.RoutingProperties;
+import com.denizcan.paymentorchestration.dto.BatchItemResult;
+import com.denizcan.paymentorchestration.dto.PaymentRequest;
+import com.denizcan.paymentorchestration.exception.PaymentValidationException;
+import com.denizcan.paymentorchestration.exception.ProviderRejectedException;
+import com.denizcan.paymentorchestration.exception.ProviderTimeoutException;
+import com.denizcan.paymentorchestration.factory.PaymentProviderFactory;
+import com.denizcan.paymentorchestration.factory.ProviderRouter;
+import com.denizcan.paymentorchestration.model.Currency;
+import com.denizcan.paymentorchestration.model.Money;
+import com.denizcan.paymentorchestration.model.Payment;
+import com.denizcan.paymentorchestration.model.PaymentProvider;
+import com.denizcan.paymentorchestration.model.PaymentStatus;
+import com.denizcan.paymentorchestration.repository.PaymentRepository;
+import com.denizcan.paymentorchestration.service.archive.PaymentArchive;
+import com.denizcan.paymentorchestration.service.inflight.InFlightIndex;
+import com.denizcan.paymentorchestration.service.fx.FxService;
+import com.denizcan.paymentorchestration.service.provider.AsyncPaymentProviderService;
+import com.denizcan.paymentorchestration.service.provider.ProviderConcurrencyLimiter;
+import com.denizcan.paymentorchestration.service.provider.ProviderCallTimeout;
+import com.denizcan.paymentorchestration.service.provider.ProviderCircuitBreaker;
+import com.denizcan.paymentorchestration.service.provider.ProviderRetryBudget;
+import com.denizcan.paymentorchestration.service.provider.ProviderRetryExecutor;
+import com.denizcan.paymentorchestration.service.provider.ProviderStats;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BatchPaymentServiceTest {
+
+    @Mock
+    private PaymentRepository paymentRepository;
+
+    @Mock
+    private PaymentProviderFactory providerFactory;
+
+    @Mock
+    private AsyncPaymentProviderService asyncProvider;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private BatchPaymentService batchPaymentService;
+
+    private final List<BatchItemResult> results = new ArrayList<>();
+
+    private final BatchResultSink sink = new BatchResultSink() {
+        @Override
+        public void accept(BatchItemResult result) {
+            results.add(result);
+        }
+
+        @Override
+        public void flush() {
+        }
+    };
+
+    @BeforeEach
+    void setUp() {
+        BatchProperties properties = new BatchProperties();
+        properties.setChunkSize(2);
+        properties.setMaxItems(5);
+        ProviderProperties providerProperties = new ProviderProperties();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ProviderStats providerStats = new ProviderStats(new RoutingProperties(), Clock.systemUTC());
+        ProviderConcurrencyLimiter concurrencyLimiter = new ProviderConcurrencyLimiter(providerProperties, providerStats,
+            new ProviderCircuitBreaker(providerProperties, Clock.systemUTC(), meterRegistry),
+            new ProviderRetryExecutor(providerProperties, providerStats,
+                new ProviderRetryBudget(providerProperties, Clock.systemUTC(), meterRegistry), meterRegistry),
+            new ProviderCallTimeout(providerProperties), meterRegistry);
+        PaymentCache paymentCache = new PaymentCache(new ConcurrentMapCacheManager(), mock(InFlightIndex.class));
+        PaymentStateMachine stateMachine = new PaymentStateMachine();
+        PaymentTransitions transitions = new JpaPaymentTransitions(paymentRepository);
+        PaymentService paymentService = new PaymentService(paymentRepository, providerFactory,
+            mock(AsyncPaymentService.class), concurrencyLimiter, paymentCache, stateMachine, mock(ProviderRouter.class),
+            mock(FxService.class), new PaymentMetrics(meterRegistry), mock(PaymentArchive.class), transitions);
+        batchPaymentService = new BatchPaymentService(paymentService, paymentRepository, paymentCache, transitions,
+            stateMachine, providerFactory, concurrencyLimiter, transactionManager, properties);
+        // Kilitlenen satırların hepsi geçer
+        lenient().when(paymentRepository.moveStatuses(anyCollection(), anyCollection(), any()))
+            .thenAnswer(invocation -> List.copyOf(invocation.<Collection<String>>getArgument(0)));
+    }
+
+    @Test
+    void createPayments_MixedItems_SavesValidItemsOncePerChunk() {
+        // Arrange
+        List<PaymentRequest> requests = List.of(
+            request("100.00", Currency.TRY), request("0.00", Currency.TRY), request("100.00", Currency.USD), request("100.00", Currency.EUR));
+        when(paymentRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Payment> payments = invocation.getArgument(0);
+            payments.forEach(payment -> payment.setId("id-" + payment.getAmount().currency()));
+            return payments;
+        });
+
+        // Act
+        batchPaymentService.createPayments(requests, sink);
+
+        // Assert
+        verify(paymentRepository, times(2)).saveAll(anyList()); // 4 kalem, parça boyutu 2
+        verify(paymentRepository, never()).save(any(Payment.class));
+        assertEquals(4, results.size());
+        BatchItemResult invalid = results.stream().filter(r -> r.getIndex() == 1).findFirst().orElseThrow();
+        assertNull(invalid.getPaymentId());
+        assertNotNull(invalid.getError());
+        assertEquals("id-EUR", results.stream().filter(r -> r.getIndex() == 3).findFirst().orElseThrow().getPaymentId());
+    }
+
+    @Test
+    void createPayments_TooManyItems_ThrowsException() {
+        // Arrange
+        List<PaymentRequest> requests = List.of(
+            request("100.00", Currency.TRY), request("100.00", Currency.TRY), request("100.00", Currency.TRY), request("100.00", Currency.TRY), request("100.00", Currency.TRY), request("100.00", Currency.TRY));
+
+        // Act & Assert
+        assertThrows(PaymentValidationException.class, () -> batchPaymentService.createPayments(requests, sink));
+        verifyNoInteractions(paymentRepository);
+    }
+
+    @Test
+    void processPayments_ClaimsAndAppliesOutcomesInBulk() {
+        // Arrange
+        Payment pending = payment("p-1", PaymentStatus.PENDING);
+        Payment completed = payment("p-2", PaymentStatus.COMPLETED);
+        when(paymentRepository.findAllByIdForUpdate(anyCollection())).thenAnswer(invocation -> {
+            Collection<String> ids = invocation.getArgument(0);
+            return List.of(pending, completed).stream().filter(p -> ids.contains(p.getId())).toList();
+        });
+        when(providerFactory.getAsyncProvider(PaymentProvider.PARAM)).thenReturn(asyncProvider);
+        when(asyncProvider.processPaymentAsync(any())).thenReturn(CompletableFuture.completedFuture(true));
+
+        // Act
+        batchPaymentService.processPayments(List.of("p-1", "p-2", "missing"), sink);
+
+        // Assert
+        verify(paymentRepository, times(2)).findAllByIdForUpdate(anyCollection()); // 3 kalem, 2 parça
+        verify(paymentRepository).moveStatuses(List.of("p-1"), EnumSet.of(PaymentStatus.PENDING), PaymentStatus.PROCESSING);
+        verify(paymentRepository).moveStatuses(List.of("p-1"), EnumSet.of(PaymentStatus.PROCESSING), PaymentStatus.COMPLETED);
+        verify(paymentRepository, never()).moveStatuses(anyCollection(), anyCollection(), eq(PaymentStatus.FAILED));
+
+        results.sort(Comparator.comparingInt(BatchItemResult::getIndex));
+        assertEquals(3, results.size());
+        assertEquals(PaymentStatus.COMPLETED, results.get(0).getStatus());
+        assertNotNull(results.get(1).getError()); // Tamamlanmış ödeme tekrar işlenemez
+        assertNotNull(results.get(2).getError()); // Bulunamadı
+    }
+
+    @Test
+    void processPayments_ProviderError_MarksItemFailed() {
+        // Arrange
+        Payment pending = payment("p-1", PaymentStatus.PENDING);
+        when(paymentRepository.findAllByIdForUpdate(anyCollection())).thenReturn(List.of(pending));
+        when(providerFactory.getAsyncProvider(PaymentProvider.PARAM)).thenReturn(asyncProvider);
+        when(asyncProvider.processPaymentAsync(any()))
+            .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("Sağlayıcı hatası")));
+
+        // Act
+        batchPaymentService.processPayments(List.of("p-1"), sink);
+
+        // Assert
+        verify(paymentRepository).moveStatuses(List.of("p-1"), EnumSet.of(PaymentStatus.PROCESSING), PaymentStatus.FAILED);
+        assertEquals(PaymentStatus.FAILED, results.get(0).getStatus());
+    }
+
+    @Test
+    void processPayments_SettledConcurrently_ReportsStoredStatus() {
+        // Arrange
+        Payment pending = payment("p-1", PaymentStatus.PENDING);
+        when(paymentRepository.findAllByIdForUpdate(anyCollection())).thenReturn(List.of(pending));
+        when(providerFactory.getAsyncProvider(PaymentProvider.PARAM)).thenReturn(asyncProvider);
+        when(asyncProvider.processPaymentAsync(any())).thenReturn(CompletableFuture.completedFuture(true));
+        // Sağlayıcı cevap verirken webhook ödemeyi FAILED yapmış; COMPLETED geçişi hiçbir satıra uygulanmaz
+        when(paymentRepository.moveStatuses(anyCollection(), eq(EnumSet.of(PaymentStatus.PROCESSING)), eq(PaymentStatus.COMPLETED)))
+            .thenReturn(List.of());
+        when(paymentRepository.findAllById(List.of("p-1"))).thenReturn(List.of(payment("p-1", PaymentStatus.FAILED)));
+
+        // Act
+        batchPaymentService.processPayments(List.of("p-1"), sink);
+
+        // Assert
+        assertEquals(PaymentStatus.FAILED, results.get(0).getStatus());
+        assertNotNull(results.get(0).getError());
+    }
+
+    @Test
+    void processPayments_ProviderTimeout_LeavesItemProcessing() {
+        // Arrange
+        Payment pending = payment("p-1", PaymentStatus.PENDING);
+        when(paymentRepository.findAllByIdForUpdate(anyCollection())).thenReturn(List.of(pending));
+        when(providerFactory.getAsyncProvider(PaymentProvider.PARAM)).thenReturn(asyncProvider);
+        when(asyncProvider.processPaymentAsync(any()))
+            .thenReturn(CompletableFuture.failedFuture(new ProviderTimeoutException("Sağlayıcı cevap vermedi")));
+
+        // Act
+        batchPaymentService.processPayments(List.of("p-1"), sink);
+
+        // Assert
+        verify(paymentRepository, never()).moveStatuses(anyCollection(), eq(EnumSet.of(PaymentStatus.PROCESSING)), any());
+        assertEquals(PaymentStatus.PROCESSING, results.get(0).getStatus());
+        assertNotNull(results.get(0).getError());
+    }
+
+    @Test
+    void processPayments_ProviderRejected_ReleasesItemToPending() {
+        // Arrange
+        Payment pending = payment("p-1", PaymentStatus.PENDING);
+        when(paymentRepository.findAllByIdForUpdate(anyCollection())).thenReturn(List.of(pending));
+        when(providerFactory.getAsyncProvider(PaymentProvider.PARAM)).thenReturn(asyncProvider);
+        when(asyncProvider.processPaymentAsync(any()))
+            .thenReturn(CompletableFuture.failedFuture(new ProviderRejectedException("Devre açık")));
+
+        // Act
+        batchPaymentService.processPayments(List.of("p-1"), sink);
+
+        // Assert
+        verify(paymentRepository).moveStatuses(List.of("p-1"), EnumSet.of(PaymentStatus.PROCESSING), PaymentStatus.PENDING);
+        verify(paymentRepository, never()).moveStatuses(anyCollection(), eq(EnumSet.of(PaymentStatus.PROCESSING)), eq(PaymentStatus.FAILED));
+        assertEquals(PaymentStatus.PENDING, results.get(0).getStatus());
+        assertNotNull(results.get(0).getError());
+    }
+
+    @Test
+    void processPayments_SinkThrowsBeforeSubmit_ReleasesClaimsToPending() {
+        // Arrange
+        Payment pending = payment("p-1", PaymentStatus.PENDING);
+        when(paymentRepository.findAllByIdForUpdate(anyCollection())).thenReturn(List.of(pending));
+        BatchResultSink broken = new BatchResultSink() {
+            @Override
+            public void accept(BatchItemResult result) {
+                throw new UncheckedIOException(new IOException("İstemci bağlantısı koptu"));
+            }
+
+            @Override
+            public void flush() {
+            }
+        };
+
+        // Act & Assert
+        assertThrows(UncheckedIOException.class,
+            () -> batchPaymentService.processPayments(List.of("p-1", "missing"), broken));
+        verify(paymentRepository).moveStatuses(List.of("p-1"), EnumSet.of(PaymentStatus.PROCESSING), PaymentStatus.PENDING);
+        verifyNoInteractions(asyncProvider);
+    }
+
+    @Test
+    void processPayments_SinkThrowsWithCallInFlight_AppliesLateOutcome() {
+        // Arrange
+        Payment first = payment("p-1", PaymentStatus.PENDING);
+        Payment second = payment("p-2", PaymentStatus.PENDING);
+        when(paymentRepository.findAllByIdForUpdate(anyCollection())).thenReturn(List.of(first, second));
+        when(providerFactory.getAsyncProvider(PaymentProvider.PARAM)).thenReturn(asyncProvider);
+        CompletableFuture<Boolean> late = new CompletableFuture<>();
+        when(asyncProvider.processPaymentAsync(any()))
+            .thenReturn(CompletableFuture.completedFuture(true))
+            .thenReturn(late);
+        BatchResultSink broken = new BatchResultSink() {
+            @Override
+            public void accept(BatchItemResult result) {
+            }
+
+            @Override
+            public void flush() {
+                throw new UncheckedIOException(new IOException("İstemci bağlantısı koptu"));
+            }
+        };
+
+        // Act
+        assertThrows(UncheckedIOException.class,
+            () -> batchPaymentService.processPayments(List.of("p-1", "p-2"), broken));
+        late.complete(false);
+
+        // Assert
+        verify(paymentRepository).moveStatuses(List.of("p-1"), EnumSet.of(PaymentStatus.PROCESSING), PaymentStatus.COMPLETED);
+        verify(paymentRepository, timeout(1_000))
+            .moveStatuses(List.of("p-2"), EnumSet.of(PaymentStatus.PROCESSING), PaymentStatus.FAILED);
+        verify(paymentRepository, never()).moveStatuses(anyCollection(), anyCollection(), eq(PaymentStatus.PENDING));
+    }
+
+    private PaymentRequest request(String amount, Currency currency) {
+        return PaymentRequest.builder()
+            .amount(Money.of(amount, currency))
+            .provider(PaymentProvider.PARAM)
+            .build();
+    }
+
+    private Payment payment(String id, PaymentStatus status) {
+        return Payment.builder()
+            .id(id)
+            .amount(Money.of("100.00", Currency.TRY))
+            .provider(PaymentProvider.PARAM)
+            .status(status)
+            .build();
+    }
+}
@@ -0,0 +1,165 @@
+package com.denizcan.paymentorchestration.service;
+
+import com.denizcan.paymentorchestration.config.IdempotencyProperties;
+import com.denizcan.paymentorchestration.dto.IdempotentResponse;
+import com.denizcan.paymentorchestration.exception.IdempotencyConflictException;
+import com.denizcan.paymentorchestration.model.IdempotencyScope;
+import com.denizcan.paymentorchestration.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+
+import java.time.Clock;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Aynı veritabanını paylaşan iki instance'ı aynı anahtarla aynı anda çağırır
+@SpringBootTest
+class IdempotencyServiceConcurrencyTest {
+
+    @Autowired
+    private IdempotencyRecordRepository recordRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private IdempotencyProperties properties;
+
+    @Test
+    void execute_SameKeyOnTwoInstances_RunsActionOnce() throws Exception {
+        // Arrange
+        IdempotencyService first = new IdempotencyService(recordRepository, objectMapper, properties, Clock.systemUTC());
+        IdempotencyService second = new IdempotencyService(recordRepository, objectMapper, properties, Clock.systemUTC());
+        Map<String, String> request = Map.of("amount", "100.00");
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+
+        // Act
+        CompletableFuture<IdempotentResponse> slow = CompletableFuture.supplyAsync(() ->
+            first.execute(IdempotencyScope.PAYMENT_CREATE, "concurrent-key", request, HttpStatus.CREATED, () -> {
+                calls.incrementAndGet();
+                running.countDown();
+                await(finish);
+                return Map.of("id", "payment-1");
+            }));
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        assertThrows(IdempotencyConflictException.class, () ->
+            second.execute(IdempotencyScope.PAYMENT_CREATE, "concurrent-key", request, HttpStatus.CREATED, () -> {
+                calls.incrementAndGet();
+                return Map.of("id", "payment-2");
+            }));
+        finish.countDown();
+        IdempotentResponse original = slow.get(5, TimeUnit.SECONDS);
+        IdempotentResponse replayed = second.execute(IdempotencyScope.PAYMENT_CREATE, "concurrent-key", request,
+            HttpStatus.CREATED, () -> {
+                calls.incrementAndGet();
+                return Map.of("id", "payment-2");
+            });
+
+        // Assert
+        assertEquals(1, calls.get());
+        assertFalse(original.replayed());
+        assertTrue(replayed.replayed());
+        assertEquals(original.body(), replayed.body());
+    }
+
+    @Test
+    void execute_ReservationTakenOverWhileRunning_KeepsNewOwnersResponse() throws Exception {
+        // Arrange
+        IdempotencyService first = new IdempotencyService(recordRepository, objectMapper, properties, Clock.systemUTC());
+        // İkinci instance'ın saatinde ilk rezervasyonun süresi dolmuştur
+        IdempotencyService second = new IdempotencyService(recordRepository, objectMapper, properties,
+            Clock.offset(Clock.systemUTC(), properties.getPendingTimeout().plusMinutes(1)));
+        Map<String, String> request = Map.of("amount", "100.00");
+        CountDownLatch firstRunning = new CountDownLatch(1);
+        CountDownLatch firstFinish = new CountDownLatch(1);
+        CountDownLatch secondRunning = new CountDownLatch(1);
+        CountDownLatch secondFinish = new CountDownLatch(1);
+
+        // Act
+        CompletableFuture<IdempotentResponse> stale = CompletableFuture.supplyAsync(() ->
+            first.execute(IdempotencyScope.PAYMENT_CREATE, "takeover-key", request, HttpStatus.CREATED, () -> {
+                firstRunning.countDown();
+                await(firstFinish);
+                return Map.of("id", "payment-1");
+            }));
+        assertTrue(firstRunning.await(5, TimeUnit.SECONDS));
+        CompletableFuture<IdempotentResponse> owner = CompletableFuture.supplyAsync(() ->
+            second.execute(IdempotencyScope.PAYMENT_CREATE, "takeover-key", request, HttpStatus.CREATED, () -> {
+                secondRunning.countDown();
+                await(secondFinish);
+                return Map.of("id", "payment-2");
+            }));
+        assertTrue(secondRunning.await(5, TimeUnit.SECONDS));
+        // Eski istek yeni sahip hâlâ çalışırken biter; bekleyen rezervasyona yazmamalı
+        firstFinish.countDown();
+        stale.get(5, TimeUnit.SECONDS);
+        secondFinish.countDown();
+        IdempotentResponse stored = owner.get(5, TimeUnit.SECONDS);
+        IdempotentResponse replayed = first.execute(IdempotencyScope.PAYMENT_CREATE, "takeover-key", request,
+            HttpStatus.CREATED, () -> Map.of("id", "payment-3"));
+
+        // Assert
+        assertTrue(stored.body().contains("payment-2"));
+        assertTrue(replayed.replayed());
+        assertEquals(stored.body(), replayed.body());
+    }
+
+    @Test
+    void execute_FailsAfterReservationTakenOver_KeepsNewOwnersReservation() throws Exception {
+        // Arrange
+        IdempotencyService first = new IdempotencyService(recordRepository, objectMapper, properties, Clock.systemUTC());
+        IdempotencyService second = new IdempotencyService(recordRepository, objectMapper, properties,
+            Clock.offset(Clock.systemUTC(), properties.getPendingTimeout().plusMinutes(1)));
+        Map<String, String> request = Map.of("amount", "100.00");
+        CountDownLatch firstRunning = new CountDownLatch(1);
+        CountDownLatch firstFinish = new CountDownLatch(1);
+        CountDownLatch secondRunning = new CountDownLatch(1);
+        CountDownLatch secondFinish = new CountDownLatch(1);
+
+        // Act
+        CompletableFuture<IdempotentResponse> stale = CompletableFuture.supplyAsync(() ->
+            first.execute(IdempotencyScope.PAYMENT_CREATE, "released-key", request, HttpStatus.CREATED, () -> {
+                firstRunning.countDown();
+                await(firstFinish);
+                throw new IllegalStateException("sağlayıcı hatası");
+            }));
+        assertTrue(firstRunning.await(5, TimeUnit.SECONDS));
+        CompletableFuture<IdempotentResponse> owner = CompletableFuture.supplyAsync(() ->
+            second.execute(IdempotencyScope.PAYMENT_CREATE, "released-key", request, HttpStatus.CREATED, () -> {
+                secondRunning.countDown();
+                await(secondFinish);
+                return Map.of("id", "payment-2");
+            }));
+        assertTrue(secondRunning.await(5, TimeUnit.SECONDS));
+        firstFinish.countDown();
+        assertThrows(ExecutionException.class, () -> stale.get(5, TimeUnit.SECONDS));
+        boolean reservedAfterFailure = recordRepository.existsById("PAYMENT_CREATE:released-key");
+        secondFinish.countDown();
+        IdempotentResponse stored = owner.get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertTrue(reservedAfterFailure, "Başarısız eski istek yeni sahibin rezervasyonunu silmemeli");
+        assertEquals(stored.body(), recordRepository.findById("PAYMENT_CREATE:released-key")
+            .orElseThrow().getResponseBody());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
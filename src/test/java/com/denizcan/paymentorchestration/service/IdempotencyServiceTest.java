@@ -0,0 +1,236 @@
+package com.denizcan.paymentorchestration.service;
+
+import com.denizcan.paymentorchestration.config.IdempotencyProperties;
+import com.denizcan.paymentorchestration.dto.IdempotentResponse;
+import com.denizcan.paymentorchestration.dto.PaymentRequest;
+import com.denizcan.paymentorchestration.exception.IdempotencyConflictException;
+import com.denizcan.paymentorchestration.model.Currency;
+import com.denizcan.paymentorchestration.model.IdempotencyRecord;
+import com.denizcan.paymentorchestration.model.IdempotencyScope;
+import com.denizcan.paymentorchestration.model.Money;
+import com.denizcan.paymentorchestration.model.Payment;
+import com.denizcan.paymentorchestration.model.PaymentProvider;
+import com.denizcan.paymentorchestration.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+    @Mock
+    private IdempotencyRecordRepository recordRepository;
+
+    private IdempotencyProperties properties;
+    private PaymentRequest request;
+    private AtomicInteger calls;
+
+    @BeforeEach
+    void setUp() {
+        properties = new IdempotencyProperties();
+        properties.setTtl(Duration.ofHours(1));
+
+        request = PaymentRequest.builder()
+            .amount(Money.of("100.00", Currency.TRY))
+            .provider(PaymentProvider.PARAM)
+            .build();
+
+        calls = new AtomicInteger();
+        // Rezervasyon bu isteğe ait olduğu sürece tamamlama tek satırı günceller
+        lenient().when(recordRepository.complete(anyString(), anyString(), anyInt(), any(), any())).thenReturn(1);
+    }
+
+    private IdempotencyService serviceAt(Instant now) {
+        return new IdempotencyService(recordRepository, new ObjectMapper().findAndRegisterModules(),
+            properties, Clock.fixed(now, ZoneOffset.UTC));
+    }
+
+    private IdempotentResponse create(IdempotencyService service, Object body) {
+        return service.execute(IdempotencyScope.PAYMENT_CREATE, "key-1", body, HttpStatus.CREATED, () -> {
+            calls.incrementAndGet();
+            return Payment.builder().id("payment-1").build();
+        });
+    }
+
+    @Test
+    void execute_RepeatedKey_ReturnsStoredResponseWithoutRunningAction() {
+        // Arrange
+        IdempotencyService service = serviceAt(NOW);
+
+        // Act
+        IdempotentResponse first = create(service, request);
+        IdempotentResponse second = create(service, request);
+
+        // Assert
+        assertEquals(1, calls.get());
+        assertFalse(first.replayed());
+        assertTrue(second.replayed());
+        assertEquals(201, second.status());
+        assertEquals(first.body(), second.body());
+        verify(recordRepository, times(1)).saveAndFlush(any(IdempotencyRecord.class));
+        String token = reservedRecord().getReservationToken();
+        verify(recordRepository).complete(eq("PAYMENT_CREATE:key-1"), eq(token), eq(201), eq(first.body()),
+            eq(NOW.plus(Duration.ofHours(1))));
+        // İkinci istek bellekten döndü, veritabanına gidilmedi
+        verify(recordRepository, never()).findById(anyString());
+    }
+
+    @Test
+    void execute_ReservationTakenOverBeforeComplete_DoesNotCacheResponse() {
+        // Arrange
+        IdempotencyService service = serviceAt(NOW);
+        // İşlem pendingTimeout'u aştı, anahtar başka bir isteğe geçti
+        when(recordRepository.complete(anyString(), anyString(), anyInt(), any(), any())).thenReturn(0);
+        create(service, request);
+        // Yeni sahibin rezervasyonu
+        IdempotencyRecord otherOwner = reservedRecord();
+        when(recordRepository.findById("PAYMENT_CREATE:key-1")).thenReturn(Optional.of(otherOwner));
+        when(recordRepository.saveAndFlush(any(IdempotencyRecord.class)))
+            .thenThrow(new DataIntegrityViolationException("duplicate key"));
+
+        // Act & Assert: yanıt bellekten tekrar edilmez, anahtarın güncel hali veritabanından okunur
+        assertThrows(IdempotencyConflictException.class, () -> create(service, request));
+        assertEquals(1, calls.get());
+        verify(recordRepository).findById("PAYMENT_CREATE:key-1");
+    }
+
+    @Test
+    void execute_SameKeyDifferentBody_ThrowsConflict() {
+        // Arrange
+        IdempotencyService service = serviceAt(NOW);
+        create(service, request);
+
+        PaymentRequest other = PaymentRequest.builder()
+            .amount(Money.of("200.00", Currency.TRY))
+            .provider(PaymentProvider.PARAM)
+            .build();
+
+        // Act & Assert
+        assertThrows(IdempotencyConflictException.class, () -> create(service, other));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void execute_KeyCompletedOnAnotherInstance_ReplaysStoredResponse() {
+        // Arrange
+        IdempotencyService writer = serviceAt(NOW);
+        IdempotentResponse original = create(writer, request);
+        IdempotencyRecord completed = reservedRecord();
+        completed.setResponseStatus(original.status());
+        completed.setResponseBody(original.body());
+        completed.setExpiresAt(NOW.plus(Duration.ofHours(1)));
+
+        // Yeni instance'ın önbelleği boş; rezervasyon çakışır ve kayıt veritabanından gelir
+        IdempotencyService reader = serviceAt(NOW.plusSeconds(60));
+        when(recordRepository.saveAndFlush(any(IdempotencyRecord.class)))
+            .thenThrow(new DataIntegrityViolationException("duplicate key"));
+        when(recordRepository.findById("PAYMENT_CREATE:key-1")).thenReturn(Optional.of(completed));
+
+        // Act
+        IdempotentResponse response = create(reader, request);
+
+        // Assert
+        assertTrue(response.replayed());
+        assertEquals(original.body(), response.body());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void execute_KeyStillRunningOnAnotherInstance_ThrowsConflictWithoutRunningAction() {
+        // Arrange
+        IdempotencyService first = serviceAt(NOW);
+        create(first, request);
+        IdempotencyRecord pending = reservedRecord();
+        calls.set(0);
+
+        IdempotencyService second = serviceAt(NOW.plusSeconds(1));
+        when(recordRepository.saveAndFlush(any(IdempotencyRecord.class)))
+            .thenThrow(new DataIntegrityViolationException("duplicate key"));
+        when(recordRepository.findById("PAYMENT_CREATE:key-1")).thenReturn(Optional.of(pending));
+
+        // Act & Assert
+        IdempotencyConflictException ex = assertThrows(IdempotencyConflictException.class,
+            () -> create(second, request));
+        assertTrue(ex.getMessage().contains("hâlâ işleniyor"));
+        assertEquals(0, calls.get());
+        verify(recordRepository, never()).deletePending(anyString(), anyString());
+    }
+
+    @Test
+    void execute_ExpiredRecord_RunsActionAgain() {
+        // Arrange
+        IdempotencyRecord expired = IdempotencyRecord.builder()
+            .id("PAYMENT_CREATE:key-1")
+            .requestHash("old")
+            .responseStatus(201)
+            .createdAt(NOW.minus(Duration.ofHours(2)))
+            .expiresAt(NOW.minus(Duration.ofHours(1)))
+            .build();
+        when(recordRepository.saveAndFlush(any(IdempotencyRecord.class)))
+            .thenThrow(new DataIntegrityViolationException("duplicate key"))
+            .thenReturn(null);
+        when(recordRepository.findById("PAYMENT_CREATE:key-1")).thenReturn(Optional.of(expired));
+
+        // Act
+        IdempotentResponse response = create(serviceAt(NOW), request);
+
+        // Assert
+        assertFalse(response.replayed());
+        assertEquals(1, calls.get());
+        verify(recordRepository).deleteIfExpired("PAYMENT_CREATE:key-1", NOW);
+    }
+
+    @Test
+    void execute_ActionFails_ReleasesKey() {
+        // Arrange
+        IdempotencyService service = serviceAt(NOW);
+
+        // Act
+        assertThrows(IllegalStateException.class, () ->
+            service.execute(IdempotencyScope.PAYMENT_CREATE, "key-1", request, HttpStatus.CREATED, () -> {
+                throw new IllegalStateException("sağlayıcı hatası");
+            }));
+        IdempotentResponse retry = create(service, request);
+
+        // Assert
+        assertFalse(retry.replayed());
+        assertEquals(1, calls.get());
+        String failedToken = reservedRecord().getReservationToken();
+        verify(recordRepository).deletePending("PAYMENT_CREATE:key-1", failedToken);
+        verify(recordRepository, times(2)).saveAndFlush(any(IdempotencyRecord.class));
+        verify(recordRepository, times(1)).complete(anyString(), anyString(), anyInt(), any(), any());
+    }
+
+    // İlk saveAndFlush çağrısındaki rezervasyon kaydı (yanıtsız)
+    private IdempotencyRecord reservedRecord() {
+        ArgumentCaptor<IdempotencyRecord> reserved = ArgumentCaptor.forClass(IdempotencyRecord.class);
+        verify(recordRepository, atLeastOnce()).saveAndFlush(reserved.capture());
+        IdempotencyRecord record = reserved.getAllValues().get(0);
+        assertTrue(record.isPending());
+        assertEquals(NOW.plus(properties.getPendingTimeout()), record.getExpiresAt());
+        assertNotNull(record.getReservationToken());
+        return record;
+    }
+}
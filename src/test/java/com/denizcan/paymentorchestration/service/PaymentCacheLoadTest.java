@@ -0,0 +1,116 @@
+package com.denizcan.paymentorchestration.service;
+
+import com.denizcan.paymentorchestration.PaymentOrchestrationApplication;
+import com.denizcan.paymentorchestration.model.Currency;
+import com.denizcan.paymentorchestration.model.Money;
+import com.denizcan.paymentorchestration.model.Payment;
+import com.denizcan.paymentorchestration.model.PaymentProvider;
+import com.denizcan.paymentorchestration.model.PaymentStatus;
+import com.denizcan.paymentorchestration.repository.PaymentRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// getPaymentById okuma yolunun gecikmesini önbellekli ve önbelleksiz (spring.cache.type=none)
+// çalışmada karşılaştırır. GET /api/payments/{id} yoklaması ve durum değiştiren her metodun
+// ilk adımı bu yoldan geçer.
+// Çalıştırmak için: mvn test -Pload-test
+@Slf4j
+@Tag("load")
+class PaymentCacheLoadTest {
+
+    private static final int PAYMENT_COUNT = 1_000;
+    private static final int WARMUP_LOOKUPS = 50_000;
+    private static final int MEASURED_LOOKUPS = 100_000;
+
+    @Test
+    void getPaymentById_WithCache_IsFasterThanDatabaseRead() {
+        // Act
+        LatencyStats uncached = measureReadLatency("none");
+        LatencyStats cached = measureReadLatency("caffeine");
+
+        // Assert
+        log.info("Önbelleksiz okuma: {}", uncached);
+        log.info("Önbellekli okuma: {}", cached);
+        assertTrue(cached.mean() * 5 < uncached.mean(),
+            "Önbellekli okuma en az beş kat hızlı olmalı");
+    }
+
+    private LatencyStats measureReadLatency(String cacheType) {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(PaymentOrchestrationApplication.class)
+                .run(
+                    "--server.port=0",
+                    "--spring.cache.type=" + cacheType,
+                    "--spring.datasource.url=jdbc:h2:mem:cache-" + cacheType + ";DB_CLOSE_DELAY=-1",
+                    "--spring.jpa.show-sql=false")) {
+
+            PaymentService paymentService = context.getBean(PaymentService.class);
+            List<String> ids = createPayments(context.getBean(PaymentRepository.class));
+
+            // Isınma turu: JIT derlensin ve önbellek dolsun
+            readRandom(paymentService, ids, WARMUP_LOOKUPS, null);
+
+            long[] samples = new long[MEASURED_LOOKUPS];
+            readRandom(paymentService, ids, MEASURED_LOOKUPS, samples);
+
+            if ("caffeine".equals(cacheType)) {
+                MeterRegistry registry = context.getBean(MeterRegistry.class);
+                double hits = registry.get("cache.gets").tag("cache", PaymentCache.CACHE_NAME)
+                    .tag("result", "hit").functionCounter().count();
+                assertTrue(hits >= MEASURED_LOOKUPS, "Ölçüm turundaki okumalar önbellekten gelmeli");
+            }
+            return LatencyStats.of(samples);
+        }
+    }
+
+    private void readRandom(PaymentService paymentService, List<String> ids, int lookups, long[] samples) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < lookups; i++) {
+            String id = ids.get(random.nextInt(ids.size()));
+            long start = System.nanoTime();
+            Payment payment = paymentService.getPaymentById(id);
+            if (samples != null) {
+                samples[i] = System.nanoTime() - start;
+            }
+            assertEquals(id, payment.getId());
+        }
+    }
+
+    private List<String> createPayments(PaymentRepository repository) {
+        List<Payment> payments = new ArrayList<>(PAYMENT_COUNT);
+        for (int i = 0; i < PAYMENT_COUNT; i++) {
+            payments.add(Payment.builder()
+                .amount(Money.of("100.00", Currency.TRY))
+                .provider(PaymentProvider.PARAM)
+                .status(PaymentStatus.PENDING)
+                .build());
+        }
+        return repository.saveAll(payments).stream().map(Payment::getId).toList();
+    }
+
+    private record LatencyStats(double mean, long p50, long p99) {
+        static LatencyStats of(long[] samples) {
+            long[] sorted = samples.clone();
+            Arrays.sort(sorted);
+            return new LatencyStats(
+                Arrays.stream(sorted).average().orElse(0),
+                sorted[sorted.length / 2],
+                sorted[(int) (sorted.length * 0.99)]);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("ortalama %.1f µs, p50 %.1f µs, p99 %.1f µs", mean / 1000, p50 / 1000.0, p99 / 1000.0);
+        }
+    }
+}
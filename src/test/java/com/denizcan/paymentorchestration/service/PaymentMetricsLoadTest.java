@@ -0,0 +1,59 @@
+package com.denizcan.paymentorchestration.service;
+
+import com.denizcan.paymentorchestration.model.Currency;
+import com.denizcan.paymentorchestration.model.PaymentProvider;
+import com.denizcan.paymentorchestration.service.PaymentMetrics.ProviderOperation;
+import com.denizcan.paymentorchestration.service.PaymentMetrics.ProviderOutcome;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Sağlayıcı çağrısı ölçümünün maliyetini Prometheus registry'si üzerinde bütçeyle sınırlar.
+// Ayrıntılı ölçüm MetricsOverheadBenchmark'ta; bu test bütçenin aşıldığı değişiklikleri yakalar.
+// Çalıştırmak için: mvn test -Pload-test
+@Slf4j
+@Tag("load")
+class PaymentMetricsLoadTest {
+
+    private static final int WARMUP_RECORDS = 2_000_000;
+    private static final int MEASURED_RECORDS = 5_000_000;
+    private static final double BUDGET_NANOS_PER_RECORD = 500;
+
+    private static final PaymentProvider[] PROVIDERS = PaymentProvider.values();
+    private static final Currency[] CURRENCIES = Currency.values();
+
+    @Test
+    void recordProviderCall_PrometheusRegistry_StaysWithinBudgetWithoutAllocation() {
+        // Arrange
+        PaymentMetrics metrics = new PaymentMetrics(new PrometheusMeterRegistry(PrometheusConfig.DEFAULT));
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        record(metrics, WARMUP_RECORDS);
+
+        // Act
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        record(metrics, MEASURED_RECORDS);
+        double nanosPerRecord = (double) (System.nanoTime() - start) / MEASURED_RECORDS;
+        double bytesPerRecord = (double) (threads.getCurrentThreadAllocatedBytes() - allocatedBefore) / MEASURED_RECORDS;
+
+        // Assert
+        log.info("Kayıt başına {} ns, {} bayt", String.format("%.1f", nanosPerRecord),
+            String.format("%.3f", bytesPerRecord));
+        assertTrue(nanosPerRecord < BUDGET_NANOS_PER_RECORD,
+            () -> "Ölçüm maliyeti bütçeyi aşıyor: " + nanosPerRecord + " ns");
+        assertTrue(bytesPerRecord < 1, () -> "Ölçüm kaydı bellek ayırmamalı: " + bytesPerRecord + " bayt");
+    }
+
+    private static void record(PaymentMetrics metrics, int count) {
+        for (int i = 0; i < count; i++) {
+            metrics.recordProviderCall(ProviderOperation.PROCESS, PROVIDERS[i % PROVIDERS.length],
+                CURRENCIES[i % CURRENCIES.length], ProviderOutcome.APPROVED, 1_000_000L + (i & 0xFFFF));
+        }
+    }
+}
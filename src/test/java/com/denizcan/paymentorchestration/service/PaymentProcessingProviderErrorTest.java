@@ -0,0 +1,64 @@
+package com.denizcan.paymentorchestration.service;
+
+import com.denizcan.paymentorchestration.model.Currency;
+import com.denizcan.paymentorchestration.model.Money;
+import com.denizcan.paymentorchestration.model.Payment;
+import com.denizcan.paymentorchestration.model.PaymentProvider;
+import com.denizcan.paymentorchestration.model.PaymentStatus;
+import com.denizcan.paymentorchestration.repository.PaymentRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Simülatör her çağrıda "sağlayıcıya ulaşılamadı" hatası verir; senkron ve asenkron işleme
+// ödemeyi aynı şekilde sonuçlandırmalı, PROCESSING'de bırakmamalı
+@SpringBootTest(properties = {
+    "payment.providers.simulation.PAPARA.latency=5ms",
+    "payment.providers.simulation.PAPARA.error-rate=1.0"
+})
+class PaymentProcessingProviderErrorTest {
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Test
+    void processPayment_ProviderUnreachable_MarksPaymentFailed() {
+        // Arrange
+        String id = createPayment().getId();
+
+        // Act
+        Payment processed = paymentService.processPayment(id);
+
+        // Assert
+        assertEquals(PaymentStatus.FAILED, processed.getStatus());
+        assertEquals(PaymentStatus.FAILED, paymentRepository.findById(id).orElseThrow().getStatus());
+    }
+
+    @Test
+    void processPaymentAsynchronously_ProviderUnreachable_MarksPaymentFailed() throws Exception {
+        // Arrange
+        String id = createPayment().getId();
+
+        // Act
+        Payment processed = paymentService.processPaymentAsynchronously(id).get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(PaymentStatus.FAILED, processed.getStatus());
+        assertEquals(PaymentStatus.FAILED, paymentRepository.findById(id).orElseThrow().getStatus());
+    }
+
+    private Payment createPayment() {
+        return paymentRepository.save(Payment.builder()
+            .amount(Money.of("100.00", Currency.TRY))
+            .provider(PaymentProvider.PAPARA)
+            .status(PaymentStatus.PENDING)
+            .build());
+    }
+}
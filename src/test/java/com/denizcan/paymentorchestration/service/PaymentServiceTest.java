@@ -1,26 +1,63 @@
 package com.denizcan.paymentorchestration.service;
 
+import com.denizcan.paymentorchestration.model.Currency;
+import com.denizcan.paymentorchestration.model.Money;
 import com.denizcan.paymentorchestration.model.Payment;
 import com.denizcan.paymentorchestration.model.PaymentProvider;
 import com.denizcan.paymentorchestration.model.PaymentStatus;
 import com.denizcan.paymentorchestration.repository.PaymentRepository;
+import com.denizcan.paymentorchestration.dto.PaymentFilter;
+import com.denizcan.paymentorchestration.dto.PaymentPage;
 import com.denizcan.paymentorchestration.dto.PaymentRequest;
+import com.denizcan.paymentorchestration.dto.PaymentStatusView;
+import com.denizcan.paymentorchestration.repository.PaymentCursor;
 import com.denizcan.paymentorchestration.exception.PaymentNotFoundException;
 import com.denizcan.paymentorchestration.exception.PaymentValidationException;
+import com.denizcan.paymentorchestration.exception.ProviderRejectedException;
+import com.denizcan.paymentorchestration.exception.ProviderTimeoutException;
 import com.denizcan.paymentorchestration.factory.PaymentProviderFactory;
+import com.denizcan.paymentorchestration.factory.ProviderRouter;
+import com.denizcan.paymentorchestration.service.archive.PaymentArchive;
+import com.denizcan.paymentorchestration.service.inflight.InFlightIndex;
+import com.denizcan.paymentorchestration.service.fx.FxService;
+import com.denizcan.paymentorchestration.service.fx.StubFxRateSource;
+import com.denizcan.paymentorchestration.service.provider.AsyncPaymentProviderService;
 import com.denizcan.paymentorchestration.service.provider.PaymentProviderService;
+import com.denizcan.paymentorchestration.service.provider.ProviderConcurrencyLimiter;
+import com.denizcan.paymentorchestration.service.provider.ProviderCallTimeout;
+import com.denizcan.paymentorchestration.service.provider.ProviderCircuitBreaker;
+import com.denizcan.paymentorchestration.service.provider.ProviderRetryBudget;
+import com.denizcan.paymentorchestration.service.provider.ProviderRetryExecutor;
+import com.denizcan.paymentorchestration.service.provider.ProviderStats;
+import com.denizcan.paymentorchestration.config.FxProperties;
+import com.denizcan.paymentorchestration.config.ProviderProperties;
+import com.denizcan.paymentorchestration.config.RoutingProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import java.math.BigDecimal;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -38,19 +75,46 @@ class PaymentServiceTest {
     @Mock
     private PaymentProviderService paymentProviderService;
 
+    @Mock
+    private ProviderRouter providerRouter;
+
+    @Mock
+    private AsyncPaymentProviderService asyncProviderService;
+
+    @Mock
+    private PaymentArchive archive;
+
+    @Mock
+    private InFlightIndex inFlightIndex;
+
     private PaymentService paymentService;
 
     @BeforeEach
     void setUp() {
-        paymentService = new PaymentService(paymentRepository, providerFactory, asyncPaymentService);
+        ProviderProperties providerProperties = new ProviderProperties();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ProviderStats providerStats = new ProviderStats(new RoutingProperties(), Clock.systemUTC());
+        ProviderConcurrencyLimiter concurrencyLimiter = new ProviderConcurrencyLimiter(providerProperties, providerStats,
+            new ProviderCircuitBreaker(providerProperties, Clock.systemUTC(), meterRegistry),
+            new ProviderRetryExecutor(providerProperties, providerStats,
+                new ProviderRetryBudget(providerProperties, Clock.systemUTC(), meterRegistry), meterRegistry),
+            new ProviderCallTimeout(providerProperties), meterRegistry);
+        PaymentCache paymentCache = new PaymentCache(new ConcurrentMapCacheManager(), inFlightIndex);
+        PaymentStateMachine stateMachine = new PaymentStateMachine();
+        FxProperties fxProperties = new FxProperties();
+        FxService fxService = new FxService(new StubFxRateSource(fxProperties.getStub(), Clock.systemUTC()),
+            fxProperties, Clock.systemUTC(), meterRegistry);
+        fxService.refresh();
+        paymentService = new PaymentService(paymentRepository, providerFactory, asyncPaymentService,
+            concurrencyLimiter, paymentCache, stateMachine, providerRouter, fxService, new PaymentMetrics(meterRegistry),
+            archive, new JpaPaymentTransitions(paymentRepository));
     }
 
     @Test
     void createPayment_ValidRequest_ReturnsPayment() {
         // Arrange
         PaymentRequest request = PaymentRequest.builder()
-            .amount(new BigDecimal("100.00"))
-            .currency("TRY")
+            .amount(Money.of("100.00", Currency.TRY))
             .provider(PaymentProvider.PARAM)
             .description("Test ödeme")
             .build();
@@ -58,7 +122,6 @@ class PaymentServiceTest {
         Payment expectedPayment = Payment.builder()
             .id("test-id")
             .amount(request.getAmount())
-            .currency(request.getCurrency())
             .provider(request.getProvider())
             .description(request.getDescription())
             .status(PaymentStatus.PENDING)
@@ -72,17 +135,36 @@ class PaymentServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals(expectedPayment.getAmount(), result.getAmount());
-        assertEquals(expectedPayment.getCurrency(), result.getCurrency());
         assertEquals(PaymentStatus.PENDING, result.getStatus());
         verify(paymentRepository).save(any(Payment.class));
     }
 
+    @Test
+    void createPayment_ForeignCurrency_StoresSettlementAmount() {
+        // Arrange
+        PaymentRequest request = PaymentRequest.builder()
+            .amount(Money.of("10.00", Currency.USD))
+            .provider(PaymentProvider.PARAM)
+            .build();
+        when(paymentRepository.save(any(Payment.class))).thenAnswer(invocation -> {
+            Payment saved = invocation.getArgument(0);
+            saved.setId("test-id");
+            return saved;
+        });
+
+        // Act
+        Payment result = paymentService.createPayment(request);
+
+        // Assert
+        assertEquals(Money.of("10.00", Currency.USD), result.getAmount());
+        assertEquals(Money.of("325.00", Currency.TRY), result.getSettlementAmount());
+    }
+
     @Test
     void createPayment_InvalidAmount_ThrowsException() {
         // Arrange
         PaymentRequest request = PaymentRequest.builder()
-            .amount(new BigDecimal("-100.00"))
-            .currency("TRY")
+            .amount(Money.of("-100.00", Currency.TRY))
             .provider(PaymentProvider.PARAM)
             .build();
 
@@ -92,11 +174,10 @@ class PaymentServiceTest {
     }
 
     @Test
-    void createPayment_InvalidCurrency_ThrowsException() {
+    void createPayment_ZeroAmount_ThrowsException() {
         // Arrange
         PaymentRequest request = PaymentRequest.builder()
-            .amount(new BigDecimal("100.00"))
-            .currency("INVALID")  // Geçersiz para birimi
+            .amount(Money.zero(Currency.TRY))
             .provider(PaymentProvider.PARAM)
             .build();
 
@@ -106,13 +187,35 @@ class PaymentServiceTest {
     }
 
     @Test
-    void createPayment_NullProvider_ThrowsException() {
+    void createPayment_NullProvider_UsesRoutedProvider() {
         // Arrange
         PaymentRequest request = PaymentRequest.builder()
-            .amount(new BigDecimal("100.00"))
-            .currency("TRY")
+            .amount(Money.of("100.00", Currency.TRY))
             .provider(null)  // Sağlayıcı boş
             .build();
+        when(providerRouter.route(Money.of("100.00", Currency.TRY))).thenReturn(PaymentProvider.PAPARA);
+        when(paymentRepository.save(any(Payment.class))).thenAnswer(invocation -> {
+            Payment saved = invocation.getArgument(0);
+            saved.setId("test-id");
+            return saved;
+        });
+
+        // Act
+        Payment result = paymentService.createPayment(request);
+
+        // Assert
+        assertEquals(PaymentProvider.PAPARA, result.getProvider());
+    }
+
+    @Test
+    void createPayment_NullProviderAndNoEligibleProvider_ThrowsException() {
+        // Arrange
+        PaymentRequest request = PaymentRequest.builder()
+            .amount(Money.of("100.00", Currency.TRY))
+            .provider(null)
+            .build();
+        when(providerRouter.route(any()))
+            .thenThrow(new PaymentValidationException("Uygun sağlayıcı bulunamadı"));
 
         // Act & Assert
         assertThrows(PaymentValidationException.class, () -> paymentService.createPayment(request));
@@ -125,16 +228,15 @@ class PaymentServiceTest {
         String paymentId = "test-id";
         Payment payment = Payment.builder()
             .id(paymentId)
-            .amount(new BigDecimal("100.00"))
-            .currency("TRY")
+            .amount(Money.of("100.00", Currency.TRY))
             .provider(PaymentProvider.PARAM)
             .status(PaymentStatus.PENDING)
             .build();
 
         when(paymentRepository.findById(paymentId)).thenReturn(Optional.of(payment));
+        simulateTransitions(payment);
         when(providerFactory.getProvider(any())).thenReturn(paymentProviderService);
         when(paymentProviderService.processPayment(any())).thenReturn(true);
-        when(paymentRepository.save(any(Payment.class))).thenReturn(payment);
 
         // Act
         Payment result = paymentService.processPayment(paymentId);
@@ -142,7 +244,8 @@ class PaymentServiceTest {
         // Assert
         assertEquals(PaymentStatus.COMPLETED, result.getStatus());
         verify(paymentProviderService).processPayment(any(Payment.class));
-        verify(paymentRepository, times(2)).save(any(Payment.class));
+        verify(paymentRepository, times(2)).transitionStatus(eq(paymentId), anyCollection(), any());
+        verify(paymentRepository, never()).save(any(Payment.class));
     }
 
     @Test
@@ -155,9 +258,9 @@ class PaymentServiceTest {
             .build();
 
         when(paymentRepository.findById(paymentId)).thenReturn(Optional.of(payment));
+        simulateTransitions(payment);
         when(providerFactory.getProvider(any())).thenReturn(paymentProviderService);
         when(paymentProviderService.processPayment(any())).thenReturn(false);
-        when(paymentRepository.save(any(Payment.class))).thenReturn(payment);
 
         // Act
         Payment result = paymentService.processPayment(paymentId);
@@ -186,6 +289,7 @@ class PaymentServiceTest {
             .build();
 
         when(paymentRepository.findById(paymentId)).thenReturn(Optional.of(payment));
+        simulateTransitions(payment);
 
         // Act & Assert
         assertThrows(PaymentValidationException.class, () -> paymentService.processPayment(paymentId));
@@ -193,134 +297,406 @@ class PaymentServiceTest {
     }
 
     @Test
-    void processPaymentAsync_Success_ReturnsCompletedFuture() {
+    void processPayment_ProviderRejected_RevertsToPending() {
         // Arrange
         String paymentId = "test-id";
         Payment payment = Payment.builder()
             .id(paymentId)
+            .provider(PaymentProvider.PARAM)
             .status(PaymentStatus.PENDING)
             .build();
 
         when(paymentRepository.findById(paymentId)).thenReturn(Optional.of(payment));
-        when(asyncPaymentService.processPaymentAsync(any()))
-            .thenReturn(CompletableFuture.completedFuture(payment));
+        simulateTransitions(payment);
         when(providerFactory.getProvider(any())).thenReturn(paymentProviderService);
-        when(paymentProviderService.processPayment(any())).thenReturn(true);
+        when(paymentProviderService.processPayment(any()))
+            .thenThrow(new ProviderRejectedException("Ödeme sağlayıcı geçici olarak devre dışı: PARAM"));
 
-        // Act
-        CompletableFuture<Payment> future = paymentService.processPaymentAsynchronously(paymentId);
-
-        // Assert
-        assertNotNull(future);
-        assertDoesNotThrow(() -> future.get(1, TimeUnit.SECONDS));
+        // Act & Assert
+        assertThrows(ProviderRejectedException.class, () -> paymentService.processPayment(paymentId));
+        assertEquals(PaymentStatus.PENDING, payment.getStatus(), "Reddedilen ödeme tekrar işlenebilmeli");
     }
 
     @Test
-    void updatePayment_Success_ReturnsUpdatedPayment() {
+    void processPayment_ProviderTimeout_LeavesPaymentProcessing() {
         // Arrange
         String paymentId = "test-id";
-        Payment existingPayment = Payment.builder()
+        Payment payment = Payment.builder()
             .id(paymentId)
-            .amount(new BigDecimal("100.00"))
-            .currency("TRY")
             .status(PaymentStatus.PENDING)
             .build();
 
-        Payment updateDetails = Payment.builder()
-            .amount(new BigDecimal("150.00"))
-            .currency("USD")
-            .description("Updated description")
-            .build();
-
-        when(paymentRepository.findById(paymentId)).thenReturn(Optional.of(existingPayment));
-        when(paymentRepository.save(any(Payment.class))).thenReturn(existingPayment);
-
-        // Act
-        Payment result = paymentService.updatePayment(paymentId, updateDetails);
+        when(paymentRepository.findById(paymentId)).thenReturn(Optional.of(payment));
+        simulateTransitions(payment);
+        when(providerFactory.getProvider(any())).thenReturn(paymentProviderService);
+        when(paymentProviderService.processPayment(any()))
+            .thenThrow(new ProviderTimeoutException("Ödeme sağlayıcı zamanında cevap vermedi: PARAM"));
 
-        // Assert
-        assertEquals(updateDetails.getAmount(), result.getAmount());
-        assertEquals(updateDetails.getCurrency(), result.getCurrency());
-        assertEquals(updateDetails.getDescription(), result.getDescription());
-        assertEquals(PaymentStatus.PENDING, result.getStatus()); // Status değişmemeli
+        // Act & Assert
+        assertThrows(ProviderTimeoutException.class, () -> paymentService.processPayment(paymentId));
+        assertEquals(PaymentStatus.PROCESSING, payment.getStatus(), "Sonucu bilinmeyen ödeme sonuçlandırılmamalı");
     }
 
     @Test
-    void refundPayment_Success_ReturnsRefundedPayment() {
+    void checkProviderStatus_ProcessingPayment_AppliesProviderAnswer() {
         // Arrange
         String paymentId = "test-id";
         Payment payment = Payment.builder()
             .id(paymentId)
-            .amount(new BigDecimal("100.00"))
-            .currency("TRY")
             .provider(PaymentProvider.PARAM)
-            .status(PaymentStatus.COMPLETED)  // Sadece tamamlanmış ödemeler iade edilebilir
+            .status(PaymentStatus.PROCESSING)
             .build();
 
         when(paymentRepository.findById(paymentId)).thenReturn(Optional.of(payment));
-        when(providerFactory.getProvider(any())).thenReturn(paymentProviderService);
-        when(paymentProviderService.refundPayment(any())).thenReturn(true);
-        when(paymentRepository.save(any(Payment.class))).thenReturn(payment);
+        simulateTransitions(payment);
+        when(providerFactory.getAsyncProvider(PaymentProvider.PARAM)).thenReturn(asyncProviderService);
+        when(asyncProviderService.queryPaymentStatusAsync(any())).thenReturn(CompletableFuture.completedFuture(true));
 
         // Act
-        Payment result = paymentService.refundPayment(paymentId);
+        Payment result = assertDoesNotThrow(() ->
+            paymentService.checkProviderStatus(paymentId).get(1, TimeUnit.SECONDS));
 
         // Assert
-        assertEquals(PaymentStatus.REFUNDED, result.getStatus());
-        verify(paymentProviderService).refundPayment(any(Payment.class));
-        verify(paymentRepository).save(any(Payment.class));
+        assertEquals(PaymentStatus.COMPLETED, result.getStatus());
     }
 
     @Test
-    void refundPayment_NotCompleted_ThrowsException() {
+    void checkProviderStatus_SettledPayment_ThrowsException() {
         // Arrange
         String paymentId = "test-id";
         Payment payment = Payment.builder()
             .id(paymentId)
-            .status(PaymentStatus.PENDING)  // Tamamlanmamış ödeme
+            .provider(PaymentProvider.PARAM)
+            .status(PaymentStatus.COMPLETED)
             .build();
 
         when(paymentRepository.findById(paymentId)).thenReturn(Optional.of(payment));
 
         // Act & Assert
-        assertThrows(PaymentValidationException.class, 
-            () -> paymentService.refundPayment(paymentId));
-        verify(paymentProviderService, never()).refundPayment(any(Payment.class));
+        assertThrows(PaymentValidationException.class, () -> paymentService.checkProviderStatus(paymentId));
+        verify(asyncProviderService, never()).queryPaymentStatusAsync(any());
     }
 
     @Test
-    void refundPayment_AlreadyRefunded_ThrowsException() {
+    void processPaymentAsync_Success_ReturnsCompletedFuture() {
         // Arrange
         String paymentId = "test-id";
         Payment payment = Payment.builder()
             .id(paymentId)
-            .status(PaymentStatus.REFUNDED)  // Zaten iade edilmiş
+            .status(PaymentStatus.PENDING)
             .build();
 
         when(paymentRepository.findById(paymentId)).thenReturn(Optional.of(payment));
+        simulateTransitions(payment);
+        when(asyncPaymentService.processPaymentAsync(any())).thenAnswer(invocation -> {
+            Payment processing = invocation.getArgument(0);
+            processing.setStatus(PaymentStatus.COMPLETED);
+            return CompletableFuture.completedFuture(processing);
+        });
 
-        // Act & Assert
-        assertThrows(PaymentValidationException.class, 
-            () -> paymentService.refundPayment(paymentId));
-        verify(paymentProviderService, never()).refundPayment(any(Payment.class));
+        // Act
+        CompletableFuture<Payment> future = paymentService.processPaymentAsynchronously(paymentId);
+
+        // Assert
+        assertNotNull(future);
+        Payment result = assertDoesNotThrow(() -> future.get(1, TimeUnit.SECONDS));
+        assertEquals(PaymentStatus.COMPLETED, result.getStatus());
+        verify(paymentProviderService, never()).processPayment(any(Payment.class));
     }
 
     @Test
-    void refundPayment_ProviderFailure_ThrowsException() {
+    void processPaymentAsync_ProviderError_MarksPaymentFailed() {
         // Arrange
         String paymentId = "test-id";
         Payment payment = Payment.builder()
             .id(paymentId)
-            .status(PaymentStatus.COMPLETED)
+            .status(PaymentStatus.PENDING)
             .build();
 
         when(paymentRepository.findById(paymentId)).thenReturn(Optional.of(payment));
-        when(providerFactory.getProvider(any())).thenReturn(paymentProviderService);
-        when(paymentProviderService.refundPayment(any())).thenReturn(false);
+        simulateTransitions(payment);
+        when(asyncPaymentService.processPaymentAsync(any()))
+            .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("Sağlayıcı hatası")));
+
+        // Act
+        CompletableFuture<Payment> future = paymentService.processPaymentAsynchronously(paymentId);
+
+        // Assert
+        Payment result = assertDoesNotThrow(() -> future.get(1, TimeUnit.SECONDS));
+        assertEquals(PaymentStatus.FAILED, result.getStatus());
+    }
+
+    @Test
+    void updatePayment_Success_ReturnsUpdatedPayment() {
+        // Arrange
+        String paymentId = "test-id";
+        Payment existingPayment = Payment.builder()
+            .id(paymentId)
+            .amount(Money.of("100.00", Currency.TRY))
+            .status(PaymentStatus.PENDING)
+            .build();
+
+        Payment updateDetails = Payment.builder()
+            .amount(Money.of("150.00", Currency.USD))
+            .description("Updated description")
+            .build();
+
+        when(paymentRepository.findById(paymentId)).thenReturn(Optional.of(existingPayment));
+        when(paymentRepository.save(any(Payment.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        Payment result = paymentService.updatePayment(paymentId, updateDetails);
+
+        // Assert
+        assertEquals(updateDetails.getAmount(), result.getAmount());
+        assertEquals(Money.zero(Currency.USD), result.getRefundedAmount());
+        assertEquals(updateDetails.getDescription(), result.getDescription());
+        assertEquals(PaymentStatus.PENDING, result.getStatus()); // Status değişmemeli
+    }
+
+    @Test
+    void getPayments_MoreRowsThanLimit_ReturnsNextCursor() {
+        // Arrange
+        Instant now = Instant.parse("2026-01-01T00:00:00Z");
+        List<Payment> rows = List.of(
+            Payment.builder().id("c").createdAt(now.plusSeconds(2)).build(),
+            Payment.builder().id("b").createdAt(now.plusSeconds(1)).build(),
+            Payment.builder().id("a").createdAt(now).build());
+        when(paymentRepository.findPage(any(), isNull(), eq(3))).thenReturn(rows);
 
+        // Act
+        PaymentPage page = paymentService.getPayments(new PaymentFilter(), null, 2);
+
+        // Assert
+        assertEquals(2, page.getItems().size());
+        assertEquals(new PaymentCursor(now.plusSeconds(1), "b"), PaymentCursor.decode(page.getNextCursor()));
+    }
+
+    @Test
+    void getPayments_LastPage_ReturnsNullCursor() {
+        // Arrange
+        when(paymentRepository.findPage(any(), any(), eq(51))).thenReturn(List.of(Payment.builder().id("a").build()));
+
+        // Act
+        PaymentPage page = paymentService.getPayments(new PaymentFilter(), null, 50);
+
+        // Assert
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void getPayments_LimitTooLarge_ThrowsException() {
         // Act & Assert
-        assertThrows(PaymentValidationException.class, 
-            () -> paymentService.refundPayment(paymentId));
+        assertThrows(PaymentValidationException.class,
+            () -> paymentService.getPayments(new PaymentFilter(), null, PaymentService.MAX_PAGE_SIZE + 1));
+        verify(paymentRepository, never()).findPage(any(), any(), anyInt());
+    }
+
+    @Test
+    void getPaymentById_RepeatedCalls_ReadsDatabaseOnce() {
+        // Arrange
+        Payment payment = Payment.builder().id("test-id").status(PaymentStatus.PENDING).build();
+        when(paymentRepository.findById("test-id")).thenReturn(Optional.of(payment));
+
+        // Act
+        paymentService.getPaymentById("test-id");
+        Payment result = paymentService.getPaymentById("test-id");
+
+        // Assert
+        assertEquals("test-id", result.getId());
+        verify(paymentRepository, times(1)).findById("test-id");
+    }
+
+    @Test
+    void getPaymentStatus_IndexedPayment_SkipsDatabase() {
+        // Arrange
+        PaymentStatusView indexed = new PaymentStatusView("test-id", PaymentStatus.PROCESSING, PaymentProvider.PARAM,
+            Money.of("100.00", Currency.TRY), 2);
+        when(inFlightIndex.get("test-id")).thenReturn(indexed);
+
+        // Act
+        PaymentStatusView result = paymentService.getPaymentStatus("test-id");
+
+        // Assert
+        assertEquals(indexed, result);
+        verify(paymentRepository, never()).findById(any());
+    }
+
+    @Test
+    void getPaymentStatus_NotIndexed_LoadsAndIndexesPayment() {
+        // Arrange
+        Payment payment = Payment.builder().id("test-id").amount(Money.of("100.00", Currency.TRY))
+            .status(PaymentStatus.PENDING).version(1L).build();
+        when(paymentRepository.findById("test-id")).thenReturn(Optional.of(payment));
+        when(inFlightIndex.generation("test-id")).thenReturn(5L);
+
+        // Act
+        PaymentStatusView result = paymentService.getPaymentStatus("test-id");
+
+        // Assert
+        assertEquals(PaymentStatus.PENDING, result.status());
+        assertEquals(1, result.version());
+        verify(inFlightIndex).putIfUnchanged(payment, 5L);
+    }
+
+    @Test
+    void getPaymentById_CallerMutatesResult_CacheUnaffected() {
+        // Arrange
+        Payment payment = Payment.builder().id("test-id").status(PaymentStatus.PENDING).build();
+        when(paymentRepository.findById("test-id")).thenReturn(Optional.of(payment));
+
+        // Act
+        paymentService.getPaymentById("test-id").setStatus(PaymentStatus.COMPLETED);
+        Payment result = paymentService.getPaymentById("test-id");
+
+        // Assert
+        assertEquals(PaymentStatus.PENDING, result.getStatus());
+    }
+
+    @Test
+    void completePayment_CachedPayment_ReplacesStaleEntry() {
+        // Arrange
+        Payment payment = Payment.builder().id("test-id").status(PaymentStatus.PENDING).build();
+        when(paymentRepository.findById("test-id")).thenReturn(Optional.of(payment));
+        simulateTransitions(payment);
+        paymentService.getPaymentById("test-id");
+
+        // Act
+        paymentService.completePayment("test-id");
+        Payment result = paymentService.getPaymentById("test-id");
+
+        // Assert
+        assertEquals(PaymentStatus.COMPLETED, result.getStatus());
+        // Geçiş önbellekteki kopyaya da uygulanır, ödeme tekrar okunmaz
+        verify(paymentRepository, times(1)).findById("test-id");
+    }
+
+    @Test
+    void completePayment_VersionedPayment_UpdatesWithoutReading() {
+        // Arrange
+        Payment payment = Payment.builder().id("test-id").version(3L).status(PaymentStatus.PENDING).build();
+        when(paymentRepository.findById("test-id")).thenReturn(Optional.of(payment));
+        when(paymentRepository.transitionStatus(any(Payment.class), anyCollection(), eq(PaymentStatus.COMPLETED)))
+            .thenReturn(1);
+
+        // Act
+        Payment result = paymentService.completePayment("test-id");
+
+        // Assert
+        assertEquals(PaymentStatus.COMPLETED, result.getStatus());
+        assertEquals(4L, result.getVersion());
+        assertEquals(4L, paymentService.getPaymentById("test-id").getVersion());
+        verify(paymentRepository, times(1)).findById("test-id");
+        verify(paymentRepository, never()).transitionStatus(anyString(), anyCollection(), any());
+    }
+
+    @Test
+    void completePayment_StaleCachedVersion_ReloadsAndRetries() {
+        // Arrange
+        Payment stale = Payment.builder().id("test-id").version(3L).status(PaymentStatus.PENDING).build();
+        Payment fresh = Payment.builder().id("test-id").version(5L).status(PaymentStatus.PENDING).build();
+        when(paymentRepository.findById("test-id"))
+            .thenReturn(Optional.of(stale))
+            .thenReturn(Optional.of(fresh));
+        when(paymentRepository.transitionStatus(any(Payment.class), anyCollection(), eq(PaymentStatus.COMPLETED)))
+            .thenAnswer(invocation -> invocation.<Payment>getArgument(0).getVersion() == 5L ? 1 : 0);
+
+        // Act
+        Payment result = paymentService.completePayment("test-id");
+
+        // Assert
+        assertEquals(PaymentStatus.COMPLETED, result.getStatus());
+        assertEquals(6L, result.getVersion());
+        verify(paymentRepository, times(2)).findById("test-id");
+    }
+
+    @Test
+    void deletePayment_CachedPayment_EvictsCache() {
+        // Arrange
+        Payment payment = Payment.builder().id("test-id").status(PaymentStatus.PENDING).build();
+        when(paymentRepository.findById("test-id"))
+            .thenReturn(Optional.of(payment))
+            .thenReturn(Optional.empty());
+
+        // Act
+        paymentService.deletePayment("test-id");
+
+        // Assert
+        assertThrows(PaymentNotFoundException.class, () -> paymentService.getPaymentById("test-id"));
+    }
+
+    @Test
+    void completePayment_PendingPayment_UsesSingleConditionalUpdate() {
+        // Arrange
+        Payment payment = Payment.builder().id("test-id").status(PaymentStatus.PENDING).build();
+        when(paymentRepository.findById("test-id")).thenReturn(Optional.of(payment));
+        simulateTransitions(payment);
+
+        // Act
+        Payment result = paymentService.completePayment("test-id");
+
+        // Assert
+        assertEquals(PaymentStatus.COMPLETED, result.getStatus());
+        verify(paymentRepository).transitionStatus("test-id",
+            EnumSet.of(PaymentStatus.PENDING, PaymentStatus.PROCESSING), PaymentStatus.COMPLETED);
         verify(paymentRepository, never()).save(any(Payment.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    void completePayment_LostRaceToFailPayment_ThrowsException() {
+        // Arrange
+        Payment payment = Payment.builder().id("test-id").status(PaymentStatus.FAILED).build();
+        when(paymentRepository.findById("test-id")).thenReturn(Optional.of(payment));
+        simulateTransitions(payment);
+
+        // Act & Assert
+        PaymentValidationException ex = assertThrows(PaymentValidationException.class,
+            () -> paymentService.completePayment("test-id"));
+        assertTrue(ex.getMessage().contains("FAILED"));
+    }
+
+    @Test
+    void updatePayment_StaleVersion_EvictsCacheAndRethrows() {
+        // Arrange
+        Payment payment = Payment.builder().id("test-id").version(1L).status(PaymentStatus.PENDING).build();
+        when(paymentRepository.findById("test-id")).thenReturn(Optional.of(payment));
+        when(paymentRepository.save(any(Payment.class)))
+            .thenThrow(new ObjectOptimisticLockingFailureException(Payment.class, "test-id"));
+
+        // Act & Assert
+        assertThrows(OptimisticLockingFailureException.class,
+            () -> paymentService.updatePayment("test-id", Payment.builder().amount(Money.of("10.00", Currency.TRY)).build()));
+        paymentService.getPaymentById("test-id");
+        verify(paymentRepository, times(2)).findById("test-id");
+    }
+
+    @Test
+    void exportPayments_SizedStream_PassesEveryPaymentToConsumer() {
+        // Arrange
+        PaymentFilter filter = new PaymentFilter();
+        List<Payment> rows = List.of(Payment.builder().id("a").build(), Payment.builder().id("b").build());
+        when(paymentRepository.streamAll(filter)).thenReturn(rows.stream());
+        List<String> exported = new ArrayList<>();
+
+        // Act
+        long count = paymentService.exportPayments(filter, payment -> exported.add(payment.getId()));
+
+        // Assert
+        assertEquals(2L, count);
+        assertEquals(List.of("a", "b"), exported);
+    }
+
+    // Koşullu UPDATE'i bellekteki ödeme üzerinde taklit eder: ödeme beklenen durumdaysa
+    // geçişi uygular ve 1 döner, değilse 0
+    private void simulateTransitions(Payment stored) {
+        lenient().when(paymentRepository.transitionStatus(eq(stored.getId()), anyCollection(), any()))
+            .thenAnswer(invocation -> {
+                Collection<PaymentStatus> from = invocation.getArgument(1);
+                if (!from.contains(stored.getStatus())) {
+                    return 0;
+                }
+                stored.setStatus(invocation.getArgument(2));
+                return 1;
+            });
+    }
+}
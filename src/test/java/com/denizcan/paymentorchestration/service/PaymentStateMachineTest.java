@@ -0,0 +1,89 @@
+package com.denizcan.paymentorchestration.service;
+
+import com.denizcan.paymentorchestration.exception.InvalidStatusTransitionException;
+import com.denizcan.paymentorchestration.model.PaymentStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PaymentStateMachineTest {
+
+    private final PaymentStateMachine stateMachine = new PaymentStateMachine();
+
+    @Test
+    void canTransition_PendingPayment_AllowsProcessingAndSettlement() {
+        // Act & Assert
+        assertTrue(stateMachine.canTransition(PaymentStatus.PENDING, PaymentStatus.PROCESSING));
+        assertTrue(stateMachine.canTransition(PaymentStatus.PENDING, PaymentStatus.COMPLETED));
+        assertTrue(stateMachine.canTransition(PaymentStatus.PENDING, PaymentStatus.FAILED));
+        assertFalse(stateMachine.canTransition(PaymentStatus.PENDING, PaymentStatus.REFUNDED));
+        assertFalse(stateMachine.canTransition(PaymentStatus.PENDING, PaymentStatus.PENDING));
+    }
+
+    @Test
+    void canTransition_ProcessingPayment_OnlyAllowsSettlement() {
+        // Act & Assert
+        assertTrue(stateMachine.canTransition(PaymentStatus.PROCESSING, PaymentStatus.COMPLETED));
+        assertTrue(stateMachine.canTransition(PaymentStatus.PROCESSING, PaymentStatus.FAILED));
+        assertFalse(stateMachine.canTransition(PaymentStatus.PROCESSING, PaymentStatus.PENDING));
+        assertFalse(stateMachine.canTransition(PaymentStatus.PROCESSING, PaymentStatus.REFUNDED));
+    }
+
+    @Test
+    void canTransition_CompletedPayment_OnlyAllowsRefunds() {
+        // Act & Assert
+        assertTrue(stateMachine.canTransition(PaymentStatus.COMPLETED, PaymentStatus.PARTIALLY_REFUNDED));
+        assertTrue(stateMachine.canTransition(PaymentStatus.COMPLETED, PaymentStatus.REFUNDED));
+        assertTrue(stateMachine.canTransition(PaymentStatus.PARTIALLY_REFUNDED, PaymentStatus.PARTIALLY_REFUNDED));
+        assertTrue(stateMachine.canTransition(PaymentStatus.PARTIALLY_REFUNDED, PaymentStatus.REFUNDED));
+        assertFalse(stateMachine.canTransition(PaymentStatus.COMPLETED, PaymentStatus.FAILED));
+    }
+
+    @Test
+    void isFinal_FailedAndRefunded_AreTerminal() {
+        // Act & Assert
+        assertTrue(stateMachine.isFinal(PaymentStatus.FAILED));
+        assertTrue(stateMachine.isFinal(PaymentStatus.REFUNDED));
+        assertFalse(stateMachine.isFinal(PaymentStatus.COMPLETED));
+        for (PaymentStatus to : PaymentStatus.values()) {
+            assertFalse(stateMachine.canTransition(PaymentStatus.REFUNDED, to));
+        }
+    }
+
+    @Test
+    void sourcesOf_Completed_ReturnsPendingAndProcessing() {
+        // Act & Assert
+        assertEquals(EnumSet.of(PaymentStatus.PENDING, PaymentStatus.PROCESSING),
+            stateMachine.sourcesOf(PaymentStatus.COMPLETED));
+        assertEquals(EnumSet.of(PaymentStatus.COMPLETED, PaymentStatus.PARTIALLY_REFUNDED),
+            stateMachine.sourcesOf(PaymentStatus.REFUNDED));
+        assertTrue(stateMachine.sourcesOf(PaymentStatus.PENDING).isEmpty());
+    }
+
+    @Test
+    void releaseSources_Processing_IsInternalOnly() {
+        // Act & Assert
+        assertEquals(EnumSet.of(PaymentStatus.PROCESSING), stateMachine.releaseSources());
+        // İstemcinin istediği geçişlerde görünmez
+        assertFalse(stateMachine.canTransition(PaymentStatus.PROCESSING, PaymentStatus.PENDING));
+        assertFalse(stateMachine.sourcesOf(PaymentStatus.PENDING).contains(PaymentStatus.PROCESSING));
+    }
+
+    @Test
+    void checkTransition_InvalidTransition_ThrowsPreallocatedStacklessException() {
+        // Act
+        InvalidStatusTransitionException first = assertThrows(InvalidStatusTransitionException.class,
+            () -> stateMachine.checkTransition(PaymentStatus.COMPLETED, PaymentStatus.PROCESSING));
+        InvalidStatusTransitionException second = assertThrows(InvalidStatusTransitionException.class,
+            () -> stateMachine.checkTransition(PaymentStatus.COMPLETED, PaymentStatus.PROCESSING));
+
+        // Assert
+        assertSame(first, second);
+        assertEquals(0, first.getStackTrace().length);
+        assertEquals(PaymentStatus.COMPLETED, first.getFrom());
+        assertEquals(PaymentStatus.PROCESSING, first.getTo());
+        assertNull(stateMachine.rejection(PaymentStatus.PENDING, PaymentStatus.PROCESSING));
+    }
+}
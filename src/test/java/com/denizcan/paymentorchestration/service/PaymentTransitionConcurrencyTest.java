@@ -0,0 +1,142 @@
+package com.denizcan.paymentorchestration.service;
+
+import com.denizcan.paymentorchestration.exception.PaymentValidationException;
+import com.denizcan.paymentorchestration.model.Currency;
+import com.denizcan.paymentorchestration.model.Money;
+import com.denizcan.paymentorchestration.model.Payment;
+import com.denizcan.paymentorchestration.model.PaymentProvider;
+import com.denizcan.paymentorchestration.model.PaymentStatus;
+import com.denizcan.paymentorchestration.repository.PaymentRepository;
+import com.denizcan.paymentorchestration.service.provider.ParamPaymentService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+// Aynı ödemeye çok sayıda thread'den aynı anda durum geçişi gönderip koşullu
+// UPDATE'in tek kazanan ürettiğini gerçek veritabanı üzerinde doğrular.
+@SpringBootTest
+class PaymentTransitionConcurrencyTest {
+
+    private static final int THREADS = 32;
+    private static final int ROUNDS = 20;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @SpyBean
+    private ParamPaymentService paramPaymentService;
+
+    @Test
+    void completeAndFail_ConcurrentOnSamePayment_ExactlyOneTransitionWins() throws Exception {
+        for (int round = 0; round < ROUNDS; round++) {
+            // Arrange
+            String id = createPayment().getId();
+            List<Callable<Payment>> attempts = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                attempts.add(i % 2 == 0
+                    ? () -> paymentService.completePayment(id)
+                    : () -> paymentService.failPayment(id));
+            }
+
+            // Act
+            List<Payment> winners = runConcurrently(attempts);
+
+            // Assert
+            assertEquals(1, winners.size(), "Her turda tek bir geçiş kazanmalı");
+            Payment stored = paymentRepository.findById(id).orElseThrow();
+            assertEquals(winners.get(0).getStatus(), stored.getStatus());
+            assertEquals(1L, stored.getVersion(), "Kaybeden geçişler satıra yazmamalı");
+        }
+    }
+
+    @Test
+    void processPayment_ConcurrentOnSamePayment_ProviderCalledOnce() throws Exception {
+        // Arrange
+        String id = createPayment().getId();
+        List<Callable<Payment>> attempts = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            attempts.add(() -> paymentService.processPayment(id));
+        }
+
+        // Act
+        List<Payment> winners = runConcurrently(attempts);
+
+        // Assert
+        assertEquals(1, winners.size());
+        assertEquals(PaymentStatus.COMPLETED, paymentRepository.findById(id).orElseThrow().getStatus());
+        verify(paramPaymentService, times(1)).processPayment(any(Payment.class));
+    }
+
+    @Test
+    void updatePayment_StaleCopy_RejectedByVersionCheck() {
+        // Arrange
+        Payment created = createPayment();
+        Payment first = paymentRepository.findById(created.getId()).orElseThrow();
+        Payment stale = paymentRepository.findById(created.getId()).orElseThrow();
+
+        first.setDescription("ilk güncelleme");
+        paymentRepository.save(first);
+        stale.setDescription("eski kopyadan güncelleme");
+
+        // Act & Assert
+        assertThrows(OptimisticLockingFailureException.class, () -> paymentRepository.save(stale));
+        assertEquals("ilk güncelleme",
+            paymentRepository.findById(created.getId()).orElseThrow().getDescription());
+    }
+
+    private Payment createPayment() {
+        return paymentRepository.save(Payment.builder()
+            .amount(Money.of("100.00", Currency.TRY))
+            .provider(PaymentProvider.PARAM)
+            .status(PaymentStatus.PENDING)
+            .build());
+    }
+
+    // Tüm denemeleri aynı anda başlatır; başarılı olanların sonucunu döner,
+    // geçişi kaybedenlerin PaymentValidationException aldığını doğrular
+    private List<Payment> runConcurrently(List<Callable<Payment>> attempts) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(attempts.size());
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Payment>> futures = new ArrayList<>();
+            for (Callable<Payment> attempt : attempts) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return attempt.call();
+                }));
+            }
+            start.countDown();
+
+            List<Payment> winners = new ArrayList<>();
+            for (Future<Payment> future : futures) {
+                try {
+                    winners.add(future.get());
+                } catch (ExecutionException e) {
+                    assertInstanceOf(PaymentValidationException.class, e.getCause());
+                }
+            }
+            return winners;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.denizcan.paymentorchestration.service.archive;
+
+import com.denizcan.paymentorchestration.model.Currency;
+import com.denizcan.paymentorchestration.model.Money;
+import com.denizcan.paymentorchestration.model.Payment;
+import com.denizcan.paymentorchestration.model.PaymentProvider;
+import com.denizcan.paymentorchestration.model.PaymentStatus;
+import com.denizcan.paymentorchestration.model.TimeOrderedIdGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArchiveSegmentTest {
+
+    private static final Instant CREATED_AT = Instant.parse("2026-01-31T10:15:30.123456Z");
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void read_WrittenSegment_ReturnsSamePayments() throws IOException {
+        // Arrange
+        Payment completed = payment(PaymentStatus.COMPLETED, Money.of("149.90", Currency.TRY)).toBuilder()
+            .refundedAmount(Money.of("0.00", Currency.TRY))
+            .description("sipariş 42")
+            .build();
+        Payment refunded = payment(PaymentStatus.REFUNDED, Money.of("10.00", Currency.USD)).toBuilder()
+            .refundedAmount(Money.of("10.00", Currency.USD))
+            .settlementAmount(Money.of("325.00", Currency.TRY))
+            .provider(null)
+            .build();
+        Path file = dir.resolve("segment.seg");
+
+        // Act
+        ArchiveSegment.Header header = ArchiveSegment.write(file, List.of(refunded, completed));
+        ArchiveSegment segment = ArchiveSegment.read(file);
+
+        // Assert
+        assertEquals(new ArchiveSegment.Header(2, completed.getId(), refunded.getId()), ArchiveSegment.readHeader(file));
+        assertEquals(header, ArchiveSegment.readHeader(file));
+        assertEquals(completed.toBuilder().archived(true).build(), segment.find(completed.getId()));
+        assertEquals(refunded.toBuilder().archived(true).build(), segment.find(refunded.getId()));
+        assertNull(segment.find("0000000000000"));
+    }
+
+    @Test
+    void write_SimilarPayments_CompressesColumns() throws IOException {
+        // Arrange
+        List<Payment> payments = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            payments.add(payment(i % 10 == 0 ? PaymentStatus.FAILED : PaymentStatus.COMPLETED,
+                Money.ofMinor(10_000 + i % 100, Currency.TRY)));
+        }
+        Path file = dir.resolve("segment.seg");
+
+        // Act
+        ArchiveSegment.write(file, payments);
+
+        // Assert
+        long bytesPerPayment = Files.size(file) / payments.size();
+        assertTrue(bytesPerPayment < 16, () -> "Ödeme başına " + bytesPerPayment + " bayt");
+        assertEquals(payments.size(), ArchiveSegment.read(file).size());
+    }
+
+    @Test
+    void read_CorruptedSegment_ThrowsIOException() throws IOException {
+        // Arrange
+        Path file = dir.resolve("segment.seg");
+        ArchiveSegment.write(file, List.of(payment(PaymentStatus.COMPLETED, Money.of("1.00", Currency.EUR))));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {0x7f}), Files.size(file) - 10);
+        }
+
+        // Act & Assert
+        assertThrows(IOException.class, () -> ArchiveSegment.read(file));
+    }
+
+    private static Payment payment(PaymentStatus status, Money amount) {
+        return Payment.builder()
+            .id(TimeOrderedIdGenerator.next())
+            .amount(amount)
+            .refundedAmount(Money.zero(amount.currency()))
+            .status(status)
+            .provider(PaymentProvider.PARAM)
+            .version(3L)
+            .createdAt(CREATED_AT)
+            .build();
+    }
+}
@@ -0,0 +1,82 @@
+package com.denizcan.paymentorchestration.service.archive;
+
+import com.denizcan.paymentorchestration.config.ArchiveProperties;
+import com.denizcan.paymentorchestration.model.Currency;
+import com.denizcan.paymentorchestration.model.Money;
+import com.denizcan.paymentorchestration.model.Payment;
+import com.denizcan.paymentorchestration.model.PaymentProvider;
+import com.denizcan.paymentorchestration.model.PaymentStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PaymentArchiveTest {
+
+    private static final LocalDate DAY = LocalDate.parse("2026-01-31");
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void find_DisjointAndOverlappingSegments_FindsEveryArchivedPayment() throws IOException {
+        // Arrange
+        PaymentArchive archive = open();
+        archive.write(DAY, List.of(payment("b1"), payment("b5")));
+        archive.write(DAY, List.of(payment("a1"), payment("a5")));
+        // Aralığı diğerleriyle çakışan dosya (ör. eski UUID id'ler)
+        archive.write(DAY.plusDays(1), List.of(payment("a3"), payment("c9")));
+
+        // Act & Assert
+        for (String id : List.of("a1", "a3", "a5", "b1", "b5", "c9")) {
+            assertEquals(id, archive.find(id).orElseThrow().getId());
+        }
+        for (String id : List.of("0", "a2", "a4", "b3", "c0", "z")) {
+            assertTrue(archive.find(id).isEmpty(), id);
+        }
+    }
+
+    @Test
+    void open_ExistingSegments_RebuildsSortedIndex() throws IOException {
+        // Arrange
+        PaymentArchive writer = open();
+        writer.write(DAY, List.of(payment("m1"), payment("m2")));
+        writer.write(DAY.minusDays(1), List.of(payment("k1"), payment("k2")));
+
+        // Act
+        PaymentArchive reopened = open();
+
+        // Assert
+        assertEquals(2, reopened.segmentCount());
+        assertTrue(reopened.find("k2").isPresent());
+        assertTrue(reopened.find("m1").isPresent());
+        assertTrue(reopened.find("l1").isEmpty());
+    }
+
+    private PaymentArchive open() throws IOException {
+        ArchiveProperties properties = new ArchiveProperties();
+        properties.setDir(dir);
+        PaymentArchive archive = new PaymentArchive(properties, new SimpleMeterRegistry());
+        archive.open();
+        return archive;
+    }
+
+    private static Payment payment(String id) {
+        return Payment.builder()
+            .id(id)
+            .amount(Money.of("10.00", Currency.TRY))
+            .refundedAmount(Money.zero(Currency.TRY))
+            .status(PaymentStatus.COMPLETED)
+            .provider(PaymentProvider.PARAM)
+            .version(1L)
+            .createdAt(Instant.parse("2026-01-31T10:00:00Z"))
+            .build();
+    }
+}
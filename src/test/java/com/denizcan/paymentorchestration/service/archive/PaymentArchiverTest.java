@@ -0,0 +1,123 @@
+package com.denizcan.paymentorchestration.service.archive;
+
+import com.denizcan.paymentorchestration.config.ArchiveProperties;
+import com.denizcan.paymentorchestration.config.RefundProperties;
+import com.denizcan.paymentorchestration.exception.PaymentValidationException;
+import com.denizcan.paymentorchestration.model.Currency;
+import com.denizcan.paymentorchestration.model.Money;
+import com.denizcan.paymentorchestration.model.Payment;
+import com.denizcan.paymentorchestration.model.PaymentProvider;
+import com.denizcan.paymentorchestration.model.PaymentStatus;
+import com.denizcan.paymentorchestration.repository.PaymentRepository;
+import com.denizcan.paymentorchestration.service.PaymentService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Sonuçlanmış eski ödemelerin veritabanından arşive taşındığını ve okumaların arşivden
+// devam ettiğini gerçek veritabanı ve arşiv dizini üzerinde doğrular
+@SpringBootTest(properties = {"payment.archive.older-than=PT1H", "payment.refunds.window=PT1H"})
+class PaymentArchiverTest {
+
+    @Autowired
+    private PaymentArchiver archiver;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private ArchiveProperties properties;
+
+    @Test
+    void archive_OldFinalPayments_MovesThemAndKeepsThemReadable() throws IOException {
+        // Arrange
+        Instant old = Instant.now().minus(Duration.ofDays(2)).truncatedTo(ChronoUnit.MICROS);
+        Payment completed = save(PaymentStatus.COMPLETED, old);
+        Payment failed = save(PaymentStatus.FAILED, old.minus(Duration.ofDays(1)));
+        Payment pending = save(PaymentStatus.PENDING, old);
+        Payment recent = save(PaymentStatus.COMPLETED, Instant.now());
+
+        // Act
+        archiver.archive();
+
+        // Assert
+        assertTrue(paymentRepository.findById(completed.getId()).isEmpty());
+        assertTrue(paymentRepository.findById(failed.getId()).isEmpty());
+        assertTrue(paymentRepository.findById(pending.getId()).isPresent());
+        assertTrue(paymentRepository.findById(recent.getId()).isPresent());
+
+        Payment archived = paymentService.getPaymentById(completed.getId());
+        assertTrue(archived.isArchived());
+        assertEquals(PaymentStatus.COMPLETED, archived.getStatus());
+        assertEquals(completed.getAmount(), archived.getAmount());
+        assertEquals(old, archived.getCreatedAt());
+
+        // Açılışta indeks dosyalardan yeniden kurulur
+        PaymentArchive reopened = new PaymentArchive(properties, new SimpleMeterRegistry());
+        reopened.open();
+        assertEquals(PaymentStatus.FAILED, reopened.find(failed.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void archive_PendingRefund_KeepsPaymentInDatabase() {
+        // Arrange
+        Payment payment = save(PaymentStatus.COMPLETED, Instant.now().minus(Duration.ofDays(2)));
+        // Başka bir instance'a kiralanmış iade; bu uygulamanın iade hattı onu almaz
+        assertNotNull(paymentRepository.reserveRefund(payment.getId(), payment.getAmount(),
+            EnumSet.of(PaymentStatus.COMPLETED), "other-node", Instant.now().plus(Duration.ofHours(1))));
+
+        // Act
+        archiver.archive();
+
+        // Assert
+        assertEquals(PaymentStatus.REFUNDED, paymentRepository.findById(payment.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void updatePayment_ArchivedPayment_ThrowsValidationException() {
+        // Arrange
+        Payment payment = save(PaymentStatus.COMPLETED, Instant.now().minus(Duration.ofDays(2)));
+        archiver.archive();
+        Payment details = Payment.builder().amount(Money.of("1.00", Currency.TRY)).build();
+
+        // Act & Assert
+        assertThrows(PaymentValidationException.class, () -> paymentService.updatePayment(payment.getId(), details));
+        assertThrows(PaymentValidationException.class, () -> paymentService.deletePayment(payment.getId()));
+    }
+
+    @Test
+    void constructor_ThresholdShorterThanRefundWindow_FailsAtStartup() {
+        // Arrange
+        ArchiveProperties archive = new ArchiveProperties();
+        archive.setOlderThan(Duration.ofDays(7));
+        RefundProperties refunds = new RefundProperties();
+        refunds.setWindow(Duration.ofDays(30));
+
+        // Act & Assert: arşiv eşiğini kısaltmak iade süresini sessizce kısaltmamalı
+        IllegalStateException ex = assertThrows(IllegalStateException.class, () -> new PaymentArchiver(
+            paymentRepository, null, null, archive, refunds, null, Clock.systemUTC(), new SimpleMeterRegistry()));
+        assertTrue(ex.getMessage().contains("payment.refunds.window"));
+    }
+
+    private Payment save(PaymentStatus status, Instant createdAt) {
+        return paymentRepository.save(Payment.builder()
+            .amount(Money.of("100.00", Currency.TRY))
+            .provider(PaymentProvider.PARAM)
+            .status(status)
+            .createdAt(createdAt)
+            .build());
+    }
+}
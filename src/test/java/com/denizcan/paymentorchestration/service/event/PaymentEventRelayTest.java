@@ -0,0 +1,162 @@
+package com.denizcan.paymentorchestration.service.event;
+
+import com.denizcan.paymentorchestration.config.EventProperties;
+import com.denizcan.paymentorchestration.dto.PaymentRequest;
+import com.denizcan.paymentorchestration.exception.InvalidStatusTransitionException;
+import com.denizcan.paymentorchestration.model.Currency;
+import com.denizcan.paymentorchestration.model.Money;
+import com.denizcan.paymentorchestration.model.PaymentEvent;
+import com.denizcan.paymentorchestration.model.PaymentEventType;
+import com.denizcan.paymentorchestration.model.PaymentProvider;
+import com.denizcan.paymentorchestration.model.PaymentStatus;
+import com.denizcan.paymentorchestration.repository.PaymentEventRepository;
+import com.denizcan.paymentorchestration.service.PaymentService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Ödeme değişikliklerinin outbox üzerinden sıra numarasıyla yayınlandığını gerçek veritabanında doğrular
+@SpringBootTest
+class PaymentEventRelayTest {
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private PaymentEventStream eventStream;
+
+    @Autowired
+    private PaymentEventRelay paymentEventRelay;
+
+    @Autowired
+    private PaymentEventRepository eventRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void relay_PaymentLifecycle_PublishesEventsInOrder() throws Exception {
+        // Arrange
+        long from = eventStream.head();
+        String id = paymentService.createPayment(PaymentRequest.builder()
+            .amount(Money.of("100.00", Currency.TRY))
+            .provider(PaymentProvider.PARAM)
+            .build()).getId();
+
+        // Act
+        paymentService.completePayment(id);
+        // Reddedilen geçiş olay üretmemeli
+        assertThrows(InvalidStatusTransitionException.class, () -> paymentService.failPayment(id));
+        paymentService.deletePayment(id);
+        List<PaymentEvent> events = awaitEvents(from, id, 3);
+
+        // Assert
+        assertEquals(List.of(PaymentEventType.CREATED, PaymentEventType.STATUS_CHANGED, PaymentEventType.DELETED),
+            events.stream().map(PaymentEvent::getType).toList());
+        assertEquals(List.of(PaymentStatus.PENDING, PaymentStatus.COMPLETED, PaymentStatus.COMPLETED),
+            events.stream().map(PaymentEvent::getStatus).toList());
+        assertEquals(List.of(0L, 1L, 2L), events.stream().map(PaymentEvent::getPaymentVersion).toList());
+        for (int i = 1; i < events.size(); i++) {
+            assertTrue(events.get(i).getSequenceNumber() > events.get(i - 1).getSequenceNumber());
+        }
+        assertTrue(eventStream.head() >= events.get(2).getSequenceNumber());
+    }
+
+    @Test
+    void relay_LaterVersionHasSmallerId_PublishesInVersionOrder() throws Exception {
+        // Arrange
+        // Sonra commit eden düğüm sequence'tan daha önce ayrılmış küçük bir id kullanmış olabilir
+        long from = eventStream.head();
+        String paymentId = UUID.randomUUID().toString();
+        List<PaymentEvent> saved = eventRepository.saveAll(List.of(
+            event(paymentId, 2, PaymentStatus.COMPLETED), event(paymentId, 1, PaymentStatus.PROCESSING)));
+        assertTrue(saved.get(0).getId() < saved.get(1).getId());
+        EventProperties properties = new EventProperties();
+        properties.setBatchSize(1);
+        PaymentEventRelay relay = new PaymentEventRelay(eventRepository, eventStream, transactionManager,
+            properties, new SimpleMeterRegistry());
+
+        // Act
+        relay.relay();
+        List<PaymentEvent> events = awaitEvents(from, paymentId, 2);
+
+        // Assert
+        assertEquals(List.of(1L, 2L), events.stream().map(PaymentEvent::getPaymentVersion).toList());
+        assertEquals(List.of(PaymentStatus.PROCESSING, PaymentStatus.COMPLETED),
+            events.stream().map(PaymentEvent::getStatus).toList());
+    }
+
+    @Test
+    void purgePublished_OlderThanRetention_DeletesOnlyExpiredEvents() throws Exception {
+        // Arrange
+        long from = eventStream.head();
+        String paymentId = UUID.randomUUID().toString();
+        PaymentEvent expired = event(paymentId, 1, PaymentStatus.PROCESSING);
+        expired.setOccurredAt(Instant.now().minus(Duration.ofDays(30)));
+        PaymentEvent recent = event(paymentId, 2, PaymentStatus.COMPLETED);
+        eventRepository.saveAll(List.of(expired, recent));
+        awaitEvents(from, paymentId, 2);
+
+        // Act
+        paymentEventRelay.purgePublished();
+
+        // Assert
+        assertFalse(eventRepository.existsById(expired.getId()));
+        assertTrue(eventRepository.existsById(recent.getId()));
+    }
+
+    @Test
+    void purgePublished_AllPublishedExpired_KeepsLastSequenceNumber() throws Exception {
+        // Arrange
+        long from = eventStream.head();
+        String paymentId = UUID.randomUUID().toString();
+        PaymentEvent older = event(paymentId, 1, PaymentStatus.PROCESSING);
+        older.setOccurredAt(Instant.now().minus(Duration.ofDays(30)));
+        PaymentEvent last = event(paymentId, 2, PaymentStatus.COMPLETED);
+        last.setOccurredAt(Instant.now().minus(Duration.ofDays(30)));
+        eventRepository.saveAll(List.of(older, last));
+        long lastSequence = awaitEvents(from, paymentId, 2).get(1).getSequenceNumber();
+
+        // Act
+        paymentEventRelay.purgePublished();
+
+        // Assert
+        assertFalse(eventRepository.existsById(older.getId()));
+        assertTrue(eventRepository.existsById(last.getId()));
+        assertEquals(lastSequence, eventRepository.findLastSequenceNumber());
+    }
+
+    private static PaymentEvent event(String paymentId, long version, PaymentStatus status) {
+        return PaymentEvent.builder()
+            .paymentId(paymentId)
+            .paymentVersion(version)
+            .type(PaymentEventType.STATUS_CHANGED)
+            .status(status)
+            .amount(Money.of("100.00", Currency.TRY))
+            .provider(PaymentProvider.PARAM)
+            .build();
+    }
+
+    private List<PaymentEvent> awaitEvents(long from, String paymentId, int count) throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (true) {
+            List<PaymentEvent> events = eventStream.readStored(from, 1_000).stream()
+                .filter(event -> event.getPaymentId().equals(paymentId))
+                .toList();
+            if (events.size() >= count) {
+                return events;
+            }
+            assertTrue(System.nanoTime() < deadline, "Olaylar zamanında yayınlanmadı");
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.denizcan.paymentorchestration.service.event;
+
+import com.denizcan.paymentorchestration.config.EventProperties;
+import com.denizcan.paymentorchestration.model.PaymentEvent;
+import com.denizcan.paymentorchestration.model.PaymentEventType;
+import com.denizcan.paymentorchestration.repository.PaymentEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PaymentEventStreamTest {
+
+    private PaymentEventRepository eventRepository;
+    private PaymentEventStream eventStream;
+
+    @BeforeEach
+    void setUp() {
+        eventRepository = mock(PaymentEventRepository.class);
+        EventProperties properties = new EventProperties();
+        properties.setBufferSize(3);
+        eventStream = new PaymentEventStream(eventRepository, properties);
+        eventStream.start();
+    }
+
+    @Test
+    void readAfter_WithinBuffer_ReadsFromMemory() {
+        // Arrange
+        eventStream.publish(List.of(event(1), event(2), event(3)));
+
+        // Act
+        List<PaymentEvent> events = eventStream.readAfter(1, 10);
+
+        // Assert
+        assertEquals(List.of(2L, 3L), events.stream().map(PaymentEvent::getSequenceNumber).toList());
+        assertTrue(eventStream.readAfter(3, 10).isEmpty());
+        verify(eventRepository, never()).findBySequenceNumberGreaterThanOrderBySequenceNumberAsc(anyLong(), any());
+    }
+
+    @Test
+    void readAfter_BehindBuffer_ReadsFromRepository() {
+        // Arrange
+        eventStream.publish(List.of(event(1), event(2), event(3), event(4)));
+        when(eventRepository.findBySequenceNumberGreaterThanOrderBySequenceNumberAsc(anyLong(), any(Pageable.class)))
+            .thenReturn(List.of(event(1), event(2)));
+
+        // Act
+        List<PaymentEvent> events = eventStream.readAfter(0, 2);
+
+        // Assert
+        assertEquals(List.of(1L, 2L), events.stream().map(PaymentEvent::getSequenceNumber).toList());
+        verify(eventRepository).findBySequenceNumberGreaterThanOrderBySequenceNumberAsc(0L, Pageable.ofSize(2));
+    }
+
+    @Test
+    void publish_SequenceGap_DoesNotServeMissingEventsFromMemory() {
+        // Arrange
+        eventStream.publish(List.of(event(1)));
+        eventStream.publish(List.of(event(3))); // 2 başka bir relay tarafından yayınlandı
+
+        // Act
+        eventStream.readAfter(1, 10);
+
+        // Assert
+        verify(eventRepository).findBySequenceNumberGreaterThanOrderBySequenceNumberAsc(1L, Pageable.ofSize(10));
+    }
+
+    @Test
+    void awaitAfter_EventPublishedWhileWaiting_WakesSubscriber() throws Exception {
+        // Arrange
+        CompletableFuture<Boolean> waiting = CompletableFuture.supplyAsync(() -> {
+            try {
+                return eventStream.awaitAfter(0, Duration.ofSeconds(5));
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        // Act
+        Thread.sleep(50);
+        eventStream.publish(List.of(event(1)));
+
+        // Assert
+        assertTrue(waiting.get(1, TimeUnit.SECONDS));
+        assertFalse(eventStream.awaitAfter(1, Duration.ofMillis(10)));
+    }
+
+    private static PaymentEvent event(long sequence) {
+        return PaymentEvent.builder()
+            .sequenceNumber(sequence)
+            .paymentId("p-" + sequence)
+            .type(PaymentEventType.CREATED)
+            .build();
+    }
+}
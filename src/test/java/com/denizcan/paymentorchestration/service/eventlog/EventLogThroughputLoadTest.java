@@ -0,0 +1,129 @@
+package com.denizcan.paymentorchestration.service.eventlog;
+
+import com.denizcan.paymentorchestration.config.EventLogProperties;
+import com.denizcan.paymentorchestration.model.Currency;
+import com.denizcan.paymentorchestration.model.Money;
+import com.denizcan.paymentorchestration.model.Payment;
+import com.denizcan.paymentorchestration.model.PaymentProvider;
+import com.denizcan.paymentorchestration.model.PaymentStatus;
+import com.denizcan.paymentorchestration.repository.PaymentRepository;
+import com.denizcan.paymentorchestration.service.JpaPaymentTransitions;
+import com.denizcan.paymentorchestration.service.PaymentCache;
+import com.denizcan.paymentorchestration.service.PaymentTransitions;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Aynı iş yükünü (her ödeme için PENDING -> PROCESSING -> COMPLETED) koşullu UPDATE ile ve olay
+// günlüğü moduyla çalıştırıp saniyedeki geçiş sayısını karşılaştırır. Olay günlüğünde geçiş
+// günlüğe yazılınca onaylanır; veritabanının arkadan yetişme süresi ayrıca loglanır. Tek çekirdekte
+// 8 thread ile ölçülen: UPDATE ~1.1 bin, günlük fsync'siz ~9.3 bin, fsync ile ~3 bin geçiş/sn.
+// Çalıştırmak için: mvn test -Pload-test -Dtest=EventLogThroughputLoadTest
+@Slf4j
+@Tag("load")
+@SpringBootTest
+class EventLogThroughputLoadTest {
+
+    private static final int PAYMENTS = 20_000;
+    private static final int THREADS = 8;
+    private static final Set<PaymentStatus> PENDING_ONLY = EnumSet.of(PaymentStatus.PENDING);
+    private static final Set<PaymentStatus> PROCESSING_ONLY = EnumSet.of(PaymentStatus.PROCESSING);
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private PaymentCache paymentCache;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void transition_EventLogWithoutFsync_OutpacesConditionalUpdate() throws Exception {
+        // Act
+        double jpa = run(new JpaPaymentTransitions(paymentRepository));
+        double logged;
+        double fsynced;
+        try (EventSourcedTransitions transitions = open("async", false)) {
+            logged = run(transitions);
+            log.info("Veritabanının yetişmesi: {} ms", drain(transitions));
+        }
+        try (EventSourcedTransitions transitions = open("fsync", true)) {
+            fsynced = run(transitions);
+            log.info("Veritabanının yetişmesi: {} ms", drain(transitions));
+        }
+
+        // Assert
+        log.info("Koşullu UPDATE:           {} geçiş/sn", Math.round(jpa));
+        log.info("Olay günlüğü (fsync yok): {} geçiş/sn", Math.round(logged));
+        log.info("Olay günlüğü (fsync):     {} geçiş/sn", Math.round(fsynced));
+        assertTrue(logged > jpa, () -> "Olay günlüğü koşullu UPDATE'ten hızlı olmalı: " + logged + " / " + jpa);
+    }
+
+    // Her thread kendi ödemelerini sırayla işler; ilk geçiş günlükte olmayan ödemeyi veritabanından okur
+    private double run(PaymentTransitions transitions) throws Exception {
+        List<String> ids = createPayments();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            long start = System.nanoTime();
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                List<String> own = ids.subList(t * ids.size() / THREADS, (t + 1) * ids.size() / THREADS);
+                workers.add(executor.submit(() -> {
+                    for (String id : own) {
+                        assertTrue(transitions.transition(id, PENDING_ONLY, PaymentStatus.PROCESSING));
+                        assertTrue(transitions.transition(id, PROCESSING_ONLY, PaymentStatus.COMPLETED));
+                    }
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+            return 2.0 * ids.size() / ((System.nanoTime() - start) / 1e9);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static long drain(EventSourcedTransitions transitions) throws InterruptedException {
+        long start = System.nanoTime();
+        while (transitions.lagBytes() > 0 || transitions.projectionSize() > 0) {
+            Thread.sleep(10);
+        }
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    private EventSourcedTransitions open(String name, boolean fsync) throws Exception {
+        EventLogProperties properties = new EventLogProperties();
+        properties.setDir(dir.resolve(name));
+        properties.setFsync(fsync);
+        return new EventSourcedTransitions(properties, paymentRepository, paymentCache, Clock.systemUTC());
+    }
+
+    private List<String> createPayments() {
+        List<Payment> payments = new ArrayList<>(PAYMENTS);
+        for (int i = 0; i < PAYMENTS; i++) {
+            payments.add(Payment.builder()
+                .amount(Money.of("100.00", Currency.TRY))
+                .provider(PaymentProvider.PARAM)
+                .status(PaymentStatus.PENDING)
+                .build());
+        }
+        return paymentRepository.saveAll(payments).stream().map(Payment::getId).toList();
+    }
+}
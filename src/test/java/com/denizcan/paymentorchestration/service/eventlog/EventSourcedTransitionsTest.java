@@ -0,0 +1,219 @@
+package com.denizcan.paymentorchestration.service.eventlog;
+
+import com.denizcan.paymentorchestration.config.EventLogProperties;
+import com.denizcan.paymentorchestration.exception.PaymentValidationException;
+import com.denizcan.paymentorchestration.model.Currency;
+import com.denizcan.paymentorchestration.model.Money;
+import com.denizcan.paymentorchestration.model.Payment;
+import com.denizcan.paymentorchestration.model.PaymentProvider;
+import com.denizcan.paymentorchestration.model.PaymentStatus;
+import com.denizcan.paymentorchestration.repository.PaymentRepository;
+import com.denizcan.paymentorchestration.service.PaymentCache;
+import com.denizcan.paymentorchestration.service.PaymentService;
+import com.denizcan.paymentorchestration.service.PaymentTransitions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+// Olay günlüğü modunda geçişin önce günlüğe ve projeksiyona yazıldığını, veritabanının
+// arkadan yetiştiğini ve projeksiyonun yeniden açılışta günlükten kurulduğunu doğrular
+@SpringBootTest(properties = "payment.eventlog.enabled=true")
+class EventSourcedTransitionsTest {
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private PaymentCache paymentCache;
+
+    @Autowired
+    private PaymentTransitions transitions;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void completePayment_EventLogMode_ProjectedImmediatelyAndAppliedInBackground() throws Exception {
+        // Arrange
+        String id = createPayment().getId();
+
+        // Act
+        Payment completed = paymentService.completePayment(id);
+
+        // Assert
+        assertInstanceOf(EventSourcedTransitions.class, transitions);
+        assertEquals(PaymentStatus.COMPLETED, completed.getStatus());
+        assertThrows(PaymentValidationException.class, () -> paymentService.failPayment(id));
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (paymentRepository.findById(id).orElseThrow().getStatus() != PaymentStatus.COMPLETED) {
+            assertTrue(System.nanoTime() < deadline, "Geçiş veritabanına zamanında yazılmadı");
+            Thread.sleep(10);
+        }
+        assertEquals(1L, paymentRepository.findById(id).orElseThrow().getVersion());
+    }
+
+    @Test
+    void open_AfterRestart_RebuildsProjectionFromSnapshotAndLog() throws Exception {
+        // Arrange
+        EventLogProperties properties = new EventLogProperties();
+        properties.setDir(dir);
+        properties.setFsync(false);
+        properties.setSegmentSize(DataSize.ofMegabytes(1));
+        String first = createPayment().getId();
+        String second = createPayment().getId();
+        try (EventSourcedTransitions before = open(properties)) {
+            before.transition(first, EnumSet.of(PaymentStatus.PENDING), PaymentStatus.PROCESSING);
+        }
+        try (EventSourcedTransitions before = open(properties)) {
+            before.transition(second, EnumSet.of(PaymentStatus.PENDING), PaymentStatus.PROCESSING);
+        }
+
+        // Act
+        int fromSnapshot;
+        try (EventSourcedTransitions after = open(properties)) {
+            fromSnapshot = after.projectionSize();
+        }
+        // Anlık görüntü kaybolsa da projeksiyon günlüğün tamamından kurulabilmeli
+        Files.delete(dir.resolve("projection.snap"));
+        try (EventSourcedTransitions after = open(properties)) {
+
+            // Assert
+            assertEquals(2, fromSnapshot);
+            assertEquals(2, after.projectionSize());
+            Payment stale = Payment.builder().id(second).status(PaymentStatus.PENDING).build();
+            assertEquals(PaymentStatus.PROCESSING, after.project(stale).getStatus());
+            assertFalse(after.transition(first, EnumSet.of(PaymentStatus.PENDING), PaymentStatus.PROCESSING));
+            assertTrue(after.transition(first, EnumSet.of(PaymentStatus.PROCESSING), PaymentStatus.COMPLETED));
+        }
+    }
+
+    @Test
+    void transitionAll_PaymentSettledAndAppliedAfterBulkRead_UsesCurrentStatus() throws Exception {
+        // Arrange
+        EventLogProperties properties = new EventLogProperties();
+        properties.setDir(dir);
+        properties.setFsync(false);
+        String id = createPayment(PaymentStatus.PROCESSING).getId();
+        // Toplu okuma PROCESSING görür; okuma biter bitmez ödeme başka bir istekle COMPLETED olur,
+        // veritabanına uygulanır ve projeksiyondan düşer
+        AtomicReference<EventSourcedTransitions> opened = new AtomicReference<>();
+        PaymentRepository racing = mock(PaymentRepository.class, delegatesTo(paymentRepository));
+        doAnswer(invocation -> {
+            List<Payment> stale = paymentRepository.findAllById(invocation.getArgument(0));
+            EventSourcedTransitions other = opened.get();
+            assertTrue(other.transition(id, EnumSet.of(PaymentStatus.PROCESSING), PaymentStatus.COMPLETED));
+            awaitApplied(other);
+            assertEquals(0, other.projectionSize());
+            return stale;
+        }).when(racing).findAllById(any());
+
+        try (EventSourcedTransitions transitions = new EventSourcedTransitions(properties, racing, paymentCache,
+                Clock.systemUTC())) {
+            opened.set(transitions);
+
+            // Act
+            List<String> moved = transitions.transitionAll(List.of(id), EnumSet.of(PaymentStatus.PROCESSING),
+                PaymentStatus.FAILED);
+            awaitApplied(transitions);
+
+            // Assert
+            assertTrue(moved.isEmpty());
+            assertEquals(PaymentStatus.COMPLETED, paymentRepository.findById(id).orElseThrow().getStatus());
+        }
+    }
+
+    @Test
+    void apply_BacklogLargerThanBatch_AppliesInSeveralPasses() throws Exception {
+        // Arrange
+        EventLogProperties properties = new EventLogProperties();
+        properties.setDir(dir);
+        properties.setFsync(false);
+        properties.setBatchSize(2);
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            ids.add(createPayment().getId());
+        }
+
+        try (EventSourcedTransitions transitions = open(properties)) {
+            // Act
+            for (String id : ids) {
+                assertTrue(transitions.transition(id, EnumSet.of(PaymentStatus.PENDING), PaymentStatus.PROCESSING));
+            }
+            awaitApplied(transitions);
+
+            // Assert
+            for (String id : ids) {
+                assertEquals(PaymentStatus.PROCESSING, paymentRepository.findById(id).orElseThrow().getStatus());
+            }
+        }
+    }
+
+    @Test
+    void apply_ReplayedAfterLostCheckpoint_LeavesSettledRowUnchanged() throws Exception {
+        // Arrange
+        EventLogProperties properties = new EventLogProperties();
+        properties.setDir(dir);
+        properties.setFsync(false);
+        properties.setSegmentSize(DataSize.ofMegabytes(1));
+        String id = createPayment().getId();
+        try (EventSourcedTransitions before = open(properties)) {
+            assertTrue(before.transition(id, EnumSet.of(PaymentStatus.PENDING), PaymentStatus.PROCESSING));
+            awaitApplied(before);
+        }
+        paymentRepository.transitionStatus(id, EnumSet.of(PaymentStatus.PROCESSING), PaymentStatus.COMPLETED);
+        // Kontrol noktası diske ulaşmadan çökmüş gibi: açılışta günlük baştan uygulanır
+        Files.write(dir.resolve("applied.chk"), new byte[Long.BYTES]);
+
+        // Act
+        try (EventSourcedTransitions after = open(properties)) {
+            awaitApplied(after);
+        }
+
+        // Assert
+        assertEquals(PaymentStatus.COMPLETED, paymentRepository.findById(id).orElseThrow().getStatus());
+    }
+
+    // Projeksiyon thread'i günlüğün sonuna kadar uygulayana kadar bekler
+    private static void awaitApplied(EventSourcedTransitions transitions) throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (transitions.lagBytes() > 0) {
+            assertTrue(System.nanoTime() < deadline, "Günlük veritabanına zamanında uygulanmadı");
+            Thread.sleep(10);
+        }
+    }
+
+    private EventSourcedTransitions open(EventLogProperties properties) throws Exception {
+        return new EventSourcedTransitions(properties, paymentRepository, paymentCache, Clock.systemUTC());
+    }
+
+    private Payment createPayment() {
+        return createPayment(PaymentStatus.PENDING);
+    }
+
+    private Payment createPayment(PaymentStatus status) {
+        return paymentRepository.save(Payment.builder()
+            .amount(Money.of("100.00", Currency.TRY))
+            .provider(PaymentProvider.PARAM)
+            .status(status)
+            .build());
+    }
+}
@@ -0,0 +1,119 @@
+package com.denizcan.paymentorchestration.service.eventlog;
+
+import com.denizcan.paymentorchestration.model.PaymentStatus;
+import com.denizcan.paymentorchestration.model.TimeOrderedIdGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PaymentEventLogTest {
+
+    private static final int SEGMENT_BYTES = 64;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void append_PastSegmentSize_RollsAndReplaysInOrder() throws IOException {
+        // Arrange
+        List<Long> ends = new ArrayList<>();
+
+        // Act
+        try (PaymentEventLog log = new PaymentEventLog(dir, SEGMENT_BYTES, true)) {
+            for (int i = 0; i < 10; i++) {
+                ends.add(log.append(bytes("kayıt-" + i)));
+            }
+            log.sync(ends.get(ends.size() - 1));
+
+            // Assert
+            assertTrue(log.segmentCount() > 1, "Kayıtlar birden fazla segmente yayılmalı");
+        }
+        assertEquals(List.of("kayıt-7", "kayıt-8", "kayıt-9"), replay(ends.get(6)));
+        assertEquals(10, replay(0).size());
+    }
+
+    @Test
+    void open_TornTail_DropsPartialRecordAndKeepsAppending() throws IOException {
+        // Arrange
+        long end;
+        try (PaymentEventLog log = new PaymentEventLog(dir, SEGMENT_BYTES, false)) {
+            end = log.append(bytes("tam"));
+        }
+        try (FileChannel segment = FileChannel.open(dir.resolve("00000000000000000000.seg"), StandardOpenOption.WRITE)) {
+            // Çökme anında yarım kalmış kayıt: başlık 20 bayt diyor ama sağlama tutmuyor
+            segment.write(ByteBuffer.allocate(12).putInt(0, 20).putInt(4, 42), end);
+        }
+
+        // Act
+        try (PaymentEventLog log = new PaymentEventLog(dir, SEGMENT_BYTES, false)) {
+            assertEquals(end, log.end());
+            log.append(bytes("sonraki"));
+        }
+
+        // Assert
+        assertEquals(List.of("tam", "sonraki"), replay(0));
+    }
+
+    @Test
+    void deleteBefore_AppliedSegments_KeepsUnappliedRecords() throws IOException {
+        // Arrange
+        try (PaymentEventLog log = new PaymentEventLog(dir, SEGMENT_BYTES, false)) {
+            List<Long> ends = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                ends.add(log.append(bytes("kayıt-" + i)));
+            }
+            int segments = log.segmentCount();
+
+            // Act
+            log.deleteBefore(ends.get(5));
+
+            // Assert
+            assertTrue(log.segmentCount() < segments);
+            List<String> replayed = new ArrayList<>();
+            log.replay(ends.get(5), Long.MAX_VALUE, (end, payload) -> replayed.add(text(payload)));
+            assertEquals(List.of("kayıt-6", "kayıt-7", "kayıt-8", "kayıt-9"), replayed);
+        }
+    }
+
+    @Test
+    void encode_TimeOrderedAndLegacyIds_RoundTrips() {
+        // Arrange
+        PaymentLogEvent numeric = PaymentLogEvent.transitioned(TimeOrderedIdGenerator.next(),
+            PaymentStatus.PENDING, PaymentStatus.PROCESSING, 1_700_000_000_000_000L);
+        PaymentLogEvent legacy = PaymentLogEvent.removed("3f2504e0-4f89-11d3-9a0c-0305e82c3301", 42);
+
+        // Act
+        byte[] encoded = numeric.encode();
+
+        // Assert
+        assertEquals(20, encoded.length);
+        assertEquals(numeric, PaymentLogEvent.decode(encoded));
+        assertEquals(legacy, PaymentLogEvent.decode(legacy.encode()));
+    }
+
+    private List<String> replay(long from) throws IOException {
+        List<String> replayed = new ArrayList<>();
+        try (PaymentEventLog log = new PaymentEventLog(dir, SEGMENT_BYTES, false)) {
+            log.replay(from, Long.MAX_VALUE, (end, payload) -> replayed.add(text(payload)));
+        }
+        return replayed;
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String text(byte[] payload) {
+        return new String(payload, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,69 @@
+package com.denizcan.paymentorchestration.service.fx;
+
+import com.denizcan.paymentorchestration.exception.PaymentValidationException;
+import com.denizcan.paymentorchestration.model.Currency;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FxRateSnapshotTest {
+
+    private static final Instant AS_OF = Instant.parse("2026-01-01T10:00:00Z");
+
+    private final FxRateSnapshot snapshot = FxRateSnapshot.of(Currency.USD,
+        Map.of(Currency.TRY, new BigDecimal("32.5012"), Currency.EUR, new BigDecimal("0.9214")), AS_OF, "test");
+
+    @Test
+    void convert_BaseAndCrossRates_RoundsHalfUp() {
+        // Act & Assert
+        assertEquals(325_012, snapshot.convert(100_00, Currency.USD, Currency.TRY));
+        assertEquals(3, snapshot.convert(100, Currency.TRY, Currency.EUR));
+        assertEquals(-325_012, snapshot.convert(-100_00, Currency.USD, Currency.TRY));
+        assertEquals(12_345, snapshot.convert(12_345, Currency.EUR, Currency.EUR));
+        assertEquals(new BigDecimal("35.27371"), snapshot.rate(Currency.EUR, Currency.TRY).setScale(5, RoundingMode.HALF_EVEN));
+    }
+
+    @Test
+    void convert_RandomAmounts_MatchesBigDecimalArithmetic() {
+        // Arrange
+        Random random = new Random(7);
+
+        for (int i = 0; i < 10_000; i++) {
+            long amount = random.nextLong(1, 1L << 52);
+            Currency from = Currency.values()[random.nextInt(Currency.values().length)];
+            Currency to = Currency.values()[random.nextInt(Currency.values().length)];
+
+            // Act
+            long converted = snapshot.convert(amount, from, to);
+
+            // Assert
+            long expected = BigDecimal.valueOf(amount).multiply(snapshot.rate(from, to))
+                .setScale(0, RoundingMode.HALF_UP).longValueExact();
+            assertEquals(expected, converted, () -> amount + " " + from + "->" + to);
+        }
+    }
+
+    @Test
+    void convert_ResultBeyondLong_ThrowsValidationException() {
+        // Act & Assert
+        assertThrows(PaymentValidationException.class,
+            () -> snapshot.convert(Long.MAX_VALUE / 2, Currency.USD, Currency.TRY));
+    }
+
+    @Test
+    void of_MissingCurrency_PairNotSupported() {
+        // Arrange
+        FxRateSnapshot partial = FxRateSnapshot.of(Currency.USD, Map.of(Currency.TRY, new BigDecimal("32.50")), AS_OF, "test");
+
+        // Act & Assert
+        assertTrue(partial.supports(Currency.TRY, Currency.USD));
+        assertFalse(partial.supports(Currency.EUR, Currency.TRY));
+        assertThrows(IllegalStateException.class, () -> partial.convert(100, Currency.EUR, Currency.TRY));
+    }
+}
@@ -0,0 +1,93 @@
+package com.denizcan.paymentorchestration.service.fx;
+
+import com.denizcan.paymentorchestration.config.FxProperties;
+import com.denizcan.paymentorchestration.exception.FxRateUnavailableException;
+import com.denizcan.paymentorchestration.model.Currency;
+import com.denizcan.paymentorchestration.model.Money;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FxServiceTest {
+
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2026-01-01T12:00:00Z"), ZoneOffset.UTC);
+
+    @TempDir
+    Path dir;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void refresh_NewerFile_SwapsSnapshot() throws IOException {
+        // Arrange
+        Path file = dir.resolve("rates.json");
+        writeRates(file, "2026-01-01T10:00:00Z", "32.00");
+        FxService fxService = fxService(file);
+        Money before = fxService.convert(Money.of("10.00", Currency.USD), Currency.TRY);
+
+        // Act
+        writeRates(file, "2026-01-01T11:00:00Z", "33.00");
+        fxService.refresh();
+
+        // Assert
+        assertEquals(Money.of("320.00", Currency.TRY), before);
+        assertEquals(Money.of("330.00", Currency.TRY), fxService.convert(Money.of("10.00", Currency.USD), Currency.TRY));
+        assertEquals(2, meterRegistry.get("payment.fx.refresh").tag("outcome", "success").counter().count());
+    }
+
+    @Test
+    void refresh_BrokenFile_KeepsPreviousSnapshot() throws IOException {
+        // Arrange
+        Path file = dir.resolve("rates.json");
+        writeRates(file, "2026-01-01T10:00:00Z", "32.00");
+        FxService fxService = fxService(file);
+
+        // Act
+        Files.writeString(file, "{\"base\": \"USD\", \"rat");
+        fxService.refresh();
+
+        // Assert
+        assertEquals(Instant.parse("2026-01-01T10:00:00Z"), fxService.getSnapshot().getAsOf());
+        assertEquals(Money.of("32.00", Currency.TRY), fxService.toSettlement(Money.of("1.00", Currency.USD)));
+        assertEquals(1, meterRegistry.get("payment.fx.refresh").tag("outcome", "failure").counter().count());
+    }
+
+    @Test
+    void convert_StaleSnapshot_ThrowsAndSettlementIsEmpty() throws IOException {
+        // Arrange
+        Path file = dir.resolve("rates.json");
+        writeRates(file, "2025-12-30T10:00:00Z", "32.00");
+        FxService fxService = fxService(file);
+
+        // Act & Assert
+        assertThrows(FxRateUnavailableException.class,
+            () -> fxService.convert(Money.of("1.00", Currency.USD), Currency.TRY));
+        assertNull(fxService.toSettlement(Money.of("1.00", Currency.USD)));
+        assertEquals(Money.of("1.00", Currency.TRY), fxService.toSettlement(Money.of("1.00", Currency.TRY)));
+    }
+
+    private FxService fxService(Path file) {
+        FxService fxService = new FxService(new FileFxRateSource(file, new ObjectMapper().findAndRegisterModules()),
+            new FxProperties(), CLOCK, meterRegistry);
+        fxService.start();
+        return fxService;
+    }
+
+    private static void writeRates(Path file, String asOf, String tryRate) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.writeString(tmp, String.format(
+            "{\"base\": \"USD\", \"asOf\": \"%s\", \"rates\": {\"TRY\": %s, \"EUR\": 0.92}}", asOf, tryRate));
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+}
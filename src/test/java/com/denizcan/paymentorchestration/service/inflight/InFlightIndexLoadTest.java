@@ -0,0 +1,119 @@
+package com.denizcan.paymentorchestration.service.inflight;
+
+import com.denizcan.paymentorchestration.dto.PaymentStatusView;
+import com.denizcan.paymentorchestration.model.Currency;
+import com.denizcan.paymentorchestration.model.Money;
+import com.denizcan.paymentorchestration.model.Payment;
+import com.denizcan.paymentorchestration.model.PaymentProvider;
+import com.denizcan.paymentorchestration.model.PaymentStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// 5 milyon işlemdeki ödemeyi heap dışındaki indekste ve heap'teki bir ConcurrentHashMap'te tutup
+// GC'ye etkisini karşılaştırır: doldurma ve okuma sırasındaki toplam GC süresi, tam GC duraklaması
+// ve GC sonrası heap'te kalan bellek. Çalıştırmak için: mvn test -Pload-test
+@Slf4j
+@Tag("load")
+class InFlightIndexLoadTest {
+
+    private static final int ENTRIES = 5_000_000;
+    private static final int CAPACITY = 1 << 23;
+    private static final long MAX_RETAINED_BYTES = 64L << 20;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void index_FiveMillionEntries_PausesLessThanOnHeapMap() throws Exception {
+        // Arrange
+        Payment payment = Payment.builder()
+            .amount(Money.of("149.90", Currency.TRY))
+            .provider(PaymentProvider.PARAM)
+            .status(PaymentStatus.PROCESSING)
+            .version(1L)
+            .build();
+
+        // Act
+        GcCost offHeap;
+        try (InFlightIndex index = new InFlightIndex(dir.resolve("payments.idx"), CAPACITY, Duration.ofHours(1),
+                Clock.systemUTC())) {
+            offHeap = measure(id -> {
+                payment.setId(id);
+                index.put(payment);
+            }, index::get);
+            assertEquals(ENTRIES, index.size());
+        }
+
+        Map<String, PaymentStatusView> map = new ConcurrentHashMap<>(CAPACITY);
+        GcCost onHeap = measure(id -> {
+            payment.setId(id);
+            map.put(id, PaymentStatusView.of(payment));
+        }, map::get);
+        assertEquals(ENTRIES, map.size());
+
+        // Assert
+        log.info("Heap dışı indeks: {}", offHeap);
+        log.info("Heap'teki map:    {}", onHeap);
+        assertTrue(offHeap.retainedBytes() < MAX_RETAINED_BYTES,
+            () -> "İndeks heap'te yer tutmamalı: " + offHeap.retainedBytes() + " bayt");
+        assertTrue(offHeap.fullGcMillis() * 2 < onHeap.fullGcMillis(),
+            () -> "Tam GC duraklaması heap'teki map'in yarısından az olmalı: " + offHeap + " / " + onHeap);
+        assertTrue(offHeap.gcMillis() < onHeap.gcMillis(),
+            () -> "Toplam GC süresi heap'teki map'ten az olmalı: " + offHeap + " / " + onHeap);
+    }
+
+    private static GcCost measure(Consumer<String> put, Function<String, PaymentStatusView> get) {
+        System.gc();
+        long heapBefore = usedHeap();
+        long gcBefore = gcMillis();
+
+        for (int i = 1; i <= ENTRIES; i++) {
+            put.accept(id(i));
+        }
+        for (int i = 1; i <= ENTRIES; i++) {
+            assertNotNull(get.apply(id(i)));
+        }
+
+        long fullGcStart = System.nanoTime();
+        System.gc();
+        long fullGcMillis = (System.nanoTime() - fullGcStart) / 1_000_000;
+        return new GcCost(gcMillis() - gcBefore, fullGcMillis, usedHeap() - heapBefore);
+    }
+
+    // Sıfırla doldurulmuş ondalık sayılar da geçerli 13 karakterlik zaman sıralı id'dir
+    private static String id(int i) {
+        return String.format("%013d", i);
+    }
+
+    private static long gcMillis() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+            .mapToLong(GarbageCollectorMXBean::getCollectionTime)
+            .sum();
+    }
+
+    private static long usedHeap() {
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private record GcCost(long gcMillis, long fullGcMillis, long retainedBytes) {
+        @Override
+        public String toString() {
+            return String.format("GC toplam %d ms, tam GC %d ms, heap'te kalan %d MB",
+                gcMillis, fullGcMillis, retainedBytes >> 20);
+        }
+    }
+}
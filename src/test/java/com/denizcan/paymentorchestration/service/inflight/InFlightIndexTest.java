@@ -0,0 +1,256 @@
+package com.denizcan.paymentorchestration.service.inflight;
+
+import com.denizcan.paymentorchestration.dto.PaymentStatusView;
+import com.denizcan.paymentorchestration.model.Currency;
+import com.denizcan.paymentorchestration.model.Money;
+import com.denizcan.paymentorchestration.model.Payment;
+import com.denizcan.paymentorchestration.model.PaymentProvider;
+import com.denizcan.paymentorchestration.model.PaymentStatus;
+import com.denizcan.paymentorchestration.model.TimeOrderedIdGenerator;
+import com.denizcan.paymentorchestration.service.provider.MutableClock;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InFlightIndexTest {
+
+    private static final int CAPACITY = 1 << 10;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void put_InFlightPayment_ReadsBackFixedWidthFields() throws IOException {
+        // Arrange
+        Payment payment = payment(PaymentStatus.PROCESSING, 7);
+
+        // Act
+        PaymentStatusView view;
+        try (InFlightIndex index = open(Duration.ofMinutes(1))) {
+            index.put(payment);
+            view = index.get(payment.getId());
+        }
+
+        // Assert
+        assertEquals(new PaymentStatusView(payment.getId(), PaymentStatus.PROCESSING, PaymentProvider.PAPARA,
+            Money.of("149.90", Currency.USD), 7), view);
+    }
+
+    @Test
+    void put_FinalStatusOrLegacyId_IsNotIndexed() throws IOException {
+        // Arrange
+        Payment payment = payment(PaymentStatus.PENDING, 0);
+        Payment legacy = payment(PaymentStatus.PENDING, 0).toBuilder().id("3f2504e0-4f89-11d3-9a0c-0305e82c3301").build();
+
+        try (InFlightIndex index = open(Duration.ofMinutes(1))) {
+            index.put(payment);
+            index.put(legacy);
+
+            // Act
+            payment.setStatus(PaymentStatus.COMPLETED);
+            index.put(payment);
+
+            // Assert
+            assertNull(index.get(payment.getId()));
+            assertNull(index.get(legacy.getId()));
+            assertEquals(0, index.size());
+        }
+    }
+
+    @Test
+    void remove_ManyEntries_KeepsRemainingReachable() throws IOException {
+        // Arrange
+        List<Payment> payments = new ArrayList<>();
+        for (int i = 0; i < CAPACITY / 4 * 3; i++) {
+            payments.add(payment(PaymentStatus.PENDING, i));
+        }
+
+        try (InFlightIndex index = open(Duration.ofMinutes(1))) {
+            payments.forEach(index::put);
+
+            // Act: yüksek dolulukta silinen kayıtların ardındakiler geri kaydırılır
+            for (int i = 0; i < payments.size(); i += 2) {
+                index.remove(payments.get(i).getId());
+            }
+
+            // Assert
+            for (int i = 0; i < payments.size(); i++) {
+                PaymentStatusView view = index.get(payments.get(i).getId());
+                if (i % 2 == 0) {
+                    assertNull(view);
+                } else {
+                    assertNotNull(view, "Kayıt silmeden sonra bulunamadı: " + i);
+                    assertEquals(i, view.version());
+                }
+            }
+            assertEquals(payments.size() / 2, index.size());
+        }
+    }
+
+    @Test
+    void putIfUnchanged_WrittenDuringLoad_SkipsStaleState() throws IOException {
+        // Arrange
+        Payment loaded = payment(PaymentStatus.PENDING, 1);
+
+        try (InFlightIndex index = open(Duration.ofMinutes(1))) {
+            long generation = index.generation(loaded.getId());
+            // Yükleme sürerken başka bir istek ödemeyi işleme aldı ve önbelleği düşürdü
+            index.remove(loaded.getId());
+
+            // Act
+            index.putIfUnchanged(loaded, generation);
+
+            // Assert
+            assertNull(index.get(loaded.getId()));
+        }
+    }
+
+    @Test
+    void get_OlderThanMaxAge_ReturnsNull() throws IOException {
+        // Arrange
+        Payment payment = payment(PaymentStatus.PENDING, 1);
+
+        try (InFlightIndex index = open(Duration.ZERO)) {
+            index.put(payment);
+
+            // Act
+            PaymentStatusView view = index.get(payment.getId());
+
+            // Assert
+            assertNull(view);
+            assertEquals(1, index.size());
+        }
+    }
+
+    @Test
+    void put_IndexFull_PurgesExpiredInBoundedStepsOrRejects() throws IOException {
+        // Arrange
+        MutableClock clock = new MutableClock();
+        int maxEntries = CAPACITY / 4 * 3;
+        List<Payment> expired = new ArrayList<>();
+        for (int i = 0; i < maxEntries; i++) {
+            expired.add(payment(PaymentStatus.PENDING, i));
+        }
+
+        try (InFlightIndex index = new InFlightIndex(dir.resolve("payments.idx"), CAPACITY, Duration.ofMinutes(1), clock)) {
+            expired.forEach(index::put);
+
+            // Act & Assert: süresi dolmamışken dolu indeks yeni ödemeyi reddeder
+            Payment rejected = payment(PaymentStatus.PENDING, 0);
+            index.put(rejected);
+            assertNull(index.get(rejected.getId()));
+            assertEquals(maxEntries, index.size());
+
+            // Süre dolunca her ekleme en fazla PURGE_SLOTS yuva temizler; tablo birkaç eklemede tamamen yenilenir
+            clock.advance(Duration.ofMinutes(2));
+            Payment first = payment(PaymentStatus.PENDING, 0);
+            index.put(first);
+            assertNotNull(index.get(first.getId()));
+            assertTrue(index.size() > maxEntries / 4); // Tablonun tamamı tek eklemede taranmadı
+
+            List<Payment> fresh = new ArrayList<>();
+            for (int i = 1; i < maxEntries; i++) {
+                Payment payment = payment(PaymentStatus.PENDING, i);
+                fresh.add(payment);
+                index.put(payment);
+            }
+            for (Payment payment : fresh) {
+                assertNotNull(index.get(payment.getId()), "Süresi geçmiş kayıtlar yer açmadı: " + payment.getVersion());
+            }
+        }
+    }
+
+    @Test
+    void open_AfterCleanClose_KeepsEntriesAndDropsThemAfterCrash() throws IOException {
+        // Arrange
+        Payment payment = payment(PaymentStatus.PROCESSING, 3);
+        try (InFlightIndex index = open(Duration.ofMinutes(1))) {
+            index.put(payment);
+        }
+
+        // Act
+        PaymentStatusView reopened;
+        try (InFlightIndex index = open(Duration.ofMinutes(1))) {
+            reopened = index.get(payment.getId());
+        }
+        try (FileChannel file = FileChannel.open(dir.resolve("payments.idx"), StandardOpenOption.WRITE)) {
+            // Kapanış işareti yazılmadan çökmüş gibi
+            file.write(ByteBuffer.allocate(Integer.BYTES), 16);
+        }
+        PaymentStatusView afterCrash;
+        try (InFlightIndex index = open(Duration.ofMinutes(1))) {
+            afterCrash = index.get(payment.getId());
+        }
+
+        // Assert
+        assertNotNull(reopened);
+        assertEquals(3, reopened.version());
+        assertNull(afterCrash);
+    }
+
+    @Test
+    void get_ConcurrentWrites_NeverReturnsTornRecord() throws Exception {
+        // Arrange
+        Payment payment = payment(PaymentStatus.PROCESSING, 0);
+        payment.setAmount(Money.ofMinor(0, Currency.TRY));
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicReference<String> torn = new AtomicReference<>();
+
+        try (InFlightIndex index = open(Duration.ofMinutes(1))) {
+            index.put(payment);
+            List<Thread> readers = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                readers.add(Thread.ofPlatform().start(() -> {
+                    while (running.get()) {
+                        PaymentStatusView view = index.get(payment.getId());
+                        // Her yazmada tutar sürümle birlikte değişir; ikisi uyuşmuyorsa kayıt yarım okunmuştur
+                        if (view != null && view.amount().minorUnits() != view.version() * 100) {
+                            torn.set(view.toString());
+                        }
+                    }
+                }));
+            }
+
+            // Act
+            for (long version = 1; version <= 200_000; version++) {
+                payment.setVersion(version);
+                payment.setAmount(Money.ofMinor(version * 100, Currency.TRY));
+                index.put(payment);
+            }
+            running.set(false);
+            for (Thread reader : readers) {
+                reader.join();
+            }
+        }
+
+        // Assert
+        assertNull(torn.get(), () -> "Yarım yazılmış kayıt okundu: " + torn.get());
+    }
+
+    private InFlightIndex open(Duration maxAge) throws IOException {
+        return new InFlightIndex(dir.resolve("payments.idx"), CAPACITY, maxAge, Clock.systemUTC());
+    }
+
+    private static Payment payment(PaymentStatus status, long version) {
+        return Payment.builder()
+            .id(TimeOrderedIdGenerator.next())
+            .amount(Money.of("149.90", Currency.USD))
+            .provider(PaymentProvider.PAPARA)
+            .status(status)
+            .version(version)
+            .build();
+    }
+}
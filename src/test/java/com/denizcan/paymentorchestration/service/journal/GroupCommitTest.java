@@ -0,0 +1,51 @@
+package com.denizcan.paymentorchestration.service.journal;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GroupCommitTest {
+
+    @Test
+    void sync_PositionCoveredByEarlierFlush_DoesNotFlushAgain() {
+        // Arrange
+        GroupCommit groupCommit = new GroupCommit(0);
+        AtomicInteger flushes = new AtomicInteger();
+
+        // Act: ilk fsync o ana kadar eklenmiş 300 baytı yazar
+        groupCommit.sync(100, () -> {
+            flushes.incrementAndGet();
+            return 300;
+        });
+        groupCommit.sync(200, () -> {
+            flushes.incrementAndGet();
+            return 300;
+        });
+        groupCommit.sync(300, () -> {
+            flushes.incrementAndGet();
+            return 300;
+        });
+
+        // Assert
+        assertEquals(1, flushes.get());
+    }
+
+    @Test
+    void reset_AfterTruncation_FlushesNewRecords() {
+        // Arrange
+        GroupCommit groupCommit = new GroupCommit(500);
+        AtomicInteger flushes = new AtomicInteger();
+
+        // Act: günlük sıfırlandı, yeni kayıtlar eski konumların altında kalır
+        groupCommit.reset(0);
+        groupCommit.sync(50, () -> {
+            flushes.incrementAndGet();
+            return 50;
+        });
+
+        // Assert
+        assertEquals(1, flushes.get());
+    }
+}
@@ -0,0 +1,44 @@
+package com.denizcan.paymentorchestration.service.journal;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecordFormatTest {
+
+    @Test
+    void write_AtOffset_ReadsBackIntactWithoutMovingPosition() {
+        // Arrange
+        byte[] payload = "kayıt".getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+
+        // Act
+        RecordFormat.write(buffer, 16, payload);
+
+        // Assert
+        assertEquals(0, buffer.position());
+        assertEquals(payload.length, RecordFormat.length(buffer, 16));
+        byte[] read = new byte[payload.length];
+        buffer.get(16 + RecordFormat.HEADER_BYTES, read);
+        assertArrayEquals(payload, read);
+        assertTrue(RecordFormat.intact(buffer, 16, read));
+        assertEquals(RecordFormat.HEADER_BYTES + payload.length, RecordFormat.sizeOf(payload));
+    }
+
+    @Test
+    void intact_CorruptedPayload_ReturnsFalse() {
+        // Arrange
+        byte[] payload = "kayıt".getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(RecordFormat.sizeOf(payload));
+        RecordFormat.write(buffer, 0, payload);
+
+        // Act
+        payload[0] ^= 1;
+
+        // Assert
+        assertFalse(RecordFormat.intact(buffer, 0, payload));
+    }
+}
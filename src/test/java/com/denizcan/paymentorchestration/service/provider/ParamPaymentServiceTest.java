@@ -1,30 +1,29 @@
 package com.denizcan.paymentorchestration.service.provider;
 
+import com.denizcan.paymentorchestration.model.Currency;
+import com.denizcan.paymentorchestration.model.Money;
 import com.denizcan.paymentorchestration.model.Payment;
 import com.denizcan.paymentorchestration.model.PaymentProvider;
 import com.denizcan.paymentorchestration.model.PaymentStatus;
+import com.denizcan.paymentorchestration.config.ProviderProperties;
 import org.junit.jupiter.api.Test;
-import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
-import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.math.BigDecimal;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
-@ExtendWith(MockitoExtension.class)
 class ParamPaymentServiceTest {
 
-    @InjectMocks
-    private ParamPaymentService paramPaymentService;
+    // Varsayılan simülasyon: sabit 1 sn gecikme, her çağrı başarılı
+    private final ParamPaymentService paramPaymentService = new ParamPaymentService(new ProviderProperties());
 
     @Test
     void processPayment_Success_ReturnsTrue() {
         // Arrange
         Payment payment = Payment.builder()
             .id("test-id")
-            .amount(new BigDecimal("100.00"))
-            .currency("TRY")
+            .amount(Money.of("100.00", Currency.TRY))
             .provider(PaymentProvider.PARAM)
             .status(PaymentStatus.PENDING)
             .build();
@@ -41,8 +40,7 @@ class ParamPaymentServiceTest {
         // Arrange
         Payment payment = Payment.builder()
             .id("test-id")
-            .amount(new BigDecimal("100.00"))
-            .currency("TRY")
+            .amount(Money.of("100.00", Currency.TRY))
             .provider(PaymentProvider.PARAM)
             .status(PaymentStatus.COMPLETED)
             .build();
@@ -53,4 +51,22 @@ class ParamPaymentServiceTest {
         // Assert
         assertTrue(result);
     }
-} 
\ No newline at end of file
+
+    @Test
+    void processPaymentAsync_Success_CompletesWithTrue() throws Exception {
+        // Arrange
+        Payment payment = Payment.builder()
+            .id("test-id")
+            .amount(Money.of("100.00", Currency.TRY))
+            .provider(PaymentProvider.PARAM)
+            .status(PaymentStatus.PROCESSING)
+            .build();
+
+        // Act
+        CompletableFuture<Boolean> future = paramPaymentService.processPaymentAsync(payment);
+
+        // Assert
+        assertFalse(future.isDone()); // Sağlayıcı cevabı henüz gelmedi, çağıran thread bloklanmadı
+        assertTrue(future.get(5, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,84 @@
+package com.denizcan.paymentorchestration.service.provider;
+
+import com.denizcan.paymentorchestration.config.ProviderProperties;
+import com.denizcan.paymentorchestration.exception.ProviderTimeoutException;
+import com.denizcan.paymentorchestration.model.PaymentProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProviderCallTimeoutTest {
+
+    // Tek thread'li havuz: ilk görev thread'i tuttukça sonrakiler kuyrukta başlamadan bekler
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private ProviderCallTimeout callTimeout;
+
+    @BeforeEach
+    void setUp() {
+        ProviderProperties properties = new ProviderProperties();
+        properties.getTimeout().put(PaymentProvider.PARAM, Duration.ofMillis(50));
+        callTimeout = new ProviderCallTimeout(properties, executor);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        release.countDown();
+        callTimeout.stop();
+    }
+
+    @Test
+    void call_TimesOutBeforeTaskStarts_RunsOnFinishOnceWithoutCalling() throws Exception {
+        // Arrange
+        executor.submit(() -> {
+            release.await();
+            return null;
+        });
+        AtomicInteger finished = new AtomicInteger();
+        AtomicInteger called = new AtomicInteger();
+
+        // Act
+        assertThrows(ProviderTimeoutException.class, () -> callTimeout.call(PaymentProvider.PARAM,
+            called::incrementAndGet, finished::incrementAndGet));
+        release.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+        // Assert
+        assertEquals(1, finished.get()); // İzin görev başlamadan bırakıldı, kuyruktan çıkan görev tekrar bırakmadı
+        assertEquals(0, called.get());
+    }
+
+    @Test
+    void call_TimesOutWhileRunning_RunsOnFinishWhenCallReturns() throws Exception {
+        // Arrange
+        AtomicInteger finished = new AtomicInteger();
+        CountDownLatch returned = new CountDownLatch(1);
+
+        // Act
+        assertThrows(ProviderTimeoutException.class, () -> callTimeout.call(PaymentProvider.PARAM, () -> {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(200);
+            while (System.nanoTime() < deadline) {
+                Thread.onSpinWait(); // Kesmeyi dikkate almayan sağlayıcı
+            }
+            return true;
+        }, () -> {
+            finished.incrementAndGet();
+            returned.countDown();
+        }));
+
+        // Assert
+        assertEquals(0, finished.get());
+        assertTrue(returned.await(5, TimeUnit.SECONDS));
+        assertEquals(1, finished.get());
+    }
+}
@@ -0,0 +1,160 @@
+package com.denizcan.paymentorchestration.service.provider;
+
+import com.denizcan.paymentorchestration.config.ProviderProperties;
+import com.denizcan.paymentorchestration.model.PaymentProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProviderCircuitBreakerTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final MutableClock clock = new MutableClock();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ProviderCircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setUp() {
+        ProviderProperties properties = new ProviderProperties();
+        properties.getCircuitBreaker().setMinimumCalls(10);
+        properties.getCircuitBreaker().setOpenDuration(Duration.ofSeconds(5));
+        properties.getCircuitBreaker().setHalfOpenCalls(2);
+        properties.getCircuitBreaker().setSlowCallDuration(Duration.ofSeconds(1));
+        circuitBreaker = new ProviderCircuitBreaker(properties, clock, meterRegistry);
+    }
+
+    @Test
+    void onResult_ErrorRateBelowThresholdOrTooFewCalls_StaysClosed() {
+        // Act
+        for (int i = 0; i < 9; i++) {
+            circuitBreaker.onResult(PaymentProvider.PAPARA, FAST, true);
+        }
+        for (int i = 0; i < 20; i++) {
+            circuitBreaker.onResult(PaymentProvider.PARAM, FAST, i % 3 == 0);
+        }
+
+        // Assert
+        assertEquals(ProviderCircuitBreaker.State.CLOSED, circuitBreaker.getState(PaymentProvider.PAPARA));
+        assertEquals(ProviderCircuitBreaker.State.CLOSED, circuitBreaker.getState(PaymentProvider.PARAM));
+        assertTrue(circuitBreaker.tryAcquire(PaymentProvider.PAPARA));
+    }
+
+    @Test
+    void onResult_ErrorRateAboveThreshold_OpensAndFailsFast() {
+        // Act
+        for (int i = 0; i < 10; i++) {
+            circuitBreaker.onResult(PaymentProvider.PAPARA, FAST, true);
+        }
+
+        // Assert
+        assertEquals(ProviderCircuitBreaker.State.OPEN, circuitBreaker.getState(PaymentProvider.PAPARA));
+        assertFalse(circuitBreaker.tryAcquire(PaymentProvider.PAPARA));
+        assertFalse(circuitBreaker.isCallPermitted(PaymentProvider.PAPARA));
+        assertTrue(circuitBreaker.tryAcquire(PaymentProvider.PARAM));
+        assertEquals(2, meterRegistry.get("payment.provider.circuit.state")
+            .tag("provider", "PAPARA").gauge().value());
+    }
+
+    @Test
+    void onResult_SlowCallsAboveThreshold_OpensCircuit() {
+        // Act
+        for (int i = 0; i < 10; i++) {
+            circuitBreaker.onResult(PaymentProvider.PAPARA, TimeUnit.SECONDS.toNanos(3), false);
+        }
+
+        // Assert
+        assertEquals(ProviderCircuitBreaker.State.OPEN, circuitBreaker.getState(PaymentProvider.PAPARA));
+    }
+
+    @Test
+    void tryAcquire_OpenDurationElapsed_ProbesCloseCircuitOnSuccess() {
+        // Arrange
+        openPapara();
+        clock.advance(Duration.ofSeconds(5));
+
+        // Act
+        boolean firstProbe = circuitBreaker.tryAcquire(PaymentProvider.PAPARA);
+        boolean secondProbe = circuitBreaker.tryAcquire(PaymentProvider.PAPARA);
+        boolean thirdCall = circuitBreaker.tryAcquire(PaymentProvider.PAPARA);
+        circuitBreaker.onResult(PaymentProvider.PAPARA, FAST, false);
+        circuitBreaker.onResult(PaymentProvider.PAPARA, FAST, false);
+
+        // Assert
+        assertTrue(firstProbe);
+        assertTrue(secondProbe);
+        assertFalse(thirdCall, "Yarı açık devre deneme kotasından fazla çağrıya izin vermemeli");
+        assertEquals(ProviderCircuitBreaker.State.CLOSED, circuitBreaker.getState(PaymentProvider.PAPARA));
+        // Kapanan devre eski hataları hatırlamamalı: tek bir hata devreyi tekrar açmamalı
+        circuitBreaker.onResult(PaymentProvider.PAPARA, FAST, true);
+        assertEquals(ProviderCircuitBreaker.State.CLOSED, circuitBreaker.getState(PaymentProvider.PAPARA));
+    }
+
+    @Test
+    void onResult_HalfOpenProbeFails_ReopensCircuit() {
+        // Arrange
+        openPapara();
+        clock.advance(Duration.ofSeconds(5));
+        assertTrue(circuitBreaker.tryAcquire(PaymentProvider.PAPARA));
+
+        // Act
+        circuitBreaker.onResult(PaymentProvider.PAPARA, FAST, true);
+
+        // Assert
+        assertEquals(ProviderCircuitBreaker.State.OPEN, circuitBreaker.getState(PaymentProvider.PAPARA));
+        assertFalse(circuitBreaker.tryAcquire(PaymentProvider.PAPARA));
+    }
+
+    @Test
+    void tryAcquire_ConcurrentCallsWhenOpenDurationElapses_AdmitsOnlyHalfOpenCalls() throws Exception {
+        // Arrange
+        int threads = 8;
+        openPapara();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (int round = 0; round < 200; round++) {
+                clock.advance(Duration.ofSeconds(5));
+                CyclicBarrier start = new CyclicBarrier(threads);
+                List<Future<Boolean>> calls = new ArrayList<>();
+                for (int i = 0; i < threads; i++) {
+                    calls.add(executor.submit(() -> {
+                        start.await();
+                        return circuitBreaker.tryAcquire(PaymentProvider.PAPARA);
+                    }));
+                }
+
+                // Act
+                int admitted = 0;
+                for (Future<Boolean> call : calls) {
+                    admitted += call.get() ? 1 : 0;
+                }
+
+                // Assert
+                assertTrue(admitted <= 2, "Turda " + admitted + " deneme çağrısı geçti");
+                circuitBreaker.onResult(PaymentProvider.PAPARA, FAST, true);
+                assertEquals(ProviderCircuitBreaker.State.OPEN, circuitBreaker.getState(PaymentProvider.PAPARA));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void openPapara() {
+        for (int i = 0; i < 10; i++) {
+            circuitBreaker.onResult(PaymentProvider.PAPARA, FAST, true);
+        }
+        assertEquals(ProviderCircuitBreaker.State.OPEN, circuitBreaker.getState(PaymentProvider.PAPARA));
+    }
+}
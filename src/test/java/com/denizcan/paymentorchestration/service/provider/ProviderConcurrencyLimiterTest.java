@@ -0,0 +1,327 @@
+package com.denizcan.paymentorchestration.service.provider;
+
+import com.denizcan.paymentorchestration.config.ProviderProperties;
+import com.denizcan.paymentorchestration.config.RoutingProperties;
+import com.denizcan.paymentorchestration.exception.ProviderRejectedException;
+import com.denizcan.paymentorchestration.exception.ProviderTimeoutException;
+import com.denizcan.paymentorchestration.exception.ProviderUnavailableException;
+import com.denizcan.paymentorchestration.model.PaymentProvider;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProviderConcurrencyLimiterTest {
+
+    private ProviderConcurrencyLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        ProviderProperties properties = new ProviderProperties();
+        properties.setMaxConcurrency(10);
+        properties.setAcquireTimeout(Duration.ofMillis(10));
+        properties.getConcurrency().put(PaymentProvider.PAPARA, 1);
+        limiter = limiter(properties);
+    }
+
+    @Test
+    void constructor_ProviderOverride_AppliesPerProviderLimit() {
+        // Assert
+        assertEquals(10, limiter.availablePermits(PaymentProvider.PARAM));
+        assertEquals(1, limiter.availablePermits(PaymentProvider.PAPARA));
+    }
+
+    @Test
+    void executeAsync_LimitReached_FailsFastWithoutBlocking() {
+        // Arrange
+        CompletableFuture<Boolean> outstanding = new CompletableFuture<>();
+        limiter.executeAsync(PaymentProvider.PAPARA, () -> outstanding);
+
+        // Act
+        CompletableFuture<Boolean> rejected = limiter.executeAsync(PaymentProvider.PAPARA,
+            () -> CompletableFuture.completedFuture(true));
+
+        // Assert
+        ExecutionException ex = assertThrows(ExecutionException.class, rejected::get);
+        assertInstanceOf(ProviderUnavailableException.class, ex.getCause());
+        assertEquals(10, limiter.availablePermits(PaymentProvider.PARAM)); // Diğer sağlayıcı etkilenmez
+    }
+
+    @Test
+    void executeAsync_CallCompletes_ReleasesPermit() {
+        // Arrange
+        CompletableFuture<Boolean> outstanding = new CompletableFuture<>();
+        limiter.executeAsync(PaymentProvider.PAPARA, () -> outstanding);
+
+        // Act
+        outstanding.complete(true);
+
+        // Assert
+        assertEquals(1, limiter.availablePermits(PaymentProvider.PAPARA));
+    }
+
+    @Test
+    void execute_LimitReached_ThrowsAfterAcquireTimeout() {
+        // Arrange
+        CompletableFuture<Boolean> outstanding = new CompletableFuture<>();
+        limiter.executeAsync(PaymentProvider.PAPARA, () -> outstanding);
+
+        // Act & Assert
+        assertThrows(ProviderUnavailableException.class,
+            () -> limiter.execute(PaymentProvider.PAPARA, () -> true));
+    }
+
+    @Test
+    void executeAsyncAwaitingPermit_PermitFreedWhileWaiting_RunsCall() throws Exception {
+        // Arrange
+        ProviderProperties properties = new ProviderProperties();
+        properties.setAcquireTimeout(Duration.ofSeconds(5));
+        properties.getConcurrency().put(PaymentProvider.PAPARA, 1);
+        limiter = limiter(properties);
+        CompletableFuture<Boolean> outstanding = new CompletableFuture<>();
+        limiter.executeAsync(PaymentProvider.PAPARA, () -> outstanding);
+        CompletableFuture.delayedExecutor(50, TimeUnit.MILLISECONDS)
+            .execute(() -> outstanding.complete(true));
+
+        // Act
+        CompletableFuture<Boolean> queued = limiter.executeAsyncAwaitingPermit(PaymentProvider.PAPARA,
+            () -> CompletableFuture.completedFuture(true));
+
+        // Assert
+        assertTrue(queued.get());
+    }
+
+    @Test
+    void execute_CircuitOpen_RejectsWithoutCallingProvider() {
+        // Arrange
+        ProviderProperties properties = new ProviderProperties();
+        properties.getCircuitBreaker().setMinimumCalls(5);
+        properties.getRetry().setMaxAttempts(1);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ProviderCircuitBreaker circuitBreaker = new ProviderCircuitBreaker(properties, Clock.systemUTC(), meterRegistry);
+        limiter = limiter(properties, circuitBreaker, meterRegistry);
+        for (int i = 0; i < 5; i++) {
+            assertThrows(ProviderUnavailableException.class, () -> limiter.execute(PaymentProvider.PAPARA, () -> {
+                throw new ProviderUnavailableException("Bağlantı hatası");
+            }));
+        }
+        AtomicInteger calls = new AtomicInteger();
+
+        // Act & Assert
+        assertThrows(ProviderRejectedException.class,
+            () -> limiter.execute(PaymentProvider.PAPARA, () -> calls.incrementAndGet() > 0));
+        assertEquals(0, calls.get());
+        assertEquals(ProviderCircuitBreaker.State.OPEN, circuitBreaker.getState(PaymentProvider.PAPARA));
+        assertEquals(1, meterRegistry.get("payment.provider.rejections")
+            .tags("provider", "PAPARA", "reason", "circuit_open").counter().count());
+        assertTrue(limiter.execute(PaymentProvider.PARAM, () -> true)); // Diğer sağlayıcının devresi kapalı
+    }
+
+    @Test
+    void execute_ProviderHangs_ThrowsTimeoutAndInterruptsCall() throws Exception {
+        // Arrange
+        ProviderProperties properties = new ProviderProperties();
+        properties.getTimeout().put(PaymentProvider.PAPARA, Duration.ofMillis(50));
+        limiter = limiter(properties);
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        // Act
+        long start = System.nanoTime();
+        assertThrows(ProviderTimeoutException.class, () -> limiter.execute(PaymentProvider.PAPARA, () -> {
+            try {
+                Thread.sleep(10_000);
+                return true;
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                return false;
+            }
+        }));
+
+        // Assert
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2));
+        assertTrue(interrupted.await(1, TimeUnit.SECONDS), "Süresi dolan çağrının thread'i kesilmeli");
+        assertEquals(properties.getMaxConcurrency(), limiter.availablePermits(PaymentProvider.PAPARA));
+    }
+
+    @Test
+    void execute_ProviderUnreachable_RetriesUntilSuccess() {
+        // Arrange
+        ProviderProperties properties = new ProviderProperties();
+        properties.getRetry().setInitialBackoff(Duration.ofMillis(1));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        limiter = limiter(properties, meterRegistry);
+        AtomicInteger calls = new AtomicInteger();
+
+        // Act
+        boolean result = limiter.execute(PaymentProvider.PARAM, () -> {
+            if (calls.incrementAndGet() < 3) {
+                throw new ProviderUnavailableException("Bağlantı hatası");
+            }
+            return true;
+        });
+
+        // Assert
+        assertTrue(result);
+        assertEquals(3, calls.get());
+        assertEquals(2, meterRegistry.get("payment.provider.retries")
+            .tags("provider", "PARAM", "outcome", "retried").counter().count());
+    }
+
+    @Test
+    void execute_RetryBudgetExhausted_StopsRetrying() {
+        // Arrange
+        ProviderProperties properties = new ProviderProperties();
+        properties.getRetry().setInitialBackoff(Duration.ofMillis(1));
+        properties.getRetry().setBudgetBurst(1);
+        properties.getRetry().setBudgetRatio(0);
+        properties.getRetry().setBudgetMinPerSecond(0);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        limiter = limiter(properties, meterRegistry);
+        AtomicInteger calls = new AtomicInteger();
+
+        // Act
+        assertThrows(ProviderUnavailableException.class, () -> limiter.execute(PaymentProvider.PARAM, () -> {
+            calls.incrementAndGet();
+            throw new ProviderUnavailableException("Bağlantı hatası");
+        }));
+
+        // Assert
+        assertEquals(2, calls.get()); // Bütçedeki tek hak kullanıldı, üçüncü deneme yapılmadı
+        assertEquals(1, meterRegistry.get("payment.provider.retries")
+            .tags("provider", "PARAM", "outcome", "budget_exhausted").counter().count());
+    }
+
+    @Test
+    void executeAsync_PaymentTimesOut_NotRetried() {
+        // Arrange
+        ProviderProperties properties = new ProviderProperties();
+        properties.getTimeout().put(PaymentProvider.PARAM, Duration.ofMillis(50));
+        limiter = limiter(properties);
+        AtomicInteger calls = new AtomicInteger();
+
+        // Act
+        CompletableFuture<Boolean> future = limiter.executeAsync(PaymentProvider.PARAM, () -> {
+            calls.incrementAndGet();
+            return new CompletableFuture<>();
+        });
+
+        // Assert
+        ExecutionException ex = assertThrows(ExecutionException.class, () -> future.get(2, TimeUnit.SECONDS));
+        assertInstanceOf(ProviderTimeoutException.class, ex.getCause());
+        assertEquals(1, calls.get(), "Sağlayıcıda işlenmiş olabilecek ödeme tekrar gönderilmemeli");
+    }
+
+    @Test
+    void executeAsync_CallOutlivesTimeout_HoldsPermitUntilCallCompletes() throws Exception {
+        // Arrange
+        ProviderProperties properties = new ProviderProperties();
+        properties.getTimeout().put(PaymentProvider.PARAM, Duration.ofMillis(50));
+        limiter = limiter(properties);
+        CompletableFuture<Boolean> call = new CompletableFuture<>();
+
+        // Act
+        CompletableFuture<Boolean> future = limiter.executeAsync(PaymentProvider.PARAM, () -> call);
+        ExecutionException ex = assertThrows(ExecutionException.class, () -> future.get(2, TimeUnit.SECONDS));
+        int whileRunning = limiter.availablePermits(PaymentProvider.PARAM);
+        call.complete(true);
+
+        // Assert
+        assertInstanceOf(ProviderTimeoutException.class, ex.getCause());
+        assertFalse(call.isCompletedExceptionally(), "Süre sınırı sağlayıcının future'ını tamamlamamalı");
+        assertEquals(properties.getMaxConcurrency() - 1, whileRunning);
+        assertEquals(properties.getMaxConcurrency(), limiter.availablePermits(PaymentProvider.PARAM));
+    }
+
+    @Test
+    void execute_CallIgnoresInterruptAfterTimeout_HoldsPermitUntilCallReturns() throws Exception {
+        // Arrange
+        ProviderProperties properties = new ProviderProperties();
+        properties.getTimeout().put(PaymentProvider.PARAM, Duration.ofMillis(50));
+        limiter = limiter(properties);
+        CountDownLatch finish = new CountDownLatch(1);
+        CountDownLatch returned = new CountDownLatch(1);
+
+        // Act
+        assertThrows(ProviderTimeoutException.class, () -> limiter.execute(PaymentProvider.PARAM, () -> {
+            awaitUninterruptibly(finish);
+            returned.countDown();
+            return true;
+        }));
+        int whileRunning = limiter.availablePermits(PaymentProvider.PARAM);
+        finish.countDown();
+        assertTrue(returned.await(1, TimeUnit.SECONDS));
+        long deadline = System.nanoTime() + 1_000_000_000L;
+        while (limiter.availablePermits(PaymentProvider.PARAM) < properties.getMaxConcurrency()
+                && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+
+        // Assert
+        assertEquals(properties.getMaxConcurrency() - 1, whileRunning);
+        assertEquals(properties.getMaxConcurrency(), limiter.availablePermits(PaymentProvider.PARAM));
+    }
+
+    @Test
+    void executeIdempotent_SlowFirstAttempt_HedgeAnswers() throws Exception {
+        // Arrange
+        ProviderProperties properties = new ProviderProperties();
+        properties.getHedging().setEnabled(true);
+        properties.getHedging().setFallbackDelay(Duration.ofMillis(20));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        limiter = limiter(properties, meterRegistry);
+        AtomicInteger calls = new AtomicInteger();
+
+        // Act
+        CompletableFuture<Boolean> future = limiter.executeIdempotent(PaymentProvider.PARAM,
+            () -> calls.incrementAndGet() == 1
+                ? new CompletableFuture<>()
+                : CompletableFuture.completedFuture(true));
+
+        // Assert
+        assertTrue(future.get(1, TimeUnit.SECONDS));
+        assertEquals(2, calls.get());
+        assertEquals(1, meterRegistry.get("payment.provider.hedges")
+            .tags("provider", "PARAM", "outcome", "fired").counter().count());
+    }
+
+    // Kesmeye cevap vermeyen sağlayıcı istemcisini taklit eder
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        while (true) {
+            try {
+                latch.await();
+                return;
+            } catch (InterruptedException ignored) {
+                // Kesme yok sayılır, çağrı sürer
+            }
+        }
+    }
+
+    private static ProviderConcurrencyLimiter limiter(ProviderProperties properties) {
+        return limiter(properties, new SimpleMeterRegistry());
+    }
+
+    private static ProviderConcurrencyLimiter limiter(ProviderProperties properties,
+                                                      SimpleMeterRegistry meterRegistry) {
+        return limiter(properties, new ProviderCircuitBreaker(properties, Clock.systemUTC(), meterRegistry),
+            meterRegistry);
+    }
+
+    private static ProviderConcurrencyLimiter limiter(ProviderProperties properties,
+                                                      ProviderCircuitBreaker circuitBreaker,
+                                                      SimpleMeterRegistry meterRegistry) {
+        ProviderStats stats = new ProviderStats(new RoutingProperties(), Clock.systemUTC());
+        return new ProviderConcurrencyLimiter(properties, stats, circuitBreaker,
+            new ProviderRetryExecutor(properties, stats,
+                new ProviderRetryBudget(properties, Clock.systemUTC(), meterRegistry), meterRegistry),
+            new ProviderCallTimeout(properties), meterRegistry);
+    }
+}
@@ -0,0 +1,64 @@
+package com.denizcan.paymentorchestration.service.provider;
+
+import com.denizcan.paymentorchestration.config.ProviderProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProviderRetryBudgetTest {
+
+    private final MutableClock clock = new MutableClock();
+    private ProviderRetryBudget budget;
+
+    @BeforeEach
+    void setUp() {
+        ProviderProperties properties = new ProviderProperties();
+        properties.getRetry().setBudgetBurst(2);
+        properties.getRetry().setBudgetRatio(0.1);
+        properties.getRetry().setBudgetMinPerSecond(1);
+        budget = new ProviderRetryBudget(properties, clock, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void tryAcquire_BurstSpent_RejectsUntilRefilled() {
+        // Act & Assert
+        assertTrue(budget.tryAcquire());
+        assertTrue(budget.tryAcquire());
+        assertFalse(budget.tryAcquire());
+
+        clock.advance(Duration.ofSeconds(1));
+        assertTrue(budget.tryAcquire());
+        assertFalse(budget.tryAcquire());
+    }
+
+    @Test
+    void onRequest_TenRequests_EarnOneRetry() {
+        // Arrange
+        budget.tryAcquire();
+        budget.tryAcquire();
+
+        // Act
+        for (int i = 0; i < 10; i++) {
+            budget.onRequest();
+        }
+
+        // Assert
+        assertTrue(budget.tryAcquire());
+        assertFalse(budget.tryAcquire());
+    }
+
+    @Test
+    void onRequest_ManyRequests_CappedAtBurst() {
+        // Act
+        for (int i = 0; i < 1_000; i++) {
+            budget.onRequest();
+        }
+
+        // Assert
+        assertEquals(2.0, budget.available());
+    }
+}
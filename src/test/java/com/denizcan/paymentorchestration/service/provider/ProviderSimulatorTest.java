@@ -0,0 +1,113 @@
+package com.denizcan.paymentorchestration.service.provider;
+
+import com.denizcan.paymentorchestration.config.ProviderProperties;
+import com.denizcan.paymentorchestration.exception.ProviderUnavailableException;
+import com.denizcan.paymentorchestration.model.PaymentProvider;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProviderSimulatorTest {
+
+    private static final int SAMPLES = 20_000;
+
+    @Test
+    void nextLatencyMillis_UniformDistribution_StaysWithinJitter() {
+        // Arrange
+        ProviderProperties.Simulation simulation = new ProviderProperties.Simulation();
+        simulation.setDistribution(ProviderProperties.LatencyDistribution.UNIFORM);
+        simulation.setLatency(Duration.ofMillis(100));
+        simulation.setJitter(Duration.ofMillis(20));
+        ProviderSimulator simulator = new ProviderSimulator(PaymentProvider.PARAM, simulation);
+
+        // Act & Assert
+        for (int i = 0; i < SAMPLES; i++) {
+            long latency = simulator.nextLatencyMillis();
+            assertTrue(latency >= 80 && latency <= 120, "Gecikme aralık dışında: " + latency);
+        }
+    }
+
+    @Test
+    void nextLatencyMillis_LogNormalDistribution_MedianMatchesLatencyWithLongTail() {
+        // Arrange
+        ProviderProperties.Simulation simulation = new ProviderProperties.Simulation();
+        simulation.setDistribution(ProviderProperties.LatencyDistribution.LOG_NORMAL);
+        simulation.setLatency(Duration.ofMillis(50));
+        simulation.setSigma(0.5);
+        ProviderSimulator simulator = new ProviderSimulator(PaymentProvider.PARAM, simulation);
+
+        // Act
+        long[] samples = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            samples[i] = simulator.nextLatencyMillis();
+        }
+        Arrays.sort(samples);
+
+        // Assert
+        long p50 = samples[SAMPLES / 2];
+        long p99 = samples[(int) (SAMPLES * 0.99)];
+        assertTrue(p50 >= 45 && p50 <= 55, "Medyan beklenen aralıkta değil: " + p50);
+        assertTrue(p99 > 2 * p50, "Kuyruk gecikmesi medyandan belirgin şekilde uzun olmalı: " + p99);
+    }
+
+    @Test
+    void nextOutcome_FailureAndErrorRates_AreApplied() {
+        // Arrange
+        ProviderProperties.Simulation simulation = new ProviderProperties.Simulation();
+        simulation.setFailureRate(0.2);
+        simulation.setErrorRate(0.1);
+        ProviderSimulator simulator = new ProviderSimulator(PaymentProvider.PAPARA, simulation);
+
+        // Act
+        int declined = 0;
+        int errors = 0;
+        for (int i = 0; i < SAMPLES; i++) {
+            try {
+                if (!simulator.nextOutcome()) {
+                    declined++;
+                }
+            } catch (ProviderUnavailableException e) {
+                errors++;
+            }
+        }
+
+        // Assert
+        assertEquals(0.2, (double) declined / SAMPLES, 0.02);
+        assertEquals(0.1, (double) errors / SAMPLES, 0.02);
+    }
+
+    @Test
+    void callAsync_ZeroLatency_CompletesWithSuccess() throws Exception {
+        // Arrange
+        ProviderProperties.Simulation simulation = new ProviderProperties.Simulation();
+        simulation.setLatency(Duration.ZERO);
+        ProviderSimulator simulator = new ProviderSimulator(PaymentProvider.PARAM, simulation);
+
+        // Act & Assert
+        assertTrue(simulator.callAsync().get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void callBatchAsync_SameIdempotencyKeys_ReturnsFirstOutcomes() throws Exception {
+        // Arrange
+        ProviderProperties.Simulation simulation = new ProviderProperties.Simulation();
+        simulation.setLatency(Duration.ZERO);
+        simulation.setFailureRate(0.5);
+        ProviderSimulator simulator = new ProviderSimulator(PaymentProvider.PARAM, simulation);
+        List<String> keys = IntStream.range(0, 200).mapToObj(i -> "refund-" + i).toList();
+
+        // Act
+        List<Boolean> first = simulator.callBatchAsync(keys).get(1, TimeUnit.SECONDS);
+        List<Boolean> resent = simulator.callBatchAsync(keys).get(1, TimeUnit.SECONDS);
+
+        // Assert
+        assertTrue(first.contains(true) && first.contains(false));
+        assertEquals(first, resent);
+    }
+}
@@ -0,0 +1,69 @@
+package com.denizcan.paymentorchestration.service.provider;
+
+import com.denizcan.paymentorchestration.config.RoutingProperties;
+import com.denizcan.paymentorchestration.model.PaymentProvider;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProviderStatsTest {
+
+    private final MutableClock clock = new MutableClock();
+
+    @Test
+    void bucketOf_AnyLatency_BucketBoundStaysWithinResolution() {
+        for (long micros = 0; micros < (1L << 30); micros = micros * 3 / 2 + 1) {
+            // Act
+            long highest = ProviderStats.highestValueOf(ProviderStats.bucketOf(micros));
+
+            // Assert
+            assertTrue(highest >= micros, "Kova üst sınırı değerin altında: " + micros);
+            assertTrue(highest <= micros + micros / 8 + 1, "Kova çözünürlüğü aşıldı: " + micros);
+        }
+        assertEquals(ProviderStats.BUCKET_COUNT - 1, ProviderStats.bucketOf(Long.MAX_VALUE / 1_000));
+    }
+
+    @Test
+    void snapshot_RecordedCalls_ReportsPercentilesAndSuccessRatio() {
+        // Arrange
+        ProviderStats stats = new ProviderStats(new RoutingProperties(), clock);
+        for (int i = 1; i <= 100; i++) {
+            stats.record(PaymentProvider.PARAM, TimeUnit.MILLISECONDS.toNanos(i), i % 10 != 0);
+        }
+
+        // Act
+        ProviderStats.Snapshot snapshot = stats.snapshot(PaymentProvider.PARAM);
+
+        // Assert
+        assertEquals(100, snapshot.samples());
+        assertEquals(0.9, snapshot.successRatio(), 1e-9);
+        assertEquals(50_000, snapshot.p50Micros(), 50_000 / 8.0);
+        assertEquals(99_000, snapshot.p99Micros(), 99_000 / 8.0);
+        assertEquals(0, stats.snapshot(PaymentProvider.PAPARA).samples());
+    }
+
+    @Test
+    void snapshot_WindowElapsed_ForgetsOldCalls() {
+        // Arrange
+        RoutingProperties properties = new RoutingProperties();
+        properties.setWindow(Duration.ofSeconds(30));
+        properties.setSlots(6);
+        ProviderStats stats = new ProviderStats(properties, clock);
+        stats.record(PaymentProvider.PARAM, TimeUnit.SECONDS.toNanos(2), false);
+
+        // Act
+        clock.advance(Duration.ofSeconds(20));
+        stats.record(PaymentProvider.PARAM, TimeUnit.MILLISECONDS.toNanos(10), true);
+        ProviderStats.Snapshot withinWindow = stats.snapshot(PaymentProvider.PARAM);
+        clock.advance(Duration.ofSeconds(15));
+        ProviderStats.Snapshot afterWindow = stats.snapshot(PaymentProvider.PARAM);
+
+        // Assert
+        assertEquals(2, withinWindow.samples());
+        assertEquals(1, afterWindow.samples());
+        assertEquals(1.0, afterWindow.successRatio());
+    }
+}
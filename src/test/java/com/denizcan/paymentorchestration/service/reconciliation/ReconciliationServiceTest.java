@@ -0,0 +1,140 @@
+package com.denizcan.paymentorchestration.service.reconciliation;
+
+import com.denizcan.paymentorchestration.config.ReconciliationProperties;
+import com.denizcan.paymentorchestration.model.Currency;
+import com.denizcan.paymentorchestration.model.Money;
+import com.denizcan.paymentorchestration.model.Payment;
+import com.denizcan.paymentorchestration.model.PaymentProvider;
+import com.denizcan.paymentorchestration.model.PaymentStatus;
+import com.denizcan.paymentorchestration.repository.PaymentRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Küçük bellek payı ve dosya sınırıyla birden çok bölüm, dosya ve tekrar bölme üzerinden
+// eşleştirmeyi gerçek veritabanında doğrular. Her eşleştirmeye iki kayıtlık yer düşer.
+@SpringBootTest(properties = {
+    "payment.reconciliation.memory-budget=1KB",
+    "payment.reconciliation.max-open-files=8",
+    "payment.reconciliation.parallelism=2"
+})
+class ReconciliationServiceTest {
+
+    @Autowired
+    private ReconciliationService reconciliationService;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private ReconciliationProperties properties;
+
+    @Test
+    void reconcile_SettlementFiles_ReportsEachMismatchType() throws IOException {
+        // Arrange
+        Payment matched = save(PaymentProvider.PAPARA, "100.00", PaymentStatus.COMPLETED);
+        Payment refunded = save(PaymentProvider.PAPARA, "50.00", PaymentStatus.REFUNDED);
+        Payment failed = save(PaymentProvider.PAPARA, "20.00", PaymentStatus.FAILED);
+        Payment drifted = save(PaymentProvider.PAPARA, "75.00", PaymentStatus.COMPLETED);
+        Payment stuck = save(PaymentProvider.PAPARA, "30.00", PaymentStatus.PROCESSING);
+        Payment unsettled = save(PaymentProvider.PAPARA, "40.00", PaymentStatus.COMPLETED);
+        Payment pending = save(PaymentProvider.PAPARA, "60.00", PaymentStatus.PENDING);
+        Payment otherProvider = save(PaymentProvider.ZIP, "10.00", PaymentStatus.COMPLETED);
+        Path first = write("PAPARA-1.csv",
+            line(matched, "100.00", "SUCCESS"),
+            line(refunded, "50.00", "SUCCESS"),
+            line(failed, "20.00", "FAILURE"),
+            line(drifted, "70.00", "SUCCESS"),
+            "bozuk,satir");
+        Path second = write("PAPARA-2.csv",
+            line(stuck, "30.00", "SUCCESS"),
+            line(otherProvider, "10.00", "SUCCESS"),
+            line(matched, "100.00", "SUCCESS"),
+            "00000000000000-unknown,tx-unknown,5.00,TRY,SUCCESS");
+
+        // Act
+        ReconciliationReport report = reconciliationService.reconcile(PaymentProvider.PAPARA, List.of(first, second));
+
+        // Assert
+        assertEquals(8, report.settlementRecords());
+        assertEquals(Map.of(
+            MismatchType.AMOUNT_DRIFT, 1L,
+            MismatchType.STATUS_DRIFT, 1L,
+            MismatchType.MISSING_AT_PROVIDER, 1L,
+            MismatchType.MISSING_IN_LEDGER, 1L,
+            MismatchType.DUPLICATE, 1L,
+            MismatchType.MALFORMED, 1L), report.mismatches());
+        List<String> lines = Files.readAllLines(report.reportFile());
+        assertEquals("type,payment_id,provider_transaction_id,provider_value,ledger_value", lines.get(0));
+        assertTrue(lines.contains("AMOUNT_DRIFT," + drifted.getId() + ",tx-" + drifted.getId() + ",70.00 TRY,75.00 TRY"));
+        assertTrue(lines.contains("STATUS_DRIFT," + stuck.getId() + ",tx-" + stuck.getId() + ",SUCCESS,PROCESSING"));
+        assertTrue(lines.stream().anyMatch(l -> l.startsWith("MISSING_AT_PROVIDER," + unsettled.getId() + ",")));
+        assertTrue(lines.stream().noneMatch(l -> l.contains(pending.getId())));
+        assertTrue(lines.stream().noneMatch(l -> l.contains(otherProvider.getId())));
+        assertTrue(Files.list(properties.getWorkDir()).findAny().isEmpty());
+    }
+
+    @Test
+    void reconcile_PartitionsOverMemoryBudget_SplitsAndMatchesEveryRecord() throws IOException {
+        // Arrange
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            lines.add(line(save(PaymentProvider.PARAM, "12.50", PaymentStatus.COMPLETED), "12.50", "SUCCESS"));
+        }
+        Path file = write("PARAM-1.csv", lines.toArray(String[]::new));
+
+        // Act
+        ReconciliationReport report = reconciliationService.reconcile(PaymentProvider.PARAM, List.of(file));
+
+        // Assert
+        assertEquals(300, report.settlementRecords());
+        assertEquals(Map.of(), report.mismatches());
+        assertTrue(Files.list(properties.getWorkDir()).findAny().isEmpty());
+    }
+
+    @Test
+    void reconcileInbox_ProviderFiles_MovesThemToProcessed() throws IOException {
+        // Arrange
+        Payment payment = save(PaymentProvider.VISA, "15.00", PaymentStatus.COMPLETED);
+        Files.createDirectories(properties.getInbox());
+        Files.write(properties.getInbox().resolve("VISA-20260101.csv"),
+            List.of(SettlementFileReader.HEADER, line(payment, "15.00", "SUCCESS")));
+        Files.writeString(properties.getInbox().resolve("UNKNOWN-20260101.csv"), SettlementFileReader.HEADER);
+
+        // Act
+        reconciliationService.reconcileInbox();
+
+        // Assert
+        assertTrue(Files.exists(properties.getProcessedDir().resolve("VISA-20260101.csv")));
+        assertTrue(Files.exists(properties.getInbox().resolve("UNKNOWN-20260101.csv")));
+        assertFalse(Files.exists(properties.getInbox().resolve("VISA-20260101.csv")));
+    }
+
+    private Payment save(PaymentProvider provider, String amount, PaymentStatus status) {
+        return paymentRepository.save(Payment.builder()
+            .amount(Money.of(amount, Currency.TRY))
+            .provider(provider)
+            .status(status)
+            .build());
+    }
+
+    private Path write(String name, String... lines) throws IOException {
+        Files.createDirectories(properties.getWorkDir().getParent());
+        Path file = Files.createTempDirectory(properties.getWorkDir().getParent(), "files").resolve(name);
+        Files.writeString(file, SettlementFileReader.HEADER + "\n" + String.join("\n", lines) + "\n");
+        return file;
+    }
+
+    private static String line(Payment payment, String amount, String status) {
+        return payment.getId() + ",tx-" + payment.getId() + "," + amount + ",TRY," + status;
+    }
+}
@@ -0,0 +1,93 @@
+package com.denizcan.paymentorchestration.service.reconciliation;
+
+import com.denizcan.paymentorchestration.model.Currency;
+import com.denizcan.paymentorchestration.model.Money;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SettlementFileReaderTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void read_HeaderAndCrlfLines_ParsesRecords() throws IOException {
+        // Arrange
+        Path file = write(SettlementFileReader.HEADER + "\r\n"
+            + "p-1,tx-1,149.90,TRY,SUCCESS\r\n"
+            + "p-2,tx-2,10,USD,FAILURE\r\n");
+        List<SettlementRecord> records = new ArrayList<>();
+        List<String> malformed = new ArrayList<>();
+
+        // Act
+        long count = SettlementFileReader.read(file, handler(records, malformed));
+
+        // Assert
+        assertEquals(2, count);
+        assertTrue(malformed.isEmpty());
+        assertEquals(new SettlementRecord("p-1", "tx-1", Money.of("149.90", Currency.TRY), true), records.get(0));
+        assertEquals(new SettlementRecord("p-2", "tx-2", Money.of("10", Currency.USD), false), records.get(1));
+    }
+
+    @Test
+    void read_MalformedLines_ReportsLineNumbersAndKeepsGoing() throws IOException {
+        // Arrange
+        Path file = write(SettlementFileReader.HEADER + "\n"
+            + "p-1,tx-1,1.00,TRY\n"
+            + "p-2,tx-2,1.00,XXX,SUCCESS\n"
+            + "p-3,tx-3,abc,TRY,SUCCESS\n"
+            + "p-4,tx-4,1.00,TRY,PENDING\n"
+            + "p-5,tx-5,1.00,TRY,SUCCESS");
+        List<SettlementRecord> records = new ArrayList<>();
+        List<String> malformed = new ArrayList<>();
+
+        // Act
+        long count = SettlementFileReader.read(file, handler(records, malformed));
+
+        // Assert
+        assertEquals(1, count);
+        assertEquals("p-5", records.get(0).paymentId());
+        assertEquals(List.of("2", "3", "4", "5"), malformed);
+    }
+
+    @Test
+    void read_LineLongerThanLimit_ReportsItAsMalformed() throws IOException {
+        // Arrange
+        Path file = write("p-1,tx-1," + "9".repeat(5000) + ",TRY,SUCCESS\np-2,tx-2,1.00,TRY,SUCCESS\n");
+        List<SettlementRecord> records = new ArrayList<>();
+        List<String> malformed = new ArrayList<>();
+
+        // Act
+        SettlementFileReader.read(file, handler(records, malformed));
+
+        // Assert
+        assertEquals(List.of("1"), malformed);
+        assertEquals("p-2", records.get(0).paymentId());
+    }
+
+    private Path write(String content) throws IOException {
+        return Files.writeString(dir.resolve("PARAM-test.csv"), content);
+    }
+
+    private static SettlementFileReader.Handler handler(List<SettlementRecord> records, List<String> malformed) {
+        return new SettlementFileReader.Handler() {
+            @Override
+            public void record(SettlementRecord record) {
+                records.add(record);
+            }
+
+            @Override
+            public void malformed(long lineNumber, String reason) {
+                malformed.add(String.valueOf(lineNumber));
+            }
+        };
+    }
+}
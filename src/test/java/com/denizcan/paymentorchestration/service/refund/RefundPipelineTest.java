@@ -0,0 +1,177 @@
+package com.denizcan.paymentorchestration.service.refund;
+
+import com.denizcan.paymentorchestration.dto.PaymentRequest;
+import com.denizcan.paymentorchestration.exception.PaymentValidationException;
+import com.denizcan.paymentorchestration.model.Currency;
+import com.denizcan.paymentorchestration.model.Money;
+import com.denizcan.paymentorchestration.model.Payment;
+import com.denizcan.paymentorchestration.model.PaymentProvider;
+import com.denizcan.paymentorchestration.model.PaymentStatus;
+import com.denizcan.paymentorchestration.model.Refund;
+import com.denizcan.paymentorchestration.model.RefundStatus;
+import com.denizcan.paymentorchestration.repository.PaymentRepository;
+import com.denizcan.paymentorchestration.repository.RefundRepository;
+import com.denizcan.paymentorchestration.service.PaymentService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Aynı ödemeye eşzamanlı iade isteklerinin toplamının ödeme tutarını aşmadığını,
+// iadelerin sağlayıcıdan sonuçlanıp ödemeye yazıldığını, ulaşılamayan sağlayıcıda deneme
+// hakkının bittiğini ve kiralaması dolan iadelerin devralındığını gerçek veritabanında doğrular
+@SpringBootTest(properties = {
+    "payment.providers.simulation.PARAM.latency=20ms",
+    "payment.providers.simulation.PAPARA.error-rate=1",
+    "payment.refunds.retry-delay=10ms",
+    "payment.refunds.max-attempts=3"
+})
+class RefundPipelineTest {
+
+    private static final int THREADS = 32;
+
+    @Autowired
+    private RefundService refundService;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private RefundRepository refundRepository;
+
+    @Autowired
+    private RefundPipeline pipeline;
+
+    @Test
+    void requestRefund_ConcurrentPartialRefunds_NeverExceedAmount() throws Exception {
+        // Arrange
+        String id = paymentService.createPayment(PaymentRequest.builder()
+            .amount(Money.of("100.00", Currency.TRY))
+            .provider(PaymentProvider.PARAM)
+            .build()).getId();
+        paymentService.completePayment(id);
+
+        // Act
+        List<Refund> accepted = requestConcurrently(id, new BigDecimal("10.00"));
+        List<Refund> settled = awaitSettled(id);
+
+        // Assert
+        assertEquals(10, accepted.size(), "Toplam tutar kadar iade kabul edilmeli");
+        assertEquals(10, settled.size());
+        settled.forEach(refund -> assertEquals(RefundStatus.SUCCEEDED, refund.getStatus()));
+        Payment stored = paymentRepository.findById(id).orElseThrow();
+        assertEquals(PaymentStatus.REFUNDED, stored.getStatus());
+        assertEquals(Money.of("100.00", Currency.TRY), stored.getRefundedAmount());
+        assertThrows(PaymentValidationException.class, () -> refundService.requestRefund(id, null));
+    }
+
+    @Test
+    void requestRefund_ProviderUnreachable_FailsPermanentlyAfterMaxAttempts() throws Exception {
+        // Arrange
+        String id = completedPayment(PaymentProvider.PAPARA);
+
+        // Act
+        Refund refund = refundService.requestRefund(id, new BigDecimal("25.00"));
+        List<Refund> settled = awaitSettled(id);
+
+        // Assert
+        assertEquals(1, settled.size());
+        assertEquals(RefundStatus.FAILED_PERMANENT, settled.get(0).getStatus());
+        assertEquals(3, settled.get(0).getAttempts());
+        assertEquals(refund.getId(), settled.get(0).getId());
+        // Sağlayıcıda gerçekleşmiş olabileceği için tutar ayrılı kalır
+        Payment stored = paymentRepository.findById(id).orElseThrow();
+        assertEquals(Money.of("25.00", Currency.TRY), stored.getRefundedAmount());
+    }
+
+    @Test
+    void maintainLeases_ExpiredLease_ClaimsOnlyExpiredRefunds() throws Exception {
+        // Arrange
+        Set<PaymentStatus> refundable = EnumSet.of(PaymentStatus.COMPLETED, PaymentStatus.PARTIALLY_REFUNDED);
+        String crashed = completedPayment(PaymentProvider.PARAM);
+        String alive = completedPayment(PaymentProvider.PARAM);
+        Refund orphan = paymentRepository.reserveRefund(crashed, Money.of("10.00", Currency.TRY), refundable,
+            "crashed-node", Instant.now().minusSeconds(1));
+        Refund leased = paymentRepository.reserveRefund(alive, Money.of("10.00", Currency.TRY), refundable,
+            "other-node", Instant.now().plus(Duration.ofHours(1)));
+
+        // Act
+        pipeline.maintainLeases();
+        List<Refund> settled = awaitSettled(crashed);
+
+        // Assert
+        assertEquals(orphan.getId(), settled.get(0).getId());
+        assertEquals(RefundStatus.SUCCEEDED, settled.get(0).getStatus());
+        assertEquals(pipeline.owner(), settled.get(0).getLeaseOwner());
+        Refund untouched = refundRepository.findById(leased.getId()).orElseThrow();
+        assertEquals(RefundStatus.PENDING, untouched.getStatus());
+        assertEquals("other-node", untouched.getLeaseOwner());
+    }
+
+    private String completedPayment(PaymentProvider provider) {
+        String id = paymentService.createPayment(PaymentRequest.builder()
+            .amount(Money.of("100.00", Currency.TRY))
+            .provider(provider)
+            .build()).getId();
+        paymentService.completePayment(id);
+        return id;
+    }
+
+    private List<Refund> requestConcurrently(String id, BigDecimal amount) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Refund>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return refundService.requestRefund(id, amount);
+                }));
+            }
+            start.countDown();
+
+            List<Refund> accepted = new ArrayList<>();
+            for (Future<Refund> future : futures) {
+                try {
+                    accepted.add(future.get());
+                } catch (ExecutionException e) {
+                    assertInstanceOf(PaymentValidationException.class, e.getCause());
+                }
+            }
+            return accepted;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private List<Refund> awaitSettled(String id) throws InterruptedException {
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (true) {
+            List<Refund> refunds = refundService.getRefunds(id);
+            if (refunds.stream().noneMatch(refund -> refund.getStatus() == RefundStatus.PENDING)) {
+                return refunds;
+            }
+            if (System.nanoTime() > deadline) {
+                fail("İadeler zamanında sonuçlanmadı: " + refunds);
+            }
+            Thread.sleep(20);
+        }
+    }
+}
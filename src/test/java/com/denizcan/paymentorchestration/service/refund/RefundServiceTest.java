@@ -0,0 +1,214 @@
+package com.denizcan.paymentorchestration.service.refund;
+
+import com.denizcan.paymentorchestration.config.RefundProperties;
+import com.denizcan.paymentorchestration.exception.InvalidStatusTransitionException;
+import com.denizcan.paymentorchestration.exception.PaymentValidationException;
+import com.denizcan.paymentorchestration.exception.RefundBacklogException;
+import com.denizcan.paymentorchestration.factory.PaymentProviderFactory;
+import com.denizcan.paymentorchestration.model.Currency;
+import com.denizcan.paymentorchestration.model.Money;
+import com.denizcan.paymentorchestration.model.Payment;
+import com.denizcan.paymentorchestration.model.PaymentProvider;
+import com.denizcan.paymentorchestration.model.PaymentStatus;
+import com.denizcan.paymentorchestration.model.Refund;
+import com.denizcan.paymentorchestration.model.RefundStatus;
+import com.denizcan.paymentorchestration.repository.PaymentRepository;
+import com.denizcan.paymentorchestration.repository.RefundRepository;
+import com.denizcan.paymentorchestration.service.JpaPaymentTransitions;
+import com.denizcan.paymentorchestration.service.PaymentCache;
+import com.denizcan.paymentorchestration.service.PaymentService;
+import com.denizcan.paymentorchestration.service.PaymentStateMachine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RefundServiceTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-31T00:00:00Z");
+
+    @Mock
+    private PaymentService paymentService;
+
+    @Mock
+    private PaymentRepository paymentRepository;
+
+    @Mock
+    private RefundRepository refundRepository;
+
+    @Mock
+    private PaymentCache paymentCache;
+
+    @Mock
+    private PaymentProviderFactory providerFactory;
+
+    @Mock
+    private RefundPipeline pipeline;
+
+    private RefundService refundService;
+
+    private final String paymentId = "test-id";
+
+    @BeforeEach
+    void setUp() {
+        refundService = new RefundService(paymentService, paymentRepository, refundRepository,
+            paymentCache, new PaymentStateMachine(), new JpaPaymentTransitions(paymentRepository), providerFactory, pipeline,
+            new RefundProperties(), Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void requestRefund_PartialAmount_ReservesAndSubmits() {
+        // Arrange
+        when(paymentService.getPaymentById(paymentId)).thenReturn(payment(PaymentStatus.COMPLETED, "0.00"));
+        Refund refund = refund("30.00");
+        when(paymentRepository.reserveRefund(eq(paymentId), eq(Money.of("30.00", Currency.TRY)), any(), any(), any())).thenReturn(refund);
+
+        // Act
+        Refund result = refundService.requestRefund(paymentId, new BigDecimal("30.00"));
+
+        // Assert
+        assertSame(refund, result);
+        verify(paymentCache).evict(paymentId);
+        verify(pipeline).submit(refund);
+    }
+
+    @Test
+    void requestRefund_WithoutAmount_RefundsRemainingAmount() {
+        // Arrange
+        when(paymentService.getPaymentById(paymentId)).thenReturn(payment(PaymentStatus.PARTIALLY_REFUNDED, "40.00"));
+        Refund refund = refund("60.00");
+        when(paymentRepository.reserveRefund(eq(paymentId), eq(Money.of("60.00", Currency.TRY)), any(), any(), any())).thenReturn(refund);
+
+        // Act
+        Refund result = refundService.requestRefund(paymentId, null);
+
+        // Assert
+        assertEquals(Money.of("60.00", Currency.TRY), result.getAmount());
+        verify(pipeline).submit(refund);
+    }
+
+    @Test
+    void requestRefund_ExceedsRemaining_ThrowsValidationException() {
+        // Arrange
+        when(paymentService.getPaymentById(paymentId)).thenReturn(payment(PaymentStatus.PARTIALLY_REFUNDED, "80.00"));
+        when(paymentRepository.reserveRefund(anyString(), any(), any(), any(), any())).thenReturn(null);
+
+        // Act & Assert
+        assertThrows(PaymentValidationException.class,
+            () -> refundService.requestRefund(paymentId, new BigDecimal("30.00")));
+        verify(pipeline, never()).submit(any());
+    }
+
+    @Test
+    void requestRefund_NotCompleted_ThrowsInvalidTransition() {
+        // Arrange
+        when(paymentService.getPaymentById(paymentId)).thenReturn(payment(PaymentStatus.PENDING, "0.00"));
+        when(paymentRepository.reserveRefund(anyString(), any(), any(), any(), any())).thenReturn(null);
+
+        // Act & Assert
+        assertThrows(InvalidStatusTransitionException.class,
+            () -> refundService.requestRefund(paymentId, new BigDecimal("10.00")));
+        verify(pipeline, never()).submit(any());
+    }
+
+    @Test
+    void requestRefund_PastRefundWindow_ThrowsValidationExceptionWithoutReserving() {
+        // Arrange
+        Payment old = payment(PaymentStatus.COMPLETED, "0.00");
+        old.setCreatedAt(NOW.minus(new RefundProperties().getWindow()));
+        when(paymentService.getPaymentById(paymentId)).thenReturn(old);
+
+        // Act & Assert
+        PaymentValidationException ex = assertThrows(PaymentValidationException.class,
+            () -> refundService.requestRefund(paymentId, new BigDecimal("10.00")));
+        assertTrue(ex.getMessage().contains("süresi dolmuş"));
+        verifyNoInteractions(paymentRepository, pipeline);
+    }
+
+    @Test
+    void requestRefund_ArchivedPayment_ThrowsValidationExceptionWithoutReserving() {
+        // Arrange
+        // Süresi içinde ama arşivde: iade süresi arşivlendikten sonra uzatılmış
+        Payment archived = payment(PaymentStatus.COMPLETED, "0.00");
+        archived.setArchived(true);
+        when(paymentService.getPaymentById(paymentId)).thenReturn(archived);
+
+        // Act & Assert
+        PaymentValidationException ex = assertThrows(PaymentValidationException.class,
+            () -> refundService.requestRefund(paymentId, new BigDecimal("10.00")));
+        assertTrue(ex.getMessage().contains("Arşivlenmiş"));
+        verifyNoInteractions(paymentRepository, pipeline);
+    }
+
+    @Test
+    void requestRefund_ArchivedWhileReserving_ThrowsValidationException() {
+        // Arrange
+        Payment archived = payment(PaymentStatus.COMPLETED, "0.00");
+        archived.setArchived(true);
+        archived.setCreatedAt(NOW.minus(Duration.ofDays(31)));
+        when(paymentService.getPaymentById(paymentId))
+            .thenReturn(payment(PaymentStatus.COMPLETED, "0.00"))
+            .thenReturn(archived);
+        when(paymentRepository.reserveRefund(anyString(), any(), any(), any(), any())).thenReturn(null);
+
+        // Act & Assert
+        assertThrows(PaymentValidationException.class,
+            () -> refundService.requestRefund(paymentId, new BigDecimal("10.00")));
+        verify(pipeline, never()).submit(any());
+    }
+
+    @Test
+    void requestRefund_NonPositiveAmount_ThrowsValidationException() {
+        // Act & Assert
+        assertThrows(PaymentValidationException.class,
+            () -> refundService.requestRefund(paymentId, BigDecimal.ZERO));
+        verifyNoInteractions(paymentRepository, pipeline);
+    }
+
+    @Test
+    void requestRefund_PipelineFull_DoesNotReserveAmount() {
+        // Arrange
+        when(paymentService.getPaymentById(paymentId)).thenReturn(payment(PaymentStatus.COMPLETED, "0.00"));
+        doThrow(new RefundBacklogException("dolu")).when(pipeline).checkCapacity();
+
+        // Act & Assert
+        assertThrows(RefundBacklogException.class,
+            () -> refundService.requestRefund(paymentId, new BigDecimal("10.00")));
+        verifyNoInteractions(paymentRepository);
+    }
+
+    private Payment payment(PaymentStatus status, String refunded) {
+        return Payment.builder()
+            .id(paymentId)
+            .amount(Money.of("100.00", Currency.TRY))
+            .refundedAmount(Money.of(refunded, Currency.TRY))
+            .provider(PaymentProvider.PARAM)
+            .status(status)
+            .createdAt(NOW.minus(Duration.ofDays(1)))
+            .build();
+    }
+
+    private Refund refund(String amount) {
+        return Refund.builder()
+            .id("refund-id")
+            .paymentId(paymentId)
+            .provider(PaymentProvider.PARAM)
+            .amount(Money.of(amount, Currency.TRY))
+            .status(RefundStatus.PENDING)
+            .build();
+    }
+}
@@ -0,0 +1,101 @@
+package com.denizcan.paymentorchestration.service.webhook;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WebhookJournalTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void replay_AfterCheckpoint_ReturnsOnlyUnappliedRecords() throws IOException {
+        // Arrange
+        List<Long> offsets = new ArrayList<>();
+        try (WebhookJournal journal = new WebhookJournal(dir, true)) {
+            for (String record : List.of("a", "b", "c")) {
+                journal.append(bytes(record), offsets::add);
+            }
+            journal.checkpoint(offsets.get(0), Long.MAX_VALUE);
+        }
+
+        // Act
+        List<String> replayed = replay();
+
+        // Assert
+        assertEquals(List.of("b", "c"), replayed);
+    }
+
+    @Test
+    void replay_TornTail_DropsPartialRecordAndKeepsAppending() throws IOException {
+        // Arrange
+        try (WebhookJournal journal = new WebhookJournal(dir, false)) {
+            journal.append(bytes("tam"), offset -> { });
+        }
+        try (FileChannel log = FileChannel.open(dir.resolve("webhooks.wal"), StandardOpenOption.WRITE)) {
+            // Çökme anında yarım kalmış kayıt: başlık 100 bayt diyor ama içerik eksik
+            log.write(ByteBuffer.allocate(10).putInt(0, 100), log.size());
+        }
+
+        // Act
+        List<String> replayed = new ArrayList<>();
+        try (WebhookJournal journal = new WebhookJournal(dir, false)) {
+            journal.replay((offset, payload) -> replayed.add(new String(payload, StandardCharsets.UTF_8)));
+            journal.append(bytes("sonraki"), offset -> { });
+        }
+
+        // Assert
+        assertEquals(List.of("tam"), replayed);
+        assertEquals(List.of("tam", "sonraki"), replay());
+    }
+
+    @Test
+    void checkpoint_FullyAppliedAboveThreshold_TruncatesLog() throws IOException {
+        // Arrange
+        try (WebhookJournal journal = new WebhookJournal(dir, false)) {
+            long[] end = new long[1];
+            journal.append(bytes("a"), offset -> end[0] = offset);
+            journal.append(bytes("b"), offset -> end[0] = offset);
+
+            // Act
+            journal.checkpoint(end[0], 1);
+
+            // Assert
+            assertEquals(0, journal.size());
+            journal.append(bytes("c"), offset -> { });
+        }
+        assertEquals(List.of("c"), replay());
+    }
+
+    @Test
+    void constructor_JournalAlreadyOpen_Throws() throws IOException {
+        // Arrange
+        try (WebhookJournal ignored = new WebhookJournal(dir, false)) {
+            // Act & Assert
+            assertThrows(Exception.class, () -> new WebhookJournal(dir, false).close());
+        }
+    }
+
+    private List<String> replay() throws IOException {
+        List<String> records = new ArrayList<>();
+        try (WebhookJournal journal = new WebhookJournal(dir, false)) {
+            journal.replay((offset, payload) -> records.add(new String(payload, StandardCharsets.UTF_8)));
+        }
+        return records;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,104 @@
+package com.denizcan.paymentorchestration.service.webhook;
+
+import com.denizcan.paymentorchestration.dto.WebhookRequest;
+import com.denizcan.paymentorchestration.exception.IdempotencyConflictException;
+import com.denizcan.paymentorchestration.model.Currency;
+import com.denizcan.paymentorchestration.model.Money;
+import com.denizcan.paymentorchestration.model.Payment;
+import com.denizcan.paymentorchestration.model.PaymentProvider;
+import com.denizcan.paymentorchestration.model.PaymentStatus;
+import com.denizcan.paymentorchestration.repository.PaymentRepository;
+import com.denizcan.paymentorchestration.service.PaymentService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Günlüğe eklenen webhook'ların arka planda gerçek veritabanına uygulandığını doğrular
+@SpringBootTest
+class WebhookQueueTest {
+
+    @Autowired
+    private WebhookQueue webhookQueue;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void append_MixedResults_AppliedInBackgroundFirstResultWins() throws Exception {
+        // Arrange
+        String completed = createPayment().getId();
+        String failed = createPayment().getId();
+        paymentService.getPaymentById(completed); // Önbellekteki eski kopya da güncellenmeli
+        double processedBefore = processed("applied") + processed("ignored");
+
+        // Act
+        webhookQueue.append(webhook(completed, "SUCCESS"));
+        webhookQueue.append(webhook(failed, "FAILURE"));
+        webhookQueue.append(webhook(completed, "FAILURE")); // Sonuçlanmış ödemeyi değiştirmemeli
+        webhookQueue.append(webhook(completed, "SUCCESS")); // Tekrar gönderim
+        webhookQueue.append(webhook(UUID.randomUUID().toString(), "SUCCESS"));
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (processed("applied") + processed("ignored") - processedBefore < 5) {
+            assertTrue(System.nanoTime() < deadline, "Webhook'lar zamanında uygulanmadı");
+            Thread.sleep(10);
+        }
+
+        // Assert
+        assertEquals(PaymentStatus.COMPLETED, paymentService.getPaymentById(completed).getStatus());
+        assertEquals(PaymentStatus.FAILED, paymentService.getPaymentById(failed).getStatus());
+        assertEquals(1L, paymentRepository.findById(completed).orElseThrow().getVersion());
+        assertEquals(0, webhookQueue.depth());
+    }
+
+    @Test
+    void append_SameProviderTransactionId_JournaledOnce() {
+        // Arrange
+        WebhookRequest first = webhook(createPayment().getId(), "SUCCESS");
+        WebhookRequest resent = webhook(first.getPaymentId(), "SUCCESS");
+        resent.setProviderTransactionId(first.getProviderTransactionId());
+        WebhookRequest conflicting = webhook(first.getPaymentId(), "FAILURE");
+        conflicting.setProviderTransactionId(first.getProviderTransactionId());
+        double duplicatesBefore = processed("duplicate");
+
+        // Act
+        boolean journaled = webhookQueue.append(first);
+        boolean resentJournaled = webhookQueue.append(resent);
+
+        // Assert
+        assertTrue(journaled);
+        assertFalse(resentJournaled);
+        assertEquals(1, processed("duplicate") - duplicatesBefore);
+        assertThrows(IdempotencyConflictException.class, () -> webhookQueue.append(conflicting));
+    }
+
+    private double processed(String outcome) {
+        return meterRegistry.get("payment.webhook.processed").tag("outcome", outcome).counter().count();
+    }
+
+    private Payment createPayment() {
+        return paymentRepository.save(Payment.builder()
+            .amount(Money.of("100.00", Currency.TRY))
+            .provider(PaymentProvider.PARAM)
+            .status(PaymentStatus.PENDING)
+            .build());
+    }
+
+    private static WebhookRequest webhook(String paymentId, String status) {
+        WebhookRequest request = new WebhookRequest();
+        request.setPaymentId(paymentId);
+        request.setStatus(status);
+        request.setProviderTransactionId(UUID.randomUUID().toString());
+        return request;
+    }
+}